@@ -4,8 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -17,6 +22,10 @@ import java.util.List;
 @Configuration
 public class HttpMessageConverterConfig implements WebMvcConfigurer {
 
+    // Компактные бинарные форматы, выбираются клиентом через заголовок Accept
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -36,8 +45,25 @@ public class HttpMessageConverterConfig implements WebMvcConfigurer {
         return converter;
     }
     
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(JacksonConfig.smileMapper());
+    }
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(JacksonConfig.cborMapper());
+    }
+    
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Содержимое вложений (ResponseEntity<Resource>), включая ответы на Range-запросы
+        converters.add(new ByteArrayHttpMessageConverter());
+        converters.add(new ResourceHttpMessageConverter());
+        converters.add(new ResourceRegionHttpMessageConverter());
+        // JSON идет первым и остается форматом по умолчанию для Accept: */*
         converters.add(mappingJackson2HttpMessageConverter());
+        converters.add(mappingJackson2SmileHttpMessageConverter());
+        converters.add(mappingJackson2CborHttpMessageConverter());
     }
-} 
\ No newline at end of file
+}
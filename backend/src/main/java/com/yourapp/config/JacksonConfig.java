@@ -1,21 +1,50 @@
 package com.yourapp.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 @Configuration
 public class JacksonConfig {
 
+    // Форматированный вывод только для отладки (профиль debug): на больших ответах он заметно увеличивает объем
+    @Value("${app.json.indent-output:false}")
+    private boolean indentOutput;
+
     @Bean
     @Primary
     public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        ObjectMapper mapper = configure(new ObjectMapper());
+        
+        if (indentOutput) {
+            mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        }
         
+        return mapper;
+    }
+    
+    /**
+     * Маппер для ответов application/x-jackson-smile с теми же настройками, что и JSON
+     */
+    public static SmileMapper smileMapper() {
+        return configure(new SmileMapper());
+    }
+    
+    /**
+     * Маппер для ответов application/cbor с теми же настройками, что и JSON
+     */
+    public static CBORMapper cborMapper() {
+        return configure(new CBORMapper());
+    }
+    
+    private static <T extends ObjectMapper> T configure(T mapper) {
         // Регистрируем модуль для работы с Java 8 Date/Time API
         mapper.registerModule(new JavaTimeModule());
         
@@ -28,9 +57,6 @@ public class JacksonConfig {
         // Отключаем ошибку при пустых бинах (важно для Hibernate прокси)
         mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
         
-        // Для красивого вывода JSON в логах
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
-        
         return mapper;
     }
-} 
\ No newline at end of file
+} 
@@ -44,7 +44,8 @@ public class SecurityConfig {
                     "/v3/api-docs/**",
                     "/swagger-ui/**",
                     "/swagger-ui.html",
-                    "/uploads/**",
+                    "/uploads/avatars/**",
+                    "/uploads/thumbs/avatars/**",
                     "/static/**",
                     "/ws/**"  // Разрешаем WebSocket endpoints
                 ).permitAll()
@@ -0,0 +1,75 @@
+package com.yourapp.config;
+
+import com.yourapp.storage.CachingBlobStore;
+import com.yourapp.storage.FileBlobStore;
+import com.yourapp.storage.LocalBlobStore;
+import com.yourapp.storage.S3BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Выбор хранилища содержимого вложений: app.storage.driver=local (директория загрузок)
+ * или s3 (S3-совместимый бакет с локальным дисковым кэшем на каждом узле)
+ */
+@Configuration
+public class StorageConfig {
+    private static final Logger logger = LoggerFactory.getLogger(StorageConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.driver", havingValue = "local", matchIfMissing = true)
+    public FileBlobStore localBlobStore(@Value("${app.upload.path:uploads}") String uploadPath) {
+        logger.info("Хранилище вложений: локальная директория {}", uploadPath);
+        return new LocalBlobStore(Paths.get(uploadPath, "blobs"));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.storage.driver", havingValue = "s3")
+    public S3Client s3Client(@Value("${app.storage.s3.endpoint:}") String endpoint,
+                             @Value("${app.storage.s3.region:us-east-1}") String region,
+                             @Value("${app.storage.s3.access-key:}") String accessKey,
+                             @Value("${app.storage.s3.secret-key:}") String secretKey,
+                             @Value("${app.storage.s3.path-style:false}") boolean pathStyle) {
+        AwsCredentialsProvider credentials = StringUtils.hasText(accessKey)
+            ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+            : DefaultCredentialsProvider.create();
+        S3ClientBuilder builder = S3Client.builder()
+            .region(Region.of(region))
+            .credentialsProvider(credentials)
+            // MinIO и большинство S3-совместимых хранилищ не поддерживают адресацию бакета через поддомен
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build());
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.driver", havingValue = "s3")
+    public FileBlobStore s3BlobStore(S3Client s3Client,
+                                 @Value("${app.storage.s3.bucket}") String bucket,
+                                 @Value("${app.storage.s3.prefix:blobs/}") String prefix,
+                                 @Value("${app.storage.s3.part-size:16777216}") long partSize,
+                                 @Value("${app.storage.cache.path:${app.upload.path:uploads}/cache}") String cachePath,
+                                 @Value("${app.storage.cache.max-size:10737418240}") long cacheMaxSize) throws IOException {
+        logger.info("Хранилище вложений: S3 бакет {}, локальный кэш {} ({} байт)", bucket, cachePath, cacheMaxSize);
+        return new CachingBlobStore(new S3BlobStore(s3Client, bucket, prefix, partSize),
+            Paths.get(cachePath), cacheMaxSize);
+    }
+}
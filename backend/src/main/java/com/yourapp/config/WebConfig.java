@@ -2,6 +2,7 @@ package com.yourapp.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -10,6 +11,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.Files;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -35,20 +37,18 @@ public class WebConfig implements WebMvcConfigurer {
         String uploadDir = "file:" + uploadPath + "/";
         log.info("Настройка обработки ресурсов, путь загрузки: {}", uploadDir);
         
-        // Обработчик для аватаров пользователей
+        // Обработчик для аватаров, загруженных до хранилища по хешу. Новые аватары
+        // (/uploads/avatars/blobs/**) отдает AvatarController: обработчики ресурсов проверяются последними
         registry.addResourceHandler("/uploads/avatars/**")
                 .addResourceLocations(uploadDir + "avatars/")
                 .setCachePeriod(3600); // Кеширование на 1 час
         
-        // Обработчик для вложений к задачам
-        registry.addResourceHandler("/uploads/attachments/**")
-                .addResourceLocations(uploadDir + "attachments/")
-                .setCachePeriod(3600);
-        
-        // Обработчик для других изображений и файлов
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(uploadDir)
-                .setCachePeriod(3600);
+        // Миниатюра аватара строится из неизменного пути исходного файла и не меняется.
+        // Вложения и их миниатюры здесь не отдаются: они доступны только через
+        // /api/attachments/{id}/content с проверкой доступа к доске
+        registry.addResourceHandler("/uploads/thumbs/avatars/**")
+                .addResourceLocations(uploadDir + "thumbs/avatars/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable());
     }
     
     /**
@@ -1,6 +1,11 @@
 package com.yourapp.config;
 
+import com.yourapp.security.StompAuthChannelInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.security.config.annotation.web.messaging.MessageSecurityMetadataSourceRegistry;
 import org.springframework.security.config.annotation.web.socket.AbstractSecurityWebSocketMessageBrokerConfigurer;
@@ -9,12 +14,18 @@ import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 /**
- * Конфигурация WebSocket для уведомлений в реальном времени
+ * Конфигурация WebSocket для уведомлений и событий досок в реальном времени.
+ * Порядок выше, чем у конфигурации безопасности сообщений, чтобы пользователь
+ * из JWT был установлен до проверки прав
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@Order(Ordered.HIGHEST_PRECEDENCE + 99)
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Префикс для точек назначения сообщений (куда отправляются сообщения)
@@ -33,6 +44,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS(); // Поддержка для старых браузеров
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // JWT из CONNECT и проверка подписки на /topic/boards/{boardId}
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
     /**
      * Конфигурация безопасности WebSocket
      */
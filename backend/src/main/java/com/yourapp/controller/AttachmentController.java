@@ -0,0 +1,111 @@
+package com.yourapp.controller;
+
+import com.yourapp.model.User;
+import com.yourapp.service.AttachmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Контроллер содержимого вложений
+ */
+@RestController
+@RequestMapping("/api/attachments")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class AttachmentController {
+    // Типы, которые браузер не исполняет как документ: только их можно открыть inline.
+    // SVG и HTML могут содержать скрипты и отдаются только для скачивания
+    private static final Set<MediaType> INLINE_TYPES = Set.of(
+        MediaType.IMAGE_PNG,
+        MediaType.IMAGE_JPEG,
+        MediaType.IMAGE_GIF,
+        MediaType.valueOf("image/webp"),
+        MediaType.valueOf("image/bmp"),
+        MediaType.valueOf("image/avif"),
+        MediaType.APPLICATION_PDF
+    );
+
+    private final AttachmentService attachmentService;
+
+    /**
+     * Содержимое вложения. Заголовок Range (один или несколько диапазонов) обрабатывается
+     * как частичный ответ 206 по ResourceRegion; If-None-Match и If-Modified-Since дают 304
+     * @param id ID вложения
+     * @param download true — отдать как файл для сохранения, иначе для просмотра в браузере
+     *                 (просмотр доступен только для изображений и PDF, остальное всегда скачивается)
+     * @return файл вложения
+     */
+    @GetMapping("/{id}/content")
+    public ResponseEntity<Resource> getContent(
+            @PathVariable Long id,
+            @RequestParam(required = false, defaultValue = "false") boolean download,
+            @AuthenticationPrincipal User currentUser) {
+        return toResponse(attachmentService.getContent(id, currentUser), download);
+    }
+
+    /**
+     * Миниатюра изображения-вложения. Пока миниатюра не создана, отвечает 404,
+     * и клиент показывает исходный файл через /content
+     * @param id ID вложения
+     * @param size размер миниатюры в пикселях (app.images.attachment-sizes)
+     * @return PNG-миниатюра
+     */
+    @GetMapping("/{id}/thumbnail")
+    public ResponseEntity<Resource> getThumbnail(
+            @PathVariable Long id,
+            @RequestParam int size,
+            @AuthenticationPrincipal User currentUser) {
+        return toResponse(attachmentService.getThumbnail(id, size, currentUser), false);
+    }
+
+    private ResponseEntity<Resource> toResponse(AttachmentService.AttachmentContent content, boolean download) {
+        // Содержимое по хешу не меняется: повторные открытия не идут на сервер
+        CacheControl cacheControl = content.immutable()
+            ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+            : CacheControl.noCache().cachePrivate();
+        // Content-Type задает загрузивший файл пользователь: без nosniff и attachment
+        // HTML или SVG из вложения выполнился бы в origin приложения
+        MediaType mediaType = mediaType(content.contentType());
+        boolean inline = !download && isInlineType(mediaType);
+        ContentDisposition disposition = (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+            .filename(content.fileName() != null ? content.fileName() : "file", StandardCharsets.UTF_8)
+            .build();
+
+        return ResponseEntity.ok()
+            .eTag(content.etag())
+            .lastModified(content.lastModified())
+            .cacheControl(cacheControl)
+            .contentType(mediaType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+            .header("X-Content-Type-Options", "nosniff")
+            .body(new FileSystemResource(content.file()));
+    }
+
+    private static boolean isInlineType(MediaType mediaType) {
+        return INLINE_TYPES.stream().anyMatch(type -> type.equalsTypeAndSubtype(mediaType));
+    }
+
+    private static MediaType mediaType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.yourapp.controller;
+
+import com.yourapp.exception.ResourceNotFoundException;
+import com.yourapp.repository.UserRepository;
+import com.yourapp.service.FileStorageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загруженные аватары и их миниатюры из хранилища по хешу.
+ * Доступны без авторизации, как и раньше файлы /uploads/avatars, но только для содержимого,
+ * которое сейчас является чьим-то аватаром: по хешу нельзя получить файл вложения
+ */
+@RestController
+@RequiredArgsConstructor
+public class AvatarController {
+    // Аватары загружаются только с этими расширениями; SVG и HTML сюда не попадают
+    private static final Map<String, MediaType> CONTENT_TYPES = Map.of(
+        "png", MediaType.IMAGE_PNG,
+        "jpg", MediaType.IMAGE_JPEG,
+        "jpeg", MediaType.IMAGE_JPEG,
+        "gif", MediaType.IMAGE_GIF,
+        "webp", MediaType.valueOf("image/webp")
+    );
+
+    private final FileStorageService fileStorageService;
+    private final UserRepository userRepository;
+
+    /**
+     * Аватар или его миниатюра
+     * @param name ключ содержимого с расширением, например abcd....png или abcd...-sq64.png
+     * @return файл изображения
+     */
+    @GetMapping("/uploads/avatars/blobs/{name:.+}")
+    public ResponseEntity<Resource> getAvatar(@PathVariable String name) {
+        String url = "/uploads/avatars/blobs/" + name;
+        String key = fileStorageService.getBlobKey(url);
+        MediaType mediaType = CONTENT_TYPES.get(name.substring(name.lastIndexOf('.') + 1));
+        if (key == null || mediaType == null || !userRepository.existsByAvatarBlobHash(key.substring(0, 64))) {
+            throw new ResourceNotFoundException("Avatar not found");
+        }
+
+        try {
+            Path file = fileStorageService.getLocalFile(url);
+            // Содержимое по ключу не меняется: новый аватар получает новый путь
+            return ResponseEntity.ok()
+                .eTag("\"" + key + "\"")
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(mediaType)
+                .header("X-Content-Type-Options", "nosniff")
+                .body(new FileSystemResource(file));
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Avatar file not found");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения аватара " + name, e);
+        }
+    }
+}
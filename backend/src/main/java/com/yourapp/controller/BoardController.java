@@ -1,36 +1,67 @@
 package com.yourapp.controller;
 
+import com.yourapp.config.HttpMessageConverterConfig;
 import com.yourapp.model.Board;
 import com.yourapp.model.BoardColumn;
 import com.yourapp.service.BoardService;
+import com.yourapp.service.BoardChangeService;
+import com.yourapp.service.BoardMemberService;
+import com.yourapp.service.BoardMoveService;
+import com.yourapp.service.BoardSnapshotCache;
+import com.yourapp.service.BoardVersionService;
+import com.yourapp.service.PrecompressedResponseCache;
+import com.yourapp.dto.BoardDelta;
+import com.yourapp.dto.BoardMovesRequest;
+import com.yourapp.dto.BoardMovesResult;
+import com.yourapp.dto.BoardSnapshot;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import com.yourapp.model.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
 import com.yourapp.dto.CreateBoardRequest;
 import com.yourapp.exception.ResourceNotFoundException;
 import java.util.stream.Collectors;
 import com.yourapp.model.Role;
 import com.yourapp.model.BoardMember;
+import com.yourapp.util.RankConflicts;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping(
     value = "/api/boards",
-    produces = MediaType.APPLICATION_JSON_VALUE
+    produces = {
+        MediaType.APPLICATION_JSON_VALUE,
+        HttpMessageConverterConfig.APPLICATION_SMILE_VALUE,
+        HttpMessageConverterConfig.APPLICATION_CBOR_VALUE
+    }
 )
 @RequiredArgsConstructor
 @CrossOrigin(origins = "http://localhost:5173")
 public class BoardController {
     private static final Logger logger = LoggerFactory.getLogger(BoardController.class);
+    private static final MediaType SMILE = MediaType.valueOf(HttpMessageConverterConfig.APPLICATION_SMILE_VALUE);
+    private static final MediaType CBOR = MediaType.valueOf(HttpMessageConverterConfig.APPLICATION_CBOR_VALUE);
     private final BoardService boardService;
+    private final BoardSnapshotCache boardSnapshotCache;
+    private final BoardVersionService boardVersionService;
+    private final BoardChangeService boardChangeService;
+    private final BoardMemberService boardMemberService;
+    private final BoardMoveService boardMoveService;
+    private final PrecompressedResponseCache precompressedResponseCache;
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> createBoard(
@@ -168,70 +199,236 @@ public class BoardController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Board> getBoard(@PathVariable String id, @AuthenticationPrincipal User user) {
+    public ResponseEntity<BoardSnapshot> getBoard(
+        @PathVariable String id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        @AuthenticationPrincipal User user,
+        HttpServletResponse response
+    ) throws IOException {
         logger.info("Запрос на получение доски с ID: {}, пользователь: {}", id, user != null ? user.getUsername() : "null");
         
         try {
-            Board board = boardService.getBoard(id);
-            
-            // В DTO добавляем флаг, является ли текущий пользователь владельцем
-            boolean isOwner = user != null && board.getOwner() != null && board.getOwner().getId().equals(user.getId());
-            logger.info("Доска найдена. Владелец: {}. Текущий пользователь - владелец: {}", 
-                       board.getOwner() != null ? board.getOwner().getUsername() : "null", isOwner);
-            
-            // Проверяем, является ли пользователь участником с ролью ADMIN
-            boolean isAdmin = isOwner; // По умолчанию владелец всегда админ
-            String roleName = "ADMIN"; // Значение по умолчанию для владельца
-            Long roleId = null;
-            
-            if (user != null) {
-                if (isOwner) {
-                    // Если пользователь владелец, ищем системную роль ADMIN
-                    try {
-                        Role adminRole = boardService.getRoleService().getSystemRoleByName("ADMIN");
-                        roleId = adminRole.getId();
-                    } catch (Exception e) {
-                        logger.warn("Не удалось найти системную роль ADMIN: {}", e.getMessage());
-                    }
+            // currentUser зависит от пользователя, поэтому он входит в ETag вместе с версией доски
+            long version = boardVersionService.currentVersion(id);
+            String etag = boardETag(version, user);
+            if (etagMatches(ifNoneMatch, etag)) {
+                logger.debug("Доска {} не изменилась (версия {})", id, version);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).build();
+            }
+
+            BoardSnapshot snapshot = boardSnapshotCache.getOrLoad(id, version);
+            etag = boardETag(snapshot.getVersion(), user);
+            Map<String, Object> currentUserInfo = currentUserInfo(id, snapshot, user);
+
+            if (prefersJson(accept)) {
+                // Общая часть JSON сериализуется и сжимается один раз на версию доски,
+                // на каждый запрос дописывается только currentUser
+                String encoding = acceptsGzip(acceptEncoding)
+                    ? PrecompressedResponseCache.GZIP : PrecompressedResponseCache.IDENTITY;
+                PrecompressedResponseCache.Payload payload = precompressedResponseCache.get(
+                    "board:" + id, snapshot.getVersion(), snapshot, Map.of("currentUser", currentUserInfo), encoding);
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                if (PrecompressedResponseCache.GZIP.equals(payload.encoding())) {
+                    response.setHeader(HttpHeaders.CONTENT_ENCODING, payload.encoding());
+                    // Сжатое представление отличается побайтно, поэтому ETag слабый
+                    response.setHeader(HttpHeaders.ETAG, "W/" + etag);
                 } else {
-                    // Если пользователь не владелец, получаем его роль
-                    try {
-                        BoardMember boardMember = boardService.getBoardMember(id, user.getId());
-                        if (boardMember != null && boardMember.getRole() != null) {
-                            roleName = boardMember.getRole().getName();
-                            roleId = boardMember.getRole().getId();
-                            isAdmin = "ADMIN".equalsIgnoreCase(roleName);
-                            logger.info("Пользователь {} имеет роль {} на доске {}", 
-                                user.getUsername(), roleName, id);
-                        } else {
-                            logger.info("Пользователь {} не является участником доски {}", 
-                                user.getUsername(), id);
-                            roleName = null; // Нет роли, если не участник
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Ошибка при получении роли пользователя: {}", e.getMessage());
-                        roleName = null;
-                    }
+                    response.setHeader(HttpHeaders.ETAG, etag);
                 }
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+                response.setContentLengthLong(payload.contentLength());
+                payload.writeTo(response.getOutputStream());
+                return null;
             }
-            
-            // Добавляем информацию о текущем пользователе в объект доски
-            Map<String, Object> currentUserInfo = new HashMap<>();
-            currentUserInfo.put("id", user != null ? user.getId() : 0);
-            currentUserInfo.put("isAdmin", isAdmin); // Оставляем для обратной совместимости
-            currentUserInfo.put("role", roleName); // Добавляем название роли
-            if (roleId != null) {
-                currentUserInfo.put("roleId", roleId); // Добавляем ID роли, если доступен
-            }
+
+            BoardSnapshot board = snapshot.copyForResponse();
             board.setAdditionalProperty("currentUser", currentUserInfo);
-            
-            return ResponseEntity.ok(board);
+            // Формат ответа выбирается по Accept, поэтому кэши хранят варианты раздельно
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(board);
         } catch (Exception e) {
             logger.error("Ошибка при получении доски с ID: {}", id, e);
             throw e;
         }
     }
 
+    /**
+     * Роль текущего пользователя на доске для поля currentUser
+     */
+    private Map<String, Object> currentUserInfo(String id, BoardSnapshot board, User user) {
+        // В DTO добавляем флаг, является ли текущий пользователь владельцем
+        boolean isOwner = user != null && board.getOwnerId() != null && board.getOwnerId().equals(user.getId());
+        logger.info("Доска найдена. Владелец: {}. Текущий пользователь - владелец: {}", 
+                   board.getOwnerId(), isOwner);
+        
+        // Проверяем, является ли пользователь участником с ролью ADMIN
+        boolean isAdmin = isOwner; // По умолчанию владелец всегда админ
+        String roleName = "ADMIN"; // Значение по умолчанию для владельца
+        Long roleId = null;
+        
+        if (user != null) {
+            if (isOwner) {
+                // Если пользователь владелец, ищем системную роль ADMIN
+                try {
+                    Role adminRole = boardService.getRoleService().getSystemRoleByName("ADMIN");
+                    roleId = adminRole.getId();
+                } catch (Exception e) {
+                    logger.warn("Не удалось найти системную роль ADMIN: {}", e.getMessage());
+                }
+            } else {
+                // Если пользователь не владелец, получаем его роль
+                try {
+                    BoardMember boardMember = boardService.getBoardMember(id, user.getId());
+                    if (boardMember != null && boardMember.getRole() != null) {
+                        roleName = boardMember.getRole().getName();
+                        roleId = boardMember.getRole().getId();
+                        isAdmin = "ADMIN".equalsIgnoreCase(roleName);
+                        logger.info("Пользователь {} имеет роль {} на доске {}", 
+                            user.getUsername(), roleName, id);
+                    } else {
+                        logger.info("Пользователь {} не является участником доски {}", 
+                            user.getUsername(), id);
+                        roleName = null; // Нет роли, если не участник
+                    }
+                } catch (Exception e) {
+                    logger.warn("Ошибка при получении роли пользователя: {}", e.getMessage());
+                    roleName = null;
+                }
+            }
+        }
+        
+        // Добавляем информацию о текущем пользователе в объект доски
+        Map<String, Object> currentUserInfo = new HashMap<>();
+        currentUserInfo.put("id", user != null ? user.getId() : 0);
+        currentUserInfo.put("isAdmin", isAdmin); // Оставляем для обратной совместимости
+        currentUserInfo.put("role", roleName); // Добавляем название роли
+        if (roleId != null) {
+            currentUserInfo.put("roleId", roleId); // Добавляем ID роли, если доступен
+        }
+        return currentUserInfo;
+    }
+
+    /**
+     * Изменения доски после версии since: только созданные, измененные и удаленные
+     * колонки, статусы, типы и задачи, либо полный снимок, если журнал не покрывает since
+     */
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<BoardDelta> getBoardChanges(
+        @PathVariable String id,
+        @RequestParam long since,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        // Проверка в контроллере: BoardMemberService сам зависит от BoardChangeService
+        if (currentUser == null || !boardMemberService.hasBoardAccess(id, currentUser.getId())) {
+            throw new AccessDeniedException("Нет доступа к доске " + id);
+        }
+        BoardDelta delta = boardChangeService.getChanges(id, since);
+        logger.debug("Изменения доски {} с версии {}: версия {}, полный снимок: {}",
+            id, since, delta.getVersion(), delta.isFull());
+        return ResponseEntity.ok(delta);
+    }
+
+    /**
+     * Пакет перемещений задач доски за один запрос: проверка, одна транзакция,
+     * одно событие доски и одна запись истории на каждую задачу, сменившую колонку
+     */
+    @PostMapping(value = "/{id}/moves", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BoardMovesResult> moveTasks(
+        @PathVariable String id,
+        @Valid @RequestBody BoardMovesRequest request,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        BoardMovesResult result = RankConflicts.retry(() -> boardMoveService.applyMoves(id, request.getMoves(), currentUser));
+        logger.debug("Пакетное перемещение на доске {}: {} задач, версия {}",
+            id, result.getTasks().size(), result.getVersion());
+        return ResponseEntity.ok(result);
+    }
+
+    private static String boardETag(long version, User user) {
+        return "\"" + version + "-" + (user != null ? user.getId() : 0) + "\"";
+    }
+
+    // JSON или Smile/CBOR по заголовку Accept. Для MediaType сортировка по точности сначала сравнивает q,
+    // а при равном q ставит более точный тип раньше маски, как при стандартном согласовании:
+    // "application/x-jackson-smile;q=0.5, application/json" дает JSON, "*/*, application/x-jackson-smile" — Smile.
+    // Формат, для которого самый точный подходящий тип имеет q=0, не выбирается и через маску
+    static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            MimeTypeUtils.sortBySpecificity(mediaTypes);
+        } catch (IllegalArgumentException e) {
+            // Некорректный или слишком длинный заголовок разбирает стандартное согласование формата
+            return false;
+        }
+
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                break;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) && !refused(mediaTypes, MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if ((mediaType.isCompatibleWith(SMILE) && !refused(mediaTypes, SMILE))
+                    || (mediaType.isCompatibleWith(CBOR) && !refused(mediaTypes, CBOR))) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean refused(List<MediaType> mediaTypes, MediaType format) {
+        MediaType closest = null;
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.includes(format) && (closest == null || precision(mediaType) > precision(closest))) {
+                closest = mediaType;
+            }
+        }
+        return closest != null && closest.getQualityValue() == 0;
+    }
+
+    // 0 для */*, 1 для application/*, 2 для конкретного типа
+    private static int precision(MediaType mediaType) {
+        return mediaType.isWildcardType() ? 0 : mediaType.isWildcardSubtype() ? 1 : 2;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?");
+            return !refused;
+        }
+        return false;
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag) || value.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @PutMapping("/{boardId}/columns/{columnId}")
     public ResponseEntity<Board> updateColumn(
         @PathVariable String boardId,
@@ -3,8 +3,13 @@ package com.yourapp.controller;
 import com.yourapp.dto.BoardMemberDTO;
 import com.yourapp.dto.AddBoardMemberRequest;
 import com.yourapp.dto.UpdateMemberRoleRequest;
+import com.yourapp.dto.UserDto;
+import com.yourapp.model.User;
+import com.yourapp.service.BoardMemberDirectory;
 import com.yourapp.service.BoardMemberService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
 import jakarta.validation.Valid;
@@ -19,6 +24,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BoardMemberController {
     private final BoardMemberService boardMemberService;
+    private final BoardMemberDirectory boardMemberDirectory;
     
     /**
      * Добавляет пользователя к доске
@@ -47,6 +53,27 @@ public class BoardMemberController {
         return ResponseEntity.ok(boardMemberService.getBoardMembers(boardId));
     }
     
+    /**
+     * Автодополнение участников доски для упоминаний. Отвечает из кэша участников доски
+     * @param boardId ID доски
+     * @param prefix начало имени пользователя или отображаемого имени (без учета регистра)
+     * @param limit максимальное количество участников
+     * @return участники доски
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<UserDto>> autocompleteMembers(
+            @PathVariable String boardId,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false, defaultValue = "10") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        
+        if (currentUser == null || !boardMemberDirectory.contains(boardId, currentUser.getId())) {
+            throw new AccessDeniedException("Нет доступа к доске " + boardId);
+        }
+        int actualLimit = Math.max(1, Math.min(limit, 50));
+        return ResponseEntity.ok(boardMemberDirectory.autocomplete(boardId, prefix, actualLimit));
+    }
+    
     /**
      * Обновляет роль участника доски
      * @param boardId ID доски
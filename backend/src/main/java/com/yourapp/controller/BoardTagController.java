@@ -0,0 +1,79 @@
+package com.yourapp.controller;
+
+import com.yourapp.dto.BoardSnapshot;
+import com.yourapp.dto.BoardTagDto;
+import com.yourapp.model.User;
+import com.yourapp.service.BoardTagService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Контроллер словаря тегов доски
+ */
+@RestController
+@RequestMapping(
+    value = "/api/boards/{boardId}/tags",
+    produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class BoardTagController {
+    private final BoardTagService boardTagService;
+
+    /**
+     * Автодополнение тегов доски
+     * @param boardId ID доски
+     * @param prefix начало тега (без учета регистра); без него — все теги доски
+     * @param limit максимальное количество тегов
+     * @return теги в алфавитном порядке с количеством задач
+     */
+    @GetMapping
+    public ResponseEntity<List<BoardTagDto>> getTags(
+            @PathVariable String boardId,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false, defaultValue = "20") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        int actualLimit = Math.max(1, Math.min(limit, 200));
+        return ResponseEntity.ok(boardTagService.autocomplete(boardId, prefix, actualLimit, currentUser));
+    }
+
+    /**
+     * Задачи доски с указанными тегами
+     * @param boardId ID доски
+     * @param tags теги (параметр повторяется: ?tags=a&tags=b)
+     * @param match all — задача содержит все теги, any — хотя бы один
+     * @param limit максимальное количество задач
+     * @return задачи с тегами и подзадачами
+     */
+    @GetMapping("/tasks")
+    public ResponseEntity<List<BoardSnapshot.TaskSnapshot>> getTasksByTags(
+            @PathVariable String boardId,
+            @RequestParam List<String> tags,
+            @RequestParam(required = false, defaultValue = "all") String match,
+            @RequestParam(required = false, defaultValue = "500") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        boolean matchAll = !"any".equalsIgnoreCase(match);
+        int actualLimit = Math.max(1, Math.min(limit, 2000));
+        return ResponseEntity.ok(boardTagService.findTasksByTags(boardId, tags, matchAll, actualLimit, currentUser));
+    }
+
+    /**
+     * Добавление тега в словарь доски
+     * @param boardId ID доски
+     * @param request тело запроса с полем tag
+     * @return теги доски
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BoardTagDto>> addTag(
+            @PathVariable String boardId,
+            @RequestBody Map<String, String> request,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(boardTagService.addTag(boardId, request.get("tag"), currentUser));
+    }
+}
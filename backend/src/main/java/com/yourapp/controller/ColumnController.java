@@ -0,0 +1,45 @@
+package com.yourapp.controller;
+
+import com.yourapp.dto.ColumnTasksPage;
+import com.yourapp.model.User;
+import com.yourapp.service.ColumnTaskService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер задач колонки для бесконечной прокрутки
+ */
+@RestController
+@RequestMapping(
+    value = "/api/columns",
+    produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class ColumnController {
+    private final ColumnTaskService columnTaskService;
+
+    @Value("${app.columns.max-page-size:200}")
+    private int maxPageSize;
+
+    /**
+     * Следующая страница задач колонки
+     * @param id ID колонки
+     * @param after курсор nextCursor из снимка доски или предыдущей страницы
+     * @param limit размер страницы
+     * @return задачи в порядке колонки, общее количество и курсор следующей страницы
+     */
+    @GetMapping("/{id}/tasks")
+    public ResponseEntity<ColumnTasksPage> getTasks(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "50") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        int actualLimit = Math.max(1, Math.min(limit, maxPageSize));
+        return ResponseEntity.ok(columnTaskService.getPage(id, after, actualLimit, currentUser));
+    }
+}
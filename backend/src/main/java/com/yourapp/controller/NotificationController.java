@@ -1,15 +1,13 @@
 package com.yourapp.controller;
 
-import com.yourapp.dto.NotificationDTO;
+import com.yourapp.dto.NotificationPageDTO;
 import com.yourapp.dto.NotificationPreferencesDTO;
 import com.yourapp.model.User;
 import com.yourapp.service.NotificationService;
 import com.yourapp.service.NotificationPreferencesService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -28,45 +26,57 @@ public class NotificationController {
     private final NotificationService notificationService;
     private final NotificationPreferencesService preferencesService;
     
+    @Value("${app.notifications.max-page-size:100}")
+    private int maxPageSize;
+    
     /**
      * Получает уведомления текущего пользователя
      * @param user текущий пользователь
-     * @param pageable пагинация
-     * @return страница уведомлений
+     * @param cursor курсор nextCursor предыдущей страницы; без него — первая страница
+     * @param limit размер страницы
+     * @return страница уведомлений с курсором следующей страницы
      */
     @GetMapping
-    public ResponseEntity<Page<NotificationDTO>> getUserNotifications(
+    public ResponseEntity<NotificationPageDTO> getUserNotifications(
             @AuthenticationPrincipal User user,
-            @PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int limit) {
         
         log.debug("Получение уведомлений для пользователя: id={}, username={}", user.getId(), user.getUsername());
-        return ResponseEntity.ok(notificationService.getUserNotifications(user.getId(), pageable));
+        return ResponseEntity.ok(notificationService.getUserNotifications(user.getId(), cursor, pageSize(limit)));
     }
     
     /**
      * Получает архивированные уведомления текущего пользователя
      * @param user текущий пользователь
-     * @param pageable пагинация
-     * @return страница архивированных уведомлений
+     * @param cursor курсор nextCursor предыдущей страницы; без него — первая страница
+     * @param limit размер страницы
+     * @return страница архивированных уведомлений с курсором следующей страницы
      */
     @GetMapping("/archived")
-    public ResponseEntity<Page<NotificationDTO>> getArchivedNotifications(
+    public ResponseEntity<NotificationPageDTO> getArchivedNotifications(
             @AuthenticationPrincipal User user,
-            @PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int limit) {
         
         log.debug("Получение архивированных уведомлений для пользователя: id={}, username={}", user.getId(), user.getUsername());
-        return ResponseEntity.ok(notificationService.getArchivedNotifications(user.getId(), pageable));
+        return ResponseEntity.ok(notificationService.getArchivedNotifications(user.getId(), cursor, pageSize(limit)));
     }
     
     /**
-     * Получает непрочитанные уведомления текущего пользователя
+     * Получает непрочитанные уведомления текущего пользователя: сначала более приоритетные, затем более новые
      * @param user текущий пользователь
-     * @return список непрочитанных уведомлений
+     * @param cursor курсор nextCursor предыдущей страницы; без него — первая страница
+     * @param limit размер страницы (не больше app.notifications.max-page-size)
+     * @return страница непрочитанных уведомлений с курсором следующей страницы
      */
     @GetMapping("/unread")
-    public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(@AuthenticationPrincipal User user) {
+    public ResponseEntity<NotificationPageDTO> getUnreadNotifications(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") int limit) {
         log.debug("Получение непрочитанных уведомлений для пользователя: id={}, username={}", user.getId(), user.getUsername());
-        return ResponseEntity.ok(notificationService.getUnreadNotifications(user.getId()));
+        return ResponseEntity.ok(notificationService.getUnreadNotifications(user.getId(), cursor, pageSize(limit)));
     }
     
     /**
@@ -227,4 +237,8 @@ public class NotificationController {
         notificationService.markMultipleAsRead(notificationIds, user.getId());
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+    
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+}
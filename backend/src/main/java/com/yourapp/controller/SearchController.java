@@ -0,0 +1,40 @@
+package com.yourapp.controller;
+
+import com.yourapp.dto.TaskSearchResult;
+import com.yourapp.model.User;
+import com.yourapp.service.TaskSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер серверного поиска
+ */
+@RestController
+@RequestMapping(
+    value = "/api/search",
+    produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class SearchController {
+    private final TaskSearchService taskSearchService;
+
+    /**
+     * Полнотекстовый поиск задач по всем доступным доскам
+     * @param q поисковая строка
+     * @param cursor курсор следующей страницы из предыдущего ответа
+     * @param limit размер страницы (не больше app.search.max-limit)
+     * @return найденные задачи по убыванию релевантности
+     */
+    @GetMapping("/tasks")
+    public ResponseEntity<TaskSearchResult> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(taskSearchService.search(q, cursor, limit, currentUser));
+    }
+}
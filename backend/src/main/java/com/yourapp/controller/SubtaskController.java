@@ -5,6 +5,7 @@ import com.yourapp.dto.CreateSubtaskRequest;
 import com.yourapp.dto.UpdateSubtaskRequest;
 import com.yourapp.model.User;
 import com.yourapp.service.SubtaskService;
+import com.yourapp.util.RankConflicts;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -71,7 +72,7 @@ public class SubtaskController {
             subtaskId, taskId, currentUser.getUsername());
         
         try {
-            SubtaskDto subtask = subtaskService.updateSubtask(subtaskId, request);
+            SubtaskDto subtask = RankConflicts.retry(() -> subtaskService.updateSubtask(subtaskId, request));
             logger.debug("Подзадача {} успешно обновлена", subtaskId);
             return ResponseEntity.ok(subtask);
         } catch (IllegalArgumentException e) {
@@ -176,7 +177,7 @@ public class SubtaskController {
             taskId, currentUser.getUsername());
         
         try {
-            List<SubtaskDto> subtasks = subtaskService.reorderSubtasks(taskId, subtaskIds);
+            List<SubtaskDto> subtasks = RankConflicts.retry(() -> subtaskService.reorderSubtasks(taskId, subtaskIds));
             logger.debug("Порядок подзадач для задачи {} успешно изменен", taskId);
             return ResponseEntity.ok(subtasks);
         } catch (RuntimeException e) {
@@ -24,6 +24,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.yourapp.exception.ValidationException;
+import com.yourapp.util.RankConflicts;
 import java.util.HashSet;
 import java.time.LocalDateTime;
 import java.time.Instant;
@@ -355,7 +356,7 @@ public class TaskController {
             }
         }
         
-        Task updatedTask = taskService.updateTask(taskId, updates);
+        Task updatedTask = RankConflicts.retry(() -> taskService.updateTask(taskId, updates));
         return taskMapper.toResponse(updatedTask);
     }
 
@@ -364,7 +365,7 @@ public class TaskController {
         @PathVariable Long taskId,
         @PathVariable Long newColumnId
     ) {
-        return taskMapper.toResponse(taskService.moveTask(taskId, newColumnId));
+        return taskMapper.toResponse(RankConflicts.retry(() -> taskService.moveTask(taskId, newColumnId)));
     }
 
     @PatchMapping("/{taskId}/assign/{userId}")
@@ -544,7 +545,10 @@ public class TaskController {
             }
         }
         
-        Task task = taskService.moveTaskWithPosition(taskId, sourceColumnId, destinationColumnId, newPosition, typeId, statusId);
+        Long targetTypeId = typeId;
+        Long targetStatusId = statusId;
+        Task task = RankConflicts.retry(() -> taskService.moveTaskWithPosition(
+            taskId, sourceColumnId, destinationColumnId, newPosition, targetTypeId, targetStatusId));
         logger.debug("Задача успешно перемещена. Тип: {}, Статус: {}", 
             task.getType() != null ? task.getType().getName() : "null",
             task.getCustomStatus() != null ? task.getCustomStatus().getName() : "null");
@@ -555,19 +559,19 @@ public class TaskController {
      * Получение всех тегов
      */
     @GetMapping("/tags")
-    public Set<String> getAllTags() {
+    public Set<String> getAllTags(@AuthenticationPrincipal User user) {
         logger.debug("Получен запрос на получение всех тегов");
-        return taskService.getAllTags();
+        return taskService.getAllTags(user);
     }
 
     /**
      * Добавление нового тега
      */
     @PostMapping("/tags")
-    public Set<String> addTag(@RequestBody Map<String, String> request) {
+    public Set<String> addTag(@RequestBody Map<String, String> request, @AuthenticationPrincipal User user) {
         String tag = request.get("tag");
         logger.debug("Получен запрос на добавление тега: {}", tag);
-        return taskService.addTag(tag);
+        return taskService.addTag(tag, user);
     }
 
     /**
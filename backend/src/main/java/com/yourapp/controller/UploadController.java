@@ -0,0 +1,82 @@
+package com.yourapp.controller;
+
+import com.yourapp.dto.CreateUploadRequest;
+import com.yourapp.dto.TaskResponse;
+import com.yourapp.dto.UploadSessionDto;
+import com.yourapp.mapper.TaskMapper;
+import com.yourapp.model.Task;
+import com.yourapp.model.User;
+import com.yourapp.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Контроллер загрузки вложений по частям.
+ * Порядок: POST /api/tasks/{taskId}/uploads, затем PUT каждой части с заголовком
+ * X-Chunk-SHA256, затем POST /api/uploads/{id}/complete. После обрыва GET /api/uploads/{id}
+ * показывает принятые части
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:5173")
+public class UploadController {
+    private final UploadSessionService uploadSessionService;
+    private final TaskMapper taskMapper;
+
+    @PostMapping(value = "/tasks/{taskId}/uploads", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UploadSessionDto> createUpload(
+            @PathVariable Long taskId,
+            @Valid @RequestBody CreateUploadRequest request,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(uploadSessionService.create(taskId, request.getFileName(), request.getContentType(),
+            request.getSize(), request.getChunkSize(), currentUser));
+    }
+
+    @GetMapping("/uploads/{id}")
+    public ResponseEntity<UploadSessionDto> getUpload(
+            @PathVariable String id,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(uploadSessionService.get(id, currentUser));
+    }
+
+    /**
+     * Часть файла. Тело читается из потока запроса без multipart-буферизации
+     * @param id ID сессии
+     * @param index номер части, начиная с 0
+     * @param checksum SHA-256 тела в hex
+     * @return состояние загрузки
+     */
+    @PutMapping(value = "/uploads/{id}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDto> putChunk(
+            @PathVariable String id,
+            @PathVariable int index,
+            @RequestHeader(value = "X-Chunk-SHA256", required = false) String checksum,
+            HttpServletRequest request,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+        return ResponseEntity.ok(uploadSessionService.writeChunk(id, index, checksum, request.getInputStream(), currentUser));
+    }
+
+    @PostMapping("/uploads/{id}/complete")
+    public TaskResponse completeUpload(
+            @PathVariable String id,
+            @AuthenticationPrincipal User currentUser) {
+        Task task = uploadSessionService.complete(id, currentUser);
+        return taskMapper.toResponse(task);
+    }
+
+    @DeleteMapping("/uploads/{id}")
+    public ResponseEntity<Void> abortUpload(
+            @PathVariable String id,
+            @AuthenticationPrincipal User currentUser) {
+        uploadSessionService.abort(id, currentUser);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -20,6 +20,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.io.File;
 import java.util.HashMap;
+import java.util.Locale;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,7 +32,9 @@ import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import io.jsonwebtoken.JwtException;
+import com.yourapp.service.AttachmentBlobService;
 import com.yourapp.service.FileStorageService;
+import com.yourapp.service.ImageDerivativeService;
 import com.yourapp.service.TaskService;
 import com.yourapp.service.UserSettingsService;
 import lombok.RequiredArgsConstructor;
@@ -40,11 +44,14 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserController {
     private static final Logger log = LoggerFactory.getLogger(UserController.class);
+    private static final Set<String> AVATAR_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "webp");
 
     private final UserService userService;
     private final TaskService taskService;
     private final UserSettingsService userSettingsService;
     private final FileStorageService fileStorageService;
+    private final AttachmentBlobService attachmentBlobService;
+    private final ImageDerivativeService imageDerivativeService;
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
@@ -303,23 +310,36 @@ public class UserController {
             User user = (User) authentication.getPrincipal();
             log.info("Загрузка аватара для пользователя: {}", user.getUsername());
 
-            // Если у пользователя уже есть аватар, удаляем его
-            if (user.getAvatarUrl() != null && !user.getAvatarUrl().isEmpty()) {
-                log.info("Удаление старого аватара: {}", user.getAvatarUrl());
-                boolean deleteResult = fileStorageService.deleteFile(user.getAvatarUrl());
-                log.info("Результат удаления старого аватара: {}", deleteResult ? "успешно" : "неудачно");
+            // Расширение определяет тип, с которым аватар отдается всем пользователям
+            String extension = avatarExtension(file.getOriginalFilename());
+            if (extension == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Поддерживаются изображения PNG, JPEG, GIF и WebP"));
             }
 
-            // Используем FileStorageService для сохранения файла
-            String avatarUrl = fileStorageService.storeFile(file, "avatars");
+            // Аватар сохраняется в общее хранилище по хешу, чтобы его видели все узлы
+            AttachmentBlobService.StoredBlob blob = attachmentBlobService.store(file);
+            String avatarUrl = fileStorageService.getAvatarBlobUrl(blob.hash(), extension);
             log.info("Аватар успешно сохранен, URL: {}", avatarUrl);
 
-            // Обновляем только URL аватара пользователя в базе данных,
-            // создаем объект только с нужными полями для обновления
-            User userUpdate = new User();
-            userUpdate.setId(user.getId());
-            userUpdate.setAvatarUrl(avatarUrl);
-            User updatedUser = userService.updateUser(user.getId(), userUpdate);
+            // Ссылка старого аватара снимается в той же транзакции, файл удалит сборщик
+            String oldAvatarUrl = user.getAvatarUrl();
+            User updatedUser;
+            try {
+                updatedUser = userService.updateAvatarBlob(user.getId(), avatarUrl, blob.hash());
+            } catch (RuntimeException e) {
+                attachmentBlobService.release(blob.hash());
+                throw e;
+            }
+            imageDerivativeService.generateAvatarThumbnails(user.getId(), avatarUrl);
+
+            // Аватар, загруженный до хранилища по хешу, лежит в директории загрузок
+            if (oldAvatarUrl != null && oldAvatarUrl.startsWith("/uploads/avatars/")
+                    && fileStorageService.getBlobKey(oldAvatarUrl) == null) {
+                log.info("Удаление старого аватара: {}", oldAvatarUrl);
+                imageDerivativeService.deleteThumbnails(oldAvatarUrl);
+                boolean deleteResult = fileStorageService.deleteFile(oldAvatarUrl);
+                log.info("Результат удаления старого аватара: {}", deleteResult ? "успешно" : "неудачно");
+            }
 
             // Возвращаем URL для доступа к аватару и безопасное DTO пользователя
             Map<String, Object> response = new HashMap<>();
@@ -334,4 +354,12 @@ public class UserController {
                     .body(Map.of("error", "Ошибка при загрузке аватара: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private static String avatarExtension(String filename) {
+        if (filename == null || !filename.contains(".")) {
+            return null;
+        }
+        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return AVATAR_EXTENSIONS.contains(extension) ? extension : null;
+    }
+}
@@ -1,8 +1,10 @@
 package com.yourapp.controller;
 
 import com.yourapp.dto.UserDto;
+import com.yourapp.model.User;
 import com.yourapp.service.UserSearchService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
 
@@ -22,6 +24,7 @@ public class UserSearchController {
      * Универсальный поиск пользователей
      * @param query строка поиска
      * @param searchType тип поиска ("username", "email", или null для поиска по обоим полям)
+     * @param boardId искать только среди участников доски (необязательно)
      * @param limit максимальное количество результатов
      * @return список пользователей
      */
@@ -29,12 +32,14 @@ public class UserSearchController {
     public ResponseEntity<List<UserDto>> searchUsers(
             @RequestParam String query,
             @RequestParam(required = false) String searchType,
-            @RequestParam(required = false, defaultValue = "10") int limit) {
+            @RequestParam(required = false) String boardId,
+            @RequestParam(required = false, defaultValue = "10") int limit,
+            @AuthenticationPrincipal User currentUser) {
         
         // Ограничиваем максимальное количество результатов
         int actualLimit = Math.min(limit, 50);
         
-        List<UserDto> users = userSearchService.findByQuery(query, searchType, actualLimit);
+        List<UserDto> users = userSearchService.findByQuery(query, searchType, boardId, currentUser, actualLimit);
         return ResponseEntity.ok(users);
     }
     
@@ -0,0 +1,43 @@
+package com.yourapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ответ GET /api/boards/{id}/changes?since={version}.
+ * Содержит только сущности, изменившиеся после версии since, либо полный снимок (full = true),
+ * если журнал изменений уже не покрывает запрошенную версию.
+ * Колонки, статусы и типы в дельте передаются без вложенных задач: задачи приходят в tasks
+ * и раскладываются клиентом по columnId/statusId/typeId.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BoardDelta {
+    private String boardId;
+    private long since;
+    private long version;
+    private boolean full;
+
+    // Полный снимок доски (только при full = true)
+    private BoardSnapshot snapshot;
+
+    // Поля доски передаются только если изменилась сама доска
+    private String name;
+    private String description;
+    private Boolean archived;
+
+    private List<BoardSnapshot.ColumnSnapshot> columns = new ArrayList<>();
+    private List<BoardSnapshot.StatusSnapshot> taskStatuses = new ArrayList<>();
+    private List<BoardSnapshot.TypeSnapshot> taskTypes = new ArrayList<>();
+    private List<BoardSnapshot.TaskSnapshot> tasks = new ArrayList<>();
+
+    private List<Long> deletedColumnIds = new ArrayList<>();
+    private List<Long> deletedStatusIds = new ArrayList<>();
+    private List<Long> deletedTypeIds = new ArrayList<>();
+    private List<Long> deletedTaskIds = new ArrayList<>();
+}
@@ -0,0 +1,35 @@
+package com.yourapp.dto;
+
+import com.yourapp.model.BoardChange;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Событие доски для топика /topic/boards/{boardId}.
+ * Содержит только вид изменения, ID затронутых сущностей и новую версию доски;
+ * сами данные клиент получает через GET /api/boards/{id}/changes?since={версия клиента}.
+ * Если version больше версии клиента ровно на единицу, клиент может применить событие
+ * без полной перезагрузки доски.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardEvent {
+    // Например TASK_MOVED, TASK_UPDATED, COLUMN_MOVED, STATUS_UPDATED, BOARD_UPDATED
+    private String type;
+    private String boardId;
+    private long version;
+    private BoardChange.EntityType entityType;
+    private BoardChange.Action action;
+    private List<Long> entityIds;
+    private Long actorId;
+
+    public static String typeOf(BoardChange.EntityType entityType, BoardChange.Action action) {
+        return entityType.name() + "_" + action.name();
+    }
+}
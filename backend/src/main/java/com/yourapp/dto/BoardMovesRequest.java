@@ -0,0 +1,38 @@
+package com.yourapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пакет перемещений задач одной доски (POST /api/boards/{id}/moves).
+ * Перемещения применяются по порядку; если задача встречается несколько раз,
+ * сохраняется только её итоговое положение.
+ */
+@Data
+public class BoardMovesRequest {
+
+    @NotEmpty(message = "Список перемещений не должен быть пустым")
+    @Valid
+    private List<Move> moves = new ArrayList<>();
+
+    @Data
+    public static class Move {
+        @NotNull(message = "Не указана задача")
+        private Long taskId;
+
+        @NotNull(message = "Не указана целевая колонка")
+        private Long columnId;
+
+        // Позиция в целевой колонке, начиная с 0; null — в конец колонки
+        private Integer position;
+
+        // Новые статус и тип задачи; null — без изменений
+        private Long statusId;
+        private Long typeId;
+    }
+}
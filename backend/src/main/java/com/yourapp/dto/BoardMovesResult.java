@@ -0,0 +1,35 @@
+package com.yourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат пакетного перемещения: новая версия доски и итоговое положение каждой задачи
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardMovesResult {
+    private String boardId;
+    private long version;
+    @Builder.Default
+    private List<MovedTask> tasks = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MovedTask {
+        private Long taskId;
+        private Long columnId;
+        private int position;
+        private String rankKey;
+        private Long statusId;
+        private Long typeId;
+    }
+}
@@ -0,0 +1,141 @@
+package com.yourapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.yourapp.model.TaskPriority;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-модель доски для GET /api/boards/{id}.
+ * Повторяет JSON-структуру сущности Board (колонки, статусы и типы со вложенными задачами),
+ * но собирается из проекций и не содержит ленивых коллекций JPA.
+ */
+@Data
+@NoArgsConstructor
+public class BoardSnapshot {
+    private String id;
+    private String name;
+    private String description;
+    private Boolean archived;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Версия доски, на которой собран снимок
+    private long version;
+
+    @JsonIgnore
+    private Long ownerId;
+
+    private List<ColumnSnapshot> columns = new ArrayList<>();
+    private List<StatusSnapshot> taskStatuses = new ArrayList<>();
+    private List<TypeSnapshot> taskTypes = new ArrayList<>();
+
+    // Дополнительные свойства (например, currentUser), как в Board
+    private Map<String, Object> additionalProperties = new HashMap<>();
+
+    public void setAdditionalProperty(String key, Object value) {
+        if (additionalProperties == null) {
+            additionalProperties = new HashMap<>();
+        }
+        additionalProperties.put(key, value);
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getAdditionalProperties() {
+        return additionalProperties;
+    }
+
+    /**
+     * Поверхностная копия для конкретного запроса: коллекции общие (снимок из кэша не изменяется),
+     * а дополнительные свойства (currentUser) у каждой копии свои
+     * @return копия снимка без дополнительных свойств
+     */
+    public BoardSnapshot copyForResponse() {
+        BoardSnapshot copy = new BoardSnapshot();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setDescription(description);
+        copy.setArchived(archived);
+        copy.setCreatedAt(createdAt);
+        copy.setUpdatedAt(updatedAt);
+        copy.setVersion(version);
+        copy.setOwnerId(ownerId);
+        copy.setColumns(columns);
+        copy.setTaskStatuses(taskStatuses);
+        copy.setTaskTypes(taskTypes);
+        return copy;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ColumnSnapshot {
+        private Long id;
+        private String name;
+        private Integer position;
+        private String color;
+        // Первые задачи колонки; остальные догружаются через GET /api/columns/{id}/tasks?after={nextCursor}
+        private List<TaskSnapshot> tasks = new ArrayList<>();
+        // Всего задач в колонке
+        private Long taskCount;
+        // Курсор после последней загруженной задачи; null, если загружены все
+        private String nextCursor;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class StatusSnapshot {
+        private Long id;
+        private String name;
+        private String color;
+        private Integer position;
+        private boolean isDefault;
+        private boolean isCustom;
+        private List<TaskSnapshot> tasks = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class TypeSnapshot {
+        private Long id;
+        private String name;
+        private String color;
+        private String icon;
+        private boolean isDefault;
+        private boolean isCustom;
+        private Integer position;
+        private List<TaskSnapshot> tasks = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class TaskSnapshot {
+        private Long id;
+        private String title;
+        private String description;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+        private Long daysRemaining;
+        // Порядковый номер в колонке; в дельте порядок задает rankKey
+        private Integer position;
+        private String rankKey;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private Integer commentCount;
+        private Integer attachmentCount;
+        private TaskPriority priority;
+        private Set<String> tags;
+        private Long columnId;
+        private Long typeId;
+        private Long statusId;
+        private TaskResponse.UserResponse assignee;
+        private List<TaskResponse.SubtaskResponse> subtasks = new ArrayList<>();
+    }
+}
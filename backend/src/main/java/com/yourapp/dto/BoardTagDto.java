@@ -0,0 +1,16 @@
+package com.yourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Тег доски и количество задач доски, в которых он используется
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardTagDto {
+    private String tag;
+    private int count;
+}
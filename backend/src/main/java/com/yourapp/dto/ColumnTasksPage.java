@@ -0,0 +1,23 @@
+package com.yourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Страница задач колонки для догрузки при прокрутке
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnTasksPage {
+    private Long columnId;
+    private List<BoardSnapshot.TaskSnapshot> tasks = new ArrayList<>();
+    // Всего задач в колонке
+    private long taskCount;
+    // Курсор для следующей страницы; null, если страница последняя
+    private String nextCursor;
+}
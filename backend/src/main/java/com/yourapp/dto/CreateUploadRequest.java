@@ -0,0 +1,26 @@
+package com.yourapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * Создание сессии загрузки вложения по частям (POST /api/tasks/{taskId}/uploads)
+ */
+@Data
+public class CreateUploadRequest {
+
+    @NotBlank(message = "Не указано имя файла")
+    private String fileName;
+
+    private String contentType;
+
+    @NotNull(message = "Не указан размер файла")
+    @Positive(message = "Размер файла должен быть больше нуля")
+    private Long size;
+
+    // Размер части в байтах; null — размер по умолчанию (app.uploads.chunk-size)
+    @Positive(message = "Размер части должен быть больше нуля")
+    private Integer chunkSize;
+}
@@ -0,0 +1,31 @@
+package com.yourapp.dto;
+
+import com.yourapp.model.NotificationPriority;
+import com.yourapp.model.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Доменное событие «пользователю нужно уведомление».
+ * Публикуется в транзакции изменения, а обрабатывается асинхронно после коммита:
+ * запись в notifications, отправка по WebSocket и в Telegram.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEvent {
+    private Long userId;
+    private NotificationType type;
+    private String title;
+    private String message;
+    private String relatedEntityId;
+    private String relatedEntityType;
+    private String groupKey;
+    // null — приоритет по типу уведомления
+    private NotificationPriority priority;
+    // Количество неудачных попыток обработки
+    private int attempts;
+}
@@ -0,0 +1,20 @@
+package com.yourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Страница ленты уведомлений с курсором следующей страницы
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageDTO {
+    private List<NotificationDTO> content = new ArrayList<>();
+    // Курсор для параметра cursor следующего запроса; null, если страница последняя
+    private String nextCursor;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class TaskResponse {
@@ -66,6 +67,7 @@ public class TaskResponse {
         private Long id;
         private String username;
         private String avatarUrl;
+        private Map<String, String> avatarThumbnails;
         private String email;
         private String displayName;
     }
@@ -75,6 +77,7 @@ public class TaskResponse {
         private Long id;
         private String filename;
         private String url;
+        private Map<String, String> thumbnails;
         private String mimeType;
         private Long size;
         private LocalDateTime createdAt;
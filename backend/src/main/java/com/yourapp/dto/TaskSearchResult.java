@@ -0,0 +1,40 @@
+package com.yourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Страница результатов полнотекстового поиска задач.
+ * nextCursor передается в следующий запрос; null — результатов больше нет
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchResult {
+    @Builder.Default
+    private List<Hit> items = new ArrayList<>();
+    private String nextCursor;
+
+    /**
+     * Найденная задача. Совпадения в title и snippet выделены тегами &lt;mark&gt;,
+     * остальной текст экранирован
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private Long taskId;
+        private String boardId;
+        private String boardName;
+        private Long columnId;
+        private String title;
+        private String snippet;
+        private float rank;
+    }
+}
@@ -0,0 +1,28 @@
+package com.yourapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Состояние загрузки по частям. Часть i занимает байты [i * chunkSize, min((i + 1) * chunkSize, size));
+ * после обрыва клиент догружает части, которых нет в receivedChunks
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDto {
+    private String id;
+    private Long taskId;
+    private String fileName;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+    private List<Integer> receivedChunks;
+    private LocalDateTime expiresAt;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 /**
  * DTO для передачи данных пользователя
  */
@@ -18,6 +20,8 @@ public class UserDto {
     private String username;
     private String displayName;
     private String avatarUrl;
+    // Миниатюры аватара по размеру; если нужного размера нет, используется avatarUrl
+    private Map<String, String> avatarThumbnails;
     private String phoneNumber;
     private String position;
     private String bio;
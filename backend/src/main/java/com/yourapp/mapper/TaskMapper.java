@@ -42,6 +42,7 @@ public class TaskMapper {
             assignee.setId(task.getAssignee().getId());
             assignee.setUsername(task.getAssignee().getUsername());
             assignee.setAvatarUrl(task.getAssignee().getAvatarUrl());
+            assignee.setAvatarThumbnails(task.getAssignee().getAvatarThumbnails());
             assignee.setEmail(task.getAssignee().getEmail());
             assignee.setDisplayName(task.getAssignee().getDisplayName());
             response.setAssignee(assignee);
@@ -108,6 +109,7 @@ public class TaskMapper {
                     attachmentResponse.setId(attachment.getId());
                     attachmentResponse.setFilename(attachment.getFileName());
                     attachmentResponse.setUrl(attachment.getFilePath());
+                    attachmentResponse.setThumbnails(attachment.getThumbnails());
                     attachmentResponse.setMimeType(attachment.getContentType());
                     attachmentResponse.setSize(attachment.getSize());
                     attachmentResponse.setCreatedAt(attachment.getCreatedAt());
@@ -117,6 +119,7 @@ public class TaskMapper {
                         uploadedBy.setId(attachment.getUploadedBy().getId());
                         uploadedBy.setUsername(attachment.getUploadedBy().getUsername());
                         uploadedBy.setAvatarUrl(attachment.getUploadedBy().getAvatarUrl());
+                        uploadedBy.setAvatarThumbnails(attachment.getUploadedBy().getAvatarThumbnails());
                         uploadedBy.setEmail(attachment.getUploadedBy().getEmail());
                         uploadedBy.setDisplayName(attachment.getUploadedBy().getDisplayName());
                         attachmentResponse.setUploadedBy(uploadedBy);
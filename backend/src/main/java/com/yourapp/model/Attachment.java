@@ -3,6 +3,9 @@ package com.yourapp.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.Map;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
@@ -24,6 +27,14 @@ public class Attachment {
     
     private Long size;
     
+    @Column(name = "blob_hash", length = 64)
+    private String blobHash;
+    
+    // Размер в пикселях -> путь к миниатюре; заполняется в фоне для изображений
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "thumbnails", columnDefinition = "jsonb")
+    private Map<String, String> thumbnails;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -50,6 +50,11 @@ public class Board {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Версия содержимого доски; изменяется только через BoardVersionService (UPDATE ... version + 1)
+    @JsonIgnore
+    @Column(name = "version", insertable = false, updatable = false)
+    private Long version;
+    
     @JsonBackReference("board-owner")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
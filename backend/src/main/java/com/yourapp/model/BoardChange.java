@@ -0,0 +1,62 @@
+package com.yourapp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала изменений доски: какая сущность изменилась и на какой версии доски
+ */
+@Entity
+@Table(name = "board_changes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "board_id", nullable = false)
+    private String boardId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "entity_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EntityType entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "action", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Action action;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    public enum EntityType {
+        BOARD, COLUMN, STATUS, TYPE, TASK
+    }
+
+    /**
+     * Вид изменения. MOVED означает смену колонки или позиции (для колонок — порядка на доске)
+     */
+    public enum Action {
+        CREATED, UPDATED, MOVED, DELETED
+    }
+}
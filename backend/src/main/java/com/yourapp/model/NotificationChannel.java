@@ -0,0 +1,21 @@
+package com.yourapp.model;
+
+/**
+ * Каналы доставки уведомлений
+ */
+public enum NotificationChannel {
+    /**
+     * Уведомление в приложении (запись в notifications)
+     */
+    IN_APP,
+    
+    /**
+     * Браузерное уведомление через WebSocket
+     */
+    BROWSER,
+    
+    /**
+     * Сообщение в Telegram
+     */
+    TELEGRAM
+}
@@ -0,0 +1,103 @@
+package com.yourapp.model;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Скомпилированные настройки уведомлений пользователя.
+ * Для каждого канала хранится множество разрешенных типов (EnumSet — битовая маска),
+ * плюс минимальный приоритет, поэтому проверка уведомления — одна проверка бита
+ * и одно сравнение. Экземпляр неизменяемый и может разделяться между потоками.
+ */
+public final class NotificationPreferenceSet {
+    private final Map<NotificationChannel, EnumSet<NotificationType>> allowed;
+    // null — без ограничения по приоритету
+    private final NotificationPriority priorityFloor;
+
+    private NotificationPreferenceSet(Map<NotificationChannel, EnumSet<NotificationType>> allowed,
+                                      NotificationPriority priorityFloor) {
+        this.allowed = allowed;
+        this.priorityFloor = priorityFloor;
+    }
+
+    /**
+     * Компилирует настройки пользователя
+     * @param preferences настройки (поля null считаются выключенными)
+     * @return скомпилированные настройки
+     */
+    public static NotificationPreferenceSet compile(NotificationPreferences preferences) {
+        EnumSet<NotificationType> inApp = EnumSet.noneOf(NotificationType.class);
+        if (isOn(preferences.getGlobalNotificationsEnabled())) {
+            for (NotificationType type : NotificationType.values()) {
+                if (isOn(typeFlag(preferences, type))) {
+                    inApp.add(type);
+                }
+            }
+        }
+        Map<NotificationChannel, EnumSet<NotificationType>> allowed = new EnumMap<>(NotificationChannel.class);
+        allowed.put(NotificationChannel.IN_APP, inApp);
+        allowed.put(NotificationChannel.BROWSER, isOn(preferences.getBrowserNotificationsEnabled())
+            ? EnumSet.copyOf(inApp) : EnumSet.noneOf(NotificationType.class));
+        allowed.put(NotificationChannel.TELEGRAM, isOn(preferences.getTelegramNotificationsEnabled())
+            ? EnumSet.copyOf(inApp) : EnumSet.noneOf(NotificationType.class));
+
+        NotificationPriority floor = isOn(preferences.getOnlyHighPriorityNotifications()) ? NotificationPriority.HIGH : null;
+        return new NotificationPreferenceSet(allowed, floor);
+    }
+
+    /**
+     * Разрешено ли уведомление в канале с учетом минимального приоритета
+     * @param channel канал
+     * @param type тип уведомления
+     * @param priority приоритет уведомления
+     * @return true, если уведомление разрешено
+     */
+    public boolean allows(NotificationChannel channel, NotificationType type, NotificationPriority priority) {
+        return allowsType(channel, type) && meetsPriorityFloor(priority);
+    }
+
+    /**
+     * Разрешен ли тип уведомления в канале без учета приоритета
+     * @param channel канал
+     * @param type тип уведомления
+     * @return true, если тип разрешен
+     */
+    public boolean allowsType(NotificationChannel channel, NotificationType type) {
+        return allowed.get(channel).contains(type);
+    }
+
+    private boolean meetsPriorityFloor(NotificationPriority priority) {
+        // Порядок перечисления: CRITICAL, HIGH, NORMAL, LOW
+        return priorityFloor == null || (priority != null && priority.ordinal() <= priorityFloor.ordinal());
+    }
+
+    /**
+     * Флаг настроек, отвечающий за тип уведомления
+     */
+    private static Boolean typeFlag(NotificationPreferences preferences, NotificationType type) {
+        return switch (type) {
+            case TASK_ASSIGNED -> preferences.getTaskAssignedNotifications();
+            case TASK_UPDATED -> preferences.getTaskUpdatedNotifications();
+            case TASK_STATUS_CHANGED -> preferences.getTaskStatusChangedNotifications();
+            case NEW_COMMENT_MENTION -> preferences.getMentionNotifications();
+            case TASK_CREATED -> preferences.getTaskCreatedNotifications();
+            case TASK_DELETED -> preferences.getTaskDeletedNotifications();
+            case TASK_COMMENT_ADDED -> preferences.getTaskCommentAddedNotifications();
+            case SUBTASK_CREATED -> preferences.getSubtaskCreatedNotifications();
+            case SUBTASK_COMPLETED -> preferences.getSubtaskCompletedNotifications();
+            case BOARD_INVITE -> preferences.getBoardInviteNotifications();
+            case BOARD_MEMBER_ADDED -> preferences.getBoardMemberAddedNotifications();
+            case BOARD_MEMBER_REMOVED -> preferences.getBoardMemberRemovedNotifications();
+            case ATTACHMENT_ADDED -> preferences.getAttachmentAddedNotifications();
+            case DEADLINE_REMINDER -> preferences.getDeadlineReminderNotifications();
+            case ROLE_CHANGED -> preferences.getRoleChangedNotifications();
+            case TASK_DUE_SOON -> preferences.getTaskDueSoonNotifications();
+            case TASK_OVERDUE -> preferences.getTaskOverdueNotifications();
+        };
+    }
+
+    private static boolean isOn(Boolean flag) {
+        return Boolean.TRUE.equals(flag);
+    }
+}
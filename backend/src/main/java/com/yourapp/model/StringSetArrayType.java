@@ -0,0 +1,99 @@
+package com.yourapp.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Тип Hibernate для набора строк, хранящегося в колонке PostgreSQL text[].
+ * Набор читается вместе со строкой сущности, без отдельного запроса к таблице коллекции.
+ * Изменения набора на месте (add/remove) обнаруживаются сравнением со снимком.
+ */
+public class StringSetArrayType implements UserType<Set<String>> {
+
+    @Override
+    public int getSqlType() {
+        return Types.ARRAY;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Class<Set<String>> returnedClass() {
+        return (Class<Set<String>>) (Class<?>) Set.class;
+    }
+
+    @Override
+    public boolean equals(Set<String> x, Set<String> y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(Set<String> x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public Set<String> nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        Array array = rs.getArray(position);
+        if (array == null) {
+            return new LinkedHashSet<>();
+        }
+        try {
+            Object[] values = (Object[]) array.getArray();
+            Set<String> result = new LinkedHashSet<>(values.length * 2);
+            for (Object value : values) {
+                if (value != null) {
+                    result.add((String) value);
+                }
+            }
+            return result;
+        } finally {
+            array.free();
+        }
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, Set<String> value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        // Пустой массив вместо NULL: колонка NOT NULL, а операторы @> и && с NULL не работают
+        String[] values = value != null
+            ? value.stream().filter(Objects::nonNull).sorted().toArray(String[]::new)
+            : new String[0];
+        st.setArray(index, st.getConnection().createArrayOf("text", values));
+    }
+
+    @Override
+    public Set<String> deepCopy(Set<String> value) {
+        return value != null ? new LinkedHashSet<>(value) : new LinkedHashSet<>();
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(Set<String> value) {
+        return value != null ? value.toArray(new String[0]) : new String[0];
+    }
+
+    @Override
+    public Set<String> assemble(Serializable cached, Object owner) {
+        Set<String> result = new LinkedHashSet<>();
+        if (cached instanceof String[] values) {
+            Collections.addAll(result, values);
+        }
+        return result;
+    }
+}
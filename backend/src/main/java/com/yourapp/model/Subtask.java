@@ -26,6 +26,10 @@ public class Subtask {
     
     private Integer position;
     
+    // Ранговый ключ: определяет порядок подзадач в задаче (см. RankKeys)
+    @Column(name = "rank_key", nullable = false)
+    private String rankKey;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_task_id")
     @ToString.Exclude
@@ -2,6 +2,7 @@ package com.yourapp.model;
 
 import jakarta.persistence.*;
 import jakarta.persistence.Column;
+import org.hibernate.annotations.Type;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -46,6 +47,10 @@ public class Task {
     @Column(nullable = false)
     private Integer position;
     
+    // Ранговый ключ: определяет порядок задач в колонке (см. RankKeys)
+    @Column(name = "rank_key", nullable = false)
+    private String rankKey;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -76,9 +81,9 @@ public class Task {
     @Column
     private TaskPriority priority;
     
-    @ElementCollection
-    @CollectionTable(name = "task_tags", joinColumns = @JoinColumn(name = "task_id"))
-    @Column(name = "tag")
+    // Теги хранятся в колонке text[] и загружаются вместе с задачей
+    @Type(StringSetArrayType.class)
+    @Column(name = "tags", columnDefinition = "text[]", nullable = false)
     private Set<String> tags = new HashSet<>();
     
     @ManyToOne(fetch = FetchType.LAZY)
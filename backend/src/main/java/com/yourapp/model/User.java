@@ -33,6 +33,9 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.util.Date;
+import java.util.Map;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 
@@ -53,6 +56,16 @@ public class User implements UserDetails {
     @Column(name = "avatar_url")
     private String avatarUrl;
     
+    // Хеш загруженного аватара в хранилище; null для стандартных аватаров и загруженных ранее файлов
+    @JsonIgnore
+    @Column(name = "avatar_blob_hash", length = 64)
+    private String avatarBlobHash;
+    
+    // Миниатюры аватара (размер в пикселях -> путь); null, пока не созданы
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "avatar_thumbnails", columnDefinition = "jsonb")
+    private Map<String, String> avatarThumbnails;
+    
     @Column(nullable = false)
     private String username;
     
@@ -291,6 +304,7 @@ public class User implements UserDetails {
                 .username(this.username)
                 .displayName(this.displayName)
                 .avatarUrl(this.avatarUrl)
+                .avatarThumbnails(this.avatarThumbnails)
                 .phoneNumber(this.phoneNumber)
                 .position(this.position)
                 .bio(this.bio)
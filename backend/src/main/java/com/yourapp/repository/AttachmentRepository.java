@@ -0,0 +1,35 @@
+package com.yourapp.repository;
+
+import com.yourapp.model.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+
+    /**
+     * Данные вложения для отдачи содержимого, вместе с доской задачи
+     */
+    interface AttachmentContentRow {
+        Long getId();
+        String getFileName();
+        String getFilePath();
+        String getBlobHash();
+        String getContentType();
+        Long getSize();
+        LocalDateTime getCreatedAt();
+        String getBoardId();
+        Map<String, String> getThumbnails();
+    }
+
+    @Query("SELECT a.id AS id, a.fileName AS fileName, a.filePath AS filePath, a.blobHash AS blobHash, " +
+           "a.contentType AS contentType, a.size AS size, a.createdAt AS createdAt, b.id AS boardId, " +
+           "a.thumbnails AS thumbnails " +
+           "FROM Attachment a JOIN a.task t JOIN t.column c JOIN c.board b " +
+           "WHERE a.id = :id")
+    Optional<AttachmentContentRow> findContentRowById(@Param("id") Long id);
+}
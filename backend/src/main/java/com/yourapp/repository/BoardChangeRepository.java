@@ -0,0 +1,25 @@
+package com.yourapp.repository;
+
+import com.yourapp.model.BoardChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BoardChangeRepository extends JpaRepository<BoardChange, Long> {
+
+    List<BoardChange> findByBoardIdAndVersionGreaterThanOrderByVersionAsc(String boardId, Long version);
+
+    @Query("SELECT MIN(c.version) FROM BoardChange c WHERE c.boardId = :boardId")
+    Optional<Long> findMinVersionByBoardId(@Param("boardId") String boardId);
+
+    @Modifying
+    @Query("DELETE FROM BoardChange c WHERE c.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -3,10 +3,33 @@ package com.yourapp.repository;
 import com.yourapp.model.Board;
 import com.yourapp.model.BoardColumn;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface BoardColumnRepository extends JpaRepository<BoardColumn, Long> {
     List<BoardColumn> findByBoardOrderByPosition(Board board);
+
+    /**
+     * Колонка без задач для BoardSnapshot
+     */
+    interface ColumnRow {
+        Long getId();
+        String getName();
+        Integer getPosition();
+        String getColor();
+    }
+
+    @Query("SELECT c.id AS id, c.name AS name, c.position AS position, c.color AS color " +
+           "FROM BoardColumn c WHERE c.board.id = :boardId ORDER BY c.position ASC")
+    List<ColumnRow> findRowsByBoardId(@Param("boardId") String boardId);
+
+    /**
+     * Блокирует колонки доски до конца транзакции в порядке ID, чтобы пакеты перемещений
+     * не взаимоблокировались; под этими блокировками вычисляются ранговые ключи задач
+     */
+    @Query(value = "SELECT id FROM board_columns WHERE board_id = :boardId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByBoardId(@Param("boardId") String boardId);
 } 
\ No newline at end of file
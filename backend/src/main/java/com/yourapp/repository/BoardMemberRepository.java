@@ -26,6 +26,14 @@ public interface BoardMemberRepository extends JpaRepository<BoardMember, Long>
      */
     boolean existsByUserAndBoard(User user, Board board);
     
+    /**
+     * Проверяет участие пользователя в доске по идентификаторам, без загрузки сущностей
+     * @param boardId ID доски
+     * @param userId ID пользователя
+     * @return true, если пользователь является участником доски
+     */
+    boolean existsByBoardIdAndUserId(String boardId, Long userId);
+    
     /**
      * Находит всех участников доски
      * @param board доска
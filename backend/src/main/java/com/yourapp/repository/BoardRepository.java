@@ -3,16 +3,24 @@ package com.yourapp.repository;
 import com.yourapp.model.Board;
 import com.yourapp.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.yourapp.model.TaskPriority;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface BoardRepository extends JpaRepository<Board, String> {
     List<Board> findByOwnerId(Long ownerId);
 
+    boolean existsByIdAndOwnerId(String id, Long ownerId);
+
     @Query("SELECT DISTINCT b FROM Board b " +
            "LEFT JOIN FETCH b.columns c " +
            "WHERE b.id = :id AND b.archived = false")
@@ -36,4 +44,77 @@ public interface BoardRepository extends JpaRepository<Board, String> {
            "AND t.column.board.archived = false " +
            "AND t.column IS NOT NULL")
     List<Task> findTasksByBoardId(@Param("boardId") String boardId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE Board b SET b.version = b.version + 1 WHERE b.id = :boardId")
+    int incrementVersion(@Param("boardId") String boardId);
+
+    @Query("SELECT b.version FROM Board b WHERE b.id = :boardId")
+    Optional<Long> findVersionById(@Param("boardId") String boardId);
+
+    /**
+     * Заголовок доски для BoardSnapshot (без загрузки коллекций)
+     */
+    interface BoardHeaderRow {
+        String getId();
+        String getName();
+        String getDescription();
+        Boolean getArchived();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Long getOwnerId();
+        Long getVersion();
+    }
+
+    /**
+     * Плоская строка задачи для BoardSnapshot: скалярные поля, ссылки на колонку/тип/статус и исполнитель
+     */
+    interface TaskRow {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        LocalDateTime getStartDate();
+        LocalDateTime getEndDate();
+        Long getDaysRemaining();
+        Integer getPosition();
+        String getRankKey();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Integer getCommentCount();
+        Integer getAttachmentCount();
+        TaskPriority getPriority();
+        Set<String> getTags();
+        Long getColumnId();
+        Long getTypeId();
+        Long getStatusId();
+        Long getAssigneeId();
+        String getAssigneeUsername();
+        String getAssigneeEmail();
+        String getAssigneeAvatarUrl();
+        String getAssigneeDisplayName();
+        Map<String, String> getAssigneeAvatarThumbnails();
+    }
+
+    @Query("SELECT b.id AS id, b.name AS name, b.description AS description, b.archived AS archived, " +
+           "b.createdAt AS createdAt, b.updatedAt AS updatedAt, o.id AS ownerId, b.version AS version " +
+           "FROM Board b LEFT JOIN b.owner o " +
+           "WHERE b.id = :id")
+    Optional<BoardHeaderRow> findHeaderById(@Param("id") String id);
+
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, " +
+           "t.startDate AS startDate, t.endDate AS endDate, t.daysRemaining AS daysRemaining, " +
+           "t.position AS position, t.rankKey AS rankKey, t.createdAt AS createdAt, t.updatedAt AS updatedAt, " +
+           "t.commentCount AS commentCount, t.attachmentCount AS attachmentCount, t.priority AS priority, t.tags AS tags, " +
+           "c.id AS columnId, ty.id AS typeId, st.id AS statusId, " +
+           "a.id AS assigneeId, a.username AS assigneeUsername, a.email AS assigneeEmail, " +
+           "a.avatarUrl AS assigneeAvatarUrl, a.displayName AS assigneeDisplayName, a.avatarThumbnails AS assigneeAvatarThumbnails " +
+           "FROM Task t " +
+           "JOIN t.column c " +
+           "JOIN c.board b " +
+           "LEFT JOIN t.type ty " +
+           "LEFT JOIN t.customStatus st " +
+           "LEFT JOIN t.assignee a " +
+           "WHERE b.id = :boardId AND t.id IN :taskIds " +
+           "ORDER BY c.position ASC, t.rankKey ASC, t.id ASC")
+    List<TaskRow> findTaskRowsByIds(@Param("boardId") String boardId, @Param("taskIds") Collection<Long> taskIds);
+}
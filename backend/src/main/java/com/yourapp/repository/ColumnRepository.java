@@ -2,8 +2,16 @@ package com.yourapp.repository;
 
 import com.yourapp.model.BoardColumn;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ColumnRepository extends JpaRepository<BoardColumn, Long> {
-} 
\ No newline at end of file
+    /**
+     * Блокирует строку колонки до конца транзакции. Ранговые ключи задач колонки
+     * вычисляются только под этой блокировкой, поэтому две вставки не получат один ключ
+     */
+    @Query(value = "SELECT id FROM board_columns WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+}
@@ -18,4 +18,11 @@ public interface NotificationPreferencesRepository extends JpaRepository<Notific
      * @return настройки уведомлений
      */
     Optional<NotificationPreferences> findByUser(User user);
+    
+    /**
+     * Находит настройки уведомлений по ID пользователя без загрузки пользователя
+     * @param userId ID пользователя
+     * @return настройки уведомлений
+     */
+    Optional<NotificationPreferences> findByUserId(Long userId);
 } 
\ No newline at end of file
@@ -7,8 +7,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -16,6 +18,13 @@ import java.util.List;
  */
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    /**
+     * Ранг приоритета для сортировки непрочитанных: CRITICAL > HIGH > NORMAL > LOW.
+     * Выражение совпадает с выражением индекса idx_notifications_unread_keyset
+     */
+    String PRIORITY_RANK =
+        "(CASE n.priority WHEN 'CRITICAL' THEN 3 WHEN 'HIGH' THEN 2 WHEN 'NORMAL' THEN 1 ELSE 0 END)";
+
     /**
      * Находит все уведомления пользователя
      * @param user пользователь
@@ -25,20 +34,37 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     Page<Notification> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     
     /**
-     * Находит неархивированные уведомления пользователя
-     * @param user пользователь
-     * @param pageable пагинация
-     * @return страница неархивированных уведомлений
+     * Первая страница ленты уведомлений пользователя, от новых к старым
+     * @param userId ID пользователя
+     * @param archived true — архив, false — активные уведомления
+     * @param limit размер страницы
+     * @return уведомления
      */
-    Page<Notification> findByUserAndIsArchivedFalseOrderByCreatedAtDesc(User user, Pageable pageable);
+    @Query(value = "SELECT n.* FROM notifications n " +
+                   "WHERE n.user_id = :userId AND n.is_archived = :archived " +
+                   "ORDER BY n.created_at DESC, n.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Notification> findFeed(@Param("userId") Long userId, @Param("archived") boolean archived,
+                                @Param("limit") int limit);
     
     /**
-     * Находит архивированные уведомления пользователя
-     * @param user пользователь
-     * @param pageable пагинация
-     * @return страница архивированных уведомлений
+     * Следующая страница ленты уведомлений после курсора (created_at, id).
+     * Сравнение кортежей выполняется как диапазон индекса idx_notifications_feed_keyset
+     * @param userId ID пользователя
+     * @param archived true — архив, false — активные уведомления
+     * @param createdAt время создания последнего загруженного уведомления
+     * @param id ID последнего загруженного уведомления
+     * @param limit размер страницы
+     * @return уведомления
      */
-    Page<Notification> findByUserAndIsArchivedTrueOrderByCreatedAtDesc(User user, Pageable pageable);
+    @Query(value = "SELECT n.* FROM notifications n " +
+                   "WHERE n.user_id = :userId AND n.is_archived = :archived " +
+                   "AND (n.created_at, n.id) < (:createdAt, :id) " +
+                   "ORDER BY n.created_at DESC, n.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Notification> findFeedAfter(@Param("userId") Long userId, @Param("archived") boolean archived,
+                                     @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                     @Param("limit") int limit);
     
     /**
      * Находит непрочитанные уведомления пользователя
@@ -48,12 +74,35 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserAndIsReadFalseOrderByCreatedAtDesc(User user);
     
     /**
-     * Находит непрочитанные неархивированные уведомления пользователя, отсортированные по приоритету и дате
-     * @param user пользователь
-     * @return список непрочитанных уведомлений
+     * Первая страница непрочитанных неархивированных уведомлений пользователя,
+     * отсортированных по приоритету и дате
+     * @param userId ID пользователя
+     * @param limit размер страницы
+     * @return уведомления
      */
-    @Query("SELECT n FROM Notification n WHERE n.user = :user AND n.isRead = false AND n.isArchived = false ORDER BY n.priority DESC, n.createdAt DESC")
-    List<Notification> findByUserAndIsReadFalseAndIsArchivedFalseOrderByPriorityDescCreatedAtDesc(User user);
+    @Query(value = "SELECT n.* FROM notifications n " +
+                   "WHERE n.user_id = :userId AND n.is_read = false AND n.is_archived = false " +
+                   "ORDER BY " + PRIORITY_RANK + " DESC, n.created_at DESC, n.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Notification> findUnread(@Param("userId") Long userId, @Param("limit") int limit);
+    
+    /**
+     * Следующая страница непрочитанных уведомлений после курсора (ранг приоритета, created_at, id)
+     * @param userId ID пользователя
+     * @param priorityRank ранг приоритета последнего загруженного уведомления
+     * @param createdAt время создания последнего загруженного уведомления
+     * @param id ID последнего загруженного уведомления
+     * @param limit размер страницы
+     * @return уведомления
+     */
+    @Query(value = "SELECT n.* FROM notifications n " +
+                   "WHERE n.user_id = :userId AND n.is_read = false AND n.is_archived = false " +
+                   "AND (" + PRIORITY_RANK + ", n.created_at, n.id) < (:priorityRank, :createdAt, :id) " +
+                   "ORDER BY " + PRIORITY_RANK + " DESC, n.created_at DESC, n.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Notification> findUnreadAfter(@Param("userId") Long userId, @Param("priorityRank") int priorityRank,
+                                       @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                       @Param("limit") int limit);
     
     /**
      * Подсчитывает количество непрочитанных уведомлений пользователя
@@ -69,6 +118,29 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     long countByUserAndIsReadFalseAndIsArchivedFalse(User user);
     
+    /**
+     * Количество непрочитанных неархивированных уведомлений пользователя
+     */
+    interface UnreadCountRow {
+        Long getUserId();
+        Long getCount();
+    }
+    
+    /**
+     * Подсчитывает непрочитанные неархивированные уведомления доски и её задач по пользователям
+     * (перед удалением доски)
+     * @param boardId ID доски
+     * @param taskEntityPattern паттерн ID связанных задач ("boardId:%")
+     * @return количество по пользователям
+     */
+    @Query("SELECT n.user.id AS userId, COUNT(n) AS count FROM Notification n " +
+           "WHERE n.isRead = false AND n.isArchived = false " +
+           "AND ((n.relatedEntityId = :boardId AND n.relatedEntityType = 'BOARD') " +
+           "  OR (n.relatedEntityId LIKE :taskEntityPattern AND n.relatedEntityType = 'TASK')) " +
+           "GROUP BY n.user.id")
+    List<UnreadCountRow> countUnreadByBoard(@Param("boardId") String boardId,
+                                            @Param("taskEntityPattern") String taskEntityPattern);
+    
     /**
      * Отмечает все уведомления пользователя как прочитанные
      * @param user пользователь
@@ -5,15 +5,61 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface SubtaskRepository extends JpaRepository<Subtask, Long> {
     List<Subtask> findByParentTaskId(Long taskId);
     
-    List<Subtask> findByParentTaskIdOrderByPositionAsc(Long taskId);
+    List<Subtask> findByParentTaskIdOrderByRankKeyAsc(Long taskId);
     
     List<Subtask> findByAssigneeId(Long userId);
     
     @Query("SELECT MAX(s.position) FROM Subtask s WHERE s.parentTask.id = :taskId")
     Integer findMaxPositionByTaskId(@Param("taskId") Long taskId);
-} 
\ No newline at end of file
+    
+    @Query("SELECT MAX(s.rankKey) FROM Subtask s WHERE s.parentTask.id = :taskId")
+    String findMaxRankKeyByTaskId(@Param("taskId") Long taskId);
+    
+    /**
+     * Ключи соседей для вставки на позицию: до двух ключей задачи, начиная с offset,
+     * без учета перемещаемой подзадачи
+     */
+    @Query(value = "SELECT rank_key FROM subtasks WHERE parent_task_id = :taskId AND id <> :subtaskId " +
+                   "ORDER BY rank_key LIMIT 2 OFFSET :offset", nativeQuery = true)
+    List<String> findRankKeysAt(@Param("taskId") Long taskId, @Param("subtaskId") Long subtaskId, @Param("offset") int offset);
+
+    /**
+     * Подзадача с исполнителем для BoardSnapshot
+     */
+    interface SubtaskRow {
+        Long getId();
+        Long getParentTaskId();
+        String getTitle();
+        String getDescription();
+        Boolean getCompleted();
+        Integer getPosition();
+        LocalDateTime getDueDate();
+        Integer getEstimatedHours();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Long getAssigneeId();
+        String getAssigneeUsername();
+        String getAssigneeEmail();
+        String getAssigneeAvatarUrl();
+        String getAssigneeDisplayName();
+    }
+
+    @Query("SELECT s.id AS id, p.id AS parentTaskId, s.title AS title, s.description AS description, " +
+           "s.completed AS completed, s.position AS position, s.dueDate AS dueDate, " +
+           "s.estimatedHours AS estimatedHours, s.createdAt AS createdAt, s.updatedAt AS updatedAt, " +
+           "a.id AS assigneeId, a.username AS assigneeUsername, a.email AS assigneeEmail, " +
+           "a.avatarUrl AS assigneeAvatarUrl, a.displayName AS assigneeDisplayName " +
+           "FROM Subtask s " +
+           "JOIN s.parentTask p " +
+           "LEFT JOIN s.assignee a " +
+           "WHERE p.id IN :taskIds " +
+           "ORDER BY p.id ASC, s.rankKey ASC")
+    List<SubtaskRow> findRowsByParentTaskIds(@Param("taskIds") Collection<Long> taskIds);
+}
\ No newline at end of file
@@ -7,17 +7,82 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t LEFT JOIN FETCH t.type LEFT JOIN FETCH t.customStatus LEFT JOIN FETCH t.assignee WHERE t.column.id = :columnId")
     List<Task> findByColumnId(@Param("columnId") Long columnId);
     
-    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.type LEFT JOIN FETCH t.customStatus LEFT JOIN FETCH t.assignee WHERE t.column.id = :columnId ORDER BY t.position ASC")
-    List<Task> findByColumnIdOrderByPositionAsc(@Param("columnId") Long columnId);
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.type LEFT JOIN FETCH t.customStatus LEFT JOIN FETCH t.assignee WHERE t.column.id = :columnId ORDER BY t.rankKey ASC")
+    List<Task> findByColumnIdOrderByRankKeyAsc(@Param("columnId") Long columnId);
+    
+    @Query("SELECT MAX(t.rankKey) FROM Task t WHERE t.column.id = :columnId")
+    String findMaxRankKeyByColumnId(@Param("columnId") Long columnId);
+    
+    /**
+     * Блокирует строку задачи до конца транзакции; под ней вычисляются ранговые ключи подзадач
+     */
+    @Query(value = "SELECT id FROM tasks WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+    
+    @Query("SELECT MAX(t.position) FROM Task t WHERE t.column.id = :columnId")
+    Integer findMaxPositionByColumnId(@Param("columnId") Long columnId);
+    
+    /**
+     * Ключи соседей для вставки на позицию: до двух ключей колонки, начиная с offset,
+     * без учета перемещаемой задачи
+     */
+    @Query(value = "SELECT rank_key FROM tasks WHERE column_id = :columnId AND id <> :taskId " +
+                   "ORDER BY rank_key LIMIT 2 OFFSET :offset", nativeQuery = true)
+    List<String> findRankKeysAt(@Param("columnId") Long columnId, @Param("taskId") Long taskId, @Param("offset") int offset);
+    
+    /**
+     * Положение задачи для пакетного перемещения: колонка, доска, ключ, статус и тип
+     */
+    interface MoveRow {
+        Long getId();
+        Long getColumnId();
+        String getBoardId();
+        String getRankKey();
+        Long getStatusId();
+        Long getTypeId();
+    }
+    
+    @Query("SELECT t.id AS id, c.id AS columnId, c.board.id AS boardId, t.rankKey AS rankKey, " +
+           "s.id AS statusId, ty.id AS typeId " +
+           "FROM Task t JOIN t.column c LEFT JOIN t.customStatus s LEFT JOIN t.type ty " +
+           "WHERE t.id IN :taskIds")
+    List<MoveRow> findMoveRowsByIds(@Param("taskIds") Collection<Long> taskIds);
+    
+    /**
+     * Ключ задачи в колонке
+     */
+    interface RankRow {
+        Long getId();
+        Long getColumnId();
+        String getRankKey();
+    }
+    
+    @Query("SELECT t.id AS id, t.column.id AS columnId, t.rankKey AS rankKey " +
+           "FROM Task t WHERE t.column.id IN :columnIds ORDER BY t.column.id ASC, t.rankKey ASC, t.id ASC")
+    List<RankRow> findRankRowsByColumnIds(@Param("columnIds") Collection<Long> columnIds);
+    
+    /**
+     * Задача, в снимке которой показан пользователь: исполнитель задачи или одной из её подзадач
+     */
+    interface BoardTaskRow {
+        String getBoardId();
+        Long getTaskId();
+    }
+    
+    @Query("SELECT c.board.id AS boardId, t.id AS taskId FROM Task t JOIN t.column c " +
+           "WHERE t.assignee.id = :userId " +
+           "OR EXISTS (SELECT s.id FROM Subtask s WHERE s.parentTask = t AND s.assignee.id = :userId) " +
+           "ORDER BY c.board.id, t.id")
+    List<BoardTaskRow> findBoardTasksByAssigneeId(@Param("userId") Long userId);
     
     List<Task> findAllByEndDateIsNotNull();
     
@@ -34,9 +99,6 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     @Query("SELECT t FROM Task t LEFT JOIN FETCH t.type LEFT JOIN FETCH t.customStatus LEFT JOIN FETCH t.assignee WHERE t.id = :id")
     Optional<Task> findByIdWithTypeAndStatus(@Param("id") Long id);
-
-    @Query("SELECT DISTINCT t FROM Task task JOIN task.tags t")
-    Set<String> findAllTags();
     
     @Query("SELECT t FROM Task t WHERE t.endDate BETWEEN :startDate AND :endDate")
     List<Task> findTasksByEndDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
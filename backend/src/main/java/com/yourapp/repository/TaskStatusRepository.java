@@ -3,6 +3,8 @@ package com.yourapp.repository;
 import com.yourapp.model.Board;
 import com.yourapp.model.TaskStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -11,4 +13,21 @@ public interface TaskStatusRepository extends JpaRepository<TaskStatus, Long> {
     List<TaskStatus> findByBoardId(String boardId);
     List<TaskStatus> findByBoardIdOrderByPositionAsc(String boardId);
     List<TaskStatus> findByBoardOrderByPosition(Board board);
-} 
\ No newline at end of file
+
+    /**
+     * Статус задачи без связанных задач для BoardSnapshot
+     */
+    interface TaskStatusRow {
+        Long getId();
+        String getName();
+        String getColor();
+        Integer getPosition();
+        Boolean getIsDefault();
+        Boolean getIsCustom();
+    }
+
+    @Query("SELECT s.id AS id, s.name AS name, s.color AS color, s.position AS position, " +
+           "s.isDefault AS isDefault, s.isCustom AS isCustom " +
+           "FROM TaskStatus s WHERE s.board.id = :boardId ORDER BY s.position ASC")
+    List<TaskStatusRow> findRowsByBoardId(@Param("boardId") String boardId);
+}
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.yourapp.repository;
 import com.yourapp.model.Board;
 import com.yourapp.model.TaskType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -11,4 +13,22 @@ public interface TaskTypeRepository extends JpaRepository<TaskType, Long> {
     List<TaskType> findByBoardId(String boardId);
     List<TaskType> findByBoardIdOrderByPositionAsc(String boardId);
     List<TaskType> findByBoardOrderByPosition(Board board);
-} 
\ No newline at end of file
+
+    /**
+     * Тип задачи без связанных задач для BoardSnapshot
+     */
+    interface TaskTypeRow {
+        Long getId();
+        String getName();
+        String getColor();
+        String getIcon();
+        Integer getPosition();
+        Boolean getIsDefault();
+        Boolean getIsCustom();
+    }
+
+    @Query("SELECT t.id AS id, t.name AS name, t.color AS color, t.icon AS icon, t.position AS position, " +
+           "t.isDefault AS isDefault, t.isCustom AS isCustom " +
+           "FROM TaskType t WHERE t.board.id = :boardId ORDER BY t.position ASC")
+    List<TaskTypeRow> findRowsByBoardId(@Param("boardId") String boardId);
+}
\ No newline at end of file
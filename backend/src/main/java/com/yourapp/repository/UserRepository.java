@@ -12,4 +12,5 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByTelegramId(String telegramId);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+    boolean existsByAvatarBlobHash(String avatarBlobHash);
 }
\ No newline at end of file
@@ -23,7 +23,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PrincipalCache principalCache;
     private final UserDetailsService userDetailsService;
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -49,12 +50,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             final String jwt = authHeader.substring(7);
             logger.debug("Обработка JWT токена: {}", maskToken(jwt));
             
-            final String userEmail = jwtService.extractUsername(jwt);
+            // Подпись проверяется один раз за время жизни токена, дальше subject берется из кэша
+            final String userEmail = verifiedTokenCache.verify(jwt);
             logger.debug("Извлеченный email: {}", userEmail);
             
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                logger.debug("Загрузка пользователя по email: {}", userEmail);
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = principalCache.get(userEmail, this.userDetailsService::loadUserByUsername);
                 
                 if (userDetails == null) {
                     logger.warn("Пользователь с email {} не найден", userEmail);
@@ -62,11 +63,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
                 
-                logger.debug("Проверка валидности токена для пользователя: {}", userEmail);
-                boolean isTokenValid = jwtService.isTokenValid(jwt, userDetails);
-                logger.debug("Результат проверки токена: {}", isTokenValid);
-                
-                if (isTokenValid) {
+                // Срок действия уже проверен при разборе токена, остается сверить имя пользователя
+                if (userEmail.equals(userDetails.getUsername())) {
+                    // Пользователь из токена становится principal и переиспользуется до конца запроса
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
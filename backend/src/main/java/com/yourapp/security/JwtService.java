@@ -42,7 +42,19 @@ public class JwtService {
         this.userDetailsService = userDetailsService;
     }
 
+    // Ключ выводится из секрета один раз, а не на каждый разбор токена
+    private volatile SecretKey signingKey;
+
     private SecretKey getSigningKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = deriveSigningKey();
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private SecretKey deriveSigningKey() {
         try {
             // Используем SHA-256 для создания 256-битного ключа из секрета
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
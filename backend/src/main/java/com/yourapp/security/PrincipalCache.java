@@ -0,0 +1,101 @@
+package com.yourapp.security;
+
+import com.yourapp.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Кэш аутентифицированных пользователей по имени из токена с коротким временем жизни.
+ * Избавляет фильтр аутентификации от запроса в БД на каждый запрос; при изменении
+ * профиля, пароля или удалении пользователя запись сбрасывается через {@link #evictAfterCommit}.
+ */
+@Component
+public class PrincipalCache {
+
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Map<String, Entry> principals;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+                          @Value("${app.auth.principal-ttl-ms:30000}") long ttlMs,
+                          @Value("${app.auth.principal-cache-size:10000}") int maxEntries) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.principals = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PrincipalCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("auth.principal.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("auth.principal.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Возвращает пользователя из кэша или загружает его
+     * @param username имя пользователя из токена
+     * @param loader загрузка пользователя при промахе
+     * @return данные пользователя
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (principals) {
+            Entry cached = principals.get(username);
+            if (cached != null && cached.expiresAt() > now) {
+                hits.increment();
+                return cached.user();
+            }
+        }
+
+        misses.increment();
+        UserDetails user = loader.apply(username);
+        if (user != null) {
+            synchronized (principals) {
+                principals.put(username, new Entry(user, now + ttlMs));
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Удаляет пользователя из кэша сразу и после коммита текущей транзакции,
+     * чтобы параллельный запрос не вернул в кэш старую версию
+     * @param userId ID пользователя
+     */
+    public void evictAfterCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long userId) {
+        synchronized (principals) {
+            principals.values().removeIf(entry ->
+                entry.user() instanceof User user && userId.equals(user.getId()));
+        }
+    }
+
+    private record Entry(UserDetails user, long expiresAt) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.yourapp.security;
+
+import com.yourapp.model.User;
+import com.yourapp.service.BoardEventPublisher;
+import com.yourapp.service.BoardMemberService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Аутентификация STOMP-сессии по JWT из заголовка Authorization кадра CONNECT
+ * и проверка прав на подписку /topic/boards/{boardId}: подписаться может только
+ * владелец или участник доски. Подписки по шаблонам, на другие адреса /topic и прямо
+ * на очереди /queue (минуя /user) отклоняются.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(StompAuthChannelInterceptor.class);
+
+    private static final String TOPIC_PREFIX = "/topic/";
+    private static final String QUEUE_PREFIX = "/queue/";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PrincipalCache principalCache;
+    private final UserDetailsService userDetailsService;
+    private final BoardMemberService boardMemberService;
+
+    // @Lazy разрывает цикл: брокер сообщений -> перехватчик -> сервисы -> SimpMessagingTemplate
+    public StompAuthChannelInterceptor(@Lazy VerifiedTokenCache verifiedTokenCache,
+                                       PrincipalCache principalCache,
+                                       @Lazy UserDetailsService userDetailsService,
+                                       @Lazy BoardMemberService boardMemberService) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.principalCache = principalCache;
+        this.userDetailsService = userDetailsService;
+        this.boardMemberService = boardMemberService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            authenticate(accessor);
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            authorizeSubscription(accessor);
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ") || authHeader.length() <= 7) {
+            return;
+        }
+        try {
+            String jwt = authHeader.substring(7);
+            String userEmail = verifiedTokenCache.verify(jwt);
+            if (userEmail == null) {
+                return;
+            }
+            UserDetails userDetails = principalCache.get(userEmail, userDetailsService::loadUserByUsername);
+            if (userDetails != null && userEmail.equals(userDetails.getUsername())) {
+                accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+                logger.debug("STOMP-сессия аутентифицирована для пользователя {}", userEmail);
+            }
+        } catch (Exception e) {
+            logger.warn("Ошибка аутентификации STOMP-сессии: {}", e.getMessage());
+        }
+    }
+
+    private void authorizeSubscription(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        Long userId = userIdOf(accessor.getUser());
+        if (destination == null) {
+            return;
+        }
+        // SimpleBroker сопоставляет подписки как Ant-шаблоны: /topic/** получила бы события всех досок
+        if (destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0) {
+            logger.warn("Отклонена подписка по шаблону {} для пользователя {}", destination, userId);
+            throw new AccessDeniedException("Подписка по шаблону запрещена");
+        }
+        // Личные очереди доступны только через /user/queue/..., прямые имена очередей сессий закрыты
+        if (destination.startsWith(QUEUE_PREFIX)) {
+            logger.warn("Отклонена прямая подписка на {} для пользователя {}", destination, userId);
+            throw new AccessDeniedException("Нет доступа к " + destination);
+        }
+        if (!destination.startsWith(TOPIC_PREFIX)) {
+            return;
+        }
+        // В /topic разрешены только точные /topic/boards/{boardId} досок пользователя
+        String boardId = destination.startsWith(BoardEventPublisher.BOARD_TOPIC_PREFIX)
+            ? destination.substring(BoardEventPublisher.BOARD_TOPIC_PREFIX.length())
+            : "";
+        if (boardId.isEmpty() || boardId.contains("/") || userId == null
+                || !boardMemberService.hasBoardAccess(boardId, userId)) {
+            logger.warn("Отклонена подписка на {} для пользователя {}", destination, userId);
+            throw new AccessDeniedException("Нет доступа к " + destination);
+        }
+    }
+
+    private static Long userIdOf(Principal principal) {
+        if (principal instanceof UsernamePasswordAuthenticationToken token
+                && token.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.yourapp.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Кэш проверенных JWT.
+ * Подпись токена проверяется один раз; затем до истечения срока действия токена
+ * его subject берется из кэша. Ключ — SHA-256 от токена, сами токены в памяти не хранятся.
+ * Размер ограничен, при переполнении вытесняются давно не использованные токены.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+    private final int maxEntries;
+    private final Map<String, VerifiedToken> tokens;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.auth.token-cache-size:10000}") int maxEntries) {
+        this.jwtService = jwtService;
+        this.maxEntries = maxEntries;
+        this.tokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > VerifiedTokenCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("auth.token.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("auth.token.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Проверяет токен и возвращает его subject.
+     * Недействительный или истекший токен приводит к исключению JwtException, как и без кэша
+     * @param token JWT без префикса Bearer
+     * @return subject токена (имя пользователя)
+     */
+    public String verify(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        synchronized (tokens) {
+            VerifiedToken cached = tokens.get(digest);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    hits.increment();
+                    return cached.subject();
+                }
+                tokens.remove(digest);
+            }
+        }
+
+        misses.increment();
+        // Разбор с проверкой подписи и срока действия
+        Claims claims = jwtService.extractClaim(token, Function.identity());
+        if (claims.getSubject() != null && claims.getExpiration() != null) {
+            synchronized (tokens) {
+                tokens.put(digest, new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime()));
+            }
+        }
+        return claims.getSubject();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private record VerifiedToken(String subject, long expiresAt) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.yourapp.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Содержимое вложений и аватаров с адресацией по SHA-256.
+ * Одинаковые файлы хранятся один раз; stored_blobs.ref_count считает ссылающиеся вложения
+ * и аватары и меняется в транзакции добавления или удаления ссылки. Файлы без ссылок удаляет
+ * сборщик по расписанию, после периода ожидания.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttachmentBlobService {
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentBlobService.class);
+
+    private static final String ACQUIRE_SQL =
+        "INSERT INTO stored_blobs (hash, size, ref_count) VALUES (?, ?, 1) " +
+        "ON CONFLICT (hash) DO UPDATE SET ref_count = stored_blobs.ref_count + 1, updated_at = CURRENT_TIMESTAMP";
+
+    private static final String RELEASE_SQL =
+        "UPDATE stored_blobs SET ref_count = GREATEST(ref_count - 1, 0), updated_at = CURRENT_TIMESTAMP WHERE hash = ?";
+
+    // Счетчики расходятся, если вложения удаляются каскадом (удаление задачи, колонки, доски)
+    // или удаляется пользователь с аватаром
+    private static final String RECONCILE_SQL =
+        "UPDATE stored_blobs b SET ref_count = r.cnt, updated_at = CURRENT_TIMESTAMP " +
+        "FROM (SELECT s.hash, " +
+        "      (SELECT COUNT(*) FROM attachments a WHERE a.blob_hash = s.hash) + " +
+        "      (SELECT COUNT(*) FROM users u WHERE u.avatar_blob_hash = s.hash) AS cnt " +
+        "      FROM stored_blobs s) r " +
+        "WHERE r.hash = b.hash AND b.ref_count <> r.cnt";
+
+    // Строки, заблокированные незавершенной загрузкой того же содержимого, пропускаются
+    private static final String GARBAGE_SQL =
+        "SELECT hash FROM stored_blobs b WHERE b.ref_count <= 0 AND b.updated_at < ? " +
+        "AND NOT EXISTS (SELECT 1 FROM attachments a WHERE a.blob_hash = b.hash) " +
+        "AND NOT EXISTS (SELECT 1 FROM users u WHERE u.avatar_blob_hash = b.hash) " +
+        "ORDER BY b.updated_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+
+    @Value("${app.blobs.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+
+    @Value("${app.blobs.gc-batch-size:1000}")
+    private int gcBatchSize;
+
+    /**
+     * Сохраняет файл вложения или аватара и добавляет ссылку на его содержимое.
+     * Хеш считается во время копирования; если содержимое уже есть, копия удаляется
+     * @param file загруженный файл
+     * @return сохраненное содержимое
+     */
+    @Transactional
+    public StoredBlob store(MultipartFile file) throws IOException {
+        FileStorageService.TempBlob temp;
+        try (InputStream input = file.getInputStream()) {
+            temp = fileStorageService.writeTempBlob(input);
+        }
+        return store(temp);
+    }
+
+    /**
+     * Переносит записанный временный файл в хранилище и добавляет ссылку на его содержимое
+     * @param temp временный файл с вычисленным хешем
+     * @return сохраненное содержимое
+     */
+    @Transactional
+    public StoredBlob store(FileStorageService.TempBlob temp) throws IOException {
+        try {
+            // Строка блокируется до коммита, поэтому сборщик не удалит файл между этими шагами
+            jdbcTemplate.update(ACQUIRE_SQL, temp.hash(), temp.size());
+            String path = fileStorageService.publishBlob(temp);
+            return new StoredBlob(temp.hash(), temp.size(), path);
+        } finally {
+            fileStorageService.discardTempBlob(temp);
+        }
+    }
+
+    /**
+     * Снимает ссылку вложения или аватара на содержимое. Файл и его миниатюры удаляются позже сборщиком
+     * @param hash SHA-256 содержимого
+     */
+    @Transactional
+    public void release(String hash) {
+        if (hash != null) {
+            jdbcTemplate.update(RELEASE_SQL, hash);
+        }
+    }
+
+    /**
+     * Исправляет счетчики ссылок и удаляет содержимое, на которое больше нет ссылок
+     */
+    @Scheduled(cron = "${app.blobs.gc-cron:0 15 4 * * ?}")
+    @Transactional
+    public void collectGarbage() {
+        int reconciled = jdbcTemplate.update(RECONCILE_SQL);
+        if (reconciled > 0) {
+            logger.warn("Исправлены счетчики ссылок у {} файлов вложений и аватаров", reconciled);
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(gcGraceMinutes);
+        List<String> hashes = jdbcTemplate.queryForList(GARBAGE_SQL, String.class, cutoff, gcBatchSize);
+        if (hashes.isEmpty()) {
+            return;
+        }
+        // Файлы удаляются под блокировкой строк: параллельная загрузка того же содержимого
+        // дождется коммита и сохранит файл заново
+        hashes.forEach(hash -> {
+            imageDerivativeService.deleteThumbnails(fileStorageService.getBlobUrl(hash));
+            fileStorageService.deleteBlob(hash);
+        });
+        jdbcTemplate.batchUpdate("DELETE FROM stored_blobs WHERE hash = ?",
+            hashes.stream().map(hash -> new Object[]{hash}).toList());
+        logger.info("Удалено {} неиспользуемых файлов вложений и аватаров", hashes.size());
+    }
+
+    /**
+     * Сохраненное содержимое вложения
+     * @param hash SHA-256 в hex
+     * @param size размер в байтах
+     * @param path относительный путь для хранения в БД
+     */
+    public record StoredBlob(String hash, long size, String path) {
+    }
+}
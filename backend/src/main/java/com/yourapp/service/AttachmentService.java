@@ -0,0 +1,116 @@
+package com.yourapp.service;
+
+import com.yourapp.exception.ResourceNotFoundException;
+import com.yourapp.model.User;
+import com.yourapp.repository.AttachmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Доступ к содержимому вложений с проверкой прав на доску задачи
+ */
+@Service
+@RequiredArgsConstructor
+public class AttachmentService {
+
+    private final AttachmentRepository attachmentRepository;
+    private final BoardMemberService boardMemberService;
+    private final FileStorageService fileStorageService;
+
+    /**
+     * Находит файл вложения для скачивания
+     * @param attachmentId ID вложения
+     * @param currentUser пользователь, запрашивающий файл
+     * @return файл и его валидаторы для кэширования
+     */
+    // Без транзакции: скачивание из удаленного хранилища в кэш не должно держать соединение с БД
+    public AttachmentContent getContent(Long attachmentId, User currentUser) {
+        AttachmentRepository.AttachmentContentRow row = findAccessibleRow(attachmentId, currentUser);
+
+        try {
+            // Содержимое из удаленного хранилища сначала попадает в дисковый кэш узла
+            Path file = row.getBlobHash() != null
+                ? fileStorageService.getBlobFile(row.getBlobHash())
+                : fileStorageService.getFullPath(row.getFilePath());
+            long size = Files.size(file);
+            Instant lastModified = Files.getLastModifiedTime(file).toInstant();
+            // Хеш содержимого — сильный валидатор; для старых файлов — ID, размер и время изменения
+            String etag = row.getBlobHash() != null
+                ? "\"" + row.getBlobHash() + "\""
+                : "\"" + row.getId() + "-" + size + "-" + lastModified.toEpochMilli() + "\"";
+            return new AttachmentContent(file, row.getFileName(), row.getContentType(), size, etag,
+                lastModified, row.getBlobHash() != null);
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Attachment file not found");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения вложения " + attachmentId, e);
+        }
+    }
+
+    /**
+     * Находит миниатюру изображения-вложения
+     * @param attachmentId ID вложения
+     * @param size размер миниатюры в пикселях
+     * @param currentUser пользователь, запрашивающий миниатюру
+     * @return файл миниатюры и его валидаторы для кэширования
+     */
+    public AttachmentContent getThumbnail(Long attachmentId, int size, User currentUser) {
+        AttachmentRepository.AttachmentContentRow row = findAccessibleRow(attachmentId, currentUser);
+        String thumbnailPath = row.getThumbnails() != null ? row.getThumbnails().get(String.valueOf(size)) : null;
+        if (thumbnailPath == null) {
+            throw new ResourceNotFoundException("Thumbnail not found");
+        }
+
+        try {
+            // Миниатюры содержимого по хешу лежат в хранилище, миниатюры старых файлов — в директории загрузок
+            Path file = fileStorageService.getLocalFile(thumbnailPath);
+            long fileSize = Files.size(file);
+            Instant lastModified = Files.getLastModifiedTime(file).toInstant();
+            // Путь миниатюры строится из неизменного пути исходного файла и размера
+            String etag = "\"" + (row.getBlobHash() != null ? row.getBlobHash() : String.valueOf(row.getId())) + "-" + size + "\"";
+            return new AttachmentContent(file, thumbnailName(row.getFileName(), size), "image/png", fileSize, etag,
+                lastModified, row.getBlobHash() != null);
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Thumbnail file not found");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения миниатюры вложения " + attachmentId, e);
+        }
+    }
+
+    private AttachmentRepository.AttachmentContentRow findAccessibleRow(Long attachmentId, User currentUser) {
+        AttachmentRepository.AttachmentContentRow row = attachmentRepository.findContentRowById(attachmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found"));
+        if (currentUser == null || !boardMemberService.hasBoardAccess(row.getBoardId(), currentUser.getId())) {
+            throw new AccessDeniedException("Нет доступа к вложению " + attachmentId);
+        }
+        return row;
+    }
+
+    private static String thumbnailName(String fileName, int size) {
+        String base = fileName == null ? "file"
+            : fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+        return base + "-" + size + ".png";
+    }
+
+    /**
+     * Файл вложения
+     * @param file путь к файлу
+     * @param fileName исходное имя файла
+     * @param contentType MIME-тип из загрузки
+     * @param size размер в байтах
+     * @param etag ETag в кавычках
+     * @param lastModified время изменения файла
+     * @param immutable содержимое адресуется хешем и не меняется
+     */
+    public record AttachmentContent(Path file, String fileName, String contentType, long size, String etag,
+                                    Instant lastModified, boolean immutable) {
+    }
+}
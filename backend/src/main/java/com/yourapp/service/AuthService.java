@@ -12,6 +12,7 @@ import com.yourapp.repository.UserRepository;
 import com.yourapp.repository.NotificationPreferencesRepository;
 import com.yourapp.repository.UserSettingsRepository;
 import com.yourapp.security.JwtService;
+import com.yourapp.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +33,8 @@ public class AuthService {
     private final JwtService jwtService;
     private final NotificationPreferencesRepository notificationPreferencesRepository;
     private final UserSettingsRepository userSettingsRepository;
+    private final PrincipalCache principalCache;
+    private final BoardMemberDirectory boardMemberDirectory;
     
     public AuthResponse register(RegisterRequest request) {
         try {
@@ -135,6 +138,8 @@ public class AuthService {
             String newHash = passwordEncoder.encode(rawPassword);
             user.setPassword(newHash);
             user = userRepository.save(user);
+            principalCache.evictAfterCommit(user.getId());
+            boardMemberDirectory.evictUserAfterCommit(user.getId());
             logger.info("Хеш пароля обновлен до современного формата");
         }
         
@@ -192,6 +197,7 @@ public class AuthService {
         
         if (!isNewUser) {
             user = userRepository.save(user);
+            principalCache.evictAfterCommit(user.getId());
         }
         
         String token = jwtService.generateToken(user);
@@ -256,6 +262,7 @@ public class AuthService {
             
             user.setPassword(passwordEncoder.encode(newPassword));
             userRepository.save(user);
+            principalCache.evictAfterCommit(userId);
             
             logger.info("Пароль успешно сброшен администратором для пользователя: {}", user.getUsername());
             return true;
@@ -288,6 +295,7 @@ public class AuthService {
         // Устанавливаем новый пароль
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.evictAfterCommit(user.getId());
         
         logger.info("Пароль успешно изменен пользователем: {}", email);
         
@@ -0,0 +1,259 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardDelta;
+import com.yourapp.dto.BoardEvent;
+import com.yourapp.dto.BoardSnapshot;
+import com.yourapp.model.BoardChange;
+import com.yourapp.repository.BoardChangeRepository;
+import com.yourapp.repository.BoardRepository;
+import com.yourapp.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Журнал изменений досок и дельта-синхронизация.
+ * Каждое изменение увеличивает версию доски, записывает, какие сущности затронуты,
+ * и после коммита рассылает событие в /topic/boards/{boardId};
+ * по журналу клиент получает только то, что изменилось после известной ему версии.
+ */
+@Service
+@RequiredArgsConstructor
+public class BoardChangeService {
+    private static final Logger logger = LoggerFactory.getLogger(BoardChangeService.class);
+
+    private final BoardChangeRepository boardChangeRepository;
+    private final BoardRepository boardRepository;
+    private final BoardVersionService boardVersionService;
+    private final BoardSnapshotService boardSnapshotService;
+    private final BoardSnapshotCache boardSnapshotCache;
+    private final BoardEventPublisher boardEventPublisher;
+    private final TaskRepository taskRepository;
+
+    @Value("${app.board-changes.retention-hours:72}")
+    private long retentionHours;
+
+    /**
+     * Фиксирует изменение самой доски (название, описание, архивность, участники)
+     * @param boardId ID доски
+     * @return новая версия доски
+     */
+    @Transactional
+    public long recordBoard(String boardId) {
+        return record(boardId, BoardChange.EntityType.BOARD, List.of(), BoardChange.Action.UPDATED);
+    }
+
+    /**
+     * Фиксирует изменение профиля пользователя (имя, email, аватар или его миниатюры).
+     * Снимок доски показывает пользователя только как исполнителя задач и подзадач,
+     * поэтому каждая такая доска получает новую версию с этими задачами
+     * @param userId ID пользователя
+     */
+    @Transactional
+    public void recordUser(Long userId) {
+        Map<String, List<Long>> tasksByBoard = new LinkedHashMap<>();
+        for (TaskRepository.BoardTaskRow row : taskRepository.findBoardTasksByAssigneeId(userId)) {
+            tasksByBoard.computeIfAbsent(row.getBoardId(), id -> new ArrayList<>()).add(row.getTaskId());
+        }
+        tasksByBoard.forEach((boardId, taskIds) ->
+            record(boardId, BoardChange.EntityType.TASK, taskIds, BoardChange.Action.UPDATED));
+        logger.debug("Профиль пользователя {} изменен: обновлено досок {}", userId, tasksByBoard.size());
+    }
+
+    /**
+     * Фиксирует изменение одной сущности доски
+     * @param boardId ID доски
+     * @param entityType тип сущности
+     * @param entityId ID сущности (null для самой доски)
+     * @param action вид изменения
+     * @return новая версия доски
+     */
+    @Transactional
+    public long record(String boardId, BoardChange.EntityType entityType, Long entityId, BoardChange.Action action) {
+        return record(boardId, entityType, entityId != null ? List.of(entityId) : null, action);
+    }
+
+    /**
+     * Фиксирует изменение нескольких сущностей одного типа одной новой версией доски
+     * (например, пересчет позиций при перемещении)
+     * @param boardId ID доски
+     * @param entityType тип сущности
+     * @param entityIds ID сущностей (null или пусто для самой доски)
+     * @param action вид изменения
+     * @return новая версия доски
+     */
+    @Transactional
+    public long record(String boardId, BoardChange.EntityType entityType, Collection<Long> entityIds,
+                       BoardChange.Action action) {
+        if (boardId == null) {
+            return 0L;
+        }
+        long version = boardVersionService.bump(boardId);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<BoardChange> changes = new ArrayList<>();
+        if (entityIds == null || entityIds.isEmpty()) {
+            changes.add(change(boardId, version, entityType, null, action, now));
+        } else {
+            for (Long entityId : new LinkedHashSet<>(entityIds)) {
+                if (entityId != null) {
+                    changes.add(change(boardId, version, entityType, entityId, action, now));
+                }
+            }
+        }
+        boardChangeRepository.saveAll(changes);
+
+        boardEventPublisher.publishAfterCommit(BoardEvent.builder()
+                .type(BoardEvent.typeOf(entityType, action))
+                .boardId(boardId)
+                .version(version)
+                .entityType(entityType)
+                .action(action)
+                .entityIds(changes.stream().map(BoardChange::getEntityId).filter(Objects::nonNull).toList())
+                .build());
+        return version;
+    }
+
+    /**
+     * Возвращает изменения доски после указанной версии.
+     * Если журнал не покрывает запрошенную версию, возвращается полный снимок
+     * @param boardId ID доски
+     * @param since версия, известная клиенту
+     * @return дельта или полный снимок
+     */
+    @Transactional(readOnly = true)
+    public BoardDelta getChanges(String boardId, long since) {
+        long current = boardVersionService.currentVersion(boardId);
+
+        BoardDelta delta = new BoardDelta();
+        delta.setBoardId(boardId);
+        delta.setSince(since);
+        delta.setVersion(current);
+
+        if (since == current) {
+            return delta;
+        }
+
+        Long oldestLogged = boardChangeRepository.findMinVersionByBoardId(boardId).orElse(null);
+        if (since < 0 || since > current || oldestLogged == null || oldestLogged > since + 1) {
+            logger.debug("Журнал доски {} не покрывает версию {} (самая ранняя: {}), отдаем полный снимок",
+                boardId, since, oldestLogged);
+            return fullDelta(delta, current);
+        }
+
+        List<BoardChange> changes = boardChangeRepository
+                .findByBoardIdAndVersionGreaterThanOrderByVersionAsc(boardId, since);
+
+        boolean boardChanged = false;
+        Set<Long> columnIds = new LinkedHashSet<>();
+        Set<Long> statusIds = new LinkedHashSet<>();
+        Set<Long> typeIds = new LinkedHashSet<>();
+        Set<Long> taskIds = new LinkedHashSet<>();
+        for (BoardChange change : changes) {
+            delta.setVersion(Math.max(delta.getVersion(), change.getVersion()));
+            switch (change.getEntityType()) {
+                case BOARD -> boardChanged = true;
+                case COLUMN -> columnIds.add(change.getEntityId());
+                case STATUS -> statusIds.add(change.getEntityId());
+                case TYPE -> typeIds.add(change.getEntityId());
+                case TASK -> taskIds.add(change.getEntityId());
+            }
+        }
+
+        if (boardChanged) {
+            boardRepository.findHeaderById(boardId).ifPresent(header -> {
+                delta.setName(header.getName());
+                delta.setDescription(header.getDescription());
+                delta.setArchived(header.getArchived());
+            });
+        }
+        if (!columnIds.isEmpty()) {
+            collect(boardSnapshotService.loadColumns(boardId), BoardSnapshot.ColumnSnapshot::getId,
+                columnIds, delta.getColumns(), delta.getDeletedColumnIds());
+        }
+        if (!statusIds.isEmpty()) {
+            collect(boardSnapshotService.loadStatuses(boardId), BoardSnapshot.StatusSnapshot::getId,
+                statusIds, delta.getTaskStatuses(), delta.getDeletedStatusIds());
+        }
+        if (!typeIds.isEmpty()) {
+            collect(boardSnapshotService.loadTypes(boardId), BoardSnapshot.TypeSnapshot::getId,
+                typeIds, delta.getTaskTypes(), delta.getDeletedTypeIds());
+        }
+        if (!taskIds.isEmpty()) {
+            collect(boardSnapshotService.loadTasks(boardId, taskIds), BoardSnapshot.TaskSnapshot::getId,
+                taskIds, delta.getTasks(), delta.getDeletedTaskIds());
+        }
+
+        logger.debug("Дельта доски {} с версии {} до {}: {} записей журнала, {} задач, {} удаленных задач",
+            boardId, since, delta.getVersion(), changes.size(), delta.getTasks().size(), delta.getDeletedTaskIds().size());
+        return delta;
+    }
+
+    /**
+     * Удаляет записи журнала старше срока хранения. Клиенты, отставшие сильнее,
+     * получат полный снимок
+     */
+    @Scheduled(cron = "0 30 * * * ?")
+    @Transactional
+    public void pruneChanges() {
+        int removed = boardChangeRepository.deleteOlderThan(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            logger.info("Удалено {} устаревших записей журнала изменений досок", removed);
+        }
+    }
+
+    private BoardDelta fullDelta(BoardDelta delta, long current) {
+        BoardSnapshot snapshot = boardSnapshotCache.getOrLoad(delta.getBoardId(), current);
+        delta.setFull(true);
+        delta.setVersion(snapshot.getVersion());
+        delta.setSnapshot(snapshot);
+        return delta;
+    }
+
+    /**
+     * Раскладывает затронутые сущности: найденные попадают в target, отсутствующие считаются удаленными
+     */
+    private static <T> void collect(List<T> loaded, Function<T, Long> idOf, Set<Long> changedIds,
+                                    List<T> target, List<Long> deletedIds) {
+        Set<Long> found = new LinkedHashSet<>();
+        for (T item : loaded) {
+            Long id = idOf.apply(item);
+            if (changedIds.contains(id)) {
+                target.add(item);
+                found.add(id);
+            }
+        }
+        for (Long id : changedIds) {
+            if (!found.contains(id)) {
+                deletedIds.add(id);
+            }
+        }
+    }
+
+    private static BoardChange change(String boardId, long version, BoardChange.EntityType entityType,
+                                      Long entityId, BoardChange.Action action, LocalDateTime now) {
+        return BoardChange.builder()
+                .boardId(boardId)
+                .version(version)
+                .entityType(entityType)
+                .entityId(entityId)
+                .action(action)
+                .createdAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardEvent;
+import com.yourapp.model.User;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Рассылка событий доски в топик /topic/boards/{boardId}.
+ * События уходят только после коммита транзакции, чтобы подписчики не увидели
+ * изменения, которые затем откатились.
+ */
+@Service
+@RequiredArgsConstructor
+public class BoardEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(BoardEventPublisher.class);
+
+    public static final String BOARD_TOPIC_PREFIX = "/topic/boards/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Публикует событие после коммита текущей транзакции (или сразу, если транзакции нет)
+     * @param event событие доски
+     */
+    public void publishAfterCommit(BoardEvent event) {
+        if (event.getActorId() == null) {
+            event.setActorId(currentUserId());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(BoardEvent event) {
+        try {
+            messagingTemplate.convertAndSend(BOARD_TOPIC_PREFIX + event.getBoardId(), event);
+            logger.debug("Событие {} доски {} отправлено (версия {})", event.getType(), event.getBoardId(), event.getVersion());
+        } catch (Exception e) {
+            // Событие не критично: клиент догонит состояние по версии через /changes
+            logger.warn("Не удалось отправить событие {} доски {}: {}", event.getType(), event.getBoardId(), e.getMessage());
+        }
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
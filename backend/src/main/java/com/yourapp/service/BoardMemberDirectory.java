@@ -0,0 +1,218 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.UserDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш участников досок (владелец и участники) для упоминаний и автодополнения.
+ * Справочник доски загружается одним запросом и хранит индекс по имени пользователя
+ * и отсортированный индекс для поиска по префиксу (имя пользователя и отображаемое имя
+ * в нижнем регистре). Справочник сбрасывается после коммита изменения участников доски
+ * или профиля пользователя.
+ */
+@Service
+public class BoardMemberDirectory {
+    private static final Logger logger = LoggerFactory.getLogger(BoardMemberDirectory.class);
+
+    // Разделитель ключа префиксного индекса: текст в нижнем регистре, затем ID пользователя
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private static final String LOAD_SQL =
+        "SELECT u.id, u.username, u.email, u.display_name, u.avatar_url FROM users u " +
+        "WHERE u.id IN (SELECT created_by FROM boards WHERE id = ? " +
+        "               UNION SELECT user_id FROM board_members WHERE board_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBoards;
+
+    // Загруженные справочники; вытесняются давно не использованные
+    private final Map<String, Directory> directories;
+    // Номер сброса: справочник, загруженный до сброса, в кэш не попадает
+    private final AtomicLong generation = new AtomicLong();
+
+    public BoardMemberDirectory(JdbcTemplate jdbcTemplate,
+                                @Value("${app.members.directory-max-boards:1000}") int maxBoards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBoards = maxBoards;
+        this.directories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Directory> eldest) {
+                return size() > BoardMemberDirectory.this.maxBoards;
+            }
+        };
+    }
+
+    /**
+     * Находит участников доски по именам пользователей
+     * @param boardId ID доски
+     * @param usernames имена пользователей (с учетом регистра)
+     * @return ID найденных участников; имена, не принадлежащие участникам доски, пропускаются
+     */
+    public List<Long> resolveUsernames(String boardId, Collection<String> usernames) {
+        List<Long> result = new ArrayList<>();
+        if (boardId == null || usernames.isEmpty()) {
+            return result;
+        }
+        Directory directory = directory(boardId);
+        for (String username : usernames) {
+            for (UserDto member : directory.byUsername().getOrDefault(username, List.of())) {
+                result.add(member.getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, является ли пользователь владельцем или участником доски
+     * @param boardId ID доски
+     * @param userId ID пользователя
+     * @return true, если пользователь есть в справочнике доски
+     */
+    public boolean contains(String boardId, Long userId) {
+        return userId != null && directory(boardId).byId().containsKey(userId);
+    }
+
+    /**
+     * Автодополнение участников доски по началу имени пользователя или отображаемого имени
+     * @param boardId ID доски
+     * @param prefix префикс без учета регистра (пустой — все участники)
+     * @param limit максимальное количество участников
+     * @return участники в алфавитном порядке совпавшего имени
+     */
+    public List<UserDto> autocomplete(String boardId, String prefix, int limit) {
+        Directory directory = directory(boardId);
+        String from = prefix != null ? prefix.trim().toLowerCase(Locale.ROOT) : "";
+        if (from.startsWith("@")) {
+            from = from.substring(1);
+        }
+        NavigableMap<String, UserDto> range = from.isEmpty()
+            ? directory.prefixIndex()
+            : directory.prefixIndex().subMap(from, true, from + Character.MAX_VALUE, false);
+
+        Map<Long, UserDto> result = new LinkedHashMap<>();
+        for (UserDto member : range.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.putIfAbsent(member.getId(), member);
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * Сбрасывает справочник доски после коммита текущей транзакции
+     * @param boardId ID доски
+     */
+    public void evictAfterCommit(String boardId) {
+        afterCommit(() -> evict(boardId));
+    }
+
+    /**
+     * Сбрасывает справочники досок, в которых есть пользователь (изменение профиля)
+     * @param userId ID пользователя
+     */
+    public void evictUserAfterCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (directories) {
+                generation.incrementAndGet();
+                directories.values().removeIf(directory -> directory.byId().containsKey(userId));
+            }
+        });
+    }
+
+    private Directory directory(String boardId) {
+        synchronized (directories) {
+            Directory directory = directories.get(boardId);
+            if (directory != null) {
+                return directory;
+            }
+        }
+        long loadedAt = generation.get();
+        Directory directory = load(boardId);
+        synchronized (directories) {
+            if (generation.get() != loadedAt) {
+                return directory;
+            }
+            directories.putIfAbsent(boardId, directory);
+            return directories.get(boardId);
+        }
+    }
+
+    private Directory load(String boardId) {
+        List<UserDto> members = jdbcTemplate.query(LOAD_SQL, (rs, rowNum) -> UserDto.builder()
+                .id(rs.getLong("id"))
+                .username(rs.getString("username"))
+                .email(rs.getString("email"))
+                .displayName(rs.getString("display_name"))
+                .avatarUrl(rs.getString("avatar_url"))
+                .build(),
+            boardId, boardId);
+
+        Map<Long, UserDto> byId = new HashMap<>();
+        Map<String, List<UserDto>> byUsername = new HashMap<>();
+        TreeMap<String, UserDto> prefixIndex = new TreeMap<>();
+        for (UserDto member : members) {
+            byId.put(member.getId(), member);
+            byUsername.computeIfAbsent(member.getUsername(), key -> new ArrayList<>(1)).add(member);
+            prefixIndex.put(indexKey(member.getUsername(), member.getId()), member);
+            if (member.getDisplayName() != null && !member.getDisplayName().isBlank()) {
+                prefixIndex.put(indexKey(member.getDisplayName(), member.getId()), member);
+            }
+        }
+        logger.debug("Загружен справочник участников доски {}: {} пользователей", boardId, members.size());
+        return new Directory(byId, byUsername, Collections.unmodifiableNavigableMap(prefixIndex));
+    }
+
+    private void evict(String boardId) {
+        synchronized (directories) {
+            generation.incrementAndGet();
+            directories.remove(boardId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String indexKey(String text, Long userId) {
+        return text.toLowerCase(Locale.ROOT) + KEY_SEPARATOR + userId;
+    }
+
+    /**
+     * Справочник одной доски; не изменяется после загрузки
+     */
+    private record Directory(Map<Long, UserDto> byId,
+                             Map<String, List<UserDto>> byUsername,
+                             NavigableMap<String, UserDto> prefixIndex) {
+    }
+}
@@ -33,6 +33,8 @@ public class BoardMemberService {
     private final UserRepository userRepository;
     private final RoleService roleService;
     private final NotificationUtil notificationUtil;
+    private final BoardChangeService boardChangeService;
+    private final BoardMemberDirectory boardMemberDirectory;
     
     /**
      * Добавляет пользователя к доске с указанной ролью
@@ -63,6 +65,8 @@ public class BoardMemberService {
                 .build();
         
         BoardMember savedMember = boardMemberRepository.save(boardMember);
+        boardChangeService.recordBoard(boardId);
+        boardMemberDirectory.evictAfterCommit(boardId);
         
         // Создаем уведомление о добавлении участника доски
         notificationUtil.notifyBoardMemberAdded(user, board);
@@ -132,6 +136,8 @@ public class BoardMemberService {
         boardMember.setRole(role);
         
         BoardMember updatedMember = boardMemberRepository.save(boardMember);
+        boardChangeService.recordBoard(boardId);
+        boardMemberDirectory.evictAfterCommit(boardId);
         
         // Создаем уведомление об изменении роли
         notificationUtil.notifyRoleChanged(user, board, role);
@@ -163,6 +169,8 @@ public class BoardMemberService {
         }
         
         boardMemberRepository.deleteByUserAndBoard(user, board);
+        boardChangeService.recordBoard(boardId);
+        boardMemberDirectory.evictAfterCommit(boardId);
         
         // Создаем уведомление об удалении участника доски
         notificationUtil.notifyBoardMemberRemoved(user, board);
@@ -179,6 +187,18 @@ public class BoardMemberService {
         return boardMemberRepository.existsByUserAndBoard(user, board);
     }
     
+    /**
+     * Проверяет, имеет ли пользователь доступ к доске (владелец или участник)
+     * @param boardId ID доски
+     * @param userId ID пользователя
+     * @return true, если доступ есть
+     */
+    @Transactional(readOnly = true)
+    public boolean hasBoardAccess(String boardId, Long userId) {
+        return boardRepository.existsByIdAndOwnerId(boardId, userId)
+                || boardMemberRepository.existsByBoardIdAndUserId(boardId, userId);
+    }
+    
     /**
      * Преобразование модели BoardMember в DTO
      * @param boardMember модель участника доски
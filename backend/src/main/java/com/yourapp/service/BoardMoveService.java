@@ -0,0 +1,240 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardMovesRequest;
+import com.yourapp.dto.BoardMovesResult;
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.BoardChange;
+import com.yourapp.model.User;
+import com.yourapp.repository.BoardColumnRepository;
+import com.yourapp.repository.TaskRepository;
+import com.yourapp.repository.TaskStatusRepository;
+import com.yourapp.repository.TaskTypeRepository;
+import com.yourapp.util.RankKeys;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетное перемещение задач внутри доски.
+ * Весь пакет проверяется заранее, порядок колонок моделируется в памяти, а в БД уходит
+ * по одному пакетному UPDATE для задач и одной пакетной вставке для истории;
+ * журнал изменений доски получает одну версию и одно событие на весь пакет.
+ * Колонки доски блокируются до чтения задач, как одиночные перемещения в TaskService,
+ * поэтому параллельная вставка не получит ключ, уже выданный пакетом.
+ */
+@Service
+@RequiredArgsConstructor
+public class BoardMoveService {
+    private static final Logger logger = LoggerFactory.getLogger(BoardMoveService.class);
+
+    private static final String UPDATE_TASK_SQL =
+        "UPDATE tasks SET column_id = ?, rank_key = ?, position = ?, status_id = ?, type_id = ?, updated_at = ? " +
+        "WHERE id = ?";
+    private static final String INSERT_HISTORY_SQL =
+        "INSERT INTO task_history (task_id, changed_by_id, username, avatar_url, action, field_changed, " +
+        "old_value, new_value, changed_at, timestamp, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final TaskRepository taskRepository;
+    private final BoardColumnRepository boardColumnRepository;
+    private final TaskStatusRepository taskStatusRepository;
+    private final TaskTypeRepository taskTypeRepository;
+    private final BoardMemberService boardMemberService;
+    private final BoardChangeService boardChangeService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.board-moves.max-batch:500}")
+    private int maxBatch;
+
+    /**
+     * Применяет перемещения по порядку в одной транзакции
+     * @param boardId ID доски
+     * @param moves перемещения
+     * @param currentUser пользователь, выполняющий перемещение
+     * @return итоговое положение перемещенных задач и новая версия доски
+     */
+    @Transactional
+    public BoardMovesResult applyMoves(String boardId, List<BoardMovesRequest.Move> moves, User currentUser) {
+        if (currentUser == null || !boardMemberService.hasBoardAccess(boardId, currentUser.getId())) {
+            throw new AccessDeniedException("Нет доступа к доске " + boardId);
+        }
+        if (moves.size() > maxBatch) {
+            throw new ValidationException(Map.of("moves", "Не более " + maxBatch + " перемещений за запрос"));
+        }
+
+        // Задачи и их ключи читаются только после блокировки колонок. Блокируются все колонки доски:
+        // исходные колонки задач известны лишь после чтения, а порядок ID исключает взаимоблокировку
+        boardColumnRepository.lockByBoardId(boardId);
+
+        // Колонки, статусы и типы доски: по ним проверяются все перемещения сразу
+        Map<Long, String> columnNames = boardColumnRepository.findRowsByBoardId(boardId).stream()
+                .collect(Collectors.toMap(BoardColumnRepository.ColumnRow::getId,
+                    BoardColumnRepository.ColumnRow::getName, (a, b) -> a, LinkedHashMap::new));
+        Set<Long> statusIds = taskStatusRepository.findRowsByBoardId(boardId).stream()
+                .map(TaskStatusRepository.TaskStatusRow::getId).collect(Collectors.toSet());
+        Set<Long> typeIds = taskTypeRepository.findRowsByBoardId(boardId).stream()
+                .map(TaskTypeRepository.TaskTypeRow::getId).collect(Collectors.toSet());
+
+        Set<Long> taskIds = moves.stream().map(BoardMovesRequest.Move::getTaskId).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, TaskRepository.MoveRow> rows = taskRepository.findMoveRowsByIds(taskIds).stream()
+                .collect(Collectors.toMap(TaskRepository.MoveRow::getId, row -> row));
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            BoardMovesRequest.Move move = moves.get(i);
+            TaskRepository.MoveRow row = rows.get(move.getTaskId());
+            String field = "moves[" + i + "]";
+            if (row == null || !boardId.equals(row.getBoardId())) {
+                errors.put(field, "Задача " + move.getTaskId() + " не найдена на доске");
+            } else if (!columnNames.containsKey(move.getColumnId())) {
+                errors.put(field, "Колонка " + move.getColumnId() + " не найдена на доске");
+            } else if (move.getStatusId() != null && !statusIds.contains(move.getStatusId())) {
+                errors.put(field, "Статус " + move.getStatusId() + " не найден на доске");
+            } else if (move.getTypeId() != null && !typeIds.contains(move.getTypeId())) {
+                errors.put(field, "Тип " + move.getTypeId() + " не найден на доске");
+            } else if (move.getPosition() != null && move.getPosition() < 0) {
+                errors.put(field, "Позиция не может быть отрицательной");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException(errors);
+        }
+
+        // Текущий порядок всех затронутых колонок одним запросом
+        Set<Long> columnIds = new LinkedHashSet<>();
+        rows.values().forEach(row -> columnIds.add(row.getColumnId()));
+        moves.forEach(move -> columnIds.add(move.getColumnId()));
+        Map<Long, List<Slot>> columns = new HashMap<>();
+        columnIds.forEach(id -> columns.put(id, new ArrayList<>()));
+        for (TaskRepository.RankRow rankRow : taskRepository.findRankRowsByColumnIds(columnIds)) {
+            columns.get(rankRow.getColumnId()).add(new Slot(rankRow.getId(), rankRow.getRankKey()));
+        }
+        // Между задачами с одинаковым ключом нельзя вставить новую; такие колонки
+        // переписывает RankRebalanceService, а пакет отклоняется целиком
+        for (Map.Entry<Long, List<Slot>> column : columns.entrySet()) {
+            List<Slot> slots = column.getValue();
+            for (int i = 1; i < slots.size(); i++) {
+                if (slots.get(i).rankKey.equals(slots.get(i - 1).rankKey)) {
+                    throw new ValidationException(Map.of("moves",
+                        "Порядок задач в колонке " + column.getKey() + " восстанавливается, повторите перемещение позже"));
+                }
+            }
+        }
+
+        // Моделируем перемещения по порядку; повторные перемещения задачи схлопываются
+        Map<Long, Placement> placements = new LinkedHashMap<>();
+        for (BoardMovesRequest.Move move : moves) {
+            TaskRepository.MoveRow row = rows.get(move.getTaskId());
+            Placement placement = placements.computeIfAbsent(row.getId(),
+                id -> new Placement(row.getColumnId(), row.getColumnId(), row.getStatusId(), row.getTypeId()));
+
+            List<Slot> source = columns.get(placement.columnId);
+            Slot slot = source.stream().filter(s -> s.taskId.equals(row.getId())).findFirst()
+                    .orElseGet(() -> new Slot(row.getId(), row.getRankKey()));
+            source.remove(slot);
+
+            List<Slot> destination = columns.get(move.getColumnId());
+            int index = move.getPosition() != null ? Math.min(move.getPosition(), destination.size()) : destination.size();
+            String before = index > 0 ? destination.get(index - 1).rankKey : null;
+            String after = index < destination.size() ? destination.get(index).rankKey : null;
+            slot.rankKey = RankKeys.between(before, after);
+            destination.add(index, slot);
+
+            placement.columnId = move.getColumnId();
+            placement.slot = slot;
+            if (move.getStatusId() != null) {
+                placement.statusId = move.getStatusId();
+            }
+            if (move.getTypeId() != null) {
+                placement.typeId = move.getTypeId();
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> taskUpdates = new ArrayList<>(placements.size());
+        List<Object[]> historyRows = new ArrayList<>(placements.size());
+        BoardMovesResult result = BoardMovesResult.builder().boardId(boardId).build();
+        for (Map.Entry<Long, Placement> entry : placements.entrySet()) {
+            Long taskId = entry.getKey();
+            Placement placement = entry.getValue();
+            int position = columns.get(placement.columnId).indexOf(placement.slot);
+
+            taskUpdates.add(new Object[]{placement.columnId, placement.slot.rankKey, position,
+                placement.statusId, placement.typeId, timestamp, taskId});
+            if (!Objects.equals(placement.sourceColumnId, placement.columnId)) {
+                historyRows.add(new Object[]{taskId, currentUser.getId(), historyUsername(currentUser),
+                    currentUser.getAvatarUrl(), "moved", "moved", columnNames.get(placement.sourceColumnId),
+                    columnNames.get(placement.columnId), timestamp, timestamp, timestamp, timestamp});
+            }
+            result.getTasks().add(new BoardMovesResult.MovedTask(taskId, placement.columnId, position,
+                placement.slot.rankKey, placement.statusId, placement.typeId));
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_TASK_SQL, taskUpdates);
+        if (!historyRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, historyRows);
+        }
+
+        result.setVersion(boardChangeService.record(boardId, BoardChange.EntityType.TASK,
+            placements.keySet(), BoardChange.Action.MOVED));
+        logger.debug("Доска {}: применено {} перемещений, изменено {} задач, версия {}",
+            boardId, moves.size(), placements.size(), result.getVersion());
+        return result;
+    }
+
+    private static String historyUsername(User user) {
+        if (user.getUsername() != null && !user.getUsername().isBlank()) {
+            return user.getUsername();
+        }
+        return user.getEmail();
+    }
+
+    /**
+     * Задача в моделируемом порядке колонки
+     */
+    private static final class Slot {
+        private final Long taskId;
+        private String rankKey;
+
+        private Slot(Long taskId, String rankKey) {
+            this.taskId = taskId;
+            this.rankKey = rankKey;
+        }
+    }
+
+    /**
+     * Итоговое положение задачи после всех перемещений пакета
+     */
+    private static final class Placement {
+        private final Long sourceColumnId;
+        private Long columnId;
+        private Long statusId;
+        private Long typeId;
+        private Slot slot;
+
+        private Placement(Long sourceColumnId, Long columnId, Long statusId, Long typeId) {
+            this.sourceColumnId = sourceColumnId;
+            this.columnId = columnId;
+            this.statusId = statusId;
+            this.typeId = typeId;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.yourapp.service;
 
 import com.yourapp.model.Board;
+import com.yourapp.model.BoardChange;
 import com.yourapp.model.BoardColumn;
 import com.yourapp.model.TaskStatus;
 import com.yourapp.model.TaskType;
@@ -45,6 +46,9 @@ public class BoardService {
     private final EntityManager entityManager;
     private final BoardMemberService boardMemberService;
     private final RoleService roleService;
+    private final BoardVersionService boardVersionService;
+    private final BoardChangeService boardChangeService;
+    private final NotificationCounterService notificationCounterService;
     
     /**
      * Возвращает сервис для работы с ролями
@@ -170,7 +174,9 @@ public class BoardService {
         board.setDescription(boardDetails.getDescription());
         board.setArchived(boardDetails.getArchived());
         
-        return boardRepository.save(board);
+        Board savedBoard = boardRepository.save(board);
+        boardChangeService.recordBoard(id);
+        return savedBoard;
     }
     
     @Transactional
@@ -181,7 +187,9 @@ public class BoardService {
         Board board = boardRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Board not found"));
         
-        // Удаляем связанные уведомления вручную перед удалением доски
+        // Удаляем связанные уведомления вручную перед удалением доски,
+        // предварительно уменьшив счетчики непрочитанных их получателей
+        notificationCounterService.subtract(notificationRepository.countUnreadByBoard(id, id + ":%"));
         notificationRepository.deleteByRelatedEntity(id, "BOARD");
         logger.debug("Удалены уведомления для доски {}", id);
         
@@ -192,6 +200,7 @@ public class BoardService {
         // Каскадное удаление остального содержимого доски будет выполнено автоматически
         // благодаря настройкам cascade = CascadeType.ALL, orphanRemoval = true
         boardRepository.deleteById(id);
+        boardVersionService.forget(id);
         logger.debug("Доска {} успешно удалена", id);
     }
     
@@ -241,11 +250,11 @@ public class BoardService {
                     task.getAssignee() != null ? task.getAssignee().getId() + ":" + task.getAssignee().getUsername() : "null");
             });
             
-            // Обновляем задачи в колонках
+            // Обновляем задачи в колонках (группировка за один проход по задачам)
+            Map<Long, List<Task>> tasksByColumn = tasks.stream()
+                    .collect(Collectors.groupingBy(task -> task.getColumn().getId()));
             for (BoardColumn column : board.getColumns()) {
-                List<Task> columnTasks = tasks.stream()
-                        .filter(task -> task.getColumn().getId().equals(column.getId()))
-                        .collect(Collectors.toList());
+                List<Task> columnTasks = tasksByColumn.getOrDefault(column.getId(), List.of());
                 column.getTasks().clear();
                 column.getTasks().addAll(columnTasks);
                 logger.debug("Колонка {} (ID:{}) содержит {} задач", 
@@ -285,14 +294,18 @@ public class BoardService {
     public Board archiveBoard(String id) {
         Board board = getBoard(id);
         board.setArchived(true);
-        return boardRepository.save(board);
+        Board savedBoard = boardRepository.save(board);
+        boardChangeService.recordBoard(id);
+        return savedBoard;
     }
     
     @Transactional
     public Board unarchiveBoard(String id) {
         Board board = getBoard(id);
         board.setArchived(false);
-        return boardRepository.save(board);
+        Board savedBoard = boardRepository.save(board);
+        boardChangeService.recordBoard(id);
+        return savedBoard;
     }
 
     public List<Board> getUserBoards(Long userId) {
@@ -349,6 +362,8 @@ public class BoardService {
         logger.debug("Добавлена новая колонка: {} (позиция: {})", column.getName(), column.getPosition());
         
         Board savedBoard = boardRepository.save(board);
+        // Позиции остальных колонок могли сдвинуться, поэтому в журнал попадают все колонки
+        boardChangeService.record(boardId, BoardChange.EntityType.COLUMN, columnIds(savedBoard), BoardChange.Action.CREATED);
         logger.debug("Доска сохранена. Проверка после сохранения:");
         logger.debug("Колонки: {}", 
             savedBoard.getColumns().stream()
@@ -380,7 +395,9 @@ public class BoardService {
             .orElseThrow(() -> new RuntimeException("Column not found"));
             
         board.removeColumn(column);
-        return boardRepository.save(board);
+        Board savedBoard = boardRepository.save(board);
+        boardChangeService.record(boardId, BoardChange.EntityType.COLUMN, columnId, BoardChange.Action.DELETED);
+        return savedBoard;
     }
 
     @Transactional
@@ -440,6 +457,7 @@ public class BoardService {
                 // Явно сохраняем и фиксируем изменения
                 boardRepository.saveAndFlush(board);
                 entityManager.flush();
+                boardChangeService.record(boardId, BoardChange.EntityType.COLUMN, columnIds(board), BoardChange.Action.MOVED);
                 
                 // Получаем обновленный экземпляр доски из БД
                 Board refreshedBoard = boardRepository.findById(boardId)
@@ -493,7 +511,9 @@ public class BoardService {
         if (newColor != null) {
             column.setColor(newColor);
         }
-        return boardRepository.save(board);
+        Board savedBoard = boardRepository.save(board);
+        boardChangeService.record(boardId, BoardChange.EntityType.COLUMN, columnId, BoardChange.Action.UPDATED);
+        return savedBoard;
     }
 
     @Transactional
@@ -511,6 +531,8 @@ public class BoardService {
         
         board.addTaskStatus(status);
         boardRepository.save(board);
+        boardChangeService.record(boardId, BoardChange.EntityType.STATUS,
+            board.getTaskStatuses().stream().map(TaskStatus::getId).toList(), BoardChange.Action.UPDATED);
         
         logger.debug("Создан новый статус задачи: id={}, name={}, position={}, isCustom={}, isDefault={}", 
             status.getId(), status.getName(), status.getPosition(), status.isCustom(), status.isDefault());
@@ -545,7 +567,9 @@ public class BoardService {
         logger.debug("Обновляем статус задачи: id={}, name={}, position={}, isCustom={}, isDefault={}", 
             status.getId(), status.getName(), status.getPosition(), status.isCustom(), status.isDefault());
             
-        return taskStatusRepository.save(status);
+        TaskStatus savedStatus = taskStatusRepository.save(status);
+        boardChangeService.record(boardId, BoardChange.EntityType.STATUS, statusId, BoardChange.Action.UPDATED);
+        return savedStatus;
     }
 
     @Transactional
@@ -564,6 +588,7 @@ public class BoardService {
         board.removeTaskStatus(status);
         boardRepository.save(board);
         taskStatusRepository.delete(status);
+        boardChangeService.record(boardId, BoardChange.EntityType.STATUS, statusId, BoardChange.Action.DELETED);
     }
 
     @Transactional
@@ -581,6 +606,8 @@ public class BoardService {
         
         board.addTaskType(type);
         boardRepository.save(board);
+        boardChangeService.record(boardId, BoardChange.EntityType.TYPE,
+            board.getTaskTypes().stream().map(TaskType::getId).toList(), BoardChange.Action.UPDATED);
         
         logger.debug("Создан новый тип задачи: id={}, name={}, position={}, isCustom={}, isDefault={}", 
             type.getId(), type.getName(), type.getPosition(), type.isCustom(), type.isDefault());
@@ -620,7 +647,9 @@ public class BoardService {
         logger.debug("Обновляем тип задачи: id={}, name={}, position={}, isCustom={}, isDefault={}", 
             type.getId(), type.getName(), type.getPosition(), type.isCustom(), type.isDefault());
             
-        return taskTypeRepository.save(type);
+        TaskType savedType = taskTypeRepository.save(type);
+        boardChangeService.record(boardId, BoardChange.EntityType.TYPE, typeId, BoardChange.Action.UPDATED);
+        return savedType;
     }
 
     @Transactional
@@ -639,6 +668,11 @@ public class BoardService {
         board.removeTaskType(type);
         boardRepository.save(board);
         taskTypeRepository.delete(type);
+        boardChangeService.record(boardId, BoardChange.EntityType.TYPE, typeId, BoardChange.Action.DELETED);
+    }
+
+    private static List<Long> columnIds(Board board) {
+        return board.getColumns().stream().map(BoardColumn::getId).toList();
     }
 
     public List<TaskStatus> getBoardStatuses(String boardId) {
@@ -0,0 +1,165 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш снимков досок в памяти.
+ * Запись действительна только для той версии доски, на которой она собрана; устаревшие записи
+ * заменяются при следующем чтении. Размер ограничен числом досок и суммарным весом
+ * (задачи + подзадачи), вытесняются давно не читавшиеся доски.
+ */
+@Service
+public class BoardSnapshotCache {
+    private static final Logger logger = LoggerFactory.getLogger(BoardSnapshotCache.class);
+
+    private final BoardSnapshotService boardSnapshotService;
+    private final int maxEntries;
+    private final long maxWeight;
+
+    // LRU в порядке доступа; все обращения под монитором this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+
+    // Загрузки в процессе: параллельные запросы одной версии ждут один и тот же результат
+    private final ConcurrentHashMap<String, CompletableFuture<BoardSnapshot>> loading = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public BoardSnapshotCache(BoardSnapshotService boardSnapshotService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.board-cache.max-entries:500}") int maxEntries,
+                              @Value("${app.board-cache.max-weight:200000}") long maxWeight) {
+        this.boardSnapshotService = boardSnapshotService;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.hits = Counter.builder("board.snapshot.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("board.snapshot.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("board.snapshot.cache.evictions").register(meterRegistry);
+        Gauge.builder("board.snapshot.cache.size", this, BoardSnapshotCache::size).register(meterRegistry);
+        Gauge.builder("board.snapshot.cache.weight", this, BoardSnapshotCache::weight).register(meterRegistry);
+    }
+
+    /**
+     * Возвращает снимок доски не старше указанной версии, при необходимости собирая его заново
+     * @param boardId ID доски
+     * @param version текущая версия доски
+     * @return снимок доски (общий экземпляр, изменять нельзя)
+     */
+    public BoardSnapshot getOrLoad(String boardId, long version) {
+        synchronized (this) {
+            Entry entry = entries.get(boardId);
+            if (entry != null && entry.snapshot().getVersion() >= version) {
+                hits.increment();
+                return entry.snapshot();
+            }
+        }
+        misses.increment();
+
+        String key = boardId + ":" + version;
+        CompletableFuture<BoardSnapshot> future = new CompletableFuture<>();
+        CompletableFuture<BoardSnapshot> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            BoardSnapshot snapshot = boardSnapshotService.loadSnapshot(boardId);
+            put(boardId, snapshot);
+            future.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * Удаляет снимок доски из кэша
+     * @param boardId ID доски
+     */
+    public synchronized void evict(String boardId) {
+        Entry removed = entries.remove(boardId);
+        if (removed != null) {
+            totalWeight -= removed.weight();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    private synchronized void put(String boardId, BoardSnapshot snapshot) {
+        Entry current = entries.get(boardId);
+        if (current != null && current.snapshot().getVersion() >= snapshot.getVersion()) {
+            return;
+        }
+        long weight = weightOf(snapshot);
+        if (weight > maxWeight) {
+            logger.debug("Снимок доски {} не кэшируется: вес {} больше лимита {}", boardId, weight, maxWeight);
+            return;
+        }
+        if (current != null) {
+            entries.remove(boardId);
+            totalWeight -= current.weight();
+        }
+        entries.put(boardId, new Entry(snapshot, weight));
+        totalWeight += weight;
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(boardId)) {
+                continue;
+            }
+            totalWeight -= eldest.getValue().weight();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long weightOf(BoardSnapshot snapshot) {
+        long weight = 1;
+        for (BoardSnapshot.ColumnSnapshot column : snapshot.getColumns()) {
+            for (BoardSnapshot.TaskSnapshot task : column.getTasks()) {
+                weight += 1 + task.getSubtasks().size();
+            }
+        }
+        return weight;
+    }
+
+    private static BoardSnapshot await(CompletableFuture<BoardSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(BoardSnapshot snapshot, long weight) {
+    }
+}
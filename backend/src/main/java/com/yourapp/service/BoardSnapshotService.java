@@ -0,0 +1,351 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardSnapshot;
+import com.yourapp.dto.ColumnTasksPage;
+import com.yourapp.dto.TaskResponse;
+import com.yourapp.exception.ResourceNotFoundException;
+import com.yourapp.repository.BoardColumnRepository;
+import com.yourapp.repository.BoardRepository;
+import com.yourapp.repository.SubtaskRepository;
+import com.yourapp.repository.TaskStatusRepository;
+import com.yourapp.repository.TaskTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сборка BoardSnapshot для страницы доски.
+ * Использует фиксированное число проекционных запросов (доска, колонки, статусы, типы,
+ * задачи вместе с тегами, подзадачи) и раскладывает задачи по колонкам за один проход,
+ * не затрагивая ленивые коллекции сущностей.
+ * В снимок попадают только первые задачи каждой колонки (окно) вместе с общим количеством
+ * и курсором; остальные задачи колонки догружаются страницами по ключу (rank_key, id)
+ * через индекс idx_tasks_column_rank_id, поэтому размер снимка не зависит от объема бэклога.
+ */
+@Service
+@RequiredArgsConstructor
+public class BoardSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(BoardSnapshotService.class);
+
+    private final BoardRepository boardRepository;
+    private final BoardColumnRepository boardColumnRepository;
+    private final TaskStatusRepository taskStatusRepository;
+    private final TaskTypeRepository taskTypeRepository;
+    private final SubtaskRepository subtaskRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Первые задачи каждой колонки доски; LATERAL читает по индексу не больше окна на колонку
+    private static final String COLUMN_WINDOWS_SQL =
+        "SELECT w.id FROM board_columns c CROSS JOIN LATERAL (" +
+        "SELECT t.id FROM tasks t WHERE t.column_id = c.id ORDER BY t.rank_key, t.id LIMIT ?) w " +
+        "WHERE c.board_id = ?";
+
+    private static final String COLUMN_COUNTS_SQL =
+        "SELECT t.column_id, COUNT(*) FROM tasks t JOIN board_columns c ON c.id = t.column_id " +
+        "WHERE c.board_id = ? GROUP BY t.column_id";
+
+    // Сравнение кортежей (rank_key, id) > (?, ?) выполняется как диапазон индекса
+    private static final String COLUMN_PAGE_SQL =
+        "SELECT t.id FROM tasks t WHERE t.column_id = ? AND (t.rank_key, t.id) > (?, ?) " +
+        "ORDER BY t.rank_key, t.id LIMIT ?";
+
+    private static final String COLUMN_FIRST_PAGE_SQL =
+        "SELECT t.id FROM tasks t WHERE t.column_id = ? ORDER BY t.rank_key, t.id LIMIT ?";
+
+    @Value("${app.columns.window-size:50}")
+    private int columnWindowSize;
+
+    /**
+     * Загружает снимок доски
+     * @param boardId ID доски
+     * @return снимок доски с колонками, статусами, типами и задачами
+     */
+    @Transactional(readOnly = true)
+    public BoardSnapshot loadSnapshot(String boardId) {
+        long started = System.nanoTime();
+
+        BoardRepository.BoardHeaderRow header = boardRepository.findHeaderById(boardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Board not found"));
+
+        BoardSnapshot snapshot = new BoardSnapshot();
+        snapshot.setId(header.getId());
+        snapshot.setName(header.getName());
+        snapshot.setDescription(header.getDescription());
+        snapshot.setArchived(header.getArchived());
+        snapshot.setCreatedAt(header.getCreatedAt());
+        snapshot.setUpdatedAt(header.getUpdatedAt());
+        snapshot.setOwnerId(header.getOwnerId());
+        snapshot.setVersion(header.getVersion() != null ? header.getVersion() : 0L);
+
+        Map<Long, BoardSnapshot.ColumnSnapshot> columnsById = new HashMap<>();
+        for (BoardSnapshot.ColumnSnapshot column : loadColumns(boardId)) {
+            snapshot.getColumns().add(column);
+            columnsById.put(column.getId(), column);
+        }
+
+        Map<Long, BoardSnapshot.StatusSnapshot> statusesById = new HashMap<>();
+        for (BoardSnapshot.StatusSnapshot status : loadStatuses(boardId)) {
+            snapshot.getTaskStatuses().add(status);
+            statusesById.put(status.getId(), status);
+        }
+
+        Map<Long, BoardSnapshot.TypeSnapshot> typesById = new HashMap<>();
+        for (BoardSnapshot.TypeSnapshot type : loadTypes(boardId)) {
+            snapshot.getTaskTypes().add(type);
+            typesById.put(type.getId(), type);
+        }
+
+        // Задачи архивной доски в снимок не попадают
+        List<BoardSnapshot.TaskSnapshot> tasks = Boolean.TRUE.equals(header.getArchived())
+            ? List.of()
+            : loadTasks(boardId, jdbcTemplate.queryForList(COLUMN_WINDOWS_SQL, Long.class, columnWindowSize, boardId));
+
+        // Один проход по задачам: каждая задача сразу попадает в свою колонку, статус и тип
+        for (BoardSnapshot.TaskSnapshot task : tasks) {
+            BoardSnapshot.ColumnSnapshot column = columnsById.get(task.getColumnId());
+            if (column != null) {
+                // Задачи отсортированы по rankKey, поэтому позиция — это индекс в колонке
+                task.setPosition(column.getTasks().size());
+                column.getTasks().add(task);
+            }
+            if (task.getStatusId() != null) {
+                BoardSnapshot.StatusSnapshot status = statusesById.get(task.getStatusId());
+                if (status != null) {
+                    status.getTasks().add(task);
+                }
+            }
+            if (task.getTypeId() != null) {
+                BoardSnapshot.TypeSnapshot type = typesById.get(task.getTypeId());
+                if (type != null) {
+                    type.getTasks().add(task);
+                }
+            }
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        if (!tasks.isEmpty()) {
+            jdbcTemplate.query(COLUMN_COUNTS_SQL, rs -> {
+                counts.put(rs.getLong(1), rs.getLong(2));
+            }, boardId);
+        }
+        for (BoardSnapshot.ColumnSnapshot column : snapshot.getColumns()) {
+            long taskCount = counts.getOrDefault(column.getId(), 0L);
+            column.setTaskCount(taskCount);
+            column.setNextCursor(nextCursor(column.getTasks(), taskCount));
+        }
+
+        logger.debug("Снимок доски {} собран: {} колонок, {} задач за {} мс",
+            boardId, snapshot.getColumns().size(), tasks.size(), (System.nanoTime() - started) / 1_000_000);
+
+        return snapshot;
+    }
+
+    /**
+     * Следующая страница задач колонки после курсора
+     * @param boardId ID доски колонки
+     * @param columnId ID колонки
+     * @param afterRank rankKey последней загруженной задачи; null — с начала колонки
+     * @param afterId ID последней загруженной задачи
+     * @param limit размер страницы
+     * @return задачи колонки в порядке rankKey, общее количество и курсор следующей страницы
+     */
+    @Transactional(readOnly = true)
+    public ColumnTasksPage loadColumnPage(String boardId, Long columnId, String afterRank, Long afterId, int limit) {
+        // Лишняя строка показывает, есть ли следующая страница, без отдельного запроса
+        List<Long> ids = afterRank == null
+            ? jdbcTemplate.queryForList(COLUMN_FIRST_PAGE_SQL, Long.class, columnId, limit + 1)
+            : jdbcTemplate.queryForList(COLUMN_PAGE_SQL, Long.class, columnId, afterRank, afterId, limit + 1);
+        boolean hasMore = ids.size() > limit;
+        List<BoardSnapshot.TaskSnapshot> tasks = loadTasks(boardId, hasMore ? ids.subList(0, limit) : ids);
+        Long taskCount = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tasks WHERE column_id = ?", Long.class, columnId);
+
+        ColumnTasksPage page = new ColumnTasksPage();
+        page.setColumnId(columnId);
+        page.setTasks(tasks);
+        page.setTaskCount(taskCount != null ? taskCount : 0);
+        page.setNextCursor(hasMore && !tasks.isEmpty() ? cursor(tasks.get(tasks.size() - 1)) : null);
+        return page;
+    }
+
+    /**
+     * Курсор колонки: rankKey и ID задачи через двоеточие (rankKey состоит из [0-9a-z])
+     * @param task последняя загруженная задача
+     * @return курсор для параметра after
+     */
+    public static String cursor(BoardSnapshot.TaskSnapshot task) {
+        return task.getRankKey() + ":" + task.getId();
+    }
+
+    private static String nextCursor(List<BoardSnapshot.TaskSnapshot> tasks, long taskCount) {
+        return !tasks.isEmpty() && taskCount > tasks.size() ? cursor(tasks.get(tasks.size() - 1)) : null;
+    }
+
+    /**
+     * Колонки доски без задач, в порядке позиций
+     * @param boardId ID доски
+     * @return колонки доски
+     */
+    @Transactional(readOnly = true)
+    public List<BoardSnapshot.ColumnSnapshot> loadColumns(String boardId) {
+        List<BoardSnapshot.ColumnSnapshot> columns = new ArrayList<>();
+        for (BoardColumnRepository.ColumnRow row : boardColumnRepository.findRowsByBoardId(boardId)) {
+            BoardSnapshot.ColumnSnapshot column = new BoardSnapshot.ColumnSnapshot();
+            column.setId(row.getId());
+            column.setName(row.getName());
+            column.setPosition(row.getPosition());
+            column.setColor(row.getColor());
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * Статусы доски без задач, в порядке позиций
+     * @param boardId ID доски
+     * @return статусы доски
+     */
+    @Transactional(readOnly = true)
+    public List<BoardSnapshot.StatusSnapshot> loadStatuses(String boardId) {
+        List<BoardSnapshot.StatusSnapshot> statuses = new ArrayList<>();
+        for (TaskStatusRepository.TaskStatusRow row : taskStatusRepository.findRowsByBoardId(boardId)) {
+            BoardSnapshot.StatusSnapshot status = new BoardSnapshot.StatusSnapshot();
+            status.setId(row.getId());
+            status.setName(row.getName());
+            status.setColor(row.getColor());
+            status.setPosition(row.getPosition());
+            status.setDefault(Boolean.TRUE.equals(row.getIsDefault()));
+            status.setCustom(Boolean.TRUE.equals(row.getIsCustom()));
+            statuses.add(status);
+        }
+        return statuses;
+    }
+
+    /**
+     * Типы задач доски без задач, в порядке позиций
+     * @param boardId ID доски
+     * @return типы задач доски
+     */
+    @Transactional(readOnly = true)
+    public List<BoardSnapshot.TypeSnapshot> loadTypes(String boardId) {
+        List<BoardSnapshot.TypeSnapshot> types = new ArrayList<>();
+        for (TaskTypeRepository.TaskTypeRow row : taskTypeRepository.findRowsByBoardId(boardId)) {
+            BoardSnapshot.TypeSnapshot type = new BoardSnapshot.TypeSnapshot();
+            type.setId(row.getId());
+            type.setName(row.getName());
+            type.setColor(row.getColor());
+            type.setIcon(row.getIcon());
+            type.setPosition(row.getPosition());
+            type.setDefault(Boolean.TRUE.equals(row.getIsDefault()));
+            type.setCustom(Boolean.TRUE.equals(row.getIsCustom()));
+            types.add(type);
+        }
+        return types;
+    }
+
+    /**
+     * Загружает отдельные задачи доски с тегами и подзадачами.
+     * Задачи, которых больше нет на доске, в результат не попадают
+     * @param boardId ID доски
+     * @param taskIds ID задач
+     * @return найденные задачи
+     */
+    @Transactional(readOnly = true)
+    public List<BoardSnapshot.TaskSnapshot> loadTasks(String boardId, Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<BoardSnapshot.TaskSnapshot> tasks = new ArrayList<>();
+        Map<Long, BoardSnapshot.TaskSnapshot> tasksById = new HashMap<>();
+        for (BoardRepository.TaskRow row : boardRepository.findTaskRowsByIds(boardId, taskIds)) {
+            BoardSnapshot.TaskSnapshot task = toTaskSnapshot(row);
+            tasks.add(task);
+            tasksById.put(task.getId(), task);
+        }
+        if (tasksById.isEmpty()) {
+            return tasks;
+        }
+        for (SubtaskRepository.SubtaskRow row : subtaskRepository.findRowsByParentTaskIds(tasksById.keySet())) {
+            BoardSnapshot.TaskSnapshot task = tasksById.get(row.getParentTaskId());
+            if (task != null) {
+                addSubtask(task, row);
+            }
+        }
+        return tasks;
+    }
+
+    // Подзадачи приходят отсортированными по rankKey, позиция — индекс в списке задачи
+    private void addSubtask(BoardSnapshot.TaskSnapshot task, SubtaskRepository.SubtaskRow row) {
+        TaskResponse.SubtaskResponse subtask = toSubtaskResponse(row);
+        subtask.setPosition(task.getSubtasks().size());
+        task.getSubtasks().add(subtask);
+    }
+
+    private BoardSnapshot.TaskSnapshot toTaskSnapshot(BoardRepository.TaskRow row) {
+        BoardSnapshot.TaskSnapshot task = new BoardSnapshot.TaskSnapshot();
+        task.setId(row.getId());
+        task.setTitle(row.getTitle());
+        task.setDescription(row.getDescription());
+        task.setStartDate(row.getStartDate());
+        task.setEndDate(row.getEndDate());
+        task.setDaysRemaining(row.getDaysRemaining());
+        task.setPosition(row.getPosition());
+        task.setRankKey(row.getRankKey());
+        task.setCreatedAt(row.getCreatedAt());
+        task.setUpdatedAt(row.getUpdatedAt());
+        task.setCommentCount(row.getCommentCount() != null ? row.getCommentCount() : 0);
+        task.setAttachmentCount(row.getAttachmentCount() != null ? row.getAttachmentCount() : 0);
+        task.setPriority(row.getPriority());
+        task.setTags(row.getTags() != null ? new HashSet<>(row.getTags()) : new HashSet<>());
+        task.setColumnId(row.getColumnId());
+        task.setTypeId(row.getTypeId());
+        task.setStatusId(row.getStatusId());
+        task.setAssignee(toUserResponse(row.getAssigneeId(), row.getAssigneeUsername(), row.getAssigneeEmail(),
+            row.getAssigneeAvatarUrl(), row.getAssigneeDisplayName()));
+        if (task.getAssignee() != null) {
+            task.getAssignee().setAvatarThumbnails(row.getAssigneeAvatarThumbnails());
+        }
+        return task;
+    }
+
+    private TaskResponse.SubtaskResponse toSubtaskResponse(SubtaskRepository.SubtaskRow row) {
+        TaskResponse.SubtaskResponse subtask = new TaskResponse.SubtaskResponse();
+        subtask.setId(row.getId());
+        subtask.setTitle(row.getTitle());
+        subtask.setDescription(row.getDescription());
+        subtask.setCompleted(Boolean.TRUE.equals(row.getCompleted()));
+        subtask.setPosition(row.getPosition());
+        subtask.setDueDate(row.getDueDate());
+        subtask.setEstimatedHours(row.getEstimatedHours());
+        subtask.setCreatedAt(row.getCreatedAt());
+        subtask.setUpdatedAt(row.getUpdatedAt());
+        subtask.setAssignee(toUserResponse(row.getAssigneeId(), row.getAssigneeUsername(), row.getAssigneeEmail(),
+            row.getAssigneeAvatarUrl(), row.getAssigneeDisplayName()));
+        return subtask;
+    }
+
+    private TaskResponse.UserResponse toUserResponse(Long id, String username, String email,
+                                                     String avatarUrl, String displayName) {
+        if (id == null) {
+            return null;
+        }
+        TaskResponse.UserResponse user = new TaskResponse.UserResponse();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setAvatarUrl(avatarUrl);
+        user.setDisplayName(displayName);
+        return user;
+    }
+}
@@ -0,0 +1,300 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardSnapshot;
+import com.yourapp.dto.BoardTagDto;
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.User;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Словарь тегов досок.
+ * Количество использований тега хранится в board_tags и меняется в транзакции изменения
+ * тегов задачи. Для автодополнения словарь доски загружается в отсортированный индекс
+ * (ConcurrentSkipListMap по тегу в нижнем регистре), поиск по префиксу — диапазон этого
+ * индекса. После коммита изменений индекс доски сбрасывается и при следующем запросе
+ * загружается заново одним запросом.
+ */
+@Service
+@RequiredArgsConstructor
+public class BoardTagService {
+    private static final Logger logger = LoggerFactory.getLogger(BoardTagService.class);
+
+    // Разделитель ключа: тег в нижнем регистре, затем исходное написание
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    // Фильтр по тегам использует GIN-индекс idx_tasks_tags: @> — все теги, && — любой из тегов
+    private static final String TASKS_BY_TAGS_SQL =
+        "SELECT t.id FROM tasks t JOIN board_columns c ON c.id = t.column_id " +
+        "WHERE c.board_id = ? AND t.tags %s ?::text[] LIMIT ?";
+
+    private static final String ADJUST_SQL =
+        "INSERT INTO board_tags (board_id, tag, usage_count) VALUES (?, ?, GREATEST(?, 0)) " +
+        "ON CONFLICT (board_id, tag) DO UPDATE SET usage_count = GREATEST(board_tags.usage_count + ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoardMemberService boardMemberService;
+    private final BoardSnapshotService boardSnapshotService;
+
+    @Value("${app.tags.max-boards:1000}")
+    private int maxBoards;
+
+    // Загруженные индексы досок; вытесняются давно не использованные
+    private final Map<String, ConcurrentSkipListMap<String, BoardTagDto>> indexes =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ConcurrentSkipListMap<String, BoardTagDto>> eldest) {
+                return size() > maxBoards;
+            }
+        };
+    // Номер сброса индексов: индекс, загруженный до сброса, в кэш не попадает
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Учитывает изменение тегов задачи в словаре доски
+     * @param boardId ID доски задачи
+     * @param oldTags теги до изменения (пусто для новой задачи)
+     * @param newTags теги после изменения (пусто для удаленной задачи)
+     */
+    @Transactional
+    public void onTagsChanged(String boardId, Collection<String> oldTags, Collection<String> newTags) {
+        if (boardId == null) {
+            return;
+        }
+        Set<String> removed = normalize(oldTags);
+        Set<String> added = normalize(newTags);
+        Set<String> unchanged = new HashSet<>(removed);
+        unchanged.retainAll(added);
+        removed.removeAll(unchanged);
+        added.removeAll(unchanged);
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(removed.size() + added.size());
+        added.forEach(tag -> rows.add(new Object[]{boardId, tag, 1, 1}));
+        removed.forEach(tag -> rows.add(new Object[]{boardId, tag, -1, -1}));
+        jdbcTemplate.batchUpdate(ADJUST_SQL, rows);
+        invalidateAfterCommit(boardId);
+    }
+
+    /**
+     * Переносит теги задачи из словаря одной доски в словарь другой
+     * @param sourceBoardId доска до перемещения
+     * @param targetBoardId доска после перемещения
+     * @param tags теги задачи
+     */
+    @Transactional
+    public void onTaskMoved(String sourceBoardId, String targetBoardId, Collection<String> tags) {
+        if (sourceBoardId != null && sourceBoardId.equals(targetBoardId)) {
+            return;
+        }
+        onTagsChanged(sourceBoardId, tags, List.of());
+        onTagsChanged(targetBoardId, List.of(), tags);
+    }
+
+    /**
+     * Добавляет тег в словарь доски без привязки к задаче
+     * @param boardId ID доски
+     * @param tag тег
+     * @param currentUser пользователь, добавляющий тег
+     * @return теги доски
+     */
+    @Transactional
+    public List<BoardTagDto> addTag(String boardId, String tag, User currentUser) {
+        checkAccess(boardId, currentUser);
+        if (tag == null || tag.trim().isEmpty()) {
+            throw new IllegalArgumentException("Тег не может быть пустым");
+        }
+        jdbcTemplate.update(
+            "INSERT INTO board_tags (board_id, tag, usage_count) VALUES (?, ?, 0) ON CONFLICT (board_id, tag) DO NOTHING",
+            boardId, tag.trim());
+        invalidateAfterCommit(boardId);
+        return new ArrayList<>(loadIndex(boardId).values());
+    }
+
+    /**
+     * Автодополнение тегов доски по префиксу (без учета регистра)
+     * @param boardId ID доски
+     * @param prefix префикс (пустой — все теги по алфавиту)
+     * @param limit максимальное количество тегов
+     * @param currentUser пользователь, выполняющий запрос
+     * @return теги в алфавитном порядке
+     */
+    public List<BoardTagDto> autocomplete(String boardId, String prefix, int limit, User currentUser) {
+        checkAccess(boardId, currentUser);
+        ConcurrentSkipListMap<String, BoardTagDto> index = index(boardId);
+        String from = prefix != null ? prefix.trim().toLowerCase(Locale.ROOT) : "";
+        ConcurrentNavigableMap<String, BoardTagDto> range = from.isEmpty()
+            ? index
+            : index.subMap(from, true, from + Character.MAX_VALUE, false);
+
+        List<BoardTagDto> result = new ArrayList<>(Math.min(limit, 64));
+        for (BoardTagDto entry : range.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Задачи доски, отфильтрованные по тегам
+     * @param boardId ID доски
+     * @param tags теги фильтра
+     * @param matchAll true — задача содержит все теги, false — хотя бы один
+     * @param limit максимальное количество задач
+     * @param currentUser пользователь, выполняющий запрос
+     * @return задачи в порядке колонок и позиций
+     */
+    @Transactional(readOnly = true)
+    public List<BoardSnapshot.TaskSnapshot> findTasksByTags(String boardId, Collection<String> tags, boolean matchAll,
+                                                            int limit, User currentUser) {
+        checkAccess(boardId, currentUser);
+        Set<String> filter = normalize(tags);
+        if (filter.isEmpty()) {
+            throw new ValidationException(Map.of("tags", "Укажите хотя бы один тег"));
+        }
+        String sql = String.format(TASKS_BY_TAGS_SQL, matchAll ? "@>" : "&&");
+        PreparedStatementCreator statement = connection -> {
+            var ps = connection.prepareStatement(sql);
+            ps.setString(1, boardId);
+            ps.setArray(2, connection.createArrayOf("text", filter.toArray(new String[0])));
+            ps.setInt(3, limit);
+            return ps;
+        };
+        List<Long> taskIds = jdbcTemplate.query(statement, (rs, rowNum) -> rs.getLong(1));
+        return boardSnapshotService.loadTasks(boardId, taskIds);
+    }
+
+    /**
+     * Возвращает теги всех досок, доступных пользователю
+     * @param user пользователь
+     * @return множество тегов
+     */
+    public Set<String> getAccessibleTags(User user) {
+        if (user == null) {
+            return new TreeSet<>();
+        }
+        return new TreeSet<>(jdbcTemplate.queryForList(
+            "SELECT DISTINCT tag FROM board_tags WHERE board_id IN (" +
+            "SELECT id FROM boards WHERE created_by = ? UNION SELECT board_id FROM board_members WHERE user_id = ?)",
+            String.class, user.getId(), user.getId()));
+    }
+
+    /**
+     * Пересчитывает количество использований тегов по фактическим тегам задач.
+     * Исправляет расхождения после изменений в обход сервиса (удаление колонок, досок и т.п.)
+     */
+    @Scheduled(cron = "${app.tags.reconcile-cron:0 30 3 * * ?}")
+    @Transactional
+    public void reconcile() {
+        List<String> boardIds = jdbcTemplate.queryForList(
+            "WITH actual AS (" +
+            "  SELECT c.board_id, tg.tag, COUNT(*) AS cnt FROM tasks t " +
+            "  CROSS JOIN LATERAL unnest(t.tags) AS tg(tag) JOIN board_columns c ON c.id = t.column_id " +
+            "  WHERE c.board_id IS NOT NULL GROUP BY c.board_id, tg.tag), " +
+            "upserted AS (" +
+            "  INSERT INTO board_tags (board_id, tag, usage_count) SELECT board_id, tag, cnt FROM actual " +
+            "  ON CONFLICT (board_id, tag) DO UPDATE SET usage_count = EXCLUDED.usage_count " +
+            "  WHERE board_tags.usage_count <> EXCLUDED.usage_count RETURNING board_id), " +
+            "zeroed AS (" +
+            "  UPDATE board_tags b SET usage_count = 0 WHERE b.usage_count <> 0 AND NOT EXISTS (" +
+            "    SELECT 1 FROM actual a WHERE a.board_id = b.board_id AND a.tag = b.tag) RETURNING board_id) " +
+            "SELECT board_id FROM upserted UNION SELECT board_id FROM zeroed",
+            String.class);
+        boardIds.forEach(this::invalidateAfterCommit);
+        if (!boardIds.isEmpty()) {
+            logger.warn("Исправлены счетчики тегов на {} досках", boardIds.size());
+        }
+    }
+
+    private ConcurrentSkipListMap<String, BoardTagDto> index(String boardId) {
+        synchronized (indexes) {
+            ConcurrentSkipListMap<String, BoardTagDto> index = indexes.get(boardId);
+            if (index != null) {
+                return index;
+            }
+        }
+        long loadedAt = generation.get();
+        ConcurrentSkipListMap<String, BoardTagDto> index = loadIndex(boardId);
+        synchronized (indexes) {
+            if (generation.get() != loadedAt) {
+                return index;
+            }
+            indexes.putIfAbsent(boardId, index);
+            return indexes.get(boardId);
+        }
+    }
+
+    private ConcurrentSkipListMap<String, BoardTagDto> loadIndex(String boardId) {
+        ConcurrentSkipListMap<String, BoardTagDto> index = new ConcurrentSkipListMap<>();
+        jdbcTemplate.query("SELECT tag, usage_count FROM board_tags WHERE board_id = ?", rs -> {
+            String tag = rs.getString("tag");
+            index.put(tag.toLowerCase(Locale.ROOT) + KEY_SEPARATOR + tag, new BoardTagDto(tag, rs.getInt("usage_count")));
+        }, boardId);
+        return index;
+    }
+
+    private void invalidateAfterCommit(String boardId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(boardId);
+                }
+            });
+        } else {
+            invalidate(boardId);
+        }
+    }
+
+    private void invalidate(String boardId) {
+        synchronized (indexes) {
+            generation.incrementAndGet();
+            indexes.remove(boardId);
+        }
+    }
+
+    private void checkAccess(String boardId, User currentUser) {
+        if (currentUser == null || !boardMemberService.hasBoardAccess(boardId, currentUser.getId())) {
+            throw new AccessDeniedException("Нет доступа к доске " + boardId);
+        }
+    }
+
+    private static Set<String> normalize(Collection<String> tags) {
+        Set<String> result = new HashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    result.add(tag);
+                }
+            }
+        }
+        return result;
+    }
+}
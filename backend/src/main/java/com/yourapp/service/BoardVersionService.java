@@ -0,0 +1,97 @@
+package com.yourapp.service;
+
+import com.yourapp.exception.ResourceNotFoundException;
+import com.yourapp.repository.BoardRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Версии досок.
+ * Каждое изменение доски или её содержимого увеличивает boards.version в той же транзакции,
+ * а после коммита новая версия попадает в память, откуда её читают кэш снимков и проверка ETag.
+ */
+@Service
+@RequiredArgsConstructor
+public class BoardVersionService {
+    private static final Logger logger = LoggerFactory.getLogger(BoardVersionService.class);
+
+    private final BoardRepository boardRepository;
+    private final BoardSnapshotCache boardSnapshotCache;
+
+    // Последние закоммиченные версии досок
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Увеличивает версию доски. Новая версия становится видна читателям только после коммита
+     * @param boardId ID доски
+     * @return новая версия доски
+     */
+    @Transactional
+    public long bump(String boardId) {
+        if (boardId == null) {
+            return 0L;
+        }
+        boardRepository.incrementVersion(boardId);
+        long version = boardRepository.findVersionById(boardId).orElse(0L);
+        logger.debug("Версия доски {} увеличена до {}", boardId, version);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(boardId, version);
+                }
+            });
+        } else {
+            publish(boardId, version);
+        }
+        return version;
+    }
+
+    /**
+     * Возвращает текущую закоммиченную версию доски, не обращаясь к БД, если версия уже известна
+     * @param boardId ID доски
+     * @return версия доски
+     */
+    public long currentVersion(String boardId) {
+        Long known = versions.get(boardId);
+        if (known != null) {
+            return known;
+        }
+        long version = boardRepository.findVersionById(boardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Board not found"));
+        return versions.merge(boardId, version, Math::max);
+    }
+
+    /**
+     * Забывает версию и снимок удалённой доски (после коммита, если есть транзакция)
+     * @param boardId ID доски
+     */
+    public void forget(String boardId) {
+        Runnable removal = () -> {
+            versions.remove(boardId);
+            boardSnapshotCache.evict(boardId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removal.run();
+                }
+            });
+        } else {
+            removal.run();
+        }
+    }
+
+    private void publish(String boardId, long version) {
+        versions.merge(boardId, version, Math::max);
+    }
+}
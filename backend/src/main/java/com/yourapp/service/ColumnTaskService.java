@@ -0,0 +1,65 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.ColumnTasksPage;
+import com.yourapp.exception.ResourceNotFoundException;
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Постраничная догрузка задач колонки за пределами окна снимка доски
+ */
+@Service
+@RequiredArgsConstructor
+public class ColumnTaskService {
+
+    // Курсор вида rankKey:id, см. BoardSnapshotService.cursor
+    private static final Pattern CURSOR_PATTERN = Pattern.compile("([0-9a-z]+):(\\d+)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoardMemberService boardMemberService;
+    private final BoardSnapshotService boardSnapshotService;
+
+    /**
+     * Страница задач колонки
+     * @param columnId ID колонки
+     * @param after курсор из nextCursor колонки или предыдущей страницы; null — с начала колонки
+     * @param limit размер страницы
+     * @param currentUser текущий пользователь
+     * @return задачи колонки, общее количество и курсор следующей страницы
+     */
+    public ColumnTasksPage getPage(Long columnId, String after, int limit, User currentUser) {
+        List<String> boardIds = jdbcTemplate.queryForList(
+            "SELECT board_id FROM board_columns WHERE id = ?", String.class, columnId);
+        if (boardIds.isEmpty()) {
+            throw new ResourceNotFoundException("Column not found");
+        }
+        String boardId = boardIds.get(0);
+        if (currentUser == null || !boardMemberService.hasBoardAccess(boardId, currentUser.getId())) {
+            throw new AccessDeniedException("Нет доступа к доске " + boardId);
+        }
+
+        if (after == null || after.isEmpty()) {
+            return boardSnapshotService.loadColumnPage(boardId, columnId, null, null, limit);
+        }
+        Matcher matcher = CURSOR_PATTERN.matcher(after);
+        if (!matcher.matches()) {
+            throw new ValidationException(Map.of("after", "Некорректный курсор"));
+        }
+        long afterId;
+        try {
+            afterId = Long.parseLong(matcher.group(2));
+        } catch (NumberFormatException e) {
+            throw new ValidationException(Map.of("after", "Некорректный курсор"));
+        }
+        return boardSnapshotService.loadColumnPage(boardId, columnId, matcher.group(1), afterId, limit);
+    }
+}
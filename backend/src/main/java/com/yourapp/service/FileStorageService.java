@@ -1,26 +1,46 @@
 package com.yourapp.service;
 
+import com.yourapp.storage.BlobStore;
+import com.yourapp.storage.FileBlobStore;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Stream;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.StringUtils;
 import jakarta.annotation.PostConstruct;
 
 /**
- * Сервис для централизованной работы с файлами в приложении
+ * Сервис для централизованной работы с файлами в приложении.
+ * Содержимое вложений, аватаров и их миниатюр хранится через {@link BlobStore} (локальная директория или S3),
+ * временные файлы и файлы, загруженные до хранилища по хешу, — в локальной директории загрузок
  */
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
     private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
     
+    // Поддиректория содержимого, адресуемого по SHA-256: blobs/ab/cd/abcd...
+    private static final String BLOB_DIRECTORY = "blobs";
+    private static final String BLOB_TEMP_DIRECTORY = ".tmp";
+    private static final String BLOB_URL_PREFIX = "/uploads/" + BLOB_DIRECTORY + "/";
+    // Аватары публичны и отдаются по отдельному пути, без доступа к остальному содержимому
+    private static final String AVATAR_BLOB_URL_PREFIX = "/uploads/avatars/" + BLOB_DIRECTORY + "/";
+    
+    private final FileBlobStore blobStore;
+    
     @Value("${app.upload.path:uploads}")
     private String uploadPath;
     
@@ -35,46 +55,6 @@ public class FileStorageService {
         }
     }
     
-    /**
-     * Сохраняет файл и возвращает путь к нему
-     * 
-     * @param file файл для сохранения
-     * @param subdirectory поддиректория для сохранения файла (например, "avatars" или "attachments")
-     * @return относительный путь к сохраненному файлу
-     */
-    public String storeFile(MultipartFile file, String subdirectory) throws IOException {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("Не удалось сохранить пустой файл");
-        }
-        
-        // Создаем поддиректорию, если она не существует
-        Path targetDir = Paths.get(uploadPath, subdirectory);
-        if (!Files.exists(targetDir)) {
-            Files.createDirectories(targetDir);
-            log.info("Создана поддиректория для файлов: {}", targetDir);
-        }
-        
-        // Очищаем имя файла и получаем расширение
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename() != null ? file.getOriginalFilename() : "file");
-        String fileExtension = "";
-        
-        if (originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        
-        // Создаем уникальное имя файла
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        Path targetLocation = targetDir.resolve(uniqueFilename);
-        
-        log.info("Сохранение файла {} в {}", originalFilename, targetLocation);
-        
-        // Копируем файл в целевую директорию
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-        
-        // Возвращаем относительный путь к файлу для хранения в БД
-        return String.format("/uploads/%s/%s", subdirectory, uniqueFilename);
-    }
-    
     /**
      * Удаляет файл по указанному пути
      * 
@@ -125,4 +105,230 @@ public class FileStorageService {
             
         return Paths.get(uploadPath, cleanPath);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Копирует поток во временный файл, вычисляя SHA-256 за тот же проход.
+     * Содержимое не буферизуется в памяти
+     * 
+     * @param input поток содержимого
+     * @return временный файл с хешем и размером содержимого
+     */
+    public TempBlob writeTempBlob(InputStream input) throws IOException {
+        Path tempFile = getTempBlobPath(UUID.randomUUID().toString());
+        
+        MessageDigest digest = sha256();
+        long size;
+        try (DigestInputStream digestInput = new DigestInputStream(input, digest)) {
+            size = Files.copy(digestInput, tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return new TempBlob(tempFile, HexFormat.of().formatHex(digest.digest()), size);
+    }
+    
+    /**
+     * Возвращает путь во временной директории хранилища (на том же разделе, что и содержимое,
+     * чтобы перенос в хранилище не копировал данные)
+     * 
+     * @param name имя временного файла
+     * @return путь к временному файлу
+     */
+    public Path getTempBlobPath(String name) throws IOException {
+        Path tempDir = Paths.get(uploadPath, BLOB_DIRECTORY, BLOB_TEMP_DIRECTORY);
+        Files.createDirectories(tempDir);
+        return tempDir.resolve(name);
+    }
+    
+    /**
+     * Удаляет временные файлы, не изменявшиеся с указанного момента
+     * 
+     * @param olderThan граница времени изменения
+     * @param keep имена файлов, которые нужно оставить
+     * @return количество удаленных файлов
+     */
+    public int deleteStaleTempFiles(Instant olderThan, Set<String> keep) {
+        Path tempDir = Paths.get(uploadPath, BLOB_DIRECTORY, BLOB_TEMP_DIRECTORY);
+        if (!Files.isDirectory(tempDir)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                try {
+                    if (!keep.contains(file.getFileName().toString())
+                            && Files.getLastModifiedTime(file).toInstant().isBefore(olderThan)
+                            && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Не удалось удалить временный файл {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Ошибка при очистке временных файлов", e);
+        }
+        return deleted;
+    }
+    
+    /**
+     * Переносит временный файл в хранилище содержимого по хешу.
+     * Если такое содержимое уже сохранено, временный файл удаляется
+     * 
+     * @param blob временный файл из {@link #writeTempBlob}
+     * @return относительный путь к содержимому для хранения в БД
+     */
+    public String publishBlob(TempBlob blob) throws IOException {
+        try {
+            blobStore.put(blob.hash(), blob.file());
+        } finally {
+            Files.deleteIfExists(blob.file());
+        }
+        return getBlobUrl(blob.hash());
+    }
+    
+    /**
+     * Возвращает относительный путь к содержимому для хранения в БД
+     * 
+     * @param hash SHA-256 содержимого в hex
+     * @return путь вида /uploads/blobs/ab/cd/abcd...
+     */
+    public String getBlobUrl(String hash) {
+        return BLOB_URL_PREFIX + BlobStore.shardedPath(hash);
+    }
+    
+    /**
+     * Возвращает публичный путь к аватару в хранилище
+     * 
+     * @param key SHA-256 содержимого или производный ключ миниатюры
+     * @param extension расширение файла, по которому определяется тип содержимого
+     * @return путь вида /uploads/avatars/blobs/abcd....png
+     */
+    public String getAvatarBlobUrl(String key, String extension) {
+        if (key == null || !BlobStore.KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Некорректный ключ содержимого: " + key);
+        }
+        return AVATAR_BLOB_URL_PREFIX + key + "." + extension;
+    }
+    
+    /**
+     * Возвращает ключ хранилища по пути из БД
+     * 
+     * @param url путь из {@link #getBlobUrl} или {@link #getAvatarBlobUrl}
+     * @return ключ или null, если файл лежит в директории загрузок
+     */
+    public String getBlobKey(String url) {
+        String key = null;
+        if (url != null && url.startsWith(BLOB_URL_PREFIX)) {
+            key = url.substring(url.lastIndexOf('/') + 1);
+        } else if (url != null && url.startsWith(AVATAR_BLOB_URL_PREFIX)) {
+            String name = url.substring(AVATAR_BLOB_URL_PREFIX.length());
+            key = name.contains(".") ? name.substring(0, name.indexOf('.')) : name;
+        }
+        return key != null && BlobStore.KEY_PATTERN.matcher(key).matches() ? key : null;
+    }
+    
+    /**
+     * Проверяет наличие содержимого в хранилище
+     * 
+     * @param key SHA-256 содержимого или производный ключ
+     * @return true, если содержимое сохранено
+     */
+    public boolean blobExists(String key) throws IOException {
+        return blobStore.exists(key);
+    }
+    
+    /**
+     * Переносит временный файл в хранилище под заданным ключом: для миниатюр и частей загрузок
+     * ключ строится из уже известного хеша, поэтому содержимое заново не хешируется
+     * 
+     * @param key ключ вида hash-суффикс
+     * @param file временный файл из {@link #getTempBlobPath}
+     */
+    public void putBlob(String key, Path file) throws IOException {
+        try {
+            blobStore.put(key, file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    /**
+     * Открывает содержимое из хранилища для последовательного чтения
+     * 
+     * @param key SHA-256 содержимого или ключ вида hash-суффикс
+     * @return поток содержимого; закрывает вызывающий код
+     */
+    public InputStream openBlob(String key) throws IOException {
+        return blobStore.open(key);
+    }
+    
+    /**
+     * Удаляет временный файл, если он не был перенесен в хранилище
+     * 
+     * @param blob временный файл
+     */
+    public void discardTempBlob(TempBlob blob) {
+        try {
+            Files.deleteIfExists(blob.file());
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл {}", blob.file(), e);
+        }
+    }
+    
+    /**
+     * Удаляет содержимое по хешу
+     * 
+     * @param hash SHA-256 содержимого
+     * @return true, если файл был удален
+     */
+    public boolean deleteBlob(String hash) {
+        try {
+            blobStore.delete(hash);
+            return true;
+        } catch (IOException e) {
+            log.error("Ошибка при удалении содержимого {}", hash, e);
+            return false;
+        }
+    }
+    
+    /**
+     * Возвращает локальный файл с содержимым. Для удаленного хранилища содержимое
+     * сначала скачивается в дисковый кэш узла
+     * 
+     * @param hash SHA-256 содержимого в hex
+     * @return полный путь к файлу
+     */
+    public Path getBlobFile(String hash) throws IOException {
+        return blobStore.localPath(hash);
+    }
+    
+    /**
+     * Возвращает локальный файл по относительному пути из БД: содержимое вложений, аватаров
+     * и миниатюр читается через хранилище, остальные файлы — из директории загрузок
+     * 
+     * @param relativePath относительный путь к файлу
+     * @return полный путь к файлу
+     */
+    public Path getLocalFile(String relativePath) throws IOException {
+        String key = getBlobKey(relativePath);
+        if (key != null) {
+            return getBlobFile(key);
+        }
+        return getFullPath(relativePath);
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+    
+    /**
+     * Временный файл с вычисленным хешем содержимого
+     */
+    public record TempBlob(Path file, String hash, long size) {
+    }
+}
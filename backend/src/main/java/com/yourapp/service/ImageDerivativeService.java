@@ -0,0 +1,414 @@
+package com.yourapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourapp.security.PrincipalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фоновое создание миниатюр аватаров и изображений-вложений.
+ * Задания выполняются ограниченным пулом с ограниченной очередью; при переполнении
+ * задание отбрасывается и позже подбирается догоняющей обработкой по NULL в колонке
+ * миниатюр. Пока миниатюры не созданы, клиенты используют исходный файл.
+ * Миниатюры содержимого из хранилища по хешу лежат там же под производным ключом:
+ * hash-N для вложений и hash-sqN для квадратных миниатюр аватаров, поэтому узлы не хранят
+ * их на своем диске. Миниатюра файла /uploads/P, загруженного до хранилища по хешу,
+ * хранится в /uploads/thumbs/P-N.png рядом с исходным файлом.
+ */
+@Service
+public class ImageDerivativeService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    // ImageIO из JDK не умеет записывать WebP, поэтому миниатюры сохраняются в PNG
+    private static final String FORMAT = "png";
+    private static final String UPLOADS_PREFIX = "/uploads/";
+    private static final String THUMBS_PREFIX = "/uploads/thumbs/";
+
+    private final FileStorageService fileStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final PrincipalCache principalCache;
+    private final BoardMemberDirectory boardMemberDirectory;
+    private final BoardChangeService boardChangeService;
+    private final ThreadPoolExecutor executor;
+    private final int[] avatarSizes;
+    private final int[] attachmentSizes;
+    private final long maxPixels;
+    private final int catchUpBatchSize;
+
+    private final Counter generated;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public ImageDerivativeService(FileStorageService fileStorageService,
+                                  JdbcTemplate jdbcTemplate,
+                                  ObjectMapper objectMapper,
+                                  PrincipalCache principalCache,
+                                  BoardMemberDirectory boardMemberDirectory,
+                                  BoardChangeService boardChangeService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.images.workers:2}") int workers,
+                                  @Value("${app.images.queue-capacity:500}") int queueCapacity,
+                                  @Value("${app.images.avatar-sizes:32,64,256}") int[] avatarSizes,
+                                  @Value("${app.images.attachment-sizes:64,256}") int[] attachmentSizes,
+                                  @Value("${app.images.max-pixels:24000000}") long maxPixels,
+                                  @Value("${app.images.catch-up-batch-size:100}") int catchUpBatchSize) {
+        this.fileStorageService = fileStorageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.principalCache = principalCache;
+        this.boardMemberDirectory = boardMemberDirectory;
+        this.boardChangeService = boardChangeService;
+        this.avatarSizes = avatarSizes;
+        this.attachmentSizes = attachmentSizes;
+        this.maxPixels = maxPixels;
+        this.catchUpBatchSize = catchUpBatchSize;
+
+        this.generated = Counter.builder("images.thumbnails.jobs").tag("result", "generated").register(meterRegistry);
+        this.failed = Counter.builder("images.thumbnails.jobs").tag("result", "failed").register(meterRegistry);
+        this.dropped = Counter.builder("images.thumbnails.jobs").tag("result", "dropped").register(meterRegistry);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            (runnable, pool) -> dropped.increment());
+        Gauge.builder("images.thumbnails.queue.size", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ставит в очередь создание миниатюр аватара (после коммита текущей транзакции)
+     * @param userId ID пользователя
+     * @param avatarUrl путь к загруженному аватару
+     */
+    public void generateAvatarThumbnails(Long userId, String avatarUrl) {
+        if (userId != null && isLocal(avatarUrl)) {
+            submitAfterCommit(() -> processAvatar(userId, avatarUrl));
+        }
+    }
+
+    /**
+     * Ставит в очередь создание миниатюр изображения-вложения (после коммита текущей транзакции).
+     * Миниатюры общие для всех вложений с тем же содержимым
+     * @param blobHash SHA-256 содержимого
+     * @param filePath путь к содержимому
+     * @param contentType MIME-тип вложения
+     */
+    public void generateAttachmentThumbnails(String blobHash, String filePath, String contentType) {
+        if (blobHash != null && isImage(contentType) && isLocal(filePath)) {
+            submitAfterCommit(() -> processAttachment(null, blobHash, filePath));
+        }
+    }
+
+    /**
+     * Удаляет миниатюры файла всех настроенных размеров
+     * @param originalUrl путь к исходному файлу
+     */
+    public void deleteThumbnails(String originalUrl) {
+        if (!isLocal(originalUrl)) {
+            return;
+        }
+        String blobKey = fileStorageService.getBlobKey(originalUrl);
+        if (blobKey != null) {
+            // Одно содержимое может быть и аватаром, и вложением
+            for (int size : avatarSizes) {
+                fileStorageService.deleteBlob(derivedKey(blobKey, size, true));
+            }
+            for (int size : attachmentSizes) {
+                fileStorageService.deleteBlob(derivedKey(blobKey, size, false));
+            }
+        }
+        // Миниатюры, созданные до переноса в хранилище, лежат в директории загрузок
+        for (int[] sizes : new int[][]{avatarSizes, attachmentSizes}) {
+            for (int size : sizes) {
+                try {
+                    Files.deleteIfExists(fileStorageService.getFullPath(thumbnailUrl(originalUrl, size)));
+                } catch (IOException e) {
+                    logger.warn("Не удалось удалить миниатюру {} размера {}", originalUrl, size, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Догоняющая обработка: миниатюры для заданий, отброшенных при переполнении очереди
+     * или потерянных при перезапуске
+     */
+    @Scheduled(fixedDelayString = "${app.images.catch-up-interval-ms:600000}")
+    public void catchUp() {
+        // Пока предыдущие задания не выполнены, те же строки снова попали бы в очередь
+        if (!executor.getQueue().isEmpty() || executor.getActiveCount() > 0) {
+            return;
+        }
+        jdbcTemplate.query(
+            "SELECT id, avatar_url FROM users WHERE avatar_thumbnails IS NULL AND avatar_url LIKE '/uploads/%' " +
+            "ORDER BY id LIMIT ?",
+            rs -> {
+                long userId = rs.getLong("id");
+                String avatarUrl = rs.getString("avatar_url");
+                execute(() -> processAvatar(userId, avatarUrl));
+            },
+            catchUpBatchSize);
+        jdbcTemplate.query(
+            "SELECT id, blob_hash, file_path FROM attachments " +
+            "WHERE thumbnails IS NULL AND content_type LIKE 'image/%' ORDER BY id LIMIT ?",
+            rs -> {
+                long attachmentId = rs.getLong("id");
+                String blobHash = rs.getString("blob_hash");
+                String filePath = rs.getString("file_path");
+                execute(() -> processAttachment(attachmentId, blobHash, filePath));
+            },
+            catchUpBatchSize);
+    }
+
+    private void processAvatar(Long userId, String avatarUrl) {
+        Map<String, String> thumbnails = createThumbnails(avatarUrl, avatarSizes, true);
+        // Аватар мог смениться, пока задание ждало в очереди
+        int updated = jdbcTemplate.update(
+            "UPDATE users SET avatar_thumbnails = ?::jsonb WHERE id = ? AND avatar_url = ?",
+            toJson(thumbnails), userId, avatarUrl);
+        if (updated > 0) {
+            principalCache.evictAfterCommit(userId);
+            boardMemberDirectory.evictUserAfterCommit(userId);
+            // Миниатюры исполнителя входят в снимки досок: без новой версии кэш и ETag отдавали бы старые
+            boardChangeService.recordUser(userId);
+        }
+    }
+
+    private void processAttachment(Long attachmentId, String blobHash, String filePath) {
+        String json = toJson(createThumbnails(filePath, attachmentSizes, false));
+        if (blobHash != null) {
+            jdbcTemplate.update("UPDATE attachments SET thumbnails = ?::jsonb WHERE blob_hash = ?", json, blobHash);
+        } else {
+            jdbcTemplate.update("UPDATE attachments SET thumbnails = ?::jsonb WHERE id = ?", json, attachmentId);
+        }
+    }
+
+    // Пустой результат сохраняется как {}, чтобы догоняющая обработка не повторяла файл
+    private Map<String, String> createThumbnails(String originalUrl, int[] sizes, boolean square) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (!isLocal(originalUrl)) {
+            return result;
+        }
+        String blobKey = fileStorageService.getBlobKey(originalUrl);
+        try {
+            BufferedImage image = null;
+            for (int size : sizes) {
+                String key = blobKey != null ? derivedKey(blobKey, size, square) : null;
+                String url = key == null ? thumbnailUrl(originalUrl, size)
+                    : square ? fileStorageService.getAvatarBlobUrl(key, FORMAT) : fileStorageService.getBlobUrl(key);
+                boolean exists = key != null
+                    ? fileStorageService.blobExists(key)
+                    : Files.exists(fileStorageService.getFullPath(url));
+                if (!exists) {
+                    if (image == null) {
+                        image = readImage(fileStorageService.getLocalFile(originalUrl), maxSize(sizes));
+                        if (image == null) {
+                            failed.increment();
+                            return result;
+                        }
+                    }
+                    BufferedImage thumbnail = square ? cropToSquare(image, size) : fitInto(image, size);
+                    if (key != null) {
+                        publish(thumbnail, key);
+                    } else {
+                        write(thumbnail, fileStorageService.getFullPath(url));
+                    }
+                }
+                result.put(String.valueOf(size), url);
+            }
+            generated.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            logger.warn("Не удалось создать миниатюры для {}: {}", originalUrl, e.getMessage());
+            result.clear();
+        }
+        return result;
+    }
+
+    // Размеры проверяются до декодирования: слишком большое изображение не читается в память.
+    // Декодируется каждый n-й пиксель, так что меньшая сторона остается не меньше двух
+    // наибольших миниатюр: 24-мегапиксельное фото занимает в памяти около 2 МБ вместо 70 с лишним
+    private BufferedImage readImage(Path source, int targetSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    logger.info("Изображение {} слишком большое для миниатюр", source);
+                    return null;
+                }
+                int step = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / (2 * targetSize));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static int maxSize(int[] sizes) {
+        int max = 1;
+        for (int size : sizes) {
+            max = Math.max(max, size);
+        }
+        return max;
+    }
+
+    private static BufferedImage cropToSquare(BufferedImage image, int size) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        int x = (image.getWidth() - side) / 2;
+        int y = (image.getHeight() - side) / 2;
+        return scale(image.getSubimage(x, y, side, side), size, size);
+    }
+
+    private static BufferedImage fitInto(BufferedImage image, int size) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        return scale(image, width, height);
+    }
+
+    // Уменьшение в несколько шагов вдвое: билинейная интерполяция за один шаг дает «лесенку»
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private void publish(BufferedImage image, String key) throws IOException {
+        Path temp = fileStorageService.getTempBlobPath(UUID.randomUUID().toString());
+        try {
+            writeImage(image, temp);
+            fileStorageService.putBlob(key, temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        writeImage(image, temp);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeImage(BufferedImage image, Path file) throws IOException {
+        if (!ImageIO.write(image, FORMAT, file.toFile())) {
+            throw new IOException("Нет записи в формате " + FORMAT);
+        }
+    }
+
+    private void submitAfterCommit(Runnable job) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    execute(job);
+                }
+            });
+        } else {
+            execute(job);
+        }
+    }
+
+    private void execute(Runnable job) {
+        executor.execute(() -> {
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                failed.increment();
+                logger.error("Ошибка задания миниатюр", e);
+            }
+        });
+    }
+
+    private String toJson(Map<String, String> thumbnails) {
+        try {
+            return objectMapper.writeValueAsString(thumbnails);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Аватары обрезаются до квадрата, вложения вписываются: у одного содержимого это разные файлы
+    private static String derivedKey(String blobKey, int size, boolean square) {
+        return blobKey + "-" + (square ? "sq" : "") + size;
+    }
+
+    private static String thumbnailUrl(String originalUrl, int size) {
+        return THUMBS_PREFIX + originalUrl.substring(UPLOADS_PREFIX.length()) + "-" + size + "." + FORMAT;
+    }
+
+    private static boolean isLocal(String url) {
+        return url != null && url.startsWith(UPLOADS_PREFIX) && !url.startsWith(THUMBS_PREFIX) && !url.contains("..");
+    }
+
+    private static boolean isImage(String contentType) {
+        return contentType != null && contentType.startsWith("image/");
+    }
+}
@@ -0,0 +1,179 @@
+package com.yourapp.service;
+
+import com.yourapp.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Счетчики непрочитанных уведомлений.
+ * Счетчик хранится в notification_counters и меняется в той же транзакции, что и уведомления,
+ * а после коммита попадает в память; чтение счетчика не обращается к таблице уведомлений.
+ * Расхождения (например, после ручных правок в БД) исправляет периодическая сверка.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCounterService.class);
+
+    private static final String ADJUST_SQL =
+        "INSERT INTO notification_counters (user_id, unread_count, version, updated_at) " +
+        "VALUES (?, GREATEST(?, 0), 1, CURRENT_TIMESTAMP) " +
+        "ON CONFLICT (user_id) DO UPDATE SET " +
+        "unread_count = GREATEST(notification_counters.unread_count + ?, 0), " +
+        "version = notification_counters.version + 1, updated_at = CURRENT_TIMESTAMP " +
+        "RETURNING unread_count, version";
+
+    private static final String COUNT_SQL =
+        "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND is_read = FALSE AND is_archived = FALSE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Последние закоммиченные значения счетчиков
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Изменяет счетчик пользователя в текущей транзакции
+     * @param userId ID пользователя
+     * @param delta изменение (отрицательное для прочтения, архивации и удаления)
+     * @return новое значение счетчика
+     */
+    @Transactional
+    public long adjust(Long userId, long delta) {
+        Counter counter = jdbcTemplate.queryForObject(ADJUST_SQL,
+            (rs, rowNum) -> new Counter(rs.getLong("unread_count"), rs.getLong("version")),
+            userId, delta, delta);
+        publishAfterCommit(userId, counter);
+        return counter.count();
+    }
+
+    /**
+     * Обнуляет счетчик пользователя (все уведомления прочитаны)
+     * @param userId ID пользователя
+     * @return новое значение счетчика
+     */
+    @Transactional
+    public long reset(Long userId) {
+        return set(userId, 0L);
+    }
+
+    /**
+     * Уменьшает счетчики перед массовым удалением уведомлений
+     * @param rows количество удаляемых непрочитанных уведомлений по пользователям
+     */
+    @Transactional
+    public void subtract(Collection<NotificationRepository.UnreadCountRow> rows) {
+        for (NotificationRepository.UnreadCountRow row : rows) {
+            adjust(row.getUserId(), -row.getCount());
+        }
+    }
+
+    /**
+     * Возвращает количество непрочитанных уведомлений пользователя
+     * @param userId ID пользователя
+     * @return количество непрочитанных уведомлений
+     */
+    public long get(Long userId) {
+        if (userId == null) {
+            return 0L;
+        }
+        Counter known = counters.get(userId);
+        if (known != null) {
+            return known.count();
+        }
+        List<Counter> stored = jdbcTemplate.query(
+            "SELECT unread_count, version FROM notification_counters WHERE user_id = ?",
+            (rs, rowNum) -> new Counter(rs.getLong("unread_count"), rs.getLong("version")), userId);
+        if (!stored.isEmpty()) {
+            return counters.merge(userId, stored.get(0), Counter::newest).count();
+        }
+        // Счетчика еще нет (пользователь создан после миграции): считаем один раз и сохраняем
+        Long count = transactionTemplate.execute(status -> set(userId, countUnread(userId)));
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Сверяет счетчики с таблицей уведомлений и исправляет расхождения.
+     * Каждый пользователь пересчитывается под блокировкой строки счетчика, поэтому
+     * параллельные изменения не теряются
+     */
+    @Scheduled(cron = "${app.notifications.counter-reconcile-cron:0 15 * * * ?}")
+    public void reconcile() {
+        List<Long> drifted = jdbcTemplate.queryForList(
+            "SELECT c.user_id FROM notification_counters c " +
+            "LEFT JOIN (SELECT user_id, COUNT(*) AS cnt FROM notifications " +
+            "           WHERE is_read = FALSE AND is_archived = FALSE GROUP BY user_id) a ON a.user_id = c.user_id " +
+            "WHERE c.unread_count <> COALESCE(a.cnt, 0)", Long.class);
+        int fixed = 0;
+        for (Long userId : drifted) {
+            Boolean changed = transactionTemplate.execute(status -> {
+                Long current = jdbcTemplate.queryForObject(
+                    "SELECT unread_count FROM notification_counters WHERE user_id = ? FOR UPDATE", Long.class, userId);
+                long actual = countUnread(userId);
+                if (current != null && current == actual) {
+                    return false;
+                }
+                set(userId, actual);
+                return true;
+            });
+            if (Boolean.TRUE.equals(changed)) {
+                fixed++;
+            }
+        }
+        if (fixed > 0) {
+            logger.warn("Исправлено {} счетчиков непрочитанных уведомлений", fixed);
+        }
+    }
+
+    private long set(Long userId, long count) {
+        Counter counter = jdbcTemplate.queryForObject(
+            "INSERT INTO notification_counters (user_id, unread_count, version, updated_at) " +
+            "VALUES (?, ?, 1, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET unread_count = EXCLUDED.unread_count, " +
+            "version = notification_counters.version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "RETURNING unread_count, version",
+            (rs, rowNum) -> new Counter(rs.getLong("unread_count"), rs.getLong("version")),
+            userId, count);
+        publishAfterCommit(userId, counter);
+        return counter.count();
+    }
+
+    private long countUnread(Long userId) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, userId);
+        return count != null ? count : 0L;
+    }
+
+    private void publishAfterCommit(Long userId, Counter counter) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counters.merge(userId, counter, Counter::newest);
+                }
+            });
+        } else {
+            counters.merge(userId, counter, Counter::newest);
+        }
+    }
+
+    /**
+     * Значение счетчика и номер его изменения; при гонке коммитов побеждает большая версия
+     */
+    private record Counter(long count, long version) {
+        static Counter newest(Counter a, Counter b) {
+            return a.version() >= b.version() ? a : b;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.NotificationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронный конвейер уведомлений.
+ * События попадают в ограниченную очередь только после коммита транзакции, в которой
+ * они опубликованы; пул обработчиков забирает их пачками и передает в
+ * {@link NotificationService#deliverBatch}. Если очередь переполнена дольше допустимого
+ * или попытки исчерпаны, событие сохраняется в notification_dead_letters.
+ */
+@Service
+public class NotificationDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final String INSERT_DEAD_LETTER_SQL =
+        "INSERT INTO notification_dead_letters (user_id, type, title, message, related_entity_id, related_entity_type, " +
+        "group_key, priority, attempts, error, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final NotificationService notificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<NotificationEvent> queue;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+
+    private volatile boolean running = true;
+
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    public NotificationDispatcher(NotificationService notificationService,
+                                  JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.notifications.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.notifications.workers:2}") int workerCount,
+                                  @Value("${app.notifications.batch-size:100}") int batchSize,
+                                  @Value("${app.notifications.offer-timeout-ms:50}") long offerTimeoutMs,
+                                  @Value("${app.notifications.max-attempts:3}") int maxAttempts) {
+        this.notificationService = notificationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = maxAttempts;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "notification-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.delivered = Counter.builder("notifications.pipeline.events").tag("result", "delivered").register(meterRegistry);
+        this.retried = Counter.builder("notifications.pipeline.events").tag("result", "retried").register(meterRegistry);
+        this.deadLettered = Counter.builder("notifications.pipeline.events").tag("result", "dead_letter").register(meterRegistry);
+        Gauge.builder("notifications.pipeline.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::runWorker);
+        }
+        logger.info("Конвейер уведомлений запущен: {} обработчиков, очередь {}", workerCount, queue.remainingCapacity());
+    }
+
+    /**
+     * Публикует событие уведомления. В транзакции событие ставится в очередь после коммита
+     * и теряется при откате; вне транзакции — сразу
+     * @param event событие уведомления
+     */
+    public void publish(NotificationEvent event) {
+        if (event == null || event.getUserId() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    private void enqueue(NotificationEvent event) {
+        try {
+            // Обратное давление: короткое ожидание места в очереди, затем dead-letter
+            if (!running || !queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                deadLetter(List.of(event), running ? "Очередь уведомлений переполнена" : "Конвейер уведомлений остановлен");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deadLetter(List.of(event), "Прервано ожидание места в очереди");
+        }
+    }
+
+    private void runWorker() {
+        while (running || !queue.isEmpty()) {
+            try {
+                NotificationEvent first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<NotificationEvent> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Ошибка обработчика уведомлений", e);
+            }
+        }
+    }
+
+    private void process(List<NotificationEvent> batch) {
+        try {
+            notificationService.deliverBatch(batch);
+            delivered.increment(batch.size());
+        } catch (Exception e) {
+            if (batch.size() > 1) {
+                // Ищем событие, из-за которого упал пакет: остальные доставляются по одному
+                logger.warn("Пакет из {} уведомлений не доставлен ({}), повтор по одному", batch.size(), e.getMessage());
+                for (NotificationEvent event : batch) {
+                    process(List.of(event));
+                }
+                return;
+            }
+            NotificationEvent event = batch.get(0);
+            event.setAttempts(event.getAttempts() + 1);
+            if (event.getAttempts() < maxAttempts && running && queue.offer(event)) {
+                retried.increment();
+                logger.debug("Уведомление {} для пользователя {} будет повторено (попытка {})",
+                    event.getType(), event.getUserId(), event.getAttempts());
+            } else {
+                logger.error("Уведомление {} для пользователя {} не доставлено после {} попыток",
+                    event.getType(), event.getUserId(), event.getAttempts(), e);
+                deadLetter(batch, e.getMessage());
+            }
+        }
+    }
+
+    private void deadLetter(List<NotificationEvent> events, String error) {
+        deadLettered.increment(events.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            rows.add(new Object[]{event.getUserId(), event.getType() != null ? event.getType().name() : "UNKNOWN",
+                event.getTitle(), event.getMessage(), event.getRelatedEntityId(), event.getRelatedEntityType(),
+                event.getGroupKey(), event.getPriority() != null ? event.getPriority().name() : null,
+                event.getAttempts(), error, now});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_DEAD_LETTER_SQL, rows);
+        } catch (Exception e) {
+            logger.error("Не удалось сохранить {} недоставленных уведомлений: {}", events.size(), error, e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        List<NotificationEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            logger.warn("При остановке в очереди осталось {} уведомлений, они сохранены как недоставленные", remaining.size());
+            deadLetter(remaining, "Конвейер уведомлений остановлен");
+        }
+    }
+}
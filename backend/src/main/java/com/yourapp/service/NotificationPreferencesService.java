@@ -1,25 +1,78 @@
 package com.yourapp.service;
 
 import com.yourapp.dto.NotificationPreferencesDTO;
+import com.yourapp.model.NotificationPreferenceSet;
 import com.yourapp.model.NotificationPreferences;
 import com.yourapp.model.User;
 import com.yourapp.repository.NotificationPreferencesRepository;
 import com.yourapp.repository.UserRepository;
 import com.yourapp.exception.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Сервис для работы с настройками уведомлений
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationPreferencesService {
     private final NotificationPreferencesRepository preferencesRepository;
     private final UserRepository userRepository;
+    private final int cacheSize;
+    
+    // Скомпилированные настройки по ID пользователя, LRU; все обращения под монитором cache
+    private final LinkedHashMap<Long, NotificationPreferenceSet> cache;
+    // Номер сброса кэша: настройки, прочитанные до сброса, в кэш не попадают
+    private final AtomicLong generation = new AtomicLong();
+    
+    public NotificationPreferencesService(NotificationPreferencesRepository preferencesRepository,
+                                          UserRepository userRepository,
+                                          @Value("${app.notification-preferences.cache-size:10000}") int cacheSize) {
+        this.preferencesRepository = preferencesRepository;
+        this.userRepository = userRepository;
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NotificationPreferenceSet> eldest) {
+                return size() > NotificationPreferencesService.this.cacheSize;
+            }
+        };
+    }
+    
+    /**
+     * Возвращает скомпилированные настройки уведомлений пользователя из кэша.
+     * Используется при каждой отправке уведомления вместо {@link #getUserPreferences}
+     * @param userId ID пользователя
+     * @return скомпилированные настройки
+     */
+    public NotificationPreferenceSet getPreferenceSet(Long userId) {
+        synchronized (cache) {
+            NotificationPreferenceSet cached = cache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long loadedAt = generation.get();
+        // Настроек может не быть: тогда действуют значения по умолчанию
+        NotificationPreferenceSet compiled = NotificationPreferenceSet.compile(
+            preferencesRepository.findByUserId(userId)
+                .orElseGet(() -> NotificationPreferences.builder().build()));
+        synchronized (cache) {
+            if (generation.get() != loadedAt) {
+                return compiled;
+            }
+            cache.putIfAbsent(userId, compiled);
+            return cache.get(userId);
+        }
+    }
     
     /**
      * Получает настройки уведомлений пользователя
@@ -77,6 +130,7 @@ public class NotificationPreferencesService {
         preferences.setUser(originalUser);
         
         NotificationPreferences savedPreferences = preferencesRepository.save(preferences);
+        evictAfterCommit(userId);
         return mapToDTO(savedPreferences);
     }
     
@@ -124,11 +178,36 @@ public class NotificationPreferencesService {
         updateSinglePreference(preferences, settingKey, value);
         
         NotificationPreferences savedPreferences = preferencesRepository.save(preferences);
+        evictAfterCommit(userId);
         log.info("Настройка {} успешно обновлена для пользователя {}", settingKey, userId);
         
         return mapToDTO(savedPreferences);
     }
     
+    /**
+     * Удаляет скомпилированные настройки из кэша сразу и еще раз после коммита,
+     * чтобы чтение во время транзакции не оставило в кэше старые значения
+     * @param userId ID пользователя
+     */
+    private void evictAfterCommit(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+    
+    private void evict(Long userId) {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.remove(userId);
+        }
+    }
+    
     /**
      * Обновляет одну конкретную настройку
      * @param preferences объект настроек
@@ -4,22 +4,41 @@ import com.yourapp.model.Notification;
 import com.yourapp.model.User;
 import com.yourapp.model.NotificationType;
 import com.yourapp.model.NotificationPriority;
+import com.yourapp.model.NotificationChannel;
+import com.yourapp.model.NotificationPreferenceSet;
 import com.yourapp.dto.NotificationDTO;
+import com.yourapp.dto.NotificationEvent;
+import com.yourapp.dto.NotificationPageDTO;
 import com.yourapp.repository.NotificationRepository;
 import com.yourapp.repository.UserRepository;
 import com.yourapp.exception.EntityNotFoundException;
+import com.yourapp.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -35,146 +54,164 @@ public class NotificationService {
     private final SimpMessagingTemplate messagingTemplate;
     private final NotificationPreferencesService preferencesService;
     private final TelegramNotificationService telegramNotificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationCounterService notificationCounterService;
+    
+    private static final String INSERT_NOTIFICATION_SQL =
+        "INSERT INTO notifications (user_id, title, message, type, priority, related_entity_id, related_entity_type, " +
+        "group_key, is_read, is_archived, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, FALSE, FALSE, ?, ?)";
     
     /**
-     * Создает уведомление и отправляет его пользователю
-     * @param userId ID пользователя
-     * @param type тип уведомления
-     * @param title заголовок
-     * @param message сообщение
-     * @param relatedEntityId ID связанной сущности
-     * @param relatedEntityType тип связанной сущности
-     * @return созданное уведомление или null, если уведомление не должно быть отправлено
+     * Создает пакет уведомлений из событий асинхронного конвейера.
+     * Пользователи и их настройки загружаются один раз на пакет, строки вставляются
+     * одним JDBC-пакетом, а отправка по WebSocket и в Telegram выполняется после коммита
+     * @param events события уведомлений
+     * @return количество созданных уведомлений
      */
     @Transactional
-    public NotificationDTO createNotification(
-            Long userId, 
-            NotificationType type, 
-            String title, 
-            String message, 
-            String relatedEntityId, 
-            String relatedEntityType) {
+    public int deliverBatch(List<NotificationEvent> events) {
+        Set<Long> userIds = events.stream().map(NotificationEvent::getUserId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        Map<Long, NotificationPreferenceSet> preferencesByUser = new HashMap<>();
+        
+        List<Notification> notifications = new ArrayList<>();
+        List<NotificationEvent> accepted = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationEvent event : events) {
+            User user = users.get(event.getUserId());
+            if (user == null) {
+                logger.warn("Пропущено уведомление {}: пользователь {} не найден", event.getType(), event.getUserId());
+                continue;
+            }
+            NotificationPriority priority = event.getPriority() != null ? event.getPriority() : getPriorityForType(event.getType());
+            NotificationPreferenceSet preferences = preferencesByUser.computeIfAbsent(user.getId(),
+                preferencesService::getPreferenceSet);
+            if (!shouldCreateNotification(preferences, event.getType(), priority)) {
+                continue;
+            }
+            notifications.add(Notification.builder()
+                    .user(user)
+                    .type(event.getType().name())
+                    .title(event.getTitle())
+                    .message(event.getMessage())
+                    .relatedEntityId(event.getRelatedEntityId())
+                    .relatedEntityType(event.getRelatedEntityType())
+                    .groupKey(event.getGroupKey())
+                    .priority(priority)
+                    .isRead(false)
+                    .isArchived(false)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+            accepted.add(event);
+        }
+        if (notifications.isEmpty()) {
+            return 0;
+        }
         
-        return createNotification(userId, type, title, message, relatedEntityId, relatedEntityType, 
-                                null, getPriorityForType(type));
+        insertBatch(notifications);
+        logger.debug("Создано {} уведомлений пакетом из {} событий", notifications.size(), events.size());
+        
+        Map<User, Long> createdByUser = notifications.stream()
+                .collect(Collectors.groupingBy(Notification::getUser, Collectors.counting()));
+        Map<User, Long> unreadCounts = new HashMap<>();
+        createdByUser.forEach((user, created) ->
+            unreadCounts.put(user, notificationCounterService.adjust(user.getId(), created)));
+        
+        // Выполняется после коммита: ошибки отправки не должны возвращать пакет в конвейер,
+        // иначе уже сохраненные уведомления будут созданы и посчитаны повторно
+        Runnable dispatch = () -> {
+            for (int i = 0; i < notifications.size(); i++) {
+                Notification notification = notifications.get(i);
+                NotificationEvent event = accepted.get(i);
+                User user = notification.getUser();
+                NotificationPreferenceSet preferences = preferencesByUser.get(user.getId());
+                if (shouldSendBrowserNotification(preferences, event.getType(), notification.getPriority())) {
+                    sendToUser(user.getUsername(), "/queue/notifications", mapToDTO(notification));
+                }
+                sendTelegramNotificationIfEnabled(user, preferences, event.getType(),
+                    notification.getTitle(), notification.getMessage());
+            }
+            unreadCounts.forEach((user, count) ->
+                sendToUser(user.getUsername(), "/queue/unread-count", Map.of("count", count)));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch.run();
+                }
+            });
+        } else {
+            dispatch.run();
+        }
+        return notifications.size();
     }
     
     /**
-     * Создает уведомление с приоритетом и группировкой
-     * @param userId ID пользователя
-     * @param type тип уведомления
-     * @param title заголовок
-     * @param message сообщение
-     * @param relatedEntityId ID связанной сущности
-     * @param relatedEntityType тип связанной сущности
-     * @param groupKey ключ группировки
-     * @param priority приоритет
-     * @return созданное уведомление или null, если уведомление не должно быть отправлено
+     * Вставляет уведомления одним JDBC-пакетом и проставляет им сгенерированные ID
+     * @param notifications новые уведомления
      */
-    @Transactional
-    public NotificationDTO createNotification(
-            Long userId, 
-            NotificationType type, 
-            String title, 
-            String message, 
-            String relatedEntityId, 
-            String relatedEntityType,
-            String groupKey,
-            NotificationPriority priority) {
-        
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь с ID " + userId + " не найден"));
-        
-        // Проверяем настройки пользователя перед созданием уведомления
-        if (!shouldCreateNotification(user, type, priority)) {
-            logger.debug("Уведомление типа {} не будет создано для пользователя {} из-за настроек", 
-                    type, user.getUsername());
+    private void insertBatch(List<Notification> notifications) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_NOTIFICATION_SQL,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (Notification notification : notifications) {
+                    statement.setLong(1, notification.getUser().getId());
+                    statement.setString(2, notification.getTitle());
+                    statement.setString(3, notification.getMessage());
+                    statement.setString(4, notification.getType());
+                    statement.setString(5, notification.getPriority().name());
+                    statement.setString(6, notification.getRelatedEntityId());
+                    statement.setString(7, notification.getRelatedEntityType());
+                    statement.setString(8, notification.getGroupKey());
+                    statement.setTimestamp(9, Timestamp.valueOf(notification.getCreatedAt()));
+                    statement.setTimestamp(10, Timestamp.valueOf(notification.getUpdatedAt()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (int i = 0; i < notifications.size() && keys.next(); i++) {
+                        notifications.get(i).setId(keys.getLong(1));
+                    }
+                }
+            }
             return null;
+        });
+    }
+    
+    /**
+     * Отправляет сообщение в личную очередь пользователя; ошибка брокера только логируется
+     * @param username имя пользователя
+     * @param destination очередь пользователя
+     * @param payload сообщение
+     * @return true, если сообщение передано брокеру
+     */
+    private boolean sendToUser(String username, String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(username, destination, payload);
+            return true;
+        } catch (Exception e) {
+            logger.error("Ошибка отправки {} пользователю {} через WebSocket: {}", destination, username, e.getMessage());
+            return false;
         }
-        
-        Notification notification = Notification.builder()
-                .user(user)
-                .type(type.name())
-                .title(title)
-                .message(message)
-                .relatedEntityId(relatedEntityId)
-                .relatedEntityType(relatedEntityType)
-                .groupKey(groupKey)
-                .priority(priority)
-                .isRead(false)
-                .isArchived(false)
-                .build();
-        
-        Notification savedNotification = notificationRepository.save(notification);
-        logger.info("Создано уведомление {} для пользователя {}", savedNotification.getId(), user.getUsername());
-        
-        // Преобразуем в DTO
-        NotificationDTO notificationDTO = mapToDTO(savedNotification);
-        
-        // Отправляем уведомление через WebSocket (только браузерные уведомления)
-        if (shouldSendBrowserNotification(user, type, priority)) {
-            messagingTemplate.convertAndSendToUser(
-                    user.getUsername(),
-                    "/queue/notifications",
-                    notificationDTO
-            );
-            logger.debug("Отправлено браузерное уведомление для пользователя {}", user.getUsername());
-        }
-        
-        // Отправляем Telegram уведомления если нужно
-        sendTelegramNotificationIfEnabled(user, type, title, message);
-        
-        // Отправляем обновление счетчика через WebSocket
-        long newUnreadCount = getUnreadCount(userId);
-        messagingTemplate.convertAndSendToUser(
-                user.getUsername(),
-                "/queue/unread-count",
-                Map.of("count", newUnreadCount)
-        );
-        logger.info("Отправлен счетчик {} через WebSocket пользователю {}", newUnreadCount, user.getUsername());
-        
-        return notificationDTO;
     }
     
     /**
      * Отправляет Telegram уведомление если это разрешено настройками пользователя
      * @param user пользователь
+     * @param preferences настройки уведомлений пользователя
      * @param type тип уведомления
      * @param title заголовок уведомления
      * @param message сообщение уведомления
      */
-    private void sendTelegramNotificationIfEnabled(User user, NotificationType type, String title, String message) {
+    private void sendTelegramNotificationIfEnabled(User user, NotificationPreferenceSet preferences,
+                                                   NotificationType type, String title, String message) {
         try {
-            var preferences = preferencesService.getUserPreferences(user.getId());
-            
-            // Проверяем общие настройки Telegram
-            if (!preferences.getGlobalNotificationsEnabled() || !preferences.getTelegramNotificationsEnabled()) {
-                return;
-            }
-            
-            // Проверяем настройки конкретного типа
-            boolean typeEnabled = switch (type) {
-                case TASK_ASSIGNED -> preferences.getTaskAssignedNotifications();
-                case TASK_UPDATED -> preferences.getTaskUpdatedNotifications();
-                case TASK_STATUS_CHANGED -> preferences.getTaskStatusChangedNotifications();
-                case NEW_COMMENT_MENTION -> preferences.getMentionNotifications();
-                case TASK_CREATED -> preferences.getTaskCreatedNotifications();
-                case TASK_DELETED -> preferences.getTaskDeletedNotifications();
-                case TASK_COMMENT_ADDED -> preferences.getTaskCommentAddedNotifications();
-                case SUBTASK_CREATED -> preferences.getSubtaskCreatedNotifications();
-                case SUBTASK_COMPLETED -> preferences.getSubtaskCompletedNotifications();
-                case BOARD_INVITE -> preferences.getBoardInviteNotifications();
-                case BOARD_MEMBER_ADDED -> preferences.getBoardMemberAddedNotifications();
-                case BOARD_MEMBER_REMOVED -> preferences.getBoardMemberRemovedNotifications();
-                case ATTACHMENT_ADDED -> preferences.getAttachmentAddedNotifications();
-                case DEADLINE_REMINDER -> preferences.getDeadlineReminderNotifications();
-                case ROLE_CHANGED -> preferences.getRoleChangedNotifications();
-                case TASK_DUE_SOON -> preferences.getTaskDueSoonNotifications();
-                case TASK_OVERDUE -> preferences.getTaskOverdueNotifications();
-                default -> false;
-            };
-            
-            if (!typeEnabled) {
+            if (!preferences.allowsType(NotificationChannel.TELEGRAM, type)) {
                 return;
             }
             
@@ -189,114 +226,64 @@ public class NotificationService {
     
     /**
      * Проверяет, должно ли быть создано уведомление для пользователя
-     * @param user пользователь
+     * @param preferences настройки уведомлений пользователя
      * @param type тип уведомления
      * @param priority приоритет уведомления
      * @return true, если уведомление должно быть создано
      */
-    private boolean shouldCreateNotification(User user, NotificationType type, NotificationPriority priority) {
-        var preferences = preferencesService.getUserPreferences(user.getId());
-        
-        // Проверяем глобальные настройки
-        if (!preferences.getGlobalNotificationsEnabled()) {
-            return false;
-        }
-        
-        // Проверяем настройки приоритета
-        if (preferences.getOnlyHighPriorityNotifications() && 
-            (priority == null || priority != NotificationPriority.HIGH)) {
-            return false;
-        }
-        
-        // Проверяем настройки по типам уведомлений
-        return switch (type) {
-            case TASK_ASSIGNED -> preferences.getTaskAssignedNotifications();
-            case TASK_UPDATED -> preferences.getTaskUpdatedNotifications();
-            case TASK_STATUS_CHANGED -> preferences.getTaskStatusChangedNotifications();
-            case NEW_COMMENT_MENTION -> preferences.getMentionNotifications();
-            case TASK_CREATED -> preferences.getTaskCreatedNotifications();
-            case TASK_DELETED -> preferences.getTaskDeletedNotifications();
-            case TASK_COMMENT_ADDED -> preferences.getTaskCommentAddedNotifications();
-            case SUBTASK_CREATED -> preferences.getSubtaskCreatedNotifications();
-            case SUBTASK_COMPLETED -> preferences.getSubtaskCompletedNotifications();
-            case BOARD_INVITE -> preferences.getBoardInviteNotifications();
-            case BOARD_MEMBER_ADDED -> preferences.getBoardMemberAddedNotifications();
-            case BOARD_MEMBER_REMOVED -> preferences.getBoardMemberRemovedNotifications();
-            case ATTACHMENT_ADDED -> preferences.getAttachmentAddedNotifications();
-            case DEADLINE_REMINDER -> preferences.getDeadlineReminderNotifications();
-            case ROLE_CHANGED -> preferences.getRoleChangedNotifications();
-            case TASK_DUE_SOON -> preferences.getTaskDueSoonNotifications();
-            case TASK_OVERDUE -> preferences.getTaskOverdueNotifications();
-            default -> true; // По умолчанию разрешаем неизвестные типы
-        };
+    private boolean shouldCreateNotification(NotificationPreferenceSet preferences, NotificationType type,
+                                             NotificationPriority priority) {
+        return preferences.allows(NotificationChannel.IN_APP, type, priority);
     }
     
     /**
      * Проверяет, должно ли быть отправлено браузерное уведомление пользователю
-     * @param user пользователь
+     * @param preferences настройки уведомлений пользователя
      * @param type тип уведомления
      * @param priority приоритет уведомления
      * @return true, если браузерное уведомление должно быть отправлено
      */
-    private boolean shouldSendBrowserNotification(User user, NotificationType type, NotificationPriority priority) {
-        var preferences = preferencesService.getUserPreferences(user.getId());
-        
-        // Проверяем глобальные настройки и настройки браузерных уведомлений
-        if (!preferences.getGlobalNotificationsEnabled() || !preferences.getBrowserNotificationsEnabled()) {
-            return false;
-        }
-        
-        // Проверяем настройки приоритета
-        if (preferences.getOnlyHighPriorityNotifications() && 
-            (priority == null || priority != NotificationPriority.HIGH)) {
-            return false;
-        }
-        
-        // Браузерные уведомления отправляются для тех же типов, что и создаются
-        return shouldCreateNotification(user, type, priority);
+    private boolean shouldSendBrowserNotification(NotificationPreferenceSet preferences, NotificationType type,
+                                                  NotificationPriority priority) {
+        return preferences.allows(NotificationChannel.BROWSER, type, priority);
     }
     
     /**
-     * Получает все уведомления пользователя
+     * Получает активные уведомления пользователя, от новых к старым
      * @param userId ID пользователя
-     * @param pageable пагинация
-     * @return страница уведомлений
+     * @param cursor курсор из предыдущей страницы; null — первая страница
+     * @param limit размер страницы
+     * @return страница уведомлений с курсором следующей страницы
      */
     @Transactional(readOnly = true)
-    public Page<NotificationDTO> getUserNotifications(Long userId, Pageable pageable) {
-        if (userId == null) {
-            return Page.empty(pageable);
-        }
-        
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return Page.empty(pageable);
-        }
-        
-        return notificationRepository.findByUserAndIsArchivedFalseOrderByCreatedAtDesc(user, pageable)
-                .map(this::mapToDTO);
+    public NotificationPageDTO getUserNotifications(Long userId, String cursor, int limit) {
+        return getFeed(userId, false, cursor, limit);
     }
     
     /**
-     * Получает непрочитанные уведомления пользователя
+     * Получает непрочитанные уведомления пользователя: сначала более приоритетные, затем более новые
      * @param userId ID пользователя
-     * @return список непрочитанных уведомлений
+     * @param cursor курсор из предыдущей страницы; null — первая страница
+     * @param limit размер страницы
+     * @return страница непрочитанных уведомлений с курсором следующей страницы
      */
     @Transactional(readOnly = true)
-    public List<NotificationDTO> getUnreadNotifications(Long userId) {
+    public NotificationPageDTO getUnreadNotifications(Long userId, String cursor, int limit) {
         if (userId == null) {
-            return Collections.emptyList();
+            return new NotificationPageDTO();
         }
         
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return Collections.emptyList();
+        // Лишняя строка показывает, есть ли следующая страница, без подсчета всех непрочитанных
+        List<Notification> notifications;
+        if (cursor == null || cursor.isEmpty()) {
+            notifications = notificationRepository.findUnread(userId, limit + 1);
+        } else {
+            String[] parts = decodeCursor(cursor, 3);
+            notifications = notificationRepository.findUnreadAfter(userId, parseCursorInt(parts[0]),
+                    parseCursorTime(parts[1]), parseCursorLong(parts[2]), limit + 1);
         }
-        
-        return notificationRepository.findByUserAndIsReadFalseAndIsArchivedFalseOrderByPriorityDescCreatedAtDesc(user)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return toPage(notifications, limit, last -> encodeCursor(
+                String.valueOf(priorityRank(last.getPriority())), last.getCreatedAt().toString(), String.valueOf(last.getId())));
     }
     
     /**
@@ -315,6 +302,7 @@ public class NotificationService {
             throw new IllegalArgumentException("Уведомление не принадлежит пользователю");
         }
         
+        boolean wasUnread = isCountedAsUnread(notification);
         notification.setRead(true);
         notification.setReadAt(java.time.LocalDateTime.now());
         
@@ -325,12 +313,9 @@ public class NotificationService {
         NotificationDTO notificationDTO = mapToDTO(savedNotification);
         
         // Отправляем обновление счетчика через WebSocket
-        long newUnreadCount = getUnreadCount(userId);
-        messagingTemplate.convertAndSendToUser(
-                notification.getUser().getUsername(),
-                "/queue/unread-count",
-                Map.of("count", newUnreadCount)
-        );
+        if (wasUnread) {
+            pushUnreadCount(notification.getUser(), notificationCounterService.adjust(userId, -1));
+        }
         
         return notificationDTO;
     }
@@ -350,12 +335,7 @@ public class NotificationService {
         
         // Отправляем обновление счетчика через WebSocket
         if (count > 0) {
-            long newUnreadCount = getUnreadCount(userId);
-            messagingTemplate.convertAndSendToUser(
-                    user.getUsername(),
-                    "/queue/unread-count",
-                    Map.of("count", newUnreadCount)
-            );
+            pushUnreadCount(user, notificationCounterService.reset(userId));
         }
         
         return count;
@@ -377,9 +357,15 @@ public class NotificationService {
             throw new IllegalArgumentException("Уведомление не принадлежит пользователю");
         }
         
+        boolean wasUnread = isCountedAsUnread(notification);
         notification.setArchived(true);
         notification.setRead(true); // Архивированные уведомления автоматически считаются прочитанными
-        return mapToDTO(notificationRepository.save(notification));
+        NotificationDTO notificationDTO = mapToDTO(notificationRepository.save(notification));
+        
+        if (wasUnread) {
+            pushUnreadCount(notification.getUser(), notificationCounterService.adjust(userId, -1));
+        }
+        return notificationDTO;
     }
     
     /**
@@ -387,39 +373,115 @@ public class NotificationService {
      * @param userId ID пользователя
      * @return количество непрочитанных уведомлений
      */
-    @Transactional(readOnly = true)
     public long getUnreadCount(Long userId) {
         if (userId == null) {
             return 0;
         }
         
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return 0;
-        }
-        
-        return notificationRepository.countByUserAndIsReadFalseAndIsArchivedFalse(user);
+        return notificationCounterService.get(userId);
     }
     
     /**
-     * Получает архивированные уведомления пользователя
+     * Получает архивированные уведомления пользователя, от новых к старым
      * @param userId ID пользователя
-     * @param pageable пагинация
-     * @return страница архивированных уведомлений
+     * @param cursor курсор из предыдущей страницы; null — первая страница
+     * @param limit размер страницы
+     * @return страница архивированных уведомлений с курсором следующей страницы
      */
     @Transactional(readOnly = true)
-    public Page<NotificationDTO> getArchivedNotifications(Long userId, Pageable pageable) {
+    public NotificationPageDTO getArchivedNotifications(Long userId, String cursor, int limit) {
+        return getFeed(userId, true, cursor, limit);
+    }
+    
+    private NotificationPageDTO getFeed(Long userId, boolean archived, String cursor, int limit) {
         if (userId == null) {
-            return Page.empty(pageable);
+            return new NotificationPageDTO();
         }
         
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return Page.empty(pageable);
+        List<Notification> notifications;
+        if (cursor == null || cursor.isEmpty()) {
+            notifications = notificationRepository.findFeed(userId, archived, limit + 1);
+        } else {
+            String[] parts = decodeCursor(cursor, 2);
+            notifications = notificationRepository.findFeedAfter(userId, archived,
+                    parseCursorTime(parts[0]), parseCursorLong(parts[1]), limit + 1);
         }
-        
-        return notificationRepository.findByUserAndIsArchivedTrueOrderByCreatedAtDesc(user, pageable)
-                .map(this::mapToDTO);
+        return toPage(notifications, limit, last -> encodeCursor(
+                last.getCreatedAt().toString(), String.valueOf(last.getId())));
+    }
+    
+    private NotificationPageDTO toPage(List<Notification> notifications, int limit,
+                                       Function<Notification, String> cursorOf) {
+        boolean hasMore = notifications.size() > limit;
+        List<Notification> page = hasMore ? notifications.subList(0, limit) : notifications;
+        return new NotificationPageDTO(
+                page.stream().map(this::mapToDTO).collect(Collectors.toList()),
+                hasMore && !page.isEmpty() ? cursorOf.apply(page.get(page.size() - 1)) : null);
+    }
+    
+    /**
+     * Ранг приоритета, как в NotificationRepository.PRIORITY_RANK
+     */
+    private static int priorityRank(NotificationPriority priority) {
+        if (priority == null) {
+            return 0;
+        }
+        switch (priority) {
+            case CRITICAL:
+                return 3;
+            case HIGH:
+                return 2;
+            case NORMAL:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+    
+    // Курсор непрозрачен для клиента: значения ключа сортировки через '|' в base64url
+    private static String encodeCursor(String... values) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join("|", values).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String[] decodeCursor(String cursor, int size) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length == size) {
+                return parts;
+            }
+        } catch (IllegalArgumentException e) {
+            // Ниже — общая ошибка некорректного курсора
+        }
+        throw invalidCursor();
+    }
+    
+    private static LocalDateTime parseCursorTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalidCursor();
+        }
+    }
+    
+    private static long parseCursorLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+    
+    private static int parseCursorInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+    
+    private static ValidationException invalidCursor() {
+        return new ValidationException(Map.of("cursor", "Некорректный курсор"));
     }
     
     /**
@@ -454,6 +516,39 @@ public class NotificationService {
         }
     }
     
+    /**
+     * Учитывается ли уведомление в счетчике непрочитанных
+     * @param notification уведомление
+     * @return true, если уведомление не прочитано и не архивировано
+     */
+    private boolean isCountedAsUnread(Notification notification) {
+        return !notification.isRead() && !notification.isArchived();
+    }
+    
+    /**
+     * Отправляет пользователю новое значение счетчика непрочитанных после коммита
+     * @param user пользователь
+     * @param count количество непрочитанных уведомлений
+     */
+    private void pushUnreadCount(User user, long count) {
+        String username = user.getUsername();
+        Runnable push = () -> {
+            if (sendToUser(username, "/queue/unread-count", Map.of("count", count))) {
+                logger.debug("Отправлен счетчик {} через WebSocket пользователю {}", count, username);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push.run();
+                }
+            });
+        } else {
+            push.run();
+        }
+    }
+    
     /**
      * Преобразует модель Notification в DTO
      * @param notification модель уведомления
@@ -495,12 +590,9 @@ public class NotificationService {
         notificationRepository.delete(notification);
         
         // Отправляем обновление счетчика через WebSocket
-        long newUnreadCount = getUnreadCount(userId);
-        messagingTemplate.convertAndSendToUser(
-                notification.getUser().getUsername(),
-                "/queue/unread-count",
-                Map.of("count", newUnreadCount)
-        );
+        if (isCountedAsUnread(notification)) {
+            pushUnreadCount(notification.getUser(), notificationCounterService.adjust(userId, -1));
+        }
     }
     
     /**
@@ -522,12 +614,10 @@ public class NotificationService {
         notificationRepository.deleteAll(notifications);
         
         // Отправляем обновление счетчика через WebSocket
-        long newUnreadCount = getUnreadCount(userId);
-        messagingTemplate.convertAndSendToUser(
-                user.getUsername(),
-                "/queue/unread-count",
-                Map.of("count", newUnreadCount)
-        );
+        long unreadDeleted = notifications.stream().filter(this::isCountedAsUnread).count();
+        if (unreadDeleted > 0) {
+            pushUnreadCount(user, notificationCounterService.adjust(userId, -unreadDeleted));
+        }
     }
     
     /**
@@ -543,6 +633,7 @@ public class NotificationService {
         List<Notification> notifications = notificationRepository.findByIdInAndUserAndIsReadFalse(notificationIds, user);
         
         if (!notifications.isEmpty()) {
+            long unreadMarked = notifications.stream().filter(this::isCountedAsUnread).count();
             for (Notification notification : notifications) {
                 notification.setRead(true);
                 notification.setReadAt(java.time.LocalDateTime.now());
@@ -550,12 +641,9 @@ public class NotificationService {
             notificationRepository.saveAll(notifications);
             
             // Отправляем обновление счетчика через WebSocket
-            long newUnreadCount = getUnreadCount(userId);
-            messagingTemplate.convertAndSendToUser(
-                    user.getUsername(),
-                    "/queue/unread-count",
-                    Map.of("count", newUnreadCount)
-            );
+            if (unreadMarked > 0) {
+                pushUnreadCount(user, notificationCounterService.adjust(userId, -unreadMarked));
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,261 @@
+package com.yourapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Кэш сериализованных и заранее сжатых JSON-ответов для версионированных данных (снимки досок).
+ * Общая часть ответа сериализуется и сжимается один раз на версию ресурса; данные конкретного
+ * запроса (например, currentUser) дописываются в конец объекта как отдельный короткий хвост.
+ * Для gzip общая часть хранится как deflate-поток, завершенный SYNC_FLUSH без последнего блока:
+ * хвост сжимается отдельно и продолжает поток, а CRC32 ответа вычисляется из CRC частей без
+ * повторного чтения общей части. Для каждого ресурса и кодировки хранится одна последняя версия;
+ * размер ограничен суммарным объемом, вытесняются давно не читавшиеся записи.
+ */
+@Service
+public class PrecompressedResponseCache {
+
+    public static final String GZIP = "gzip";
+    public static final String IDENTITY = "identity";
+
+    // Заголовок gzip-члена: deflate, без имени файла и времени изменения
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final int compressionLevel;
+
+    // LRU в порядке доступа; все обращения под монитором this
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrecompressedResponseCache(ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.response-cache.max-bytes:268435456}") long maxBytes,
+                                      @Value("${app.response-cache.gzip-level:9}") int compressionLevel) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.compressionLevel = compressionLevel;
+        this.hits = Counter.builder("responses.precompressed.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("responses.precompressed.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("responses.precompressed.bytes", this, PrecompressedResponseCache::bytes).register(meterRegistry);
+    }
+
+    /**
+     * Собирает ответ из закэшированной общей части и свойств текущего запроса
+     * @param resource ключ ресурса, например "board:{id}"
+     * @param version версия ресурса; общая часть другой версии собирается заново
+     * @param body общая часть ответа, сериализуется в непустой JSON-объект
+     * @param extras свойства, дописываемые в конец объекта (могут отличаться у каждого запроса)
+     * @param encoding {@link #GZIP} или {@link #IDENTITY}
+     * @return тело ответа для записи в поток
+     */
+    public Payload get(String resource, long version, Object body, Map<String, Object> extras,
+                       String encoding) throws IOException {
+        Key key = new Key(resource, encoding);
+        Entry entry = lookup(key, version);
+        if (entry == null) {
+            misses.increment();
+            entry = build(version, body, encoding);
+            store(key, entry);
+        } else {
+            hits.increment();
+        }
+
+        byte[] suffix = suffix(extras);
+        if (!GZIP.equals(encoding)) {
+            return new Payload(IDENTITY, EMPTY, entry.bytes(), suffix);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(suffix);
+        long length = entry.length() + suffix.length;
+        int combinedCrc = (int) crc32Combine(entry.crc(), crc.getValue(), suffix.length);
+
+        ByteArrayOutputStream tail = new ByteArrayOutputStream(suffix.length + 16);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(tail, deflater)) {
+            out.write(suffix);
+        } finally {
+            deflater.end();
+        }
+        writeIntLE(tail, combinedCrc);
+        writeIntLE(tail, (int) length);
+        return new Payload(GZIP, GZIP_HEADER, entry.bytes(), tail.toByteArray());
+    }
+
+    private synchronized Entry lookup(Key key, long version) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.version() == version ? entry : null;
+    }
+
+    private synchronized void store(Key key, Entry entry) {
+        Entry previous = entries.get(key);
+        if (previous != null && previous.version() > entry.version()) {
+            return;
+        }
+        entries.put(key, entry);
+        totalBytes += entry.bytes().length - (previous != null ? previous.bytes().length : 0);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+            totalBytes -= iterator.next().bytes().length;
+            iterator.remove();
+        }
+    }
+
+    private Entry build(long version, Object body, String encoding) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        // Объект без последней скобки: хвост закрывает его сам
+        int end = json.length;
+        while (end > 0 && json[end - 1] != '}') {
+            end--;
+        }
+        if (end == 0) {
+            throw new IllegalArgumentException("Тело ответа должно сериализоваться в JSON-объект");
+        }
+        byte[] prefix = Arrays.copyOf(json, end - 1);
+        if (!GZIP.equals(encoding)) {
+            return new Entry(version, prefix, 0, prefix.length);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(prefix);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(prefix.length / 4 + 64);
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            // SYNC_FLUSH выравнивает поток по байту и не помечает последний блок
+            DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater, 64 * 1024, true);
+            out.write(prefix);
+            out.flush();
+        } finally {
+            deflater.end();
+        }
+        return new Entry(version, compressed.toByteArray(), crc.getValue(), prefix.length);
+    }
+
+    private byte[] suffix(Map<String, Object> extras) throws IOException {
+        if (extras == null || extras.isEmpty()) {
+            return new byte[]{'}'};
+        }
+        // {"currentUser":{...}} превращается в ,"currentUser":{...}}
+        byte[] json = objectMapper.writeValueAsBytes(extras);
+        int start = 0;
+        while (json[start] != '{') {
+            start++;
+        }
+        json[start] = ',';
+        return json;
+    }
+
+    private synchronized long bytes() {
+        return totalBytes;
+    }
+
+    private static void writeIntLE(OutputStream out, int value) throws IOException {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    /**
+     * CRC32 склеенных данных по CRC частей (алгоритм crc32_combine из zlib)
+     */
+    static long crc32Combine(long crc1, long crc2, long length2) {
+        if (length2 <= 0) {
+            return crc1;
+        }
+        long[] even = new long[32];
+        long[] odd = new long[32];
+
+        // Оператор для одного нулевого бита
+        odd[0] = 0xedb88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+
+        // Дописываем length2 нулевых байт к crc1
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((length2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(even, crc1);
+            }
+            length2 >>= 1;
+            if (length2 == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((length2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(odd, crc1);
+            }
+            length2 >>= 1;
+        } while (length2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] matrix, long vector) {
+        long sum = 0;
+        for (int i = 0; vector != 0; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] matrix) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(matrix, matrix[n]);
+        }
+    }
+
+    private record Key(String resource, String encoding) {
+    }
+
+    /**
+     * Общая часть ответа одной версии
+     * @param bytes JSON без закрывающей скобки или его deflate-поток
+     * @param crc CRC32 несжатой общей части
+     * @param length длина несжатой общей части
+     */
+    private record Entry(long version, byte[] bytes, long crc, long length) {
+    }
+
+    /**
+     * Готовое тело ответа: заголовок кодировки, общая часть из кэша и хвост запроса
+     */
+    public record Payload(String encoding, byte[] head, byte[] body, byte[] tail) {
+
+        public long contentLength() {
+            return (long) head.length + body.length + tail.length;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(head);
+            out.write(body);
+            out.write(tail);
+        }
+    }
+}
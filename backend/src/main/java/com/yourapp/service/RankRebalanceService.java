@@ -0,0 +1,117 @@
+package com.yourapp.service;
+
+import com.yourapp.model.BoardChange;
+import com.yourapp.util.RankKeys;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Фоновая перебалансировка ранговых ключей.
+ * Многократные вставки в одно и то же место удлиняют ключи; когда самый длинный ключ
+ * колонки (или списка подзадач) превышает лимит, все ключи этой группы переписываются
+ * равномерно распределенными значениями одним пакетным UPDATE. Порядок при этом не меняется.
+ * Так же переписываются группы с повторяющимися ключами: порядок задач с одинаковым ключом
+ * фиксируется по ID, а уникальность (проверяемая при коммите) восстанавливается.
+ */
+@Service
+@RequiredArgsConstructor
+public class RankRebalanceService {
+    private static final Logger logger = LoggerFactory.getLogger(RankRebalanceService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BoardChangeService boardChangeService;
+
+    @Value("${app.rank.max-length:32}")
+    private int maxLength;
+
+    @Value("${app.rank.rebalance-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Перебалансирует колонки и списки подзадач со слишком длинными или повторяющимися ключами.
+     * Каждая группа обрабатывается в своей короткой транзакции
+     */
+    @Scheduled(fixedDelayString = "${app.rank.rebalance-interval-ms:600000}")
+    public void rebalance() {
+        List<Long> columnIds = jdbcTemplate.queryForList(
+            "SELECT column_id FROM tasks WHERE column_id IS NOT NULL " +
+            "GROUP BY column_id HAVING MAX(LENGTH(rank_key)) > ? OR COUNT(*) > COUNT(DISTINCT rank_key)",
+            Long.class, maxLength);
+        for (Long columnId : columnIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalanceColumn(columnId));
+            } catch (Exception e) {
+                logger.error("Ошибка перебалансировки ключей колонки {}", columnId, e);
+            }
+        }
+
+        List<Long> parentTaskIds = jdbcTemplate.queryForList(
+            "SELECT parent_task_id FROM subtasks GROUP BY parent_task_id " +
+            "HAVING MAX(LENGTH(rank_key)) > ? OR COUNT(*) > COUNT(DISTINCT rank_key)",
+            Long.class, maxLength);
+        for (Long taskId : parentTaskIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalanceSubtasks(taskId));
+            } catch (Exception e) {
+                logger.error("Ошибка перебалансировки ключей подзадач задачи {}", taskId, e);
+            }
+        }
+
+        if (!columnIds.isEmpty() || !parentTaskIds.isEmpty()) {
+            logger.info("Перебалансированы ранговые ключи: {} колонок, {} списков подзадач",
+                columnIds.size(), parentTaskIds.size());
+        }
+    }
+
+    private void rebalanceColumn(Long columnId) {
+        // Блокируем колонку, как TaskService перед вычислением ключа: параллельная вставка
+        // дождется новой сетки ключей и не получит ключ из старой
+        jdbcTemplate.queryForList("SELECT id FROM board_columns WHERE id = ? FOR UPDATE", Long.class, columnId);
+        List<Long> taskIds = jdbcTemplate.queryForList(
+            "SELECT id FROM tasks WHERE column_id = ? ORDER BY rank_key, id FOR UPDATE", Long.class, columnId);
+        rewrite("UPDATE tasks SET rank_key = ?, position = ? WHERE id = ?", taskIds);
+
+        List<String> boardIds = jdbcTemplate.queryForList(
+            "SELECT board_id FROM board_columns WHERE id = ?", String.class, columnId);
+        if (!boardIds.isEmpty()) {
+            boardChangeService.record(boardIds.get(0), BoardChange.EntityType.TASK, taskIds, BoardChange.Action.UPDATED);
+        }
+        logger.debug("Колонка {}: переписаны ключи {} задач", columnId, taskIds.size());
+    }
+
+    private void rebalanceSubtasks(Long taskId) {
+        jdbcTemplate.queryForList("SELECT id FROM tasks WHERE id = ? FOR UPDATE", Long.class, taskId);
+        List<Long> subtaskIds = jdbcTemplate.queryForList(
+            "SELECT id FROM subtasks WHERE parent_task_id = ? ORDER BY rank_key, id FOR UPDATE", Long.class, taskId);
+        rewrite("UPDATE subtasks SET rank_key = ?, position = ? WHERE id = ?", subtaskIds);
+
+        List<String> boardIds = jdbcTemplate.queryForList(
+            "SELECT c.board_id FROM tasks t JOIN board_columns c ON c.id = t.column_id WHERE t.id = ?",
+            String.class, taskId);
+        if (!boardIds.isEmpty()) {
+            boardChangeService.record(boardIds.get(0), BoardChange.EntityType.TASK, taskId, BoardChange.Action.UPDATED);
+        }
+        logger.debug("Задача {}: переписаны ключи {} подзадач", taskId, subtaskIds.size());
+    }
+
+    private void rewrite(String sql, List<Long> ids) {
+        List<String> keys = RankKeys.spread(ids.size());
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            args.add(new Object[]{keys.get(i), i, ids.get(i)});
+        }
+        for (int from = 0; from < args.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, args.subList(from, Math.min(from + batchSize, args.size())));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.yourapp.dto.SubtaskDto;
 import com.yourapp.dto.CreateSubtaskRequest;
 import com.yourapp.dto.UpdateSubtaskRequest;
 import com.yourapp.mapper.SubtaskMapper;
+import com.yourapp.model.BoardChange;
 import com.yourapp.model.Subtask;
 import com.yourapp.model.Task;
 import com.yourapp.model.User;
@@ -12,6 +13,7 @@ import com.yourapp.repository.SubtaskRepository;
 import com.yourapp.repository.TaskRepository;
 import com.yourapp.repository.UserRepository;
 import com.yourapp.util.NotificationUtil;
+import com.yourapp.util.RankKeys;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +37,7 @@ public class SubtaskService {
     private final SubtaskMapper subtaskMapper;
     private final NotificationUtil notificationUtil;
     private final TaskHistoryService taskHistoryService;
+    private final BoardChangeService boardChangeService;
     
     /**
      * Получает текущего пользователя из контекста безопасности
@@ -48,9 +51,14 @@ public class SubtaskService {
             throw new IllegalStateException("Пользователь не аутентифицирован");
         }
         
+        // Пользователь уже загружен фильтром аутентификации
+        if (authentication.getPrincipal() instanceof User principal && principal.getId() != null) {
+            return principal;
+        }
+
         String username = authentication.getName();
         logger.debug("Username из контекста: {}", username);
-        
+
         // Сначала пытаемся найти по username
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (userOpt.isPresent()) {
@@ -108,6 +116,9 @@ public class SubtaskService {
         subtask.setCompleted(false);
         subtask.setParentTask(parentTask);
         subtask.setPosition(newPosition);
+        // Ключ вычисляется под блокировкой родительской задачи, как и в placeAt
+        taskRepository.lockById(taskId);
+        subtask.setRankKey(RankKeys.after(subtaskRepository.findMaxRankKeyByTaskId(taskId)));
         subtask.setDueDate(request.getDueDate());
         subtask.setEstimatedHours(request.getEstimatedHours());
         
@@ -117,6 +128,7 @@ public class SubtaskService {
         
         logger.debug("Сохранение подзадачи");
         Subtask savedSubtask = subtaskRepository.save(subtask);
+        touchBoard(parentTask);
         
         // Создаем запись в истории задачи
         try {
@@ -174,7 +186,7 @@ public class SubtaskService {
         }
         
         if (request.getPosition() != null) {
-            subtask.setPosition(request.getPosition());
+            placeAt(subtask, request.getPosition());
         }
         
         if (request.getDueDate() != null) {
@@ -204,6 +216,7 @@ public class SubtaskService {
         
         logger.debug("Сохранение обновленной подзадачи");
         Subtask savedSubtask = subtaskRepository.save(subtask);
+        touchBoard(subtask.getParentTask());
         
         // Записываем изменения в историю
         try {
@@ -247,6 +260,7 @@ public class SubtaskService {
         String subtaskTitle = subtask.getTitle();
         
         subtaskRepository.deleteById(subtaskId);
+        touchBoard(parentTask);
         
         // Записываем удаление в историю
         try {
@@ -270,8 +284,13 @@ public class SubtaskService {
     }
     
     public List<SubtaskDto> getSubtasksByTask(Long taskId) {
-        List<Subtask> subtasks = subtaskRepository.findByParentTaskIdOrderByPositionAsc(taskId);
-        return subtaskMapper.toDtoList(subtasks);
+        List<Subtask> subtasks = subtaskRepository.findByParentTaskIdOrderByRankKeyAsc(taskId);
+        List<SubtaskDto> dtos = subtaskMapper.toDtoList(subtasks);
+        // Порядок задают ранговые ключи, позиция в ответе — индекс в списке
+        for (int i = 0; i < dtos.size(); i++) {
+            dtos.get(i).setPosition(i);
+        }
+        return dtos;
     }
     
     @Transactional
@@ -289,6 +308,7 @@ public class SubtaskService {
         subtask.setUpdatedAt(LocalDateTime.now());
         
         Subtask savedSubtask = subtaskRepository.save(subtask);
+        touchBoard(subtask.getParentTask());
         
         // Записываем назначение в историю
         try {
@@ -318,22 +338,26 @@ public class SubtaskService {
         Task parentTask = taskRepository.findById(taskId)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
         
+        taskRepository.lockById(taskId);
         List<Subtask> subtasks = subtaskRepository.findByParentTaskId(taskId);
         
         // Создаем мапу для быстрого доступа к подзадачам
         java.util.Map<Long, Subtask> subtaskMap = subtasks.stream()
                 .collect(java.util.stream.Collectors.toMap(Subtask::getId, s -> s));
         
-        // Обновляем позиции
+        // Обновляем позиции и ранговые ключи в заданном порядке
+        List<String> rankKeys = RankKeys.spread(subtaskIds.size());
         for (int i = 0; i < subtaskIds.size(); i++) {
             Subtask subtask = subtaskMap.get(subtaskIds.get(i));
             if (subtask != null) {
                 subtask.setPosition(i);
+                subtask.setRankKey(rankKeys.get(i));
                 subtask.setUpdatedAt(LocalDateTime.now());
             }
         }
         
         List<Subtask> savedSubtasks = subtaskRepository.saveAll(subtasks);
+        touchBoard(parentTask);
         
         // Записываем изменение порядка в историю
         try {
@@ -351,4 +375,41 @@ public class SubtaskService {
         
         return subtaskMapper.toDtoList(savedSubtasks);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Фиксирует изменение родительской задачи в журнале изменений доски
+     * (подзадачи передаются клиенту в составе задачи)
+     * @param parentTask родительская задача
+     */
+    private void touchBoard(Task parentTask) {
+        if (parentTask != null && parentTask.getColumn() != null && parentTask.getColumn().getBoard() != null) {
+            boardChangeService.record(parentTask.getColumn().getBoard().getId(), BoardChange.EntityType.TASK,
+                parentTask.getId(), BoardChange.Action.UPDATED);
+        }
+    }
+
+    /**
+     * Ставит подзадачу на позицию, меняя только её ранговый ключ.
+     * Родительская задача блокируется до конца транзакции, чтобы соседние ключи не изменились
+     * @param subtask подзадача
+     * @param position желаемая позиция, начиная с 0
+     */
+    private void placeAt(Subtask subtask, int position) {
+        int target = Math.max(position, 0);
+        Long taskId = subtask.getParentTask().getId();
+        Long subtaskId = subtask.getId() != null ? subtask.getId() : -1L;
+        taskRepository.lockById(taskId);
+        String before = null;
+        String after;
+        if (target == 0) {
+            List<String> keys = subtaskRepository.findRankKeysAt(taskId, subtaskId, 0);
+            after = keys.isEmpty() ? null : keys.get(0);
+        } else {
+            List<String> keys = subtaskRepository.findRankKeysAt(taskId, subtaskId, target - 1);
+            before = keys.isEmpty() ? subtaskRepository.findMaxRankKeyByTaskId(taskId) : keys.get(0);
+            after = keys.size() > 1 ? keys.get(1) : null;
+        }
+        subtask.setRankKey(RankKeys.between(before, after));
+        subtask.setPosition(target);
+    }
+}
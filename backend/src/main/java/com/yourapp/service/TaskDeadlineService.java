@@ -0,0 +1,166 @@
+package com.yourapp.service;
+
+import com.yourapp.model.BoardChange;
+import com.yourapp.util.NotificationUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ночной пересчет оставшихся до дедлайна дней.
+ * Задачи обходятся порциями по возрастанию id (keyset-пагинация); каждая порция — один
+ * UPDATE с вычислением значения в БД и своя короткая транзакция. Меняются только строки,
+ * у которых значение действительно изменилось, и уведомления отправляются только при
+ * переходе задачи в новое состояние (просрочена или осталось не больше 3 дней).
+ */
+@Service
+public class TaskDeadlineService {
+    private static final Logger logger = LoggerFactory.getLogger(TaskDeadlineService.class);
+
+    // Граница порции: id последней задачи с дедлайном среди следующих chunk-size и их количество
+    private static final String CHUNK_SQL =
+        "SELECT MAX(id) AS last_id, COUNT(*) AS size " +
+        "FROM (SELECT id FROM tasks WHERE end_date IS NOT NULL AND id > ? ORDER BY id LIMIT ?) chunk";
+
+    // -1 для просроченных, иначе число полных суток до дедлайна (как ChronoUnit.DAYS.between)
+    private static final String UPDATE_CHUNK_SQL =
+        "UPDATE tasks t SET days_remaining = n.new_days " +
+        "FROM (SELECT s.id, c.board_id, " +
+        "             CASE WHEN s.end_date < ? THEN -1 " +
+        "                  ELSE FLOOR(EXTRACT(EPOCH FROM (s.end_date - ?)) / 86400)::BIGINT END AS new_days " +
+        "      FROM tasks s LEFT JOIN board_columns c ON c.id = s.column_id " +
+        "      WHERE s.end_date IS NOT NULL AND s.id > ? AND s.id <= ?) n " +
+        "WHERE t.id = n.id AND t.days_remaining IS DISTINCT FROM n.new_days " +
+        "RETURNING t.id, t.title, t.assignee_id, n.board_id, n.new_days";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BoardChangeService boardChangeService;
+    private final NotificationUtil notificationUtil;
+    private final int chunkSize;
+
+    private final Timer duration;
+    private final Counter scanned;
+    private final Counter updated;
+    private final Counter notified;
+    // Прогресс текущего (или последнего) запуска
+    private final AtomicLong lastProcessedId = new AtomicLong();
+    private final AtomicLong processedInRun = new AtomicLong();
+
+    public TaskDeadlineService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               BoardChangeService boardChangeService,
+                               NotificationUtil notificationUtil,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.deadlines.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.boardChangeService = boardChangeService;
+        this.notificationUtil = notificationUtil;
+        this.chunkSize = chunkSize;
+        this.duration = Timer.builder("tasks.deadlines.recompute.duration").register(meterRegistry);
+        this.scanned = Counter.builder("tasks.deadlines.recompute.tasks").tag("result", "scanned").register(meterRegistry);
+        this.updated = Counter.builder("tasks.deadlines.recompute.tasks").tag("result", "updated").register(meterRegistry);
+        this.notified = Counter.builder("tasks.deadlines.recompute.notifications").register(meterRegistry);
+        Gauge.builder("tasks.deadlines.recompute.last-id", lastProcessedId, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("tasks.deadlines.recompute.processed", processedInRun, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Пересчитывает оставшееся количество дней для всех задач с дедлайном
+     * Запускается каждый день в полночь
+     */
+    @Scheduled(cron = "${app.deadlines.cron:0 0 0 * * ?}")
+    public void recomputeRemainingDays() {
+        logger.info("Начало обновления оставшегося времени для всех задач");
+        Timer.Sample sample = Timer.start();
+        LocalDateTime now = LocalDateTime.now();
+        lastProcessedId.set(0);
+        processedInRun.set(0);
+
+        long after = 0;
+        int totalUpdated = 0;
+        while (true) {
+            Chunk chunk = jdbcTemplate.queryForObject(CHUNK_SQL,
+                (rs, rowNum) -> new Chunk((Long) rs.getObject("last_id"), rs.getLong("size")), after, chunkSize);
+            if (chunk == null || chunk.lastId() == null) {
+                break;
+            }
+            long from = after;
+            Integer changed = transactionTemplate.execute(status -> processChunk(now, from, chunk.lastId()));
+            totalUpdated += changed != null ? changed : 0;
+            scanned.increment(chunk.size());
+            processedInRun.addAndGet(chunk.size());
+            after = chunk.lastId();
+            lastProcessedId.set(after);
+        }
+
+        long nanos = sample.stop(duration);
+        logger.info("Обновление оставшегося времени завершено: просмотрено {} задач, изменено {}, {} мс",
+            processedInRun.get(), totalUpdated, nanos / 1_000_000);
+    }
+
+    private int processChunk(LocalDateTime now, long after, long chunkEnd) {
+        Timestamp nowTs = Timestamp.valueOf(now);
+        List<ChangedTask> changes = jdbcTemplate.query(UPDATE_CHUNK_SQL,
+            (rs, rowNum) -> new ChangedTask(
+                rs.getLong("id"),
+                rs.getString("title"),
+                (Long) rs.getObject("assignee_id"),
+                rs.getString("board_id"),
+                rs.getLong("new_days")),
+            nowTs, nowTs, after, chunkEnd);
+        updated.increment(changes.size());
+
+        // Изменения каждой доски фиксируем одной версией на порцию
+        Map<String, List<Long>> tasksByBoard = new HashMap<>();
+        for (ChangedTask change : changes) {
+            if (change.boardId() != null) {
+                tasksByBoard.computeIfAbsent(change.boardId(), id -> new ArrayList<>()).add(change.id());
+            }
+            notifyTransition(change);
+        }
+        tasksByBoard.forEach((boardId, taskIds) ->
+            boardChangeService.record(boardId, BoardChange.EntityType.TASK, taskIds, BoardChange.Action.UPDATED));
+        return changes.size();
+    }
+
+    /**
+     * Уведомления ставятся в очередь после коммита порции и доставляются пакетами
+     */
+    private void notifyTransition(ChangedTask change) {
+        if (change.assigneeId() == null || change.boardId() == null) {
+            return;
+        }
+        if (change.newDays() < 0) {
+            notificationUtil.notifyTaskOverdue(change.assigneeId(), change.boardId(), change.id(), change.title());
+            notified.increment();
+        } else if (change.newDays() > 0 && change.newDays() <= 3) {
+            notificationUtil.notifyTaskDueSoon(change.assigneeId(), change.boardId(), change.id(), change.title(),
+                change.newDays());
+            notified.increment();
+        }
+    }
+
+    private record Chunk(Long lastId, long size) {
+    }
+
+    private record ChangedTask(Long id, String title, Long assigneeId, String boardId, long newDays) {
+    }
+}
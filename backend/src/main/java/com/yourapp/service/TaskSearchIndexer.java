@@ -0,0 +1,142 @@
+package com.yourapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Поддержка полнотекстового индекса задач (task_search).
+ * Задачи, измененные в транзакции, собираются в набор и переиндексируются одним
+ * запросом после коммита — индекс видит уже сохраненные название, теги, описание
+ * и комментарии. Пропущенные строки (ошибка после коммита, изменения в обход сервисов)
+ * догоняет периодическая проверка.
+ */
+@Service
+public class TaskSearchIndexer {
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndexer.class);
+
+    private static final String REINDEX_SQL =
+        "INSERT INTO task_search (task_id, board_id, document, updated_at) " +
+        "SELECT t.id, c.board_id, " +
+        "       setweight(to_tsvector('russian', COALESCE(t.title, '')), 'A') || " +
+        "       setweight(to_tsvector('russian', array_to_string(t.tags, ' ')), 'B') || " +
+        "       setweight(to_tsvector('russian', COALESCE(t.description, '')), 'C') || " +
+        "       setweight(to_tsvector('russian', COALESCE((SELECT string_agg(cm.content, ' ') FROM comments cm WHERE cm.task_id = t.id), '')), 'D'), " +
+        "       ?::timestamp " +
+        "FROM tasks t LEFT JOIN board_columns c ON c.id = t.column_id " +
+        "WHERE t.id = ANY(?) " +
+        "ON CONFLICT (task_id) DO UPDATE SET board_id = EXCLUDED.board_id, document = EXCLUDED.document, " +
+        "updated_at = EXCLUDED.updated_at";
+
+    private static final String STALE_SQL =
+        "SELECT t.id FROM tasks t LEFT JOIN task_search s ON s.task_id = t.id " +
+        "WHERE s.task_id IS NULL OR t.updated_at > s.updated_at ORDER BY t.id LIMIT ?";
+
+    // Ключ ресурса транзакции: набор задач, которые нужно переиндексировать после коммита
+    private static final Object PENDING_KEY = TaskSearchIndexer.class.getName() + ".pending";
+
+    private final JdbcTemplate jdbcTemplate;
+    // После коммита ресурсы исходной транзакции еще привязаны к потоку,
+    // поэтому запись индекса выполняется в отдельной транзакции
+    private final TransactionTemplate requiresNew;
+
+    @Value("${app.search.catch-up-batch-size:500}")
+    private int catchUpBatchSize;
+
+    public TaskSearchIndexer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Помечает задачу для переиндексации после коммита текущей транзакции
+     * (вне транзакции — сразу)
+     * @param taskId ID задачи
+     */
+    public void reindexAfterCommit(Long taskId) {
+        if (taskId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reindex(List.of(taskId));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> taskIds = (Set<Long>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (taskIds == null) {
+            Set<Long> collected = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reindex(collected);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            taskIds = collected;
+        }
+        taskIds.add(taskId);
+    }
+
+    /**
+     * Переиндексирует задачи одним запросом. Ошибка не прерывает запрос пользователя:
+     * строки останутся устаревшими до проверки {@link #catchUp()}
+     * @param taskIds ID задач
+     */
+    public void reindex(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Long[] ids = taskIds.toArray(new Long[0]);
+            requiresNew.executeWithoutResult(status -> jdbcTemplate.update(connection -> {
+                Array array = connection.createArrayOf("bigint", ids);
+                var statement = connection.prepareStatement(REINDEX_SQL);
+                statement.setTimestamp(1, now);
+                statement.setArray(2, array);
+                return statement;
+            }));
+        } catch (Exception e) {
+            logger.error("Не удалось обновить поисковый индекс для {} задач", taskIds.size(), e);
+        }
+    }
+
+    /**
+     * Индексирует задачи без строки в индексе или измененные после последней индексации
+     */
+    @Scheduled(fixedDelayString = "${app.search.catch-up-interval-ms:300000}")
+    public void catchUp() {
+        int total = 0;
+        List<Long> stale;
+        do {
+            stale = jdbcTemplate.queryForList(STALE_SQL, Long.class, catchUpBatchSize);
+            reindex(stale);
+            total += stale.size();
+        } while (stale.size() == catchUpBatchSize && total < catchUpBatchSize * 100);
+        if (total > 0) {
+            logger.info("Поисковый индекс: переиндексировано {} задач", total);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.TaskSearchResult;
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Полнотекстовый поиск задач по всем доскам, доступным пользователю.
+ * Поиск идет по индексу task_search (GIN по tsvector); результаты упорядочены по
+ * релевантности и листаются курсором (rank, task_id), поэтому глубокие страницы
+ * не требуют OFFSET. Фрагменты с подсветкой строятся только для строк страницы.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskSearchService {
+
+    // Исходный текст экранируется до подсветки: в ответ попадают только теги <mark>
+    private static final String ESCAPED_TITLE =
+        "replace(replace(replace(t.title, '&', '&amp;'), '<', '&lt;'), '>', '&gt;')";
+    private static final String ESCAPED_DESCRIPTION =
+        "replace(replace(replace(COALESCE(NULLIF(t.description, ''), t.title), '&', '&amp;'), '<', '&lt;'), '>', '&gt;')";
+
+    private static final String SEARCH_SQL_TEMPLATE =
+        "WITH q AS (SELECT websearch_to_tsquery('russian', ?) AS query), " +
+        "page AS (" +
+        "  SELECT s.task_id, s.board_id, ts_rank_cd(s.document, q.query)::real AS rank " +
+        "  FROM task_search s CROSS JOIN q " +
+        "  WHERE s.document @@ q.query " +
+        "    AND s.board_id IN (SELECT id FROM boards WHERE created_by = ? " +
+        "                       UNION SELECT board_id FROM board_members WHERE user_id = ?) " +
+        "  %s" +
+        "  ORDER BY rank DESC, s.task_id DESC LIMIT ?) " +
+        "SELECT p.task_id, p.board_id, b.name AS board_name, t.column_id, p.rank, " +
+        "       ts_headline('russian', " + ESCAPED_TITLE + ", q.query, " +
+        "                   'HighlightAll=true, StartSel=<mark>, StopSel=</mark>') AS title, " +
+        "       ts_headline('russian', " + ESCAPED_DESCRIPTION + ", q.query, " +
+        "                   'MaxFragments=2, MaxWords=30, MinWords=10, StartSel=<mark>, StopSel=</mark>') AS snippet " +
+        "FROM page p JOIN tasks t ON t.id = p.task_id JOIN boards b ON b.id = p.board_id CROSS JOIN q " +
+        "ORDER BY p.rank DESC, p.task_id DESC";
+
+    private static final String SEARCH_SQL = String.format(SEARCH_SQL_TEMPLATE, "");
+    private static final String SEARCH_AFTER_SQL = String.format(SEARCH_SQL_TEMPLATE,
+        "AND (ts_rank_cd(s.document, q.query)::real, s.task_id) < (?::real, ?) ");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.max-limit:50}")
+    private int maxLimit;
+
+    /**
+     * Ищет задачи по названию, тегам, описанию и комментариям
+     * @param query поисковая строка (синтаксис websearch: "фраза", -исключение, or)
+     * @param cursor курсор из предыдущей страницы или null
+     * @param limit размер страницы
+     * @param currentUser пользователь, выполняющий поиск
+     * @return страница результатов
+     */
+    public TaskSearchResult search(String query, String cursor, int limit, User currentUser) {
+        if (currentUser == null) {
+            throw new AccessDeniedException("Пользователь не аутентифицирован");
+        }
+        if (query == null || query.isBlank()) {
+            throw new ValidationException(Map.of("q", "Поисковый запрос не может быть пустым"));
+        }
+        int pageSize = Math.max(1, Math.min(limit, maxLimit));
+
+        List<Object> params = new ArrayList<>();
+        params.add(query.trim());
+        params.add(currentUser.getId());
+        params.add(currentUser.getId());
+        String sql = SEARCH_SQL;
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.decode(cursor);
+            params.add(after.rank());
+            params.add(after.taskId());
+            sql = SEARCH_AFTER_SQL;
+        }
+        // Лишняя строка показывает, есть ли следующая страница
+        params.add(pageSize + 1);
+
+        List<TaskSearchResult.Hit> hits = jdbcTemplate.query(sql,
+            (rs, rowNum) -> new TaskSearchResult.Hit(
+                rs.getLong("task_id"),
+                rs.getString("board_id"),
+                rs.getString("board_name"),
+                (Long) rs.getObject("column_id"),
+                rs.getString("title"),
+                rs.getString("snippet"),
+                rs.getFloat("rank")),
+            params.toArray());
+
+        TaskSearchResult result = TaskSearchResult.builder().build();
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            TaskSearchResult.Hit last = hits.get(pageSize - 1);
+            result.setNextCursor(new Cursor(last.getRank(), last.getTaskId()).encode());
+        }
+        result.setItems(new ArrayList<>(hits));
+        return result;
+    }
+
+    /**
+     * Позиция последней строки страницы: релевантность и ID задачи
+     */
+    private record Cursor(float rank, long taskId) {
+        String encode() {
+            String raw = Float.floatToIntBits(rank) + ":" + taskId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new Cursor(Float.intBitsToFloat(Integer.parseInt(raw.substring(0, separator))),
+                    Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new ValidationException(Map.of("cursor", "Некорректный курсор"));
+            }
+        }
+    }
+}
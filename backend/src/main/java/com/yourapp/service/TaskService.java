@@ -29,8 +29,11 @@ import java.util.UUID;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.HashSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import com.yourapp.service.FileStorageService;
 import com.yourapp.util.NotificationUtil;
+import com.yourapp.util.RankKeys;
 
 @Service
 @RequiredArgsConstructor
@@ -44,8 +47,17 @@ public class TaskService {
     private final CommentRepository commentRepository;
     private final TaskHistoryRepository taskHistoryRepository;
     private final FileStorageService fileStorageService;
+    private final AttachmentBlobService attachmentBlobService;
+    private final ImageDerivativeService imageDerivativeService;
     private final NotificationUtil notificationUtil;
+    private final BoardChangeService boardChangeService;
+    private final TaskSearchIndexer taskSearchIndexer;
+    private final BoardTagService boardTagService;
+    private final BoardMemberDirectory boardMemberDirectory;
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+
+    // Упоминание в формате @username
+    private static final Pattern MENTION_PATTERN = Pattern.compile("@([a-zA-Z0-9_]+)");
     
     @Value("${app.upload.max-file-size}")
     private long maxFileSize;
@@ -84,14 +96,12 @@ public class TaskService {
             task.setColumn(column);
             logger.debug("Колонка успешно установлена: {}", column.getName());
             
-            // Устанавливаем позицию как последнюю в колонке
-            int maxPosition = column.getTasks().stream()
-                    .mapToInt(Task::getPosition)
-                    .max()
-                    .orElse(-1);
-            int newPosition = maxPosition + 1;
+            // Устанавливаем позицию как последнюю в колонке (без загрузки задач колонки)
+            Integer maxPosition = taskRepository.findMaxPositionByColumnId(column.getId());
+            int newPosition = maxPosition != null ? maxPosition + 1 : 0;
             task.setPosition(newPosition);
-            logger.debug("Установлена позиция задачи в колонке: {}", newPosition);
+            task.setRankKey(lastRankKey(column.getId()));
+            logger.debug("Установлена позиция задачи в колонке: {}, ключ {}", newPosition, task.getRankKey());
             
             // Проверяем статус задачи
             if (task.getCustomStatus() == null) {
@@ -157,6 +167,8 @@ public class TaskService {
         try {
             Task savedTask = taskRepository.save(task);
             logger.debug("Задача успешно сохранена с id: {}", savedTask.getId());
+            recordTaskChange(savedTask, BoardChange.Action.CREATED);
+            boardTagService.onTagsChanged(boardIdOf(savedTask), List.of(), savedTask.getTags());
             
             // Создаем уведомление о создании задачи
             notificationUtil.notifyTaskCreated(savedTask);
@@ -306,18 +318,21 @@ public class TaskService {
         if (updates.containsKey("tags")) {
             @SuppressWarnings("unchecked")
             List<String> tagsList = (List<String>) updates.get("tags");
+            Set<String> oldTags = new HashSet<>(task.getTags());
             task.setTags(new HashSet<>(tagsList));
+            boardTagService.onTagsChanged(boardIdOf(task), oldTags, task.getTags());
         }
         
         // Обновление позиции
         if (updates.containsKey("position")) {
-            task.setPosition(((Number) updates.get("position")).intValue());
+            placeAt(task, ((Number) updates.get("position")).intValue());
         }
         
         task.setUpdatedAt(LocalDateTime.now());
         
         logger.debug("Сохранение обновленной задачи");
         Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
         
         // Создаем уведомление о обновлении задачи для назначенного пользователя если есть изменения
         if (!updates.isEmpty()) {
@@ -335,7 +350,13 @@ public class TaskService {
         // Создаем уведомление об удалении задачи для назначенного пользователя
         notificationUtil.notifyTaskDeleted(task);
         
+        String boardId = boardIdOf(task);
+        boardTagService.onTagsChanged(boardId, task.getTags(), List.of());
+        if (task.getAttachments() != null) {
+            task.getAttachments().forEach(attachment -> attachmentBlobService.release(attachment.getBlobHash()));
+        }
         taskRepository.deleteById(taskId);
+        boardChangeService.record(boardId, BoardChange.EntityType.TASK, taskId, BoardChange.Action.DELETED);
     }
     
     public Task getTask(Long taskId) {
@@ -344,7 +365,7 @@ public class TaskService {
     }
     
     public List<Task> getTasksByColumn(Long columnId) {
-        return taskRepository.findByColumnIdOrderByPositionAsc(columnId);
+        return taskRepository.findByColumnIdOrderByRankKeyAsc(columnId);
     }
     
     @Transactional
@@ -354,13 +375,17 @@ public class TaskService {
         
         BoardColumn targetColumn = columnRepository.findById(targetColumnId)
                 .orElseThrow(() -> new RuntimeException("Target column not found"));
+        String sourceBoardId = boardIdOf(task);
         
         // Сохраняем текущие значения типа, статуса и назначенного пользователя
         TaskType currentType = task.getType();
         TaskStatus currentStatus = task.getCustomStatus();
         User currentAssignee = task.getAssignee();
         
-        // Перемещаем задачу
+        // Перемещаем задачу в конец целевой колонки
+        if (task.getColumn() == null || !targetColumn.getId().equals(task.getColumn().getId())) {
+            task.setRankKey(lastRankKey(targetColumn.getId()));
+        }
         task.setColumn(targetColumn);
         
         // Восстанавливаем тип, статус и назначенного пользователя
@@ -371,7 +396,9 @@ public class TaskService {
         // Обновляем время изменения
         task.setUpdatedAt(LocalDateTime.now());
         
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        recordTaskMove(sourceBoardId, savedTask);
+        return savedTask;
     }
     
         @Transactional
@@ -385,6 +412,7 @@ public class TaskService {
 
             task.setAssignee(assignee);
             Task savedTask = taskRepository.save(task);
+            recordTaskChange(savedTask, BoardChange.Action.UPDATED);
             
             // Создаем уведомление о назначении задачи
             notificationUtil.notifyTaskAssigned(savedTask, assignee);
@@ -393,24 +421,10 @@ public class TaskService {
         } else {
             // Снимаем назначение
             task.setAssignee(null);
-            return taskRepository.save(task);
-        }
-    }
-
-    /**
-     * Обновляет оставшееся количество дней для всех активных задач
-     * Запускается каждый день в полночь
-     */
-    @Scheduled(cron = "0 0 0 * * ?")
-    @Transactional
-    public void updateAllTasksRemainingDays() {
-        logger.info("Начало обновления оставшегося времени для всех задач");
-        List<Task> tasksWithEndDate = taskRepository.findAllByEndDateIsNotNull();
-        
-        for (Task task : tasksWithEndDate) {
-            updateTaskRemainingDays(task);
+            Task savedTask = taskRepository.save(task);
+            recordTaskChange(savedTask, BoardChange.Action.UPDATED);
+            return savedTask;
         }
-        logger.info("Обновление оставшегося времени завершено");
     }
 
     /**
@@ -499,6 +513,7 @@ public class TaskService {
 
         // Сохраняем обновленную задачу (дочерние сущности уже сохранены)
         Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
         
         // Создаем уведомление о новом комментарии для назначенного пользователя
         notificationUtil.notifyCommentAdded(savedTask, author);
@@ -510,25 +525,22 @@ public class TaskService {
     }
 
     /**
-     * Обрабатывает упоминания пользователей в комментарии
+     * Обрабатывает упоминания пользователей в комментарии.
+     * Имена разрешаются среди участников доски задачи по справочнику участников
      */
     private void processMentionsInComment(String content, Task task, User author) {
-        // Находим все упоминания в формате @username
-        String mentionPattern = "@([a-zA-Z0-9_]+)";
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(mentionPattern);
-        java.util.regex.Matcher matcher = pattern.matcher(content);
-        
+        Matcher matcher = MENTION_PATTERN.matcher(content);
         Set<String> mentionedUsernames = new HashSet<>();
         while (matcher.find()) {
             mentionedUsernames.add(matcher.group(1));
         }
+        if (mentionedUsernames.isEmpty()) {
+            return;
+        }
         
-        // Отправляем уведомления упомянутым пользователям
-        for (String username : mentionedUsernames) {
-            User mentionedUser = userRepository.findByUsername(username).orElse(null);
-            if (mentionedUser != null) {
-                notificationUtil.notifyUserMentioned(mentionedUser, task, author);
-            }
+        // Отправляем уведомления упомянутым участникам доски
+        for (Long userId : boardMemberDirectory.resolveUsernames(boardIdOf(task), mentionedUsernames)) {
+            notificationUtil.notifyUserMentioned(userId, task, author);
         }
     }
 
@@ -538,7 +550,9 @@ public class TaskService {
         task.getComments().removeIf(comment -> comment.getId().equals(commentId));
         // Обновляем счетчик комментариев
         task.setCommentCount(task.getComments().size());
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
+        return savedTask;
     }
 
     @Transactional
@@ -578,7 +592,9 @@ public class TaskService {
         task.getHistory().add(history);
 
         // Сохраняем задачу, которая каскадно сохранит комментарий и историю
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
+        return savedTask;
     }
 
     @Transactional
@@ -593,49 +609,72 @@ public class TaskService {
         }
         
         try {
-            String fileName = file.getOriginalFilename();
-            // Используем FileStorageService для сохранения файла
-            String filePath = fileStorageService.storeFile(file, "attachments");
-            
-            Attachment attachment = new Attachment();
-            attachment.setFileName(fileName);
-            attachment.setFilePath(filePath);
-            attachment.setContentType(file.getContentType());
-            attachment.setSize(file.getSize());
-            attachment.setTask(task);
-            attachment.setUploadedBy(uploader);
-            attachment.setCreatedAt(LocalDateTime.now());
-            attachment.setUpdatedAt(LocalDateTime.now());
-            
-            if (task.getAttachments() == null) {
-                task.setAttachments(new ArrayList<>());
-            }
-            task.getAttachments().add(attachment);
-            
-            // Добавляем запись в историю
-            TaskHistory history = new TaskHistory();
-            history.setTask(task);
-            history.setChangedBy(uploader);
-            history.setUsername(uploader.getUsername());
-            history.setAvatarUrl(uploader.getAvatarUrl());
-            history.setAction("attachment_added");
-            history.setNewValue(fileName); // Используем имя файла вместо ID
-            history.setTimestamp(LocalDateTime.now());
-            
-            if (task.getHistory() == null) {
-                task.setHistory(new ArrayList<>());
-            }
-            task.getHistory().add(history);
-            
-            // Создаем уведомление о добавлении вложения для назначенного пользователя
-            notificationUtil.notifyAttachmentAdded(task, uploader, fileName);
-            
-            return taskRepository.save(task);
+            // Одинаковое содержимое хранится один раз, вложение ссылается на него по хешу
+            AttachmentBlobService.StoredBlob blob = attachmentBlobService.store(file);
+            return addAttachment(task, blob, file.getOriginalFilename(), file.getContentType(), uploader);
         } catch (Exception e) {
             throw new RuntimeException("Failed to save attachment: " + e.getMessage());
         }
     }
 
+    /**
+     * Добавляет к задаче вложение с уже сохраненным содержимым (например, после загрузки по частям)
+     * 
+     * @param taskId идентификатор задачи
+     * @param blob сохраненное содержимое
+     * @param fileName исходное имя файла
+     * @param contentType MIME-тип файла
+     * @param uploader пользователь, загрузивший файл
+     * @return обновленная задача
+     */
+    @Transactional
+    public Task addAttachment(Long taskId, AttachmentBlobService.StoredBlob blob, String fileName,
+                              String contentType, User uploader) {
+        return addAttachment(getTask(taskId), blob, fileName, contentType, uploader);
+    }
+
+    private Task addAttachment(Task task, AttachmentBlobService.StoredBlob blob, String fileName,
+                               String contentType, User uploader) {
+        Attachment attachment = new Attachment();
+        attachment.setFileName(fileName);
+        attachment.setFilePath(blob.path());
+        attachment.setBlobHash(blob.hash());
+        attachment.setContentType(contentType);
+        attachment.setSize(blob.size());
+        attachment.setTask(task);
+        attachment.setUploadedBy(uploader);
+        attachment.setCreatedAt(LocalDateTime.now());
+        attachment.setUpdatedAt(LocalDateTime.now());
+        
+        if (task.getAttachments() == null) {
+            task.setAttachments(new ArrayList<>());
+        }
+        task.getAttachments().add(attachment);
+        
+        // Добавляем запись в историю
+        TaskHistory history = new TaskHistory();
+        history.setTask(task);
+        history.setChangedBy(uploader);
+        history.setUsername(uploader.getUsername());
+        history.setAvatarUrl(uploader.getAvatarUrl());
+        history.setAction("attachment_added");
+        history.setNewValue(fileName); // Используем имя файла вместо ID
+        history.setTimestamp(LocalDateTime.now());
+        
+        if (task.getHistory() == null) {
+            task.setHistory(new ArrayList<>());
+        }
+        task.getHistory().add(history);
+        
+        // Создаем уведомление о добавлении вложения для назначенного пользователя
+        notificationUtil.notifyAttachmentAdded(task, uploader, fileName);
+        
+        Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
+        imageDerivativeService.generateAttachmentThumbnails(blob.hash(), blob.path(), contentType);
+        return savedTask;
+    }
+
     @Transactional
     public Task deleteAttachment(Long taskId, Long attachmentId, User currentUser) {
         Task task = getTask(taskId);
@@ -643,10 +682,12 @@ public class TaskService {
         // Находим вложение для получения его имени
         String deletedFileName = null;
         String deletedFilePath = null;
+        String deletedBlobHash = null;
         for (Attachment attachment : task.getAttachments()) {
             if (attachment.getId().equals(attachmentId)) {
                 deletedFileName = attachment.getFileName();
                 deletedFilePath = attachment.getFilePath();
+                deletedBlobHash = attachment.getBlobHash();
                 break;
             }
         }
@@ -654,8 +695,10 @@ public class TaskService {
         // Удаляем вложение из списка
         task.getAttachments().removeIf(attachment -> attachment.getId().equals(attachmentId));
         
-        // Удаляем файл из файловой системы
-        if (deletedFilePath != null) {
+        // Снимаем ссылку на содержимое; файлы, загруженные до хранилища по хешу, удаляем сразу
+        if (deletedBlobHash != null) {
+            attachmentBlobService.release(deletedBlobHash);
+        } else if (deletedFilePath != null) {
             fileStorageService.deleteFile(deletedFilePath);
         }
         
@@ -676,7 +719,9 @@ public class TaskService {
             task.getHistory().add(history);
         }
         
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
+        return savedTask;
     }
 
     /**
@@ -693,7 +738,9 @@ public class TaskService {
         Task task = getTask(taskId);
         
         // Обновляем набор тегов
+        Set<String> oldTags = new HashSet<>(task.getTags());
         task.setTags(tags != null ? tags : new HashSet<>());
+        boardTagService.onTagsChanged(boardIdOf(task), oldTags, task.getTags());
         
         // Добавляем запись в историю
         TaskHistory history = new TaskHistory();
@@ -706,7 +753,9 @@ public class TaskService {
         }
         task.getHistory().add(history);
         
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
+        return savedTask;
     }
 
     @Transactional
@@ -718,6 +767,7 @@ public class TaskService {
         
         task.setCustomStatus(newStatus);
         Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
         
         // Создаем уведомление об изменении статуса
         if (oldStatus != null && !oldStatus.getId().equals(newStatus.getId())) {
@@ -731,7 +781,9 @@ public class TaskService {
     public Task updatePriority(Long taskId, TaskPriority priority) {
         Task task = getTask(taskId);
         task.setPriority(priority);
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        recordTaskChange(savedTask, BoardChange.Action.UPDATED);
+        return savedTask;
     }
 
     @Transactional
@@ -750,17 +802,13 @@ public class TaskService {
             logger.error("Задача {} не находится в указанной исходной колонке {}", taskId, sourceColumnId);
             throw new IllegalArgumentException("Task is not in the specified source column");
         }
+        String sourceBoardId = boardIdOf(task);
         
         // Сохраняем текущие значения
         TaskType currentType = task.getType();
         TaskStatus currentStatus = task.getCustomStatus();
         int commentCount = task.getComments() != null ? task.getComments().size() : 0;
         
-        // Обновляем позиции задач в исходной колонке
-        List<Task> sourceTasks = taskRepository.findByColumnIdOrderByPositionAsc(sourceColumnId);
-        sourceTasks.remove(task);
-        updatePositions(sourceTasks);
-        
         // Находим целевую колонку
         BoardColumn destinationColumn = columnRepository.findById(destinationColumnId)
                 .orElseThrow(() -> {
@@ -768,9 +816,6 @@ public class TaskService {
                     return new RuntimeException("Destination column not found");
                 });
         
-        // Получаем задачи в целевой колонке
-        List<Task> destinationTasks = taskRepository.findByColumnIdOrderByPositionAsc(destinationColumnId);
-        
         // Устанавливаем новую колонку для задачи
         task.setColumn(destinationColumn);
         
@@ -803,13 +848,14 @@ public class TaskService {
         
         task.setCommentCount(commentCount);
         
-        // Вставляем задачу в новую позицию
+        // Новый ранговый ключ между соседями: остальные задачи обеих колонок не меняются
         if (newPosition != null) {
-            destinationTasks.add(newPosition, task);
-            updatePositions(destinationTasks);
+            placeAt(task, newPosition);
         } else {
             // Если позиция не указана, добавляем в конец
-            task.setPosition(destinationTasks.size());
+            Integer maxPosition = taskRepository.findMaxPositionByColumnId(destinationColumnId);
+            task.setPosition(maxPosition != null ? maxPosition + 1 : 0);
+            task.setRankKey(lastRankKey(destinationColumnId));
         }
         
         task.setUpdatedAt(LocalDateTime.now());
@@ -819,47 +865,109 @@ public class TaskService {
             task.getCustomStatus() != null ? task.getCustomStatus().getName() : "null",
             commentCount);
         
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        recordTaskMove(sourceBoardId, savedTask);
+        return savedTask;
+    }
+
+    private String boardIdOf(Task task) {
+        if (task.getColumn() == null || task.getColumn().getBoard() == null) {
+            return null;
+        }
+        return task.getColumn().getBoard().getId();
+    }
+
+    /**
+     * Фиксирует изменение задачи в журнале изменений доски
+     * @param task измененная задача
+     * @param action вид изменения
+     */
+    private void recordTaskChange(Task task, BoardChange.Action action) {
+        boardChangeService.record(boardIdOf(task), BoardChange.EntityType.TASK, task.getId(), action);
+        taskSearchIndexer.reindexAfterCommit(task.getId());
     }
 
     /**
-     * Обновляет позиции задач в списке.
-     * @param tasks список задач для обновления позиций
+     * Фиксирует перемещение задачи. При переносе на другую доску исходная доска получает
+     * отдельное изменение, в котором задача отсутствует и считается удаленной
+     * @param sourceBoardId ID доски до перемещения
+     * @param task перемещенная задача
      */
-    private void updatePositions(List<Task> tasks) {
-        for (int i = 0; i < tasks.size(); i++) {
-            tasks.get(i).setPosition(i);
+    private void recordTaskMove(String sourceBoardId, Task task) {
+        String targetBoardId = boardIdOf(task);
+        if (sourceBoardId != null && !sourceBoardId.equals(targetBoardId)) {
+            boardChangeService.record(sourceBoardId, BoardChange.EntityType.TASK, task.getId(), BoardChange.Action.MOVED);
+        }
+        boardChangeService.record(targetBoardId, BoardChange.EntityType.TASK, task.getId(), BoardChange.Action.MOVED);
+        // В индексе и словаре тегов учитывается доска задачи
+        if (sourceBoardId != null && !sourceBoardId.equals(targetBoardId)) {
+            taskSearchIndexer.reindexAfterCommit(task.getId());
+            boardTagService.onTaskMoved(sourceBoardId, targetBoardId, task.getTags());
         }
     }
 
     /**
-     * Получить все теги из всех задач
-     * @return множество всех уникальных тегов
+     * Ставит задачу на позицию в её текущей колонке, меняя только её ранговый ключ.
+     * Соседи находятся по индексу (column_id, rank_key) без загрузки всей колонки;
+     * колонка блокируется до конца транзакции, как в {@link #lastRankKey}
+     * @param task задача (колонка уже установлена)
+     * @param position желаемая позиция, начиная с 0
      */
-    public Set<String> getAllTags() {
-        logger.debug("Получение всех тегов из всех задач");
-        try {
-            return taskRepository.findAllTags();
-        } catch (Exception e) {
-            logger.error("Ошибка при получении всех тегов: {}", e.getMessage());
-            return new HashSet<>();
+    private void placeAt(Task task, int position) {
+        int target = Math.max(position, 0);
+        Long taskId = task.getId() != null ? task.getId() : -1L;
+        Long columnId = task.getColumn().getId();
+        columnRepository.lockById(columnId);
+        String before = null;
+        String after;
+        if (target == 0) {
+            List<String> keys = taskRepository.findRankKeysAt(columnId, taskId, 0);
+            after = keys.isEmpty() ? null : keys.get(0);
+        } else {
+            List<String> keys = taskRepository.findRankKeysAt(columnId, taskId, target - 1);
+            before = keys.isEmpty() ? taskRepository.findMaxRankKeyByColumnId(columnId) : keys.get(0);
+            after = keys.size() > 1 ? keys.get(1) : null;
         }
+        task.setRankKey(RankKeys.between(before, after));
+        task.setPosition(target);
+    }
+
+    /**
+     * Ключ для добавления задачи в конец колонки. Колонка блокируется до конца транзакции,
+     * чтобы параллельная вставка прочитала уже зафиксированный максимум
+     * @param columnId ID колонки
+     * @return ключ после последней задачи колонки
+     */
+    private String lastRankKey(Long columnId) {
+        columnRepository.lockById(columnId);
+        return RankKeys.after(taskRepository.findMaxRankKeyByColumnId(columnId));
+    }
+
+    /**
+     * Получить теги всех досок, доступных пользователю
+     * @param user текущий пользователь
+     * @return множество уникальных тегов
+     */
+    public Set<String> getAllTags(User user) {
+        logger.debug("Получение тегов досок пользователя");
+        return boardTagService.getAccessibleTags(user);
     }
 
     /**
-     * Добавить новый тег в глобальный список тегов
+     * Добавить новый тег в список тегов без привязки к доске
      * @param tag новый тег
-     * @return обновленный список всех тегов
+     * @param user текущий пользователь
+     * @return обновленный список тегов
      */
-    public Set<String> addTag(String tag) {
+    public Set<String> addTag(String tag, User user) {
         logger.debug("Добавление нового тега: {}", tag);
         if (tag == null || tag.trim().isEmpty()) {
             throw new IllegalArgumentException("Тег не может быть пустым");
         }
         
-        // В текущей реализации просто возвращаем обновленный список тегов
-        // Тег будет добавлен при следующем обновлении задачи
-        Set<String> allTags = getAllTags();
+        // Тег без доски не сохраняется: он попадет в словарь доски при первом использовании.
+        // Для словаря конкретной доски используется POST /api/boards/{boardId}/tags
+        Set<String> allTags = getAllTags(user);
         allTags.add(tag.trim());
         return allTags;
     }
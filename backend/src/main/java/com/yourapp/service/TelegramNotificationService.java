@@ -1,7 +1,7 @@
 package com.yourapp.service;
 
 import com.yourapp.model.User;
-import com.yourapp.model.NotificationPreferences;
+import com.yourapp.model.NotificationChannel;
 import com.yourapp.model.NotificationType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -83,40 +83,7 @@ public class TelegramNotificationService {
         }
         
         try {
-            var preferences = preferencesService.getUserPreferences(user.getId());
-            
-            if (!preferences.getGlobalNotificationsEnabled()) {
-                log.debug("Telegram уведомление не отправлено пользователю {}: глобальные уведомления отключены", user.getUsername());
-                return false;
-            }
-            
-            if (!preferences.getTelegramNotificationsEnabled()) {
-                log.debug("Telegram уведомление не отправлено пользователю {}: Telegram уведомления отключены", user.getUsername());
-                return false;
-            }
-            
-            boolean typeEnabled = switch (type) {
-                case TASK_ASSIGNED -> preferences.getTaskAssignedNotifications();
-                case TASK_UPDATED -> preferences.getTaskUpdatedNotifications();
-                case TASK_STATUS_CHANGED -> preferences.getTaskStatusChangedNotifications();
-                case NEW_COMMENT_MENTION -> preferences.getMentionNotifications();
-                case TASK_CREATED -> preferences.getTaskCreatedNotifications();
-                case TASK_DELETED -> preferences.getTaskDeletedNotifications();
-                case TASK_COMMENT_ADDED -> preferences.getTaskCommentAddedNotifications();
-                case SUBTASK_CREATED -> preferences.getSubtaskCreatedNotifications();
-                case SUBTASK_COMPLETED -> preferences.getSubtaskCompletedNotifications();
-                case BOARD_INVITE -> preferences.getBoardInviteNotifications();
-                case BOARD_MEMBER_ADDED -> preferences.getBoardMemberAddedNotifications();
-                case BOARD_MEMBER_REMOVED -> preferences.getBoardMemberRemovedNotifications();
-                case ATTACHMENT_ADDED -> preferences.getAttachmentAddedNotifications();
-                case DEADLINE_REMINDER -> preferences.getDeadlineReminderNotifications();
-                case ROLE_CHANGED -> preferences.getRoleChangedNotifications();
-                case TASK_DUE_SOON -> preferences.getTaskDueSoonNotifications();
-                case TASK_OVERDUE -> preferences.getTaskOverdueNotifications();
-                default -> false;
-            };
-            
-            if (!typeEnabled) {
+            if (!preferencesService.getPreferenceSet(user.getId()).allowsType(NotificationChannel.TELEGRAM, type)) {
                 log.debug("Telegram уведомление не отправлено пользователю {}: тип {} отключен в настройках", 
                         user.getUsername(), type);
                 return false;
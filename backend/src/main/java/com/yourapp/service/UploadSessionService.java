@@ -0,0 +1,444 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.UploadSessionDto;
+import com.yourapp.exception.ResourceNotFoundException;
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.Task;
+import com.yourapp.model.User;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Загрузка больших вложений по частям с возобновлением.
+ * Каждая часть пишется во временный файл без буферизации в памяти и принимается только
+ * при совпадении SHA-256; принятая часть сохраняется в общее хранилище под ключом
+ * checksum-id сессии, поэтому части и завершение могут обрабатывать разные узлы.
+ * Завершение собирает части в один файл, переносит его в хранилище по хешу и добавляет
+ * вложение к задаче. Брошенные сессии удаляются по расписанию вместе с частями.
+ */
+@Service
+@RequiredArgsConstructor
+public class UploadSessionService {
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private static final String SELECT_SESSION_SQL =
+        "SELECT id, task_id, user_id, file_name, content_type, size, chunk_size, expires_at " +
+        "FROM upload_sessions WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStorageService fileStorageService;
+    private final AttachmentBlobService attachmentBlobService;
+    private final BoardMemberService boardMemberService;
+    private final TaskService taskService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.uploads.max-size:524288000}")
+    private long maxSize;
+
+    @Value("${app.uploads.chunk-size:8388608}")
+    private int defaultChunkSize;
+
+    @Value("${app.uploads.max-chunk-size:33554432}")
+    private int maxChunkSize;
+
+    @Value("${app.uploads.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    /**
+     * Создает сессию загрузки
+     * @param taskId ID задачи, к которой добавляется вложение
+     * @param fileName имя файла
+     * @param contentType MIME-тип файла
+     * @param size размер файла в байтах
+     * @param chunkSize размер части или null
+     * @param currentUser пользователь, загружающий файл
+     * @return состояние новой сессии
+     */
+    @Transactional
+    public UploadSessionDto create(Long taskId, String fileName, String contentType, long size,
+                                   Integer chunkSize, User currentUser) {
+        List<String> boardIds = jdbcTemplate.queryForList(
+            "SELECT c.board_id FROM tasks t JOIN board_columns c ON c.id = t.column_id WHERE t.id = ?",
+            String.class, taskId);
+        if (boardIds.isEmpty()) {
+            throw new ResourceNotFoundException("Task not found");
+        }
+        if (currentUser == null || !boardMemberService.hasBoardAccess(boardIds.get(0), currentUser.getId())) {
+            throw new AccessDeniedException("Нет доступа к задаче " + taskId);
+        }
+        if (size <= 0) {
+            throw new ValidationException(Map.of("size", "Размер файла должен быть больше нуля"));
+        }
+        if (size > maxSize) {
+            throw new ValidationException(Map.of("size", "Размер файла превышает " + maxSize + " байт"));
+        }
+        int actualChunkSize = chunkSize != null ? chunkSize : defaultChunkSize;
+        // Часть меньше минимума допустима только для файла из одной части, пустая — никогда
+        if (actualChunkSize <= 0 || actualChunkSize > maxChunkSize || (actualChunkSize < MIN_CHUNK_SIZE && actualChunkSize < size)) {
+            throw new ValidationException(Map.of("chunkSize",
+                "Размер части должен быть от " + MIN_CHUNK_SIZE + " до " + maxChunkSize + " байт"));
+        }
+
+        String id = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(sessionTtlHours);
+        jdbcTemplate.update(
+            "INSERT INTO upload_sessions (id, task_id, user_id, file_name, content_type, size, chunk_size, expires_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            id, taskId, currentUser.getId(), fileName, contentType, size, actualChunkSize, expiresAt);
+        logger.info("Создана загрузка {} для задачи {}: {} байт частями по {}", id, taskId, size, actualChunkSize);
+
+        return new Session(id, taskId, currentUser.getId(), fileName, contentType, size, actualChunkSize, expiresAt)
+            .toDto(List.of());
+    }
+
+    /**
+     * Состояние загрузки для возобновления
+     * @param id ID сессии
+     * @param currentUser владелец сессии
+     * @return принятые части
+     */
+    @Transactional(readOnly = true)
+    public UploadSessionDto get(String id, User currentUser) {
+        Session session = load(id, currentUser);
+        return session.toDto(receivedChunks(id));
+    }
+
+    /**
+     * Принимает часть и проверяет контрольную сумму.
+     * Повторная отправка части заменяет ее только после проверки; при ошибке
+     * остается ранее принятая часть
+     * @param id ID сессии
+     * @param index номер части, начиная с 0
+     * @param checksum SHA-256 части в hex
+     * @param body содержимое части
+     * @param currentUser владелец сессии
+     * @return состояние загрузки
+     */
+    public UploadSessionDto writeChunk(String id, int index, String checksum, InputStream body, User currentUser) {
+        // Без общей транзакции: соединение с БД не удерживается, пока передается тело части
+        Session session = load(id, currentUser);
+        if (index < 0 || index >= session.chunkCount()) {
+            throw new ValidationException(Map.of("index", "Номер части вне диапазона 0.." + (session.chunkCount() - 1)));
+        }
+        if (checksum == null || !checksum.toLowerCase(Locale.ROOT).matches("[0-9a-f]{64}")) {
+            throw new ValidationException(Map.of("checksum", "Не указана контрольная сумма SHA-256 части"));
+        }
+        long offset = (long) index * session.chunkSize();
+        long expectedLength = Math.min(session.chunkSize(), session.size() - offset);
+
+        Path temp = tempPath();
+        String actual;
+        try {
+            actual = writeTo(temp, expectedLength, body);
+            if (!actual.equalsIgnoreCase(checksum)) {
+                throw new ValidationException(Map.of("checksum",
+                    "Контрольная сумма части " + index + " не совпадает, часть нужно отправить заново"));
+            }
+            fileStorageService.putBlob(chunkKey(id, actual), temp);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось записать часть " + index + " загрузки " + id, e);
+        } finally {
+            deleteTemp(temp);
+        }
+
+        // Старая версия части удаляется только после того, как новая принята
+        String previous = receivedChecksums(id).get(index);
+        jdbcTemplate.update(
+            "INSERT INTO upload_chunks (upload_id, chunk_index, checksum) VALUES (?, ?, ?) " +
+            "ON CONFLICT (upload_id, chunk_index) DO UPDATE SET checksum = EXCLUDED.checksum",
+            id, index, actual);
+        if (previous != null && !previous.equals(actual)) {
+            fileStorageService.deleteBlob(chunkKey(id, previous));
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(sessionTtlHours);
+        jdbcTemplate.update("UPDATE upload_sessions SET expires_at = ? WHERE id = ?", expiresAt, id);
+        return session.withExpiresAt(expiresAt).toDto(receivedChunks(id));
+    }
+
+    /**
+     * Завершает загрузку: собирает части в файл, переносит его в хранилище и добавляет
+     * вложение к задаче. Сборка и хеш идут без транзакции, блокировка сессии берется
+     * только на перенос файла и создание вложения
+     * @param id ID сессии
+     * @param currentUser владелец сессии
+     * @return задача с новым вложением
+     */
+    public Task complete(String id, User currentUser) {
+        Session session = load(id, currentUser);
+        Map<Integer, String> chunks = receivedChecksums(id);
+        if (chunks.size() != session.chunkCount()) {
+            throw new ValidationException(Map.of("chunks",
+                "Получено " + chunks.size() + " частей из " + session.chunkCount()));
+        }
+
+        // Сборка до 500 МБ не держит ни блокировку, ни соединение с БД; хеш считается за тот же проход
+        FileStorageService.TempBlob temp;
+        try {
+            temp = fileStorageService.writeTempBlob(new SequenceInputStream(chunkStreams(id, chunks)));
+        } catch (UncheckedIOException e) {
+            throw chunkReadFailure(id, e.getCause());
+        } catch (IOException e) {
+            throw chunkReadFailure(id, e);
+        }
+
+        Task task;
+        try {
+            if (temp.size() != session.size()) {
+                throw new ValidationException(Map.of("chunks",
+                    "Размер собранного файла " + temp.size() + " байт вместо " + session.size()));
+            }
+            task = transactionTemplate.execute(status -> finish(session, chunks, temp, currentUser));
+        } finally {
+            fileStorageService.discardTempBlob(temp);
+        }
+        deleteChunks(id, chunks.values());
+        return task;
+    }
+
+    private Task finish(Session session, Map<Integer, String> chunks, FileStorageService.TempBlob temp, User currentUser) {
+        String id = session.id();
+        // Блокировка сессии: повторное завершение дождется первого и не найдет сессию
+        if (jdbcTemplate.queryForList("SELECT id FROM upload_sessions WHERE id = ? FOR UPDATE", String.class, id).isEmpty()) {
+            throw new ResourceNotFoundException("Upload session not found");
+        }
+        // Пока считался хеш, часть могли отправить заново: тогда он посчитан по другим данным
+        if (!receivedChecksums(id).equals(chunks)) {
+            throw new ValidationException(Map.of("chunks", "Части загрузки изменились во время завершения, повторите запрос"));
+        }
+
+        AttachmentBlobService.StoredBlob blob;
+        try {
+            blob = attachmentBlobService.store(temp);
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось сохранить файл загрузки " + id, e);
+        }
+        jdbcTemplate.update("DELETE FROM upload_sessions WHERE id = ?", id);
+        logger.info("Загрузка {} завершена: {} байт, содержимое {}", id, blob.size(), blob.hash());
+        return taskService.addAttachment(session.taskId(), blob, session.fileName(), session.contentType(), currentUser);
+    }
+
+    /**
+     * Отменяет загрузку и удаляет ее части
+     * @param id ID сессии
+     * @param currentUser владелец сессии
+     */
+    @Transactional
+    public void abort(String id, User currentUser) {
+        load(id, currentUser);
+        Map<Integer, String> chunks = receivedChecksums(id);
+        jdbcTemplate.update("DELETE FROM upload_sessions WHERE id = ?", id);
+        deleteChunks(id, chunks.values());
+    }
+
+    /**
+     * Удаляет истекшие сессии с их частями и временные файлы, оставшиеся после сбоев
+     */
+    @Scheduled(fixedDelayString = "${app.uploads.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void collectAbandoned() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> chunkKeys = jdbcTemplate.query(
+            "DELETE FROM upload_chunks c USING upload_sessions s " +
+            "WHERE c.upload_id = s.id AND s.expires_at < ? RETURNING c.upload_id, c.checksum",
+            (rs, rowNum) -> chunkKey(rs.getString("upload_id"), rs.getString("checksum")), now);
+        int expired = jdbcTemplate.update("DELETE FROM upload_sessions WHERE expires_at < ?", now);
+        chunkKeys.forEach(fileStorageService::deleteBlob);
+
+        int stale = fileStorageService.deleteStaleTempFiles(
+            Instant.now().minusSeconds(sessionTtlHours * 3600), Set.of());
+        if (expired > 0 || stale > 0) {
+            logger.info("Удалено брошенных загрузок: {}, частей: {}, временных файлов: {}",
+                expired, chunkKeys.size(), stale);
+        }
+    }
+
+    // Тело части читается блоками во временный файл; хеш считается по тем же блокам
+    private static String writeTo(Path path, long expectedLength, InputStream body) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             ReadableByteChannel input = Channels.newChannel(body)) {
+            while (input.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > expectedLength) {
+                    throw new ValidationException(Map.of("body", "Часть длиннее " + expectedLength + " байт"));
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        if (written != expectedLength) {
+            throw new ValidationException(Map.of("body", "Ожидалось " + expectedLength + " байт, получено " + written));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Session load(String id, User currentUser) {
+        List<Session> sessions = jdbcTemplate.query(SELECT_SESSION_SQL, (rs, rowNum) -> new Session(
+            rs.getString("id"),
+            rs.getLong("task_id"),
+            rs.getLong("user_id"),
+            rs.getString("file_name"),
+            rs.getString("content_type"),
+            rs.getLong("size"),
+            rs.getInt("chunk_size"),
+            rs.getTimestamp("expires_at").toLocalDateTime()), id);
+        if (sessions.isEmpty()) {
+            throw new ResourceNotFoundException("Upload session not found");
+        }
+        Session session = sessions.get(0);
+        if (currentUser == null || session.userId() != currentUser.getId()) {
+            throw new AccessDeniedException("Загрузка принадлежит другому пользователю");
+        }
+        return session;
+    }
+
+    private Map<Integer, String> receivedChecksums(String id) {
+        Map<Integer, String> checksums = new HashMap<>();
+        jdbcTemplate.query("SELECT chunk_index, checksum FROM upload_chunks WHERE upload_id = ?",
+            rs -> {
+                checksums.put(rs.getInt("chunk_index"), rs.getString("checksum"));
+            }, id);
+        return checksums;
+    }
+
+    private List<Integer> receivedChunks(String id) {
+        return jdbcTemplate.queryForList(
+            "SELECT chunk_index FROM upload_chunks WHERE upload_id = ? ORDER BY chunk_index", Integer.class, id);
+    }
+
+    // Части открываются по очереди, когда сборка дочитала предыдущую
+    private Enumeration<InputStream> chunkStreams(String id, Map<Integer, String> chunks) {
+        Iterator<String> keys = new TreeMap<>(chunks).values().stream().map(checksum -> chunkKey(id, checksum)).iterator();
+        return new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return fileStorageService.openBlob(keys.next());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private RuntimeException chunkReadFailure(String id, IOException e) {
+        if (e instanceof NoSuchFileException) {
+            // Части удаляются параллельным завершением или отменой, старая версия — повторной отправкой части
+            if (jdbcTemplate.queryForList("SELECT id FROM upload_sessions WHERE id = ?", String.class, id).isEmpty()) {
+                return new ResourceNotFoundException("Upload session not found");
+            }
+            return new ValidationException(Map.of("chunks", "Части загрузки изменились во время завершения, повторите запрос"));
+        }
+        return new IllegalStateException("Не удалось собрать файл загрузки " + id, e);
+    }
+
+    // Ключ зависит от сессии: часть, совпавшая по содержимому с другим файлом, не удалит его
+    private static String chunkKey(String id, String checksum) {
+        return checksum.toLowerCase(Locale.ROOT) + "-" + id.replace("-", "");
+    }
+
+    private void deleteChunks(String id, Collection<String> checksums) {
+        checksums.forEach(checksum -> fileStorageService.deleteBlob(chunkKey(id, checksum)));
+    }
+
+    private Path tempPath() {
+        try {
+            return fileStorageService.getTempBlobPath(UUID.randomUUID().toString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Недоступна временная директория загрузок", e);
+        }
+    }
+
+    private void deleteTemp(Path temp) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            logger.warn("Не удалось удалить временный файл части {}", temp, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Строка upload_sessions
+     */
+    private record Session(String id, long taskId, long userId, String fileName, String contentType,
+                           long size, int chunkSize, LocalDateTime expiresAt) {
+
+        int chunkCount() {
+            return (int) ((size + chunkSize - 1) / chunkSize);
+        }
+
+        Session withExpiresAt(LocalDateTime value) {
+            return new Session(id, taskId, userId, fileName, contentType, size, chunkSize, value);
+        }
+
+        UploadSessionDto toDto(List<Integer> receivedChunks) {
+            return UploadSessionDto.builder()
+                .id(id)
+                .taskId(taskId)
+                .fileName(fileName)
+                .size(size)
+                .chunkSize(chunkSize)
+                .chunkCount(chunkCount())
+                .receivedChunks(receivedChunks)
+                .expiresAt(expiresAt)
+                .build();
+        }
+    }
+}
@@ -1,35 +1,28 @@
 package com.yourapp.service;
 
-import com.yourapp.model.User;
 import com.yourapp.dto.UserDto;
-import com.yourapp.repository.UserRepository;
+import com.yourapp.model.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.PageRequest;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
+import java.util.Locale;
 
 /**
- * Сервис для поиска пользователей
+ * Сервис для поиска пользователей.
+ * Поиск подстроки идет по триграммным GIN-индексам на lower(username) и lower(email)
+ * (pg_trgm), поэтому не требует полного просмотра таблицы. Результаты ранжируются:
+ * точное совпадение, затем совпадение с начала, затем остальные по схожести.
  */
 @Service
 @RequiredArgsConstructor
 public class UserSearchService {
-    private final UserRepository userRepository;
-    
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final BoardMemberService boardMemberService;
     
     /**
      * Универсальный поиск пользователей
@@ -40,9 +33,27 @@ public class UserSearchService {
      */
     @Transactional(readOnly = true)
     public List<UserDto> findByQuery(String query, String searchType, int limit) {
+        return findByQuery(query, searchType, null, null, limit);
+    }
+    
+    /**
+     * Поиск пользователей с необязательным ограничением участниками доски
+     * @param query строка поиска
+     * @param searchType тип поиска ("username", "email", или null для поиска по обоим полям)
+     * @param boardId ID доски: искать только среди ее владельца и участников (null — среди всех)
+     * @param currentUser пользователь, выполняющий поиск (нужен при указании доски)
+     * @param limit максимальное количество результатов
+     * @return список пользователей, соответствующих запросу
+     */
+    @Transactional(readOnly = true)
+    public List<UserDto> findByQuery(String query, String searchType, String boardId, User currentUser, int limit) {
         if (query == null || query.trim().isEmpty()) {
             return List.of();
         }
+        if (boardId != null && (currentUser == null
+                || !boardMemberService.hasBoardAccess(boardId, currentUser.getId()))) {
+            throw new AccessDeniedException("Нет доступа к доске " + boardId);
+        }
         
         // Определение типа поиска
         boolean searchByUsername = searchType == null || "username".equalsIgnoreCase(searchType) 
@@ -55,34 +66,74 @@ public class UserSearchService {
             searchByUsername = false;
             searchByEmail = true;
         }
+        if (!searchByUsername && !searchByEmail) {
+            return List.of();
+        }
         
-        // Используем Criteria API для гибкого поиска
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<User> cq = cb.createQuery(User.class);
-        Root<User> root = cq.from(User.class);
-        
-        List<Predicate> predicates = new ArrayList<>();
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        String pattern = "%" + escapeLike(needle) + "%";
+        String prefix = escapeLike(needle) + "%";
         
-        // Добавляем предикаты в зависимости от типа поиска
+        List<String> matches = new ArrayList<>();
+        List<String> exact = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        List<String> similarity = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
         if (searchByUsername) {
-            predicates.add(cb.like(cb.lower(root.get("username")), "%" + query.toLowerCase() + "%"));
+            exact.add("lower(u.username) = ?");
+            prefixes.add("lower(u.username) LIKE ?");
+            similarity.add("similarity(lower(u.username), ?)");
+        }
+        if (searchByEmail) {
+            exact.add("lower(u.email) = ?");
+            prefixes.add("lower(u.email) LIKE ?");
+            similarity.add("similarity(lower(u.email), ?)");
         }
         
+        StringBuilder sql = new StringBuilder(
+            "SELECT u.id, u.email, u.username, u.display_name, u.avatar_url, u.phone_number, u.position, u.bio " +
+            "FROM users u WHERE (");
+        if (searchByUsername) {
+            matches.add("lower(u.username) LIKE ?");
+            params.add(pattern);
+        }
         if (searchByEmail) {
-            predicates.add(cb.like(cb.lower(root.get("email")), "%" + query.toLowerCase() + "%"));
+            matches.add("lower(u.email) LIKE ?");
+            params.add(pattern);
         }
+        sql.append(String.join(" OR ", matches)).append(")");
         
-        // Объединяем предикаты с OR
-        cq.where(cb.or(predicates.toArray(new Predicate[0])));
+        // Фильтр по доске входит в тот же запрос, что и поиск по индексу
+        if (boardId != null) {
+            sql.append(" AND u.id IN (SELECT user_id FROM board_members WHERE board_id = ? " +
+                "UNION SELECT created_by FROM boards WHERE id = ?)");
+            params.add(boardId);
+            params.add(boardId);
+        }
         
-        // Выполняем запрос с ограничением количества результатов
-        TypedQuery<User> typedQuery = entityManager.createQuery(cq);
-        typedQuery.setMaxResults(limit);
+        sql.append(" ORDER BY CASE WHEN ").append(String.join(" OR ", exact)).append(" THEN 0");
+        exact.forEach(condition -> params.add(needle));
+        sql.append(" WHEN ").append(String.join(" OR ", prefixes)).append(" THEN 1 ELSE 2 END");
+        prefixes.forEach(condition -> params.add(prefix));
+        sql.append(", GREATEST(").append(String.join(", ", similarity)).append(") DESC");
+        similarity.forEach(condition -> params.add(needle));
+        sql.append(", u.username, u.id LIMIT ?");
+        params.add(limit);
         
-        // Преобразуем результаты в DTO и возвращаем
-        return typedQuery.getResultList().stream()
-                .map(User::toDto)
-                .collect(Collectors.toList());
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> UserDto.builder()
+                .id(rs.getLong("id"))
+                .email(rs.getString("email"))
+                .username(rs.getString("username"))
+                .displayName(rs.getString("display_name"))
+                .avatarUrl(rs.getString("avatar_url"))
+                .phoneNumber(rs.getString("phone_number"))
+                .position(rs.getString("position"))
+                .bio(rs.getString("bio"))
+                .build(), params.toArray());
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
     
     /**
@@ -2,6 +2,7 @@ package com.yourapp.service;
 
 import com.yourapp.model.User;
 import com.yourapp.repository.UserRepository;
+import com.yourapp.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,6 +23,10 @@ import org.slf4j.LoggerFactory;
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final BoardMemberDirectory boardMemberDirectory;
+    private final AttachmentBlobService attachmentBlobService;
+    private final BoardChangeService boardChangeService;
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
     @Override
@@ -55,6 +60,11 @@ public class UserService implements UserDetailsService {
     public User updateUser(Long id, User userDetails) {
         User existingUser = getUserById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        // Имя, email и аватар входят в снимки досок, где пользователь исполнитель
+        boolean shownOnBoardsChanged = changes(userDetails.getUsername(), existingUser.getUsername())
+                || changes(userDetails.getEmail(), existingUser.getEmail())
+                || changes(userDetails.getAvatarUrl(), existingUser.getAvatarUrl())
+                || changes(userDetails.getDisplayName(), existingUser.getDisplayName());
         
         // Копируем только не-null значения из userDetails в existingUser
         if (userDetails.getUsername() != null) {
@@ -68,6 +78,12 @@ public class UserService implements UserDetailsService {
             existingUser.setPassword(passwordEncoder.encode(userDetails.getPassword()));
         }
         if (userDetails.getAvatarUrl() != null) {
+            if (!userDetails.getAvatarUrl().equals(existingUser.getAvatarUrl())) {
+                // Миниатюры старого аватара больше не подходят, а загруженный файл больше не используется
+                existingUser.setAvatarThumbnails(null);
+                attachmentBlobService.release(existingUser.getAvatarBlobHash());
+                existingUser.setAvatarBlobHash(null);
+            }
             existingUser.setAvatarUrl(userDetails.getAvatarUrl());
         }
         if (userDetails.getPhoneNumber() != null) {
@@ -89,11 +105,48 @@ public class UserService implements UserDetailsService {
             existingUser.setDisplayName(userDetails.getDisplayName());
         }
         
-        return userRepository.save(existingUser);
+        principalCache.evictAfterCommit(id);
+        boardMemberDirectory.evictUserAfterCommit(id);
+        User savedUser = userRepository.save(existingUser);
+        if (shownOnBoardsChanged) {
+            boardChangeService.recordUser(id);
+        }
+        return savedUser;
+    }
+
+    private static boolean changes(Object value, Object current) {
+        return value != null && !value.equals(current);
+    }
+
+    /**
+     * Устанавливает загруженный аватар из хранилища. Ссылку на содержимое вызывающий код
+     * уже добавил при сохранении файла; ссылка старого аватара снимается
+     * @param id ID пользователя
+     * @param avatarUrl публичный путь к аватару
+     * @param blobHash SHA-256 содержимого аватара
+     * @return обновленный пользователь
+     */
+    @Transactional
+    public User updateAvatarBlob(Long id, String avatarUrl, String blobHash) {
+        User existingUser = getUserById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        attachmentBlobService.release(existingUser.getAvatarBlobHash());
+        existingUser.setAvatarUrl(avatarUrl);
+        existingUser.setAvatarBlobHash(blobHash);
+        existingUser.setAvatarThumbnails(null);
+
+        principalCache.evictAfterCommit(id);
+        boardMemberDirectory.evictUserAfterCommit(id);
+        User savedUser = userRepository.save(existingUser);
+        boardChangeService.recordUser(id);
+        return savedUser;
     }
 
     @Transactional
     public void deleteUser(Long id) {
+        principalCache.evictAfterCommit(id);
+        boardMemberDirectory.evictUserAfterCommit(id);
         userRepository.deleteById(id);
     }
 
@@ -130,6 +183,7 @@ public class UserService implements UserDetailsService {
         log.info("Валидация пройдена, меняем пароль для: {}", email);
         // Устанавливаем новый пароль
         user.setPassword(passwordEncoder.encode(newPassword));
+        principalCache.evictAfterCommit(user.getId());
         
         // Больше не обновляем дату последнего сброса пароля
         // так как это может привести к проблемам с JWT токенами
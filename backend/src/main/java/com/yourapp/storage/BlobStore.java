@@ -0,0 +1,62 @@
+package com.yourapp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Хранилище содержимого вложений и аватаров, адресуемого по SHA-256.
+ * Ключ — хеш содержимого в hex или производный ключ hash-суффикс для файлов, однозначно
+ * построенных из содержимого (миниатюры). Содержимое по ключу не изменяется, поэтому повторная
+ * запись того же ключа ничего не делает. Реализации: локальная директория и S3-совместимое
+ * хранилище (выбирается свойством app.storage.driver). Локальный файл для чтения с произвольным
+ * доступом выдают только реализации {@link FileBlobStore}
+ */
+public interface BlobStore {
+
+    /**
+     * Допустимый ключ: хеш содержимого и необязательный суффикс производного файла
+     */
+    Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}(-[0-9a-z]+)?");
+
+    /**
+     * Проверяет наличие содержимого
+     * @param hash SHA-256 содержимого
+     * @return true, если содержимое сохранено
+     */
+    boolean exists(String hash) throws IOException;
+
+    /**
+     * Сохраняет содержимое из локального файла. Файл может быть перенесен в хранилище;
+     * если после вызова он остался на месте, его удаляет вызывающий код
+     * @param hash SHA-256 содержимого
+     * @param source локальный файл с содержимым
+     */
+    void put(String hash, Path source) throws IOException;
+
+    /**
+     * Открывает содержимое для последовательного чтения
+     * @param hash SHA-256 содержимого
+     * @return поток содержимого; закрывает вызывающий код
+     */
+    InputStream open(String hash) throws IOException;
+
+    /**
+     * Удаляет содержимое; отсутствие содержимого не считается ошибкой
+     * @param hash SHA-256 содержимого
+     */
+    void delete(String hash) throws IOException;
+
+    /**
+     * Путь содержимого внутри хранилища: ab/cd/abcd... Производные файлы лежат рядом с исходным
+     * @param hash SHA-256 содержимого в hex или производный ключ
+     * @return относительный путь из хеша
+     */
+    static String shardedPath(String hash) {
+        if (hash == null || !KEY_PATTERN.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Некорректный хеш содержимого: " + hash);
+        }
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+}
@@ -0,0 +1,202 @@
+package com.yourapp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Локальный дисковый кэш перед удаленным хранилищем.
+ * Прочитанное содержимое остается на диске узла; при превышении лимита по размеру удаляются
+ * давно не читавшиеся файлы. Содержимое по хешу не меняется, поэтому кэш не нужно сбрасывать
+ * при записи — только при удалении. Индекс восстанавливается при запуске по времени изменения файлов.
+ * Вытесненный файл удаляется с диска не сразу, а через {@link #EVICTION_DELAY_NANOS}: путь из
+ * {@link #localPath} открывается позже, при отдаче ответа, и не должен исчезнуть до этого
+ */
+public class CachingBlobStore implements FileBlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(CachingBlobStore.class);
+
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final long EVICTION_DELAY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final BlobStore delegate;
+    private final Path cacheDir;
+    private final long maxBytes;
+
+    // Размеры файлов в кэше в порядке последнего чтения
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Вытесненные файлы, еще лежащие на диске, -> момент вытеснения (System.nanoTime)
+    private final LinkedHashMap<String, Long> evicted = new LinkedHashMap<>();
+    private long totalBytes;
+
+    public CachingBlobStore(BlobStore delegate, Path cacheDir, long maxBytes) throws IOException {
+        this.delegate = delegate;
+        this.cacheDir = cacheDir;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(cacheDir.resolve(TEMP_DIRECTORY));
+        restoreIndex();
+    }
+
+    @Override
+    public boolean exists(String hash) throws IOException {
+        return cached(hash) || delegate.exists(hash);
+    }
+
+    @Override
+    public void put(String hash, Path source) throws IOException {
+        delegate.put(hash, source);
+        // Только что загруженное содержимое, скорее всего, скоро прочитают (миниатюры, просмотр)
+        if (Files.exists(source)) {
+            Path target = resolve(hash);
+            Files.createDirectories(target.getParent());
+            // Кэш может быть на другом разделе: перенос не атомарный, но файл попадает в индекс только после него
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            admit(hash, Files.size(target));
+        }
+    }
+
+    // Последовательное чтение не заполняет кэш: локальная копия нужна только для произвольного доступа
+    @Override
+    public InputStream open(String hash) throws IOException {
+        if (cached(hash)) {
+            try {
+                return Files.newInputStream(resolve(hash));
+            } catch (NoSuchFileException e) {
+                // Файл удален после проверки индекса
+            }
+        }
+        return delegate.open(hash);
+    }
+
+    @Override
+    public Path localPath(String hash) throws IOException {
+        Path target = resolve(hash);
+        if (cached(hash) && Files.exists(target)) {
+            return target;
+        }
+        // Файл вытеснен, но еще не удален: возвращаем его в индекс без повторного скачивания
+        if (reclaim(hash) && Files.exists(target)) {
+            admit(hash, Files.size(target));
+            return target;
+        }
+        // Параллельные промахи по одному ключу скачивают содержимое независимо; побеждает последний перенос
+        Path temp = cacheDir.resolve(TEMP_DIRECTORY).resolve(UUID.randomUUID().toString());
+        try (InputStream input = delegate.open(hash)) {
+            Files.copy(input, temp);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        admit(hash, Files.size(target));
+        return target;
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        synchronized (entries) {
+            Long size = entries.remove(hash);
+            if (size != null) {
+                totalBytes -= size;
+            }
+            evicted.remove(hash);
+        }
+        Files.deleteIfExists(resolve(hash));
+        delegate.delete(hash);
+    }
+
+    private boolean cached(String hash) {
+        synchronized (entries) {
+            return entries.get(hash) != null;
+        }
+    }
+
+    private boolean reclaim(String hash) {
+        synchronized (entries) {
+            return evicted.remove(hash) != null;
+        }
+    }
+
+    private void admit(String hash, long size) {
+        int count = 0;
+        synchronized (entries) {
+            Long previous = entries.put(hash, size);
+            totalBytes += size - (previous != null ? previous : 0);
+            evicted.remove(hash);
+            long now = System.nanoTime();
+            Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+            // Последний прочитанный файл не вытесняется, даже если он один больше лимита
+            while (totalBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                totalBytes -= eldest.getValue();
+                evicted.put(eldest.getKey(), now);
+                iterator.remove();
+                count++;
+            }
+            // Удаление под блокировкой: иначе файл, снова скачанный параллельным промахом, мог бы
+            // удалиться уже после возвращения в индекс. Уже открытые потоки дочитают удаленный файл
+            Iterator<Map.Entry<String, Long>> due = evicted.entrySet().iterator();
+            while (due.hasNext()) {
+                Map.Entry<String, Long> entry = due.next();
+                if (now - entry.getValue() < EVICTION_DELAY_NANOS) {
+                    break;
+                }
+                due.remove();
+                try {
+                    Files.deleteIfExists(resolve(entry.getKey()));
+                } catch (IOException e) {
+                    logger.warn("Не удалось удалить файл {} из кэша", entry.getKey(), e);
+                }
+            }
+        }
+        if (count > 0) {
+            logger.debug("Из кэша хранилища вытеснено {} файлов", count);
+        }
+    }
+
+    private void restoreIndex() throws IOException {
+        // Недокачанные файлы остаются после остановки посреди загрузки
+        try (Stream<Path> temp = Files.list(cacheDir.resolve(TEMP_DIRECTORY))) {
+            for (Path file : (Iterable<Path>) temp::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(cacheDir)) {
+            files = walk.filter(Files::isRegularFile)
+                .filter(path -> BlobStore.KEY_PATTERN.matcher(path.getFileName().toString()).matches())
+                .sorted(Comparator.comparing(CachingBlobStore::lastModified))
+                .toList();
+        }
+        for (Path file : files) {
+            admit(file.getFileName().toString(), Files.size(file));
+        }
+        logger.info("Кэш хранилища {}: {} файлов, {} байт", cacheDir, files.size(), totalBytes);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Path resolve(String hash) {
+        return cacheDir.resolve(BlobStore.shardedPath(hash));
+    }
+}
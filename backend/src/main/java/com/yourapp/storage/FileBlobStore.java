@@ -0,0 +1,20 @@
+package com.yourapp.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Хранилище, которое выдает содержимое локальным файлом.
+ * Нужно для чтения с произвольным доступом (Range-запросы, декодирование изображений).
+ * Реализации: {@link LocalBlobStore} и {@link CachingBlobStore} перед удаленным хранилищем
+ */
+public interface FileBlobStore extends BlobStore {
+
+    /**
+     * Возвращает локальный файл с содержимым. Для удаленного хранилища содержимое
+     * сначала скачивается в дисковый кэш узла
+     * @param hash SHA-256 содержимого
+     * @return путь к локальному файлу
+     */
+    Path localPath(String hash) throws IOException;
+}
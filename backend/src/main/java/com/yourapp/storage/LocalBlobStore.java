@@ -0,0 +1,69 @@
+package com.yourapp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Хранилище содержимого в локальной директории: root/ab/cd/abcd...
+ * Временные файлы пишутся на тот же раздел, поэтому сохранение — атомарный перенос без копирования
+ */
+public class LocalBlobStore implements FileBlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(LocalBlobStore.class);
+
+    private final Path root;
+
+    public LocalBlobStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(resolve(hash));
+    }
+
+    @Override
+    public void put(String hash, Path source) throws IOException {
+        Path target = resolve(hash);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Сохранено новое содержимое {} ({} байт)", hash, Files.size(target));
+        } catch (FileAlreadyExistsException e) {
+            // То же содержимое параллельно сохранил другой запрос; исходный файл удалит вызывающий код
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        return Files.newInputStream(localPath(hash));
+    }
+
+    @Override
+    public Path localPath(String hash) throws IOException {
+        Path path = resolve(hash);
+        if (!Files.exists(path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return path;
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Files.deleteIfExists(resolve(hash));
+    }
+
+    private Path resolve(String hash) {
+        return root.resolve(BlobStore.shardedPath(hash));
+    }
+}
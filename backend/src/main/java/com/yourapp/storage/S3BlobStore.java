@@ -0,0 +1,181 @@
+package com.yourapp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Хранилище содержимого в S3-совместимом бакете (AWS S3, MinIO): prefix/ab/cd/abcd...
+ * Файлы больше размера части загружаются multipart-загрузкой: каждая часть читается
+ * с диска потоком, в памяти держится только буфер чтения. Локальных файлов хранилище
+ * не выдает — чтение с произвольным доступом идет через {@link CachingBlobStore}
+ */
+public class S3BlobStore implements BlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(S3BlobStore.class);
+
+    // Минимальный размер части multipart-загрузки в S3 (кроме последней)
+    public static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+    private final long partSize;
+
+    public S3BlobStore(S3Client client, String bucket, String prefix, long partSize) {
+        this.client = client;
+        this.bucket = bucket;
+        this.prefix = prefix == null || prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+        this.partSize = Math.max(partSize, MIN_PART_SIZE);
+    }
+
+    @Override
+    public boolean exists(String hash) throws IOException {
+        try {
+            client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key(hash)).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Ошибка проверки содержимого " + hash + " в S3", e);
+        }
+    }
+
+    @Override
+    public void put(String hash, Path source) throws IOException {
+        if (exists(hash)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= partSize) {
+                client.putObject(PutObjectRequest.builder().bucket(bucket).key(key(hash)).build(),
+                    RequestBody.fromFile(source));
+            } else {
+                putMultipart(hash, channel, size);
+            }
+            logger.info("Сохранено новое содержимое {} в S3 ({} байт)", hash, size);
+        } catch (S3Exception e) {
+            throw new IOException("Ошибка сохранения содержимого " + hash + " в S3", e);
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder().bucket(bucket).key(key(hash)).build());
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key(hash));
+        } catch (S3Exception e) {
+            throw new IOException("Ошибка чтения содержимого " + hash + " из S3", e);
+        }
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        try {
+            client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key(hash)).build());
+        } catch (S3Exception e) {
+            throw new IOException("Ошибка удаления содержимого " + hash + " из S3", e);
+        }
+    }
+
+    private void putMultipart(String hash, FileChannel channel, long size) throws IOException {
+        String key = key(hash);
+        String uploadId = client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+            .bucket(bucket).key(key).build()).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                long length = Math.min(partSize, size - offset);
+                String etag = client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket).key(key).uploadId(uploadId)
+                        .partNumber(partNumber).contentLength(length).build(),
+                    RequestBody.fromInputStream(new FileRangeInputStream(channel, offset, length), length)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+            }
+            client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket).key(key).uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+        } catch (RuntimeException e) {
+            // Незавершенные части занимают место в бакете, пока загрузка не отменена
+            try {
+                client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId).build());
+            } catch (RuntimeException abortError) {
+                e.addSuppressed(abortError);
+            }
+            throw e;
+        }
+    }
+
+    private String key(String hash) {
+        return prefix + BlobStore.shardedPath(hash);
+    }
+
+    /**
+     * Поток участка файла; позиционное чтение не меняет позицию канала
+     */
+    private static final class FileRangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        private FileRangeInputStream(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, end - position);
+            int read = channel.read(ByteBuffer.wrap(buffer, off, toRead), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+    }
+}
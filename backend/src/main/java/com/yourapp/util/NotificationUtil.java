@@ -1,27 +1,30 @@
 package com.yourapp.util;
 
 import com.yourapp.model.*;
-import com.yourapp.service.NotificationService;
+import com.yourapp.dto.NotificationEvent;
+import com.yourapp.service.NotificationDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 /**
  * Утилитарный класс для создания уведомлений
- * Централизует логику создания различных типов уведомлений
+ * Централизует логику создания различных типов уведомлений.
+ * Уведомления публикуются как события и доставляются асинхронно после коммита,
+ * поэтому операции записи не ждут вставки уведомлений, WebSocket и Telegram
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationUtil {
     
-    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
     
     // ==================== TASK NOTIFICATIONS ====================
     
     public void notifyTaskCreated(Task task) {
         if (task.getAssignee() != null) {
-            var notification = notificationService.createNotification(
+            publish(
                 task.getAssignee().getId(),
                 NotificationType.TASK_CREATED,
                 "Новая задача создана",
@@ -29,15 +32,13 @@ public class NotificationUtil {
                 getBoardTaskId(task),
                 "TASK"
             );
-            if (notification != null) {
-                log.debug("Отправлено уведомление о создании задачи {} пользователю {}", 
-                        task.getTitle(), task.getAssignee().getUsername());
-            }
+            log.debug("Поставлено в очередь уведомление о создании задачи {} пользователю {}", 
+                    task.getTitle(), task.getAssignee().getUsername());
         }
     }
     
     public void notifyTaskAssigned(Task task, User assignee) {
-        var notification = notificationService.createNotification(
+        publish(
             assignee.getId(),
             NotificationType.TASK_ASSIGNED,
             "Вам назначена задача",
@@ -45,15 +46,13 @@ public class NotificationUtil {
             getBoardTaskId(task),
             "TASK"
         );
-        if (notification != null) {
-            log.debug("Отправлено уведомление о назначении задачи {} пользователю {}", 
-                    task.getTitle(), assignee.getUsername());
-        }
+        log.debug("Поставлено в очередь уведомление о назначении задачи {} пользователю {}", 
+                task.getTitle(), assignee.getUsername());
     }
     
     public void notifyTaskUpdated(Task task) {
         if (task.getAssignee() != null) {
-            var notification = notificationService.createNotification(
+            publish(
                 task.getAssignee().getId(),
                 NotificationType.TASK_UPDATED,
                 "Задача обновлена",
@@ -61,16 +60,14 @@ public class NotificationUtil {
                 getBoardTaskId(task),
                 "TASK"
             );
-            if (notification != null) {
-                log.debug("Отправлено уведомление об обновлении задачи {} пользователю {}", 
-                        task.getTitle(), task.getAssignee().getUsername());
-            }
+            log.debug("Поставлено в очередь уведомление об обновлении задачи {} пользователю {}", 
+                    task.getTitle(), task.getAssignee().getUsername());
         }
     }
     
     public void notifyTaskDeleted(Task task) {
         if (task.getAssignee() != null) {
-            notificationService.createNotification(
+            publish(
                 task.getAssignee().getId(),
                 NotificationType.TASK_DELETED,
                 "Задача удалена",
@@ -83,7 +80,7 @@ public class NotificationUtil {
     
     public void notifyTaskStatusChanged(Task task, String oldStatus, String newStatus) {
         if (task.getAssignee() != null) {
-            notificationService.createNotification(
+            publish(
                 task.getAssignee().getId(),
                 NotificationType.TASK_STATUS_CHANGED,
                 "Изменен статус задачи",
@@ -97,34 +94,49 @@ public class NotificationUtil {
     
     public void notifyTaskOverdue(Task task) {
         if (task.getAssignee() != null) {
-            notificationService.createNotification(
-                task.getAssignee().getId(),
-                NotificationType.TASK_OVERDUE,
-                "Задача просрочена",
-                "Задача просрочена: " + task.getTitle(),
-                getBoardTaskId(task),
-                "TASK"
-            );
+            notifyTaskOverdue(task.getAssignee().getId(), task.getColumn().getBoard().getId(), task.getId(), task.getTitle());
         }
     }
     
+    /**
+     * Уведомление о просрочке без загрузки задачи (для пакетного пересчета сроков)
+     */
+    public void notifyTaskOverdue(Long assigneeId, String boardId, Long taskId, String taskTitle) {
+        publish(
+            assigneeId,
+            NotificationType.TASK_OVERDUE,
+            "Задача просрочена",
+            "Задача просрочена: " + taskTitle,
+            boardId + ":" + taskId,
+            "TASK"
+        );
+    }
+    
     public void notifyTaskDueSoon(Task task, long daysRemaining) {
         if (task.getAssignee() != null) {
-            notificationService.createNotification(
-                task.getAssignee().getId(),
-                NotificationType.TASK_DUE_SOON,
-                "Приближается дедлайн",
-                String.format("До завершения задачи \"%s\" осталось %d дн.", 
-                    task.getTitle(), daysRemaining),
-                getBoardTaskId(task),
-                "TASK"
-            );
+            notifyTaskDueSoon(task.getAssignee().getId(), task.getColumn().getBoard().getId(), task.getId(),
+                task.getTitle(), daysRemaining);
         }
     }
     
+    /**
+     * Уведомление о приближающемся дедлайне без загрузки задачи (для пакетного пересчета сроков)
+     */
+    public void notifyTaskDueSoon(Long assigneeId, String boardId, Long taskId, String taskTitle, long daysRemaining) {
+        publish(
+            assigneeId,
+            NotificationType.TASK_DUE_SOON,
+            "Приближается дедлайн",
+            String.format("До завершения задачи \"%s\" осталось %d дн.", 
+                taskTitle, daysRemaining),
+            boardId + ":" + taskId,
+            "TASK"
+        );
+    }
+    
     public void notifyDeadlineReminder(Task task) {
         if (task.getAssignee() != null) {
-            notificationService.createNotification(
+            publish(
                 task.getAssignee().getId(),
                 NotificationType.DEADLINE_REMINDER,
                 "Напоминание о дедлайне",
@@ -139,7 +151,7 @@ public class NotificationUtil {
     
     public void notifyCommentAdded(Task task, User author) {
         if (task.getAssignee() != null && !task.getAssignee().getId().equals(author.getId())) {
-            notificationService.createNotification(
+            publish(
                 task.getAssignee().getId(),
                 NotificationType.TASK_COMMENT_ADDED,
                 "Новый комментарий к задаче",
@@ -151,9 +163,16 @@ public class NotificationUtil {
     }
     
     public void notifyUserMentioned(User mentionedUser, Task task, User author) {
-        if (!mentionedUser.getId().equals(author.getId())) {
-            notificationService.createNotification(
-                mentionedUser.getId(),
+        notifyUserMentioned(mentionedUser.getId(), task, author);
+    }
+
+    /**
+     * Уведомление об упоминании по ID пользователя, без загрузки его сущности
+     */
+    public void notifyUserMentioned(Long mentionedUserId, Task task, User author) {
+        if (!mentionedUserId.equals(author.getId())) {
+            publish(
+                mentionedUserId,
                 NotificationType.NEW_COMMENT_MENTION,
                 "Вас упомянули в комментарии",
                 author.getUsername() + " упомянул вас в комментарии к задаче: " + task.getTitle(),
@@ -167,7 +186,7 @@ public class NotificationUtil {
     
     public void notifyAttachmentAdded(Task task, User uploader, String fileName) {
         if (task.getAssignee() != null && !task.getAssignee().getId().equals(uploader.getId())) {
-            notificationService.createNotification(
+            publish(
                 task.getAssignee().getId(),
                 NotificationType.ATTACHMENT_ADDED,
                 "Добавлено вложение к задаче",
@@ -183,7 +202,7 @@ public class NotificationUtil {
     public void notifySubtaskCreated(Subtask subtask) {
         Task parentTask = subtask.getParentTask();
         if (parentTask != null && parentTask.getAssignee() != null) {
-            var notification = notificationService.createNotification(
+            publish(
                 parentTask.getAssignee().getId(),
                 NotificationType.SUBTASK_CREATED,
                 "Создана подзадача",
@@ -191,17 +210,15 @@ public class NotificationUtil {
                 getBoardTaskId(parentTask),
                 "TASK"
             );
-            if (notification != null) {
-                log.debug("Отправлено уведомление о создании подзадачи {} пользователю {}", 
-                        subtask.getTitle(), parentTask.getAssignee().getUsername());
-            }
+            log.debug("Поставлено в очередь уведомление о создании подзадачи {} пользователю {}", 
+                    subtask.getTitle(), parentTask.getAssignee().getUsername());
         }
     }
     
     public void notifySubtaskCompleted(Subtask subtask) {
         Task parentTask = subtask.getParentTask();
         if (parentTask != null && parentTask.getAssignee() != null) {
-            var notification = notificationService.createNotification(
+            publish(
                 parentTask.getAssignee().getId(),
                 NotificationType.SUBTASK_COMPLETED,
                 "Подзадача завершена",
@@ -209,17 +226,15 @@ public class NotificationUtil {
                 getBoardTaskId(parentTask),
                 "TASK"
             );
-            if (notification != null) {
-                log.debug("Отправлено уведомление о завершении подзадачи {} пользователю {}", 
-                        subtask.getTitle(), parentTask.getAssignee().getUsername());
-            }
+            log.debug("Поставлено в очередь уведомление о завершении подзадачи {} пользователю {}", 
+                    subtask.getTitle(), parentTask.getAssignee().getUsername());
         }
     }
     
     // ==================== BOARD NOTIFICATIONS ====================
     
     public void notifyBoardInvite(User user, Board board) {
-        var notification = notificationService.createNotification(
+        publish(
             user.getId(),
             NotificationType.BOARD_INVITE,
             "Приглашение на доску",
@@ -227,14 +242,12 @@ public class NotificationUtil {
             board.getId(),
             "BOARD"
         );
-        if (notification != null) {
-            log.debug("Отправлено уведомление о приглашении на доску {} пользователю {}", 
-                    board.getName(), user.getUsername());
-        }
+        log.debug("Поставлено в очередь уведомление о приглашении на доску {} пользователю {}", 
+                board.getName(), user.getUsername());
     }
     
     public void notifyBoardMemberAdded(User user, Board board) {
-        notificationService.createNotification(
+        publish(
             user.getId(),
             NotificationType.BOARD_MEMBER_ADDED,
             "Вы добавлены в доску",
@@ -245,7 +258,7 @@ public class NotificationUtil {
     }
     
     public void notifyBoardMemberRemoved(User user, Board board) {
-        notificationService.createNotification(
+        publish(
             user.getId(),
             NotificationType.BOARD_MEMBER_REMOVED,
             "Вы удалены из доски",
@@ -256,7 +269,7 @@ public class NotificationUtil {
     }
     
     public void notifyRoleChanged(User user, Board board, Role newRole) {
-        notificationService.createNotification(
+        publish(
             user.getId(),
             NotificationType.ROLE_CHANGED,
             "Изменена роль на доске",
@@ -268,6 +281,18 @@ public class NotificationUtil {
     
     // ==================== HELPER METHODS ====================
     
+    private void publish(Long userId, NotificationType type, String title, String message,
+                         String relatedEntityId, String relatedEntityType) {
+        notificationDispatcher.publish(NotificationEvent.builder()
+                .userId(userId)
+                .type(type)
+                .title(title)
+                .message(message)
+                .relatedEntityId(relatedEntityId)
+                .relatedEntityType(relatedEntityType)
+                .build());
+    }
+    
     private String getBoardTaskId(Task task) {
         return task.getColumn().getBoard().getId() + ":" + task.getId();
     }
@@ -0,0 +1,66 @@
+package com.yourapp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Повтор операций, назначающих ранговые ключи.
+ * Уникальность ключа в колонке и в списке подзадач проверяется при коммите (V28).
+ * Ключи вычисляются под блокировкой колонки, поэтому конфликт возможен только с записью,
+ * обошедшей блокировку; проигравшая транзакция откатывается и выполняется заново
+ * с уже зафиксированными соседями. Так же повторяется транзакция, прерванная взаимоблокировкой
+ * (пакет перемещений держит несколько колонок сразу). Вызывать снаружи транзакционного сервиса.
+ */
+public final class RankConflicts {
+    private static final Logger logger = LoggerFactory.getLogger(RankConflicts.class);
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String DEADLOCK_DETECTED = "40P01";
+    private static final String TASK_CONSTRAINT = "uq_tasks_column_rank";
+    private static final String SUBTASK_CONSTRAINT = "uq_subtasks_parent_rank";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private RankConflicts() {
+    }
+
+    /**
+     * Выполняет операцию, повторяя её при конфликте ранговых ключей
+     * @param action операция в собственной транзакции
+     * @return результат операции
+     */
+    public static <T> T retry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !isRankConflict(e)) {
+                    throw e;
+                }
+                logger.warn("Конфликт при назначении ранговых ключей, повтор {} из {}", attempt + 1, MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    /**
+     * Нарушено ли ограничение уникальности ранговых ключей или прервана ли транзакция взаимоблокировкой.
+     * При отложенной проверке ошибка приходит из коммита и может быть обернута по-разному,
+     * поэтому ищется исходное SQLException в цепочке причин
+     */
+    static boolean isRankConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                if (DEADLOCK_DETECTED.equals(sql.getSQLState())) {
+                    return true;
+                }
+                if (UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                    String message = sql.getMessage();
+                    return message != null && (message.contains(TASK_CONSTRAINT) || message.contains(SUBTASK_CONSTRAINT));
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,153 @@
+package com.yourapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ранговые ключи для упорядочивания задач и подзадач.
+ * Ключ — строка из цифр и латинских букв в нижнем регистре (основание 36), порядок —
+ * лексикографический (в БД столбец с COLLATE "C"). Между двумя любыми ключами всегда
+ * можно вставить новый, поэтому перемещение меняет ключ только у перемещаемой записи.
+ * Ключи, сгенерированные {@link #between}, никогда не заканчиваются на '0'.
+ * Вставка в начало или конец списка не удлиняет ключ: соседний ключ уменьшается или
+ * увеличивается на единицу как число той же ширины по основанию 36, поэтому ключи растут
+ * только при вставках между соседними записями (и при вставках в начало около нуля).
+ */
+public final class RankKeys {
+    private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = ALPHABET.length();
+
+    // Ширина и шаг начальных ключей; совпадают с миграцией V14
+    private static final int SPREAD_WIDTH = 12;
+    private static final long SPREAD_STEP = 1000L;
+
+    private RankKeys() {
+    }
+
+    /**
+     * Ключ строго между before и after
+     * @param before предыдущий ключ или null (начало списка)
+     * @param after следующий ключ или null (конец списка)
+     * @return новый ключ
+     */
+    public static String between(String before, String after) {
+        String lower = before != null ? before : "";
+        if (after != null && lower.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Rank keys out of order: " + before + " >= " + after);
+        }
+        if (before != null && after == null) {
+            return after(before);
+        }
+        if (before == null && after != null) {
+            return before(after);
+        }
+
+        StringBuilder key = new StringBuilder();
+        String upper = after;
+        int i = 0;
+        while (true) {
+            int low = i < lower.length() ? digit(lower.charAt(i)) : 0;
+            int high = upper != null && i < upper.length() ? digit(upper.charAt(i)) : BASE;
+            if (low == high) {
+                key.append(ALPHABET.charAt(low));
+                i++;
+                continue;
+            }
+            int mid = (low + high) / 2;
+            if (mid > low) {
+                key.append(ALPHABET.charAt(mid));
+                return key.toString();
+            }
+            // Соседние цифры: берем нижнюю, дальше ключ ограничен только снизу
+            key.append(ALPHABET.charAt(low));
+            upper = null;
+            i++;
+        }
+    }
+
+    /**
+     * Ключ после последнего
+     * @param last последний ключ или null для пустого списка
+     * @return новый ключ
+     */
+    public static String after(String last) {
+        if (last == null || last.isEmpty()) {
+            return between(null, null);
+        }
+        // +1 той же ширины; результат на '0' пропускается, чтобы после ключа оставалось место
+        char[] digits = last.toCharArray();
+        do {
+            if (!step(digits, 1)) {
+                // Все разряды 'z': единственный случай, когда ключ удлиняется
+                return last + ALPHABET.charAt(1);
+            }
+        } while (digits[digits.length - 1] == ALPHABET.charAt(0));
+        return new String(digits);
+    }
+
+    /**
+     * Ключ перед первым
+     * @param first первый ключ или null для пустого списка
+     * @return новый ключ
+     */
+    public static String before(String first) {
+        if (first == null || first.isEmpty()) {
+            return between(null, null);
+        }
+        // -1 той же ширины; результат на '0' пропускается, чтобы перед ключом оставалось место
+        char[] digits = first.toCharArray();
+        do {
+            if (!step(digits, -1)) {
+                throw new IllegalArgumentException("No rank key before " + first);
+            }
+            if (isZero(digits)) {
+                // Меньше остались только нули: ключ продолжается старшей цифрой следующего разряда
+                return new String(digits) + ALPHABET.charAt(BASE - 1);
+            }
+        } while (digits[digits.length - 1] == ALPHABET.charAt(0));
+        return new String(digits);
+    }
+
+    /**
+     * Равномерно распределенные ключи фиксированной ширины для перебалансировки
+     * @param count количество ключей
+     * @return ключи в возрастающем порядке
+     */
+    public static List<String> spread(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(String.format("%0" + SPREAD_WIDTH + "d", i * SPREAD_STEP));
+        }
+        return keys;
+    }
+
+    // Прибавляет delta (+1 или -1) к числу той же ширины; false при переполнении
+    private static boolean step(char[] digits, int delta) {
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int value = digit(digits[i]) + delta;
+            if (value >= 0 && value < BASE) {
+                digits[i] = ALPHABET.charAt(value);
+                return true;
+            }
+            digits[i] = ALPHABET.charAt(delta > 0 ? 0 : BASE - 1);
+        }
+        return false;
+    }
+
+    private static boolean isZero(char[] digits) {
+        for (char c : digits) {
+            if (c != ALPHABET.charAt(0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digit(char c) {
+        int value = ALPHABET.indexOf(c);
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid rank key character: " + c);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,7 @@
+-- Версия доски: монотонно растет при каждом изменении содержимого доски.
+-- Используется как ключ кэша снимков доски и как ETag для GET /api/boards/{id}
+
+ALTER TABLE boards
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN boards.version IS 'Версия содержимого доски, увеличивается при каждом изменении';
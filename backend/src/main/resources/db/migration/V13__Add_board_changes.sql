@@ -0,0 +1,22 @@
+-- Журнал изменений доски для GET /api/boards/{id}/changes?since={version}.
+-- Каждая запись соответствует одной версии доски и указывает, какая сущность изменилась.
+-- Старые записи удаляются по расписанию; если клиент отстал сильнее, он получает полный снимок
+
+CREATE TABLE board_changes (
+    id BIGSERIAL PRIMARY KEY,
+    board_id VARCHAR(64) NOT NULL REFERENCES boards(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT,
+    action VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_board_changes_board_version ON board_changes(board_id, version);
+CREATE INDEX idx_board_changes_created_at ON board_changes(created_at);
+
+COMMENT ON TABLE board_changes IS 'Журнал изменений досок для дельта-синхронизации';
+COMMENT ON COLUMN board_changes.version IS 'Версия доски, полученная при изменении';
+COMMENT ON COLUMN board_changes.entity_type IS 'Тип сущности: BOARD, COLUMN, STATUS, TYPE, TASK';
+COMMENT ON COLUMN board_changes.entity_id IS 'ID измененной сущности (NULL для BOARD)';
+COMMENT ON COLUMN board_changes.action IS 'Вид изменения: CREATED, UPDATED, DELETED';
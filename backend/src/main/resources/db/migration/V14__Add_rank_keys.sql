@@ -0,0 +1,36 @@
+-- Ранговые ключи для порядка задач в колонке и подзадач в задаче.
+-- Порядок определяется лексикографическим сравнением rank_key (COLLATE "C"),
+-- поэтому перемещение карточки меняет ключ только у неё самой.
+-- Начальные ключи: номер по текущей позиции * 1000, дополненный нулями до 12 символов,
+-- так же, как их раскладывает RankKeys.spread при перебалансировке
+
+ALTER TABLE tasks ADD COLUMN rank_key VARCHAR(255) COLLATE "C";
+
+UPDATE tasks t
+SET rank_key = LPAD((r.rn * 1000)::TEXT, 12, '0')
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY column_id ORDER BY position, id) AS rn
+    FROM tasks
+) r
+WHERE t.id = r.id;
+
+ALTER TABLE tasks ALTER COLUMN rank_key SET NOT NULL;
+
+CREATE INDEX idx_tasks_column_rank ON tasks(column_id, rank_key);
+
+ALTER TABLE subtasks ADD COLUMN rank_key VARCHAR(255) COLLATE "C";
+
+UPDATE subtasks s
+SET rank_key = LPAD((r.rn * 1000)::TEXT, 12, '0')
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY parent_task_id ORDER BY position, id) AS rn
+    FROM subtasks
+) r
+WHERE s.id = r.id;
+
+ALTER TABLE subtasks ALTER COLUMN rank_key SET NOT NULL;
+
+CREATE INDEX idx_subtasks_parent_rank ON subtasks(parent_task_id, rank_key);
+
+COMMENT ON COLUMN tasks.rank_key IS 'Ранговый ключ задачи в колонке (лексикографический порядок)';
+COMMENT ON COLUMN subtasks.rank_key IS 'Ранговый ключ подзадачи в задаче (лексикографический порядок)';
@@ -0,0 +1,21 @@
+-- V15: Уведомления, которые асинхронный конвейер не смог доставить
+
+CREATE TABLE notification_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,
+    type VARCHAR(50) NOT NULL,
+    title VARCHAR(255),
+    message TEXT,
+    related_entity_id VARCHAR(255),
+    related_entity_type VARCHAR(50),
+    group_key VARCHAR(255),
+    priority VARCHAR(20),
+    attempts INT NOT NULL DEFAULT 0,
+    error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_notification_dead_letters_created_at ON notification_dead_letters(created_at);
+
+COMMENT ON TABLE notification_dead_letters IS 'Недоставленные уведомления (переполнение очереди, исчерпание попыток, остановка приложения)';
+COMMENT ON COLUMN notification_dead_letters.error IS 'Причина, по которой уведомление не было доставлено';
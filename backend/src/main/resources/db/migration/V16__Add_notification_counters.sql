@@ -0,0 +1,18 @@
+-- V16: Счетчики непрочитанных уведомлений
+
+CREATE TABLE notification_counters (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Начальные значения по текущим уведомлениям
+INSERT INTO notification_counters (user_id, unread_count)
+SELECT u.id, COUNT(n.id)
+FROM users u
+LEFT JOIN notifications n ON n.user_id = u.id AND n.is_read = FALSE AND n.is_archived = FALSE
+GROUP BY u.id;
+
+COMMENT ON TABLE notification_counters IS 'Количество непрочитанных неархивированных уведомлений пользователя, обновляется в транзакции изменения';
+COMMENT ON COLUMN notification_counters.version IS 'Номер изменения счетчика; по нему кэш в памяти отбрасывает устаревшие значения';
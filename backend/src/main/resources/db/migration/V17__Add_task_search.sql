@@ -0,0 +1,27 @@
+-- Полнотекстовый индекс задач для GET /api/search/tasks.
+-- Документ задачи собирается из названия (вес A), тегов (B), описания (C) и текста
+-- комментариев (D). Строки поддерживает TaskSearchIndexer после коммита изменений задачи;
+-- board_id хранится здесь же, чтобы фильтр по доступным доскам не требовал соединений.
+
+CREATE TABLE task_search (
+    task_id BIGINT PRIMARY KEY REFERENCES tasks(id) ON DELETE CASCADE,
+    board_id VARCHAR(64),
+    document TSVECTOR NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO task_search (task_id, board_id, document, updated_at)
+SELECT t.id, c.board_id,
+       setweight(to_tsvector('russian', COALESCE(t.title, '')), 'A') ||
+       setweight(to_tsvector('russian', COALESCE((SELECT string_agg(tt.tag, ' ') FROM task_tags tt WHERE tt.task_id = t.id), '')), 'B') ||
+       setweight(to_tsvector('russian', COALESCE(t.description, '')), 'C') ||
+       setweight(to_tsvector('russian', COALESCE((SELECT string_agg(cm.content, ' ') FROM comments cm WHERE cm.task_id = t.id), '')), 'D'),
+       CURRENT_TIMESTAMP
+FROM tasks t
+LEFT JOIN board_columns c ON c.id = t.column_id;
+
+CREATE INDEX idx_task_search_document ON task_search USING GIN (document);
+CREATE INDEX idx_task_search_board ON task_search(board_id);
+
+COMMENT ON TABLE task_search IS 'Полнотекстовый индекс задач: название, теги, описание и комментарии';
+COMMENT ON COLUMN task_search.document IS 'Взвешенный tsvector задачи (конфигурация russian)';
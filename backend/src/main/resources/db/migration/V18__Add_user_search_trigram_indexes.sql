@@ -0,0 +1,7 @@
+-- Триграммные индексы для поиска пользователей по подстроке (UserSearchService).
+-- lower(...) LIKE '%q%' по этим индексам не требует полного просмотра users
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_users_username_trgm ON users USING GIN (lower(username) gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING GIN (lower(email) gin_trgm_ops);
@@ -0,0 +1,20 @@
+-- V19: Словарь тегов доски с количеством использований
+
+CREATE TABLE board_tags (
+    board_id VARCHAR(64) NOT NULL REFERENCES boards(id) ON DELETE CASCADE,
+    tag VARCHAR(255) NOT NULL,
+    usage_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (board_id, tag)
+);
+
+-- Начальные значения по текущим тегам задач
+INSERT INTO board_tags (board_id, tag, usage_count)
+SELECT c.board_id, tt.tag, COUNT(*)
+FROM task_tags tt
+JOIN tasks t ON t.id = tt.task_id
+JOIN board_columns c ON c.id = t.column_id
+WHERE c.board_id IS NOT NULL
+GROUP BY c.board_id, tt.tag;
+
+COMMENT ON TABLE board_tags IS 'Теги доски для автодополнения; usage_count обновляется при изменении тегов задач';
+COMMENT ON COLUMN board_tags.usage_count IS 'Количество задач доски с этим тегом (0 — тег добавлен вручную и пока не используется)';
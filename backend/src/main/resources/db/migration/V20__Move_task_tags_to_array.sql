@@ -0,0 +1,20 @@
+-- V20: Теги задачи хранятся в колонке tasks.tags (text[]) вместо таблицы task_tags.
+-- Теги читаются вместе с задачей, а фильтры по тегам (@> — все, && — любой)
+-- используют GIN-индекс
+
+ALTER TABLE tasks ADD COLUMN tags TEXT[] NOT NULL DEFAULT '{}';
+
+UPDATE tasks t
+SET tags = a.tags
+FROM (
+    SELECT task_id, array_agg(tag ORDER BY tag) AS tags
+    FROM task_tags
+    GROUP BY task_id
+) a
+WHERE t.id = a.task_id;
+
+CREATE INDEX idx_tasks_tags ON tasks USING GIN (tags);
+
+DROP TABLE task_tags;
+
+COMMENT ON COLUMN tasks.tags IS 'Теги задачи (отсортированы по алфавиту)';
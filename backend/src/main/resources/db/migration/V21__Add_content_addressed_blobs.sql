@@ -0,0 +1,19 @@
+-- V21: Хранилище вложений с адресацией по содержимому (SHA-256) и счетчиком ссылок
+
+CREATE TABLE stored_blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE attachments ADD COLUMN blob_hash VARCHAR(64) REFERENCES stored_blobs(hash);
+
+CREATE INDEX idx_attachments_blob_hash ON attachments(blob_hash);
+-- Кандидаты на удаление для сборщика неиспользуемого содержимого
+CREATE INDEX idx_stored_blobs_unreferenced ON stored_blobs(updated_at) WHERE ref_count <= 0;
+
+COMMENT ON TABLE stored_blobs IS 'Содержимое вложений, хранится один раз в uploads/blobs/<2>/<2>/<sha256>';
+COMMENT ON COLUMN stored_blobs.ref_count IS 'Количество вложений, ссылающихся на содержимое';
+COMMENT ON COLUMN attachments.blob_hash IS 'SHA-256 содержимого; NULL у вложений, загруженных до V21 (файл по file_path)';
@@ -0,0 +1,14 @@
+-- V22: Миниатюры аватаров и изображений-вложений
+
+-- Размер в пикселях -> путь к миниатюре, например {"32": "/uploads/thumbs/avatars/x.jpg-32.png"}
+ALTER TABLE users ADD COLUMN avatar_thumbnails JSONB;
+ALTER TABLE attachments ADD COLUMN thumbnails JSONB;
+
+-- Изображения, для которых миниатюры еще не создавались (догоняющая обработка)
+CREATE INDEX idx_attachments_thumbnails_pending ON attachments(id)
+    WHERE thumbnails IS NULL AND content_type LIKE 'image/%';
+CREATE INDEX idx_users_avatar_thumbnails_pending ON users(id)
+    WHERE avatar_thumbnails IS NULL AND avatar_url LIKE '/uploads/%';
+
+COMMENT ON COLUMN users.avatar_thumbnails IS 'Миниатюры аватара; NULL — еще не созданы, используется avatar_url';
+COMMENT ON COLUMN attachments.thumbnails IS 'Миниатюры изображения; NULL — еще не созданы, {} — файл не является поддерживаемым изображением';
@@ -0,0 +1,26 @@
+-- V23: Сессии загрузки вложений по частям
+
+CREATE TABLE upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    task_id BIGINT NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    file_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(100),
+    size BIGINT NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE upload_chunks (
+    upload_id VARCHAR(36) NOT NULL REFERENCES upload_sessions(id) ON DELETE CASCADE,
+    chunk_index INTEGER NOT NULL,
+    checksum VARCHAR(64) NOT NULL,
+    PRIMARY KEY (upload_id, chunk_index)
+);
+
+CREATE INDEX idx_upload_sessions_expires_at ON upload_sessions(expires_at);
+
+COMMENT ON TABLE upload_sessions IS 'Незавершенные загрузки; данные пишутся в uploads/blobs/.tmp/upload-<id>.part';
+COMMENT ON COLUMN upload_sessions.expires_at IS 'Продлевается каждой принятой частью; истекшие сессии удаляются вместе с файлом';
+COMMENT ON TABLE upload_chunks IS 'Принятые части с проверенной контрольной суммой SHA-256';
@@ -0,0 +1,6 @@
+-- Окно первых задач колонки и догрузка страниц идут по ключу (rank_key, id):
+-- id различает задачи с одинаковым ранговым ключом, поэтому страницы не пересекаются
+CREATE INDEX idx_tasks_column_rank_id ON tasks(column_id, rank_key, id);
+
+-- Прежний индекс является префиксом нового
+DROP INDEX IF EXISTS idx_tasks_column_rank;
@@ -0,0 +1,17 @@
+-- Ключевая пагинация лент уведомлений: страница читается диапазоном индекса после курсора,
+-- поэтому время запроса не зависит от числа уведомлений пользователя
+
+-- Активные и архивные уведомления: (created_at, id) от новых к старым
+CREATE INDEX idx_notifications_feed_keyset
+    ON notifications(user_id, is_archived, created_at DESC, id DESC);
+
+-- Непрочитанные: ранг приоритета, затем (created_at, id).
+-- Выражение совпадает с NotificationRepository.PRIORITY_RANK, иначе индекс не используется
+CREATE INDEX idx_notifications_unread_keyset
+    ON notifications(user_id,
+                     (CASE priority WHEN 'CRITICAL' THEN 3 WHEN 'HIGH' THEN 2 WHEN 'NORMAL' THEN 1 ELSE 0 END) DESC,
+                     created_at DESC, id DESC)
+    WHERE is_read = false AND is_archived = false;
+
+-- Покрывается частичным индексом непрочитанных (в том числе подсчет непрочитанных)
+DROP INDEX IF EXISTS idx_notifications_active;
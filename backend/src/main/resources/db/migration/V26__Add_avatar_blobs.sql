@@ -0,0 +1,13 @@
+-- V26: Аватары и миниатюры в хранилище по хешу
+
+-- Хеш загруженного аватара; stored_blobs.ref_count считает и такие ссылки
+ALTER TABLE users ADD COLUMN avatar_blob_hash VARCHAR(64);
+
+-- Проверка доступа к аватару по хешу и сборка мусора
+CREATE INDEX idx_users_avatar_blob_hash ON users(avatar_blob_hash) WHERE avatar_blob_hash IS NOT NULL;
+
+-- Миниатюры содержимого по хешу создаются заново в хранилище догоняющей обработкой;
+-- у файлов, загруженных ранее в директорию загрузок, миниатюры остаются на месте
+UPDATE attachments SET thumbnails = NULL WHERE thumbnails IS NOT NULL AND blob_hash IS NOT NULL;
+
+COMMENT ON COLUMN users.avatar_blob_hash IS 'SHA-256 загруженного аватара в хранилище; NULL — стандартный аватар или файл в директории загрузок';
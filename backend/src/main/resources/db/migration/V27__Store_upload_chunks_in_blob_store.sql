@@ -0,0 +1,7 @@
+-- V27: Части загрузок хранятся в общем хранилище, а не в файле на диске узла
+
+-- Незавершенные загрузки писали части в локальный файл; клиенты начнут их заново
+DELETE FROM upload_sessions;
+
+COMMENT ON TABLE upload_sessions IS 'Незавершенные загрузки; принятые части хранятся в хранилище под ключом <checksum>-<id без дефисов>';
+COMMENT ON COLUMN upload_sessions.expires_at IS 'Продлевается каждой принятой частью; истекшие сессии удаляются вместе с частями';
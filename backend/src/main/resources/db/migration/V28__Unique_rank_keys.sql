@@ -0,0 +1,39 @@
+-- V28: Ранговые ключи уникальны внутри колонки и внутри списка подзадач.
+-- Раньше две параллельные вставки могли прочитать одних и тех же соседей и выдать один ключ;
+-- теперь ключ вычисляется под блокировкой колонки (родительской задачи), а ограничение
+-- не дает зафиксировать повтор, если какой-то путь обойдет блокировку.
+
+-- Колонки, где ключи уже повторяются, переписываются сеткой RankKeys.spread
+-- в текущем порядке (rank_key, id)
+UPDATE tasks t
+SET rank_key = LPAD((r.rn * 1000)::TEXT, 12, '0')
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY column_id ORDER BY rank_key, id) AS rn
+    FROM tasks
+    WHERE column_id IN (
+        SELECT column_id FROM tasks GROUP BY column_id HAVING COUNT(*) > COUNT(DISTINCT rank_key)
+    )
+) r
+WHERE t.id = r.id;
+
+UPDATE subtasks s
+SET rank_key = LPAD((r.rn * 1000)::TEXT, 12, '0')
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY parent_task_id ORDER BY rank_key, id) AS rn
+    FROM subtasks
+    WHERE parent_task_id IN (
+        SELECT parent_task_id FROM subtasks GROUP BY parent_task_id HAVING COUNT(*) > COUNT(DISTINCT rank_key)
+    )
+) r
+WHERE s.id = r.id;
+
+-- Проверка откладывается до коммита: перебалансировка и ручная сортировка подзадач
+-- переписывают ключи группы по одному, и промежуточные повторы допустимы.
+-- Индекс ограничения заменяет прежние неуникальные индексы с теми же колонками
+ALTER TABLE tasks ADD CONSTRAINT uq_tasks_column_rank
+    UNIQUE (column_id, rank_key) DEFERRABLE INITIALLY DEFERRED;
+DROP INDEX IF EXISTS idx_tasks_column_rank;
+
+ALTER TABLE subtasks ADD CONSTRAINT uq_subtasks_parent_rank
+    UNIQUE (parent_task_id, rank_key) DEFERRABLE INITIALLY DEFERRED;
+DROP INDEX IF EXISTS idx_subtasks_parent_rank;
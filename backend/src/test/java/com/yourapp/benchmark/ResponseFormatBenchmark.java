@@ -0,0 +1,158 @@
+package com.yourapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.yourapp.config.JacksonConfig;
+import com.yourapp.dto.BoardSnapshot;
+import com.yourapp.dto.TaskResponse;
+import com.yourapp.model.TaskPriority;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сравнение размера и времени сериализации снимка доски на 3000 задач в JSON, Smile и CBOR.
+ * Не запускается вместе с тестами; запуск:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.yourapp.benchmark.ResponseFormatBenchmark
+ */
+public class ResponseFormatBenchmark {
+
+    private static final int TASKS = 3000;
+    private static final int COLUMNS = 10;
+    private static final int USERS = 25;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    public static void main(String[] args) throws IOException {
+        BoardSnapshot board = buildBoard(new Random(42));
+
+        ObjectMapper indentedJson = new JacksonConfig().objectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json (indent)", indentedJson);
+        mappers.put("json", new JacksonConfig().objectMapper());
+        mappers.put("smile", JacksonConfig.smileMapper());
+        mappers.put("cbor", JacksonConfig.cborMapper());
+
+        System.out.printf("Доска: %d задач в %d колонках%n", TASKS, COLUMNS);
+        System.out.printf("%-14s %12s %12s %14s %14s%n", "формат", "байт", "gzip, байт", "кодирование, мс", "декодирование, мс");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(board);
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                mapper.writeValueAsBytes(board);
+                mapper.readTree(payload);
+            }
+            long encodeStart = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                payload = mapper.writeValueAsBytes(board);
+            }
+            double encodeMs = (System.nanoTime() - encodeStart) / 1e6 / MEASURED_ITERATIONS;
+
+            long decodeStart = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                mapper.readTree(payload);
+            }
+            double decodeMs = (System.nanoTime() - decodeStart) / 1e6 / MEASURED_ITERATIONS;
+
+            System.out.printf("%-14s %12d %12d %14.3f %14.3f%n",
+                entry.getKey(), payload.length, gzipSize(payload), encodeMs, decodeMs);
+        }
+    }
+
+    private static BoardSnapshot buildBoard(Random random) {
+        List<TaskResponse.UserResponse> users = new ArrayList<>();
+        for (long i = 1; i <= USERS; i++) {
+            TaskResponse.UserResponse user = new TaskResponse.UserResponse();
+            user.setId(i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setDisplayName("Пользователь " + i);
+            user.setAvatarUrl("/uploads/avatars/" + i + ".png");
+            user.setAvatarThumbnails(Map.of("32", "/uploads/thumbs/avatars/" + i + ".png-32.png",
+                "64", "/uploads/thumbs/avatars/" + i + ".png-64.png"));
+            users.add(user);
+        }
+
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        BoardSnapshot board = new BoardSnapshot();
+        board.setId("b7d0c9a2-3f1e-4c55-9a0e-2f6f1b7c8d90");
+        board.setName("Нагрузочная доска");
+        board.setDescription("Синтетическая доска для сравнения форматов ответа");
+        board.setArchived(false);
+        board.setCreatedAt(now);
+        board.setUpdatedAt(now);
+        board.setVersion(12345);
+        board.setOwnerId(1L);
+
+        long taskId = 1;
+        for (int c = 0; c < COLUMNS; c++) {
+            BoardSnapshot.ColumnSnapshot column = new BoardSnapshot.ColumnSnapshot();
+            column.setId((long) c + 1);
+            column.setName("Колонка " + (c + 1));
+            column.setPosition(c);
+            column.setColor("#4caf50");
+            for (int t = 0; t < TASKS / COLUMNS; t++, taskId++) {
+                column.getTasks().add(buildTask(random, taskId, t, column.getId(), users, now));
+            }
+            board.getColumns().add(column);
+        }
+        return board;
+    }
+
+    private static BoardSnapshot.TaskSnapshot buildTask(Random random, long id, int position, Long columnId,
+                                                        List<TaskResponse.UserResponse> users, LocalDateTime now) {
+        BoardSnapshot.TaskSnapshot task = new BoardSnapshot.TaskSnapshot();
+        task.setId(id);
+        task.setTitle("Задача " + id + ": обновить обработку данных");
+        task.setDescription(random.nextInt(3) == 0 ? null : "Описание задачи " + id + ", шаги воспроизведения и ожидаемый результат.");
+        task.setStartDate(now.minusDays(random.nextInt(30)));
+        task.setEndDate(now.plusDays(random.nextInt(30)));
+        task.setDaysRemaining((long) random.nextInt(30));
+        task.setPosition(position);
+        task.setRankKey(String.format("a%05d", position));
+        task.setCreatedAt(now.minusDays(40));
+        task.setUpdatedAt(now.minusHours(random.nextInt(500)));
+        task.setCommentCount(random.nextInt(10));
+        task.setAttachmentCount(random.nextInt(3));
+        task.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+        LinkedHashSet<String> tags = new LinkedHashSet<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            tags.add("tag" + random.nextInt(40));
+        }
+        task.setTags(tags);
+        task.setColumnId(columnId);
+        task.setTypeId((long) random.nextInt(4) + 1);
+        task.setStatusId((long) random.nextInt(5) + 1);
+        task.setAssignee(random.nextInt(5) == 0 ? null : users.get(random.nextInt(users.size())));
+        if (random.nextInt(5) == 0) {
+            for (int s = 0; s < 3; s++) {
+                TaskResponse.SubtaskResponse subtask = new TaskResponse.SubtaskResponse();
+                subtask.setId(id * 10 + s);
+                subtask.setTitle("Подзадача " + (s + 1));
+                subtask.setCompleted(random.nextBoolean());
+                subtask.setPosition(s);
+                subtask.setCreatedAt(now);
+                subtask.setUpdatedAt(now);
+                task.getSubtasks().add(subtask);
+            }
+        }
+        return task;
+    }
+
+    private static int gzipSize(byte[] payload) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(payload);
+        }
+        return buffer.size();
+    }
+}
@@ -0,0 +1,59 @@
+package com.yourapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpMessageConverterConfigTest {
+
+    private List<HttpMessageConverter<?>> converters;
+
+    @BeforeEach
+    void setUp() {
+        // С @EnableWebMvc остаются только конвертеры, добавленные в configureMessageConverters
+        HttpMessageConverterConfig config = new HttpMessageConverterConfig();
+        ReflectionTestUtils.setField(config, "objectMapper", new ObjectMapper());
+        converters = new ArrayList<>();
+        config.configureMessageConverters(converters);
+    }
+
+    @Test
+    void testAttachmentContentCanBeWritten() {
+        // GET /api/attachments/{id}/content возвращает ResponseEntity<Resource>
+        assertTrue(canWrite(FileSystemResource.class, MediaType.IMAGE_PNG));
+        assertTrue(canWrite(FileSystemResource.class, MediaType.APPLICATION_OCTET_STREAM));
+        assertTrue(canWrite(byte[].class, MediaType.APPLICATION_PDF));
+    }
+
+    @Test
+    void testRangeResponsesCanBeWritten() {
+        // Ответ 206 на Range-запрос пишется как ResourceRegion
+        assertTrue(canWrite(ResourceRegion.class, MediaType.IMAGE_PNG));
+    }
+
+    @Test
+    void testJsonStaysDefaultForObjects() {
+        HttpMessageConverter<?> first = converters.stream()
+            .filter(converter -> converter.canWrite(Map.class, MediaType.ALL))
+            .findFirst()
+            .orElseThrow();
+        assertInstanceOf(MappingJackson2HttpMessageConverter.class, first);
+    }
+
+    private boolean canWrite(Class<?> type, MediaType mediaType) {
+        return converters.stream().anyMatch(converter -> converter.canWrite(type, mediaType));
+    }
+}
@@ -0,0 +1,44 @@
+package com.yourapp.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoardControllerTest {
+
+    @Test
+    void testJsonByDefault() {
+        assertTrue(BoardController.prefersJson(null));
+        assertTrue(BoardController.prefersJson(""));
+        assertTrue(BoardController.prefersJson("*/*"));
+        assertTrue(BoardController.prefersJson("application/json, application/x-jackson-smile"));
+    }
+
+    @Test
+    void testQualityWinsOverOrder() {
+        assertTrue(BoardController.prefersJson("application/x-jackson-smile;q=0.5, application/json"));
+        assertFalse(BoardController.prefersJson("application/json;q=0.4, application/cbor;q=0.9"));
+    }
+
+    @Test
+    void testSpecificTypeWinsOverWildcardWithSameQuality() {
+        assertFalse(BoardController.prefersJson("*/*, application/x-jackson-smile"));
+        assertTrue(BoardController.prefersJson("*/*;q=0.9, application/x-jackson-smile;q=0.8"));
+    }
+
+    @Test
+    void testRefusedFormatIsNotChosenThroughWildcard() {
+        assertFalse(BoardController.prefersJson("application/json;q=0, application/*"));
+        // Более точный тип отменяет отказ, заданный маской
+        assertTrue(BoardController.prefersJson("*/*;q=0, application/json"));
+    }
+
+    @Test
+    void testInvalidHeaderFallsBackToStandardNegotiation() {
+        assertFalse(BoardController.prefersJson("not a media type"));
+        assertFalse(BoardController.prefersJson(String.join(",", Collections.nCopies(60, "text/plain"))));
+    }
+}
@@ -0,0 +1,74 @@
+package com.yourapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NotificationPreferenceSetTest {
+
+    @Test
+    void testDefaultsAllowEnabledTypesInApp() {
+        NotificationPreferenceSet set = NotificationPreferenceSet.compile(new NotificationPreferences());
+
+        assertTrue(set.allows(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED, NotificationPriority.NORMAL));
+        assertTrue(set.allows(NotificationChannel.IN_APP, NotificationType.NEW_COMMENT_MENTION, NotificationPriority.LOW));
+        // Создание задач по умолчанию выключено
+        assertFalse(set.allowsType(NotificationChannel.IN_APP, NotificationType.TASK_CREATED));
+    }
+
+    @Test
+    void testGlobalSwitchDisablesEverything() {
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setGlobalNotificationsEnabled(false);
+        NotificationPreferenceSet set = NotificationPreferenceSet.compile(preferences);
+
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            for (NotificationType type : NotificationType.values()) {
+                assertFalse(set.allowsType(channel, type), channel + " " + type);
+            }
+        }
+    }
+
+    @Test
+    void testChannelsFollowInAppTypes() {
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setBrowserNotificationsEnabled(false);
+        preferences.setTelegramNotificationsEnabled(true);
+        preferences.setTaskDeletedNotifications(false);
+        NotificationPreferenceSet set = NotificationPreferenceSet.compile(preferences);
+
+        assertFalse(set.allowsType(NotificationChannel.BROWSER, NotificationType.TASK_ASSIGNED));
+        assertTrue(set.allowsType(NotificationChannel.TELEGRAM, NotificationType.TASK_ASSIGNED));
+        // Выключенный тип не проходит ни в одном канале
+        assertFalse(set.allowsType(NotificationChannel.IN_APP, NotificationType.TASK_DELETED));
+        assertFalse(set.allowsType(NotificationChannel.TELEGRAM, NotificationType.TASK_DELETED));
+    }
+
+    @Test
+    void testNullFlagsAreTreatedAsOff() {
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setTaskAssignedNotifications(null);
+        preferences.setBrowserNotificationsEnabled(null);
+        NotificationPreferenceSet set = NotificationPreferenceSet.compile(preferences);
+
+        assertFalse(set.allowsType(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED));
+        assertFalse(set.allowsType(NotificationChannel.BROWSER, NotificationType.BOARD_INVITE));
+        assertTrue(set.allowsType(NotificationChannel.IN_APP, NotificationType.BOARD_INVITE));
+    }
+
+    @Test
+    void testOnlyHighPriorityFiltersLowerPriorities() {
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setOnlyHighPriorityNotifications(true);
+        NotificationPreferenceSet set = NotificationPreferenceSet.compile(preferences);
+
+        assertTrue(set.allows(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED, NotificationPriority.CRITICAL));
+        assertTrue(set.allows(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED, NotificationPriority.HIGH));
+        assertFalse(set.allows(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED, NotificationPriority.NORMAL));
+        assertFalse(set.allows(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED, NotificationPriority.LOW));
+        assertFalse(set.allows(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED, null));
+        // Фильтр по типу от приоритета не зависит
+        assertTrue(set.allowsType(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED));
+    }
+}
@@ -0,0 +1,163 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardDelta;
+import com.yourapp.dto.BoardSnapshot;
+import com.yourapp.model.BoardChange;
+import com.yourapp.repository.BoardChangeRepository;
+import com.yourapp.repository.BoardRepository;
+import com.yourapp.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BoardChangeServiceTest {
+
+    private static final String BOARD_ID = "test-board-id";
+
+    @Mock
+    private BoardChangeRepository boardChangeRepository;
+
+    @Mock
+    private BoardRepository boardRepository;
+
+    @Mock
+    private BoardVersionService boardVersionService;
+
+    @Mock
+    private BoardSnapshotService boardSnapshotService;
+
+    @Mock
+    private BoardSnapshotCache boardSnapshotCache;
+
+    @Mock
+    private BoardEventPublisher boardEventPublisher;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private BoardChangeService boardChangeService;
+
+    @Test
+    void testNoChangesWhenClientIsUpToDate() {
+        when(boardVersionService.currentVersion(BOARD_ID)).thenReturn(7L);
+
+        BoardDelta delta = boardChangeService.getChanges(BOARD_ID, 7);
+
+        assertFalse(delta.isFull());
+        assertEquals(7, delta.getVersion());
+        assertTrue(delta.getTasks().isEmpty());
+        verify(boardChangeRepository, never()).findMinVersionByBoardId(anyString());
+    }
+
+    @Test
+    void testFullSnapshotWhenJournalDoesNotCoverVersion() {
+        // Журнал начинается с версии 10, клиент знает только версию 3
+        BoardSnapshot snapshot = new BoardSnapshot();
+        snapshot.setVersion(12);
+        when(boardVersionService.currentVersion(BOARD_ID)).thenReturn(12L);
+        when(boardChangeRepository.findMinVersionByBoardId(BOARD_ID)).thenReturn(Optional.of(10L));
+        when(boardSnapshotCache.getOrLoad(BOARD_ID, 12)).thenReturn(snapshot);
+
+        BoardDelta delta = boardChangeService.getChanges(BOARD_ID, 3);
+
+        assertTrue(delta.isFull());
+        assertSame(snapshot, delta.getSnapshot());
+        assertEquals(12, delta.getVersion());
+        verify(boardChangeRepository, never()).findByBoardIdAndVersionGreaterThanOrderByVersionAsc(anyString(), anyLong());
+    }
+
+    @Test
+    void testFullSnapshotWhenClientVersionIsAhead() {
+        BoardSnapshot snapshot = new BoardSnapshot();
+        snapshot.setVersion(5);
+        when(boardVersionService.currentVersion(BOARD_ID)).thenReturn(5L);
+        when(boardChangeRepository.findMinVersionByBoardId(BOARD_ID)).thenReturn(Optional.of(1L));
+        when(boardSnapshotCache.getOrLoad(BOARD_ID, 5)).thenReturn(snapshot);
+
+        BoardDelta delta = boardChangeService.getChanges(BOARD_ID, 9);
+
+        assertTrue(delta.isFull());
+        assertSame(snapshot, delta.getSnapshot());
+    }
+
+    @Test
+    void testDeltaSplitsChangedAndDeletedTasks() {
+        // Задача 1 изменена, задачи 2 на доске больше нет
+        BoardSnapshot.TaskSnapshot task = new BoardSnapshot.TaskSnapshot();
+        task.setId(1L);
+        when(boardVersionService.currentVersion(BOARD_ID)).thenReturn(6L);
+        when(boardChangeRepository.findMinVersionByBoardId(BOARD_ID)).thenReturn(Optional.of(2L));
+        when(boardChangeRepository.findByBoardIdAndVersionGreaterThanOrderByVersionAsc(BOARD_ID, 4L))
+                .thenReturn(List.of(
+                        change(5, 1L, BoardChange.Action.UPDATED),
+                        change(6, 2L, BoardChange.Action.DELETED)));
+        when(boardSnapshotService.loadTasks(eq(BOARD_ID), any())).thenReturn(List.of(task));
+
+        BoardDelta delta = boardChangeService.getChanges(BOARD_ID, 4);
+
+        assertFalse(delta.isFull());
+        assertNull(delta.getSnapshot());
+        assertEquals(4, delta.getSince());
+        assertEquals(6, delta.getVersion());
+        assertEquals(List.of(task), delta.getTasks());
+        assertEquals(List.of(2L), delta.getDeletedTaskIds());
+        verify(boardSnapshotService, never()).loadColumns(anyString());
+        verify(boardRepository, never()).findHeaderById(anyString());
+    }
+
+    @Test
+    void testUserChangeBumpsBoardsWhereUserIsAssignee() {
+        // Профиль показан в задачах 1 и 2 одной доски и в задаче 3 другой
+        List<TaskRepository.BoardTaskRow> rows = List.of(
+                boardTask(BOARD_ID, 1L), boardTask(BOARD_ID, 2L), boardTask("other-board", 3L));
+        when(taskRepository.findBoardTasksByAssigneeId(42L)).thenReturn(rows);
+
+        boardChangeService.recordUser(42L);
+
+        verify(boardVersionService).bump(BOARD_ID);
+        verify(boardVersionService).bump("other-board");
+        verify(boardChangeRepository).saveAll(argThat(changes -> changes.spliterator().getExactSizeIfKnown() == 2));
+        verify(boardChangeRepository).saveAll(argThat(changes -> changes.spliterator().getExactSizeIfKnown() == 1));
+    }
+
+    private static TaskRepository.BoardTaskRow boardTask(String boardId, Long taskId) {
+        TaskRepository.BoardTaskRow row = mock(TaskRepository.BoardTaskRow.class);
+        when(row.getBoardId()).thenReturn(boardId);
+        when(row.getTaskId()).thenReturn(taskId);
+        return row;
+    }
+
+    private static BoardChange change(long version, Long taskId, BoardChange.Action action) {
+        return BoardChange.builder()
+                .boardId(BOARD_ID)
+                .version(version)
+                .entityType(BoardChange.EntityType.TASK)
+                .entityId(taskId)
+                .action(action)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardMovesRequest;
+import com.yourapp.dto.BoardMovesResult;
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.BoardChange;
+import com.yourapp.model.User;
+import com.yourapp.repository.BoardColumnRepository;
+import com.yourapp.repository.TaskRepository;
+import com.yourapp.repository.TaskStatusRepository;
+import com.yourapp.repository.TaskTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BoardMoveServiceTest {
+
+    private static final String BOARD_ID = "test-board-id";
+    private static final Long TODO = 1L;
+    private static final Long DONE = 2L;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private BoardColumnRepository boardColumnRepository;
+
+    @Mock
+    private TaskStatusRepository taskStatusRepository;
+
+    @Mock
+    private TaskTypeRepository taskTypeRepository;
+
+    @Mock
+    private BoardMemberService boardMemberService;
+
+    @Mock
+    private BoardChangeService boardChangeService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private BoardMoveService boardMoveService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(boardMoveService, "maxBatch", 500);
+        user = new User();
+        user.setId(1L);
+        user.setUsername("ivan");
+        when(boardMemberService.hasBoardAccess(BOARD_ID, 1L)).thenReturn(true);
+        when(boardColumnRepository.lockByBoardId(BOARD_ID)).thenReturn(List.of(TODO, DONE));
+        List<BoardColumnRepository.ColumnRow> columns = List.of(column(TODO, "Сделать"), column(DONE, "Готово"));
+        when(boardColumnRepository.findRowsByBoardId(BOARD_ID)).thenReturn(columns);
+        when(taskStatusRepository.findRowsByBoardId(BOARD_ID)).thenReturn(List.of());
+        when(taskTypeRepository.findRowsByBoardId(BOARD_ID)).thenReturn(List.of());
+    }
+
+    @Test
+    void testColumnsAreLockedBeforeTasksAreRead() {
+        TaskRepository.MoveRow task = moveRow(10L, TODO);
+        when(taskRepository.findMoveRowsByIds(any())).thenReturn(List.of(task));
+        List<TaskRepository.RankRow> ranks = List.of(rankRow(10L, TODO, "000000001000"),
+            rankRow(20L, DONE, "000000001000"), rankRow(21L, DONE, "000000002000"));
+        when(taskRepository.findRankRowsByColumnIds(anyCollection())).thenReturn(ranks);
+        when(boardChangeService.record(eq(BOARD_ID), eq(BoardChange.EntityType.TASK), anyCollection(),
+            eq(BoardChange.Action.MOVED))).thenReturn(7L);
+
+        BoardMovesResult result = boardMoveService.applyMoves(BOARD_ID, List.of(move(10L, DONE, 1)), user);
+
+        InOrder order = inOrder(boardColumnRepository, taskRepository, jdbcTemplate);
+        order.verify(boardColumnRepository).lockByBoardId(BOARD_ID);
+        order.verify(taskRepository).findMoveRowsByIds(any());
+        order.verify(taskRepository).findRankRowsByColumnIds(anyCollection());
+        order.verify(jdbcTemplate).batchUpdate(startsWith("UPDATE tasks"), anyList());
+
+        BoardMovesResult.MovedTask moved = result.getTasks().get(0);
+        assertEquals(DONE, moved.getColumnId());
+        assertEquals(1, moved.getPosition());
+        assertTrue("000000001000".compareTo(moved.getRankKey()) < 0, moved.getRankKey());
+        assertTrue(moved.getRankKey().compareTo("000000002000") < 0, moved.getRankKey());
+        assertEquals(7L, result.getVersion());
+    }
+
+    @Test
+    void testDuplicateRankKeysRejectBatch() {
+        TaskRepository.MoveRow task = moveRow(10L, TODO);
+        when(taskRepository.findMoveRowsByIds(any())).thenReturn(List.of(task));
+        List<TaskRepository.RankRow> ranks = List.of(rankRow(10L, TODO, "000000001000"),
+            rankRow(20L, DONE, "000000001000"), rankRow(21L, DONE, "000000001000"));
+        when(taskRepository.findRankRowsByColumnIds(anyCollection())).thenReturn(ranks);
+
+        ValidationException e = assertThrows(ValidationException.class,
+            () -> boardMoveService.applyMoves(BOARD_ID, List.of(move(10L, DONE, 1)), user));
+
+        assertTrue(e.getErrors().containsKey("moves"));
+        verifyNoInteractions(jdbcTemplate, boardChangeService);
+    }
+
+    private static BoardMovesRequest.Move move(Long taskId, Long columnId, Integer position) {
+        BoardMovesRequest.Move move = new BoardMovesRequest.Move();
+        move.setTaskId(taskId);
+        move.setColumnId(columnId);
+        move.setPosition(position);
+        return move;
+    }
+
+    private static BoardColumnRepository.ColumnRow column(Long id, String name) {
+        BoardColumnRepository.ColumnRow row = mock(BoardColumnRepository.ColumnRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getName()).thenReturn(name);
+        return row;
+    }
+
+    private static TaskRepository.MoveRow moveRow(Long id, Long columnId) {
+        TaskRepository.MoveRow row = mock(TaskRepository.MoveRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getColumnId()).thenReturn(columnId);
+        when(row.getBoardId()).thenReturn(BOARD_ID);
+        return row;
+    }
+
+    private static TaskRepository.RankRow rankRow(Long id, Long columnId, String rankKey) {
+        TaskRepository.RankRow row = mock(TaskRepository.RankRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getColumnId()).thenReturn(columnId);
+        when(row.getRankKey()).thenReturn(rankKey);
+        return row;
+    }
+}
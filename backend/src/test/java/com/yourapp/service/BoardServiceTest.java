@@ -35,6 +35,15 @@ public class BoardServiceTest {
     @Mock
     private RoleService roleService;
     
+    @Mock
+    private BoardVersionService boardVersionService;
+    
+    @Mock
+    private BoardChangeService boardChangeService;
+    
+    @Mock
+    private NotificationCounterService notificationCounterService;
+    
     @InjectMocks
     private BoardService boardService;
     
@@ -0,0 +1,87 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.BoardSnapshot;
+import com.yourapp.dto.ColumnTasksPage;
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ColumnTaskServiceTest {
+
+    private static final String BOARD_ID = "test-board-id";
+    private static final Long COLUMN_ID = 5L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BoardMemberService boardMemberService;
+
+    @Mock
+    private BoardSnapshotService boardSnapshotService;
+
+    @InjectMocks
+    private ColumnTaskService columnTaskService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(COLUMN_ID))).thenReturn(List.of(BOARD_ID));
+        when(boardMemberService.hasBoardAccess(BOARD_ID, 1L)).thenReturn(true);
+    }
+
+    @Test
+    void testFirstPageWithoutCursor() {
+        ColumnTasksPage page = new ColumnTasksPage();
+        when(boardSnapshotService.loadColumnPage(BOARD_ID, COLUMN_ID, null, null, 20)).thenReturn(page);
+
+        assertSame(page, columnTaskService.getPage(COLUMN_ID, null, 20, user));
+        assertSame(page, columnTaskService.getPage(COLUMN_ID, "", 20, user));
+    }
+
+    @Test
+    void testCursorRoundTrip() {
+        // Курсор из снимка доски разбирается обратно в rankKey и ID последней задачи
+        BoardSnapshot.TaskSnapshot last = new BoardSnapshot.TaskSnapshot();
+        last.setId(42L);
+        last.setRankKey("00000000i0k");
+        String cursor = BoardSnapshotService.cursor(last);
+        assertEquals("00000000i0k:42", cursor);
+
+        ColumnTasksPage page = new ColumnTasksPage();
+        when(boardSnapshotService.loadColumnPage(BOARD_ID, COLUMN_ID, "00000000i0k", 42L, 20)).thenReturn(page);
+
+        assertSame(page, columnTaskService.getPage(COLUMN_ID, cursor, 20, user));
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() {
+        for (String cursor : List.of("i0k", "I0K:42", "i0k:", ":42", "i0k:-1", "i0k:42:1", "i0k:99999999999999999999")) {
+            ValidationException e = assertThrows(ValidationException.class,
+                () -> columnTaskService.getPage(COLUMN_ID, cursor, 20, user), cursor);
+            assertTrue(e.getErrors().containsKey("after"), cursor);
+        }
+        verifyNoInteractions(boardSnapshotService);
+    }
+}
@@ -0,0 +1,83 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.NotificationPreferencesDTO;
+import com.yourapp.model.NotificationChannel;
+import com.yourapp.model.NotificationPreferenceSet;
+import com.yourapp.model.NotificationPreferences;
+import com.yourapp.model.NotificationType;
+import com.yourapp.model.User;
+import com.yourapp.repository.NotificationPreferencesRepository;
+import com.yourapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationPreferencesServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private NotificationPreferencesRepository preferencesRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private NotificationPreferencesService preferencesService;
+
+    @BeforeEach
+    void setUp() {
+        preferencesService = new NotificationPreferencesService(preferencesRepository, userRepository, 100);
+    }
+
+    @Test
+    void testPreferenceSetIsCached() {
+        when(preferencesRepository.findByUserId(USER_ID)).thenReturn(Optional.of(new NotificationPreferences()));
+
+        NotificationPreferenceSet first = preferencesService.getPreferenceSet(USER_ID);
+
+        assertSame(first, preferencesService.getPreferenceSet(USER_ID));
+        verify(preferencesRepository).findByUserId(USER_ID);
+    }
+
+    @Test
+    void testSetLoadedBeforeEvictionIsNotCached() {
+        // Пока настройки читаются, пользователь выключает уведомления: прочитанное до сброса
+        // не должно остаться в кэше после него
+        User user = new User();
+        user.setId(USER_ID);
+        NotificationPreferences stored = new NotificationPreferences();
+        stored.setUser(user);
+        NotificationPreferences disabled = new NotificationPreferences();
+        disabled.setGlobalNotificationsEnabled(false);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(preferencesRepository.findByUser(user)).thenReturn(Optional.of(stored));
+        when(preferencesRepository.save(any(NotificationPreferences.class))).then(returnsFirstArg());
+        when(preferencesRepository.findByUserId(USER_ID))
+            .thenAnswer(invocation -> {
+                preferencesService.updateUserPreferences(USER_ID, new NotificationPreferencesDTO());
+                return Optional.of(new NotificationPreferences());
+            })
+            .thenReturn(Optional.of(disabled));
+
+        NotificationPreferenceSet stale = preferencesService.getPreferenceSet(USER_ID);
+        NotificationPreferenceSet fresh = preferencesService.getPreferenceSet(USER_ID);
+
+        assertTrue(stale.allowsType(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED));
+        assertFalse(fresh.allowsType(NotificationChannel.IN_APP, NotificationType.TASK_ASSIGNED));
+        verify(preferencesRepository, times(2)).findByUserId(USER_ID);
+    }
+}
@@ -0,0 +1,155 @@
+package com.yourapp.service;
+
+import com.yourapp.dto.NotificationPageDTO;
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.Notification;
+import com.yourapp.model.NotificationPriority;
+import com.yourapp.repository.NotificationRepository;
+import com.yourapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 30, 15);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private NotificationPreferencesService preferencesService;
+
+    @Mock
+    private TelegramNotificationService telegramNotificationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @Test
+    void testFeedCursorRoundTrip() {
+        Notification first = notification(30L, NOW, NotificationPriority.NORMAL);
+        Notification second = notification(20L, NOW.minusMinutes(1), NotificationPriority.NORMAL);
+        Notification extra = notification(10L, NOW.minusMinutes(2), NotificationPriority.NORMAL);
+        when(notificationRepository.findFeed(USER_ID, false, 3)).thenReturn(List.of(first, second, extra));
+
+        NotificationPageDTO page = notificationService.getUserNotifications(USER_ID, null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertNotNull(page.getNextCursor());
+
+        // Следующая страница начинается после последнего показанного уведомления
+        when(notificationRepository.findFeedAfter(USER_ID, false, second.getCreatedAt(), 20L, 3))
+            .thenReturn(List.of(extra));
+        NotificationPageDTO next = notificationService.getUserNotifications(USER_ID, page.getNextCursor(), 2);
+
+        assertEquals(1, next.getContent().size());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testArchivedFeedUsesArchivedRows() {
+        Notification first = notification(30L, NOW, NotificationPriority.LOW);
+        Notification extra = notification(10L, NOW.minusMinutes(2), NotificationPriority.LOW);
+        when(notificationRepository.findFeed(USER_ID, true, 2)).thenReturn(List.of(first, extra));
+
+        NotificationPageDTO page = notificationService.getArchivedNotifications(USER_ID, null, 1);
+        notificationService.getArchivedNotifications(USER_ID, page.getNextCursor(), 1);
+
+        verify(notificationRepository).findFeedAfter(USER_ID, true, NOW, 30L, 2);
+    }
+
+    @Test
+    void testUnreadCursorKeepsPriorityRank() {
+        Notification critical = notification(5L, NOW.minusHours(1), NotificationPriority.CRITICAL);
+        Notification high = notification(9L, NOW, NotificationPriority.HIGH);
+        Notification extra = notification(7L, NOW.minusMinutes(5), NotificationPriority.HIGH);
+        when(notificationRepository.findUnread(USER_ID, 3)).thenReturn(List.of(critical, high, extra));
+
+        NotificationPageDTO page = notificationService.getUnreadNotifications(USER_ID, null, 2);
+        notificationService.getUnreadNotifications(USER_ID, page.getNextCursor(), 2);
+
+        // Ранг HIGH — 2, как в NotificationRepository.PRIORITY_RANK
+        verify(notificationRepository).findUnreadAfter(USER_ID, 2, NOW, 9L, 3);
+    }
+
+    @Test
+    void testLastPageHasNoCursor() {
+        when(notificationRepository.findFeed(USER_ID, false, 3))
+            .thenReturn(List.of(notification(1L, NOW, NotificationPriority.NORMAL)));
+
+        assertNull(notificationService.getUserNotifications(USER_ID, null, 2).getNextCursor());
+    }
+
+    @Test
+    void testInvalidFeedCursorIsRejected() {
+        for (String cursor : List.of("not a cursor!", encode("2024-03-01T12:30:15"), encode("yesterday|5"),
+                encode("2024-03-01T12:30:15|five"), encode("2024-03-01T12:30:15|5|1"))) {
+            ValidationException e = assertThrows(ValidationException.class,
+                () -> notificationService.getUserNotifications(USER_ID, cursor, 20), cursor);
+            assertTrue(e.getErrors().containsKey("cursor"), cursor);
+        }
+        verify(notificationRepository, never()).findFeedAfter(anyLong(), anyBoolean(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testInvalidUnreadCursorIsRejected() {
+        // Курсор обычной ленты не подходит для непрочитанных: в нем нет ранга приоритета
+        for (String cursor : List.of(encode("2024-03-01T12:30:15|5"), encode("high|2024-03-01T12:30:15|5"),
+                encode("2|2024-03-01|5"))) {
+            ValidationException e = assertThrows(ValidationException.class,
+                () -> notificationService.getUnreadNotifications(USER_ID, cursor, 20), cursor);
+            assertTrue(e.getErrors().containsKey("cursor"), cursor);
+        }
+        verify(notificationRepository, never()).findUnreadAfter(anyLong(), anyInt(), any(), anyLong(), anyInt());
+    }
+
+    private static Notification notification(Long id, LocalDateTime createdAt, NotificationPriority priority) {
+        return Notification.builder()
+            .id(id)
+            .title("Уведомление " + id)
+            .priority(priority)
+            .createdAt(createdAt)
+            .build();
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package com.yourapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PrecompressedResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PrecompressedResponseCache cache;
+    private Map<String, Object> body;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrecompressedResponseCache(objectMapper, new SimpleMeterRegistry(), 1024 * 1024, 9);
+        body = new LinkedHashMap<>();
+        body.put("id", "board-1");
+        body.put("name", "Доска");
+        body.put("columns", List.of(Map.of("id", 1, "title", "Сделать"), Map.of("id", 2, "title", "Готово")));
+    }
+
+    @Test
+    void testGzipWithoutExtrasDecodesToBody() throws IOException {
+        PrecompressedResponseCache.Payload payload = cache.get("board:1", 1, body, Map.of(), PrecompressedResponseCache.GZIP);
+
+        assertEquals(PrecompressedResponseCache.GZIP, payload.encoding());
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(body)), objectMapper.readTree(gunzip(payload)));
+    }
+
+    @Test
+    void testGzipWithExtrasAppendsThemToObject() throws IOException {
+        Map<String, Object> extras = Map.of("currentUser", Map.of("id", 7, "username", "ivan"));
+        PrecompressedResponseCache.Payload payload = cache.get("board:1", 1, body, extras, PrecompressedResponseCache.GZIP);
+
+        Map<String, Object> expected = new LinkedHashMap<>(body);
+        expected.putAll(extras);
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(expected)), objectMapper.readTree(gunzip(payload)));
+    }
+
+    @Test
+    void testCachedPrefixServesDifferentExtras() throws IOException {
+        // Вторая выдача берет сжатую общую часть из кэша, а хвост и CRC считает заново;
+        // GZIPInputStream проверяет CRC32 и длину из трейлера
+        cache.get("board:1", 1, body, Map.of("currentUser", Map.of("id", 1)), PrecompressedResponseCache.GZIP);
+        PrecompressedResponseCache.Payload payload = cache.get("board:1", 1, body,
+            Map.of("currentUser", Map.of("id", 2)), PrecompressedResponseCache.GZIP);
+
+        assertEquals(2, objectMapper.readTree(gunzip(payload)).path("currentUser").path("id").asInt());
+    }
+
+    @Test
+    void testIdentityMatchesGzip() throws IOException {
+        Map<String, Object> extras = Map.of("currentUser", Map.of("id", 7));
+        PrecompressedResponseCache.Payload identity = cache.get("board:1", 1, body, extras, PrecompressedResponseCache.IDENTITY);
+        PrecompressedResponseCache.Payload gzip = cache.get("board:1", 1, body, extras, PrecompressedResponseCache.GZIP);
+
+        byte[] plain = write(identity);
+        assertEquals(plain.length, identity.contentLength());
+        assertEquals(new String(plain, StandardCharsets.UTF_8), new String(gunzip(gzip), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCrc32CombineMatchesDirectCrc() {
+        byte[] first = "{\"id\":\"board-1\"".getBytes(StandardCharsets.UTF_8);
+        byte[] second = ",\"currentUser\":{\"id\":7}}".getBytes(StandardCharsets.UTF_8);
+        CRC32 whole = new CRC32();
+        whole.update(first);
+        whole.update(second);
+
+        assertEquals(whole.getValue(),
+            PrecompressedResponseCache.crc32Combine(crc(first), crc(second), second.length));
+        assertEquals(crc(first), PrecompressedResponseCache.crc32Combine(crc(first), crc(new byte[0]), 0));
+    }
+
+    private static long crc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    private static byte[] write(PrecompressedResponseCache.Payload payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        payload.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(PrecompressedResponseCache.Payload payload) throws IOException {
+        byte[] compressed = write(payload);
+        assertEquals(compressed.length, payload.contentLength());
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return input.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.yourapp.service;
+
+import com.yourapp.exception.ValidationException;
+import com.yourapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UploadSessionServiceTest {
+
+    private static final String BOARD_ID = "test-board-id";
+    private static final Long TASK_ID = 5L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BoardMemberService boardMemberService;
+
+    @InjectMocks
+    private UploadSessionService uploadSessionService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(uploadSessionService, "maxSize", 1024L * 1024);
+        ReflectionTestUtils.setField(uploadSessionService, "defaultChunkSize", 256 * 1024);
+        ReflectionTestUtils.setField(uploadSessionService, "maxChunkSize", 512 * 1024);
+        user = new User();
+        user.setId(1L);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(TASK_ID))).thenReturn(List.of(BOARD_ID));
+        when(boardMemberService.hasBoardAccess(BOARD_ID, 1L)).thenReturn(true);
+    }
+
+    @Test
+    void testEmptyOrNegativeSizeIsRejected() {
+        for (long size : new long[]{0, -1}) {
+            ValidationException e = assertThrows(ValidationException.class,
+                () -> uploadSessionService.create(TASK_ID, "a.bin", "application/octet-stream", size, null, user));
+            assertTrue(e.getErrors().containsKey("size"), String.valueOf(size));
+        }
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void testZeroOrNegativeChunkSizeIsRejected() {
+        // Иначе число частей считалось бы делением на ноль
+        for (int chunkSize : new int[]{0, -1}) {
+            ValidationException e = assertThrows(ValidationException.class,
+                () -> uploadSessionService.create(TASK_ID, "a.bin", "application/octet-stream", 100, chunkSize, user));
+            assertTrue(e.getErrors().containsKey("chunkSize"), String.valueOf(chunkSize));
+        }
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,122 @@
+package com.yourapp.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachingBlobStoreTest {
+
+    private static final String FIRST = "a1".repeat(32);
+    private static final String SECOND = "b2".repeat(32);
+    private static final String THIRD = "c3".repeat(32);
+
+    @TempDir
+    Path dir;
+
+    // Удаленное хранилище заменяет локальная директория
+    private LocalBlobStore remote;
+    private Path cacheDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        remote = new LocalBlobStore(dir.resolve("remote"));
+        cacheDir = dir.resolve("cache");
+        for (String hash : new String[]{FIRST, SECOND, THIRD}) {
+            remote.put(hash, Files.writeString(dir.resolve(hash), "123456"));
+        }
+    }
+
+    @Test
+    void testLocalPathDownloadsIntoCache() throws IOException {
+        CachingBlobStore cache = new CachingBlobStore(remote, cacheDir, 1024);
+
+        Path path = cache.localPath(FIRST);
+
+        assertTrue(path.startsWith(cacheDir));
+        assertEquals("123456", Files.readString(path));
+        // Прочитанный файл отдается из кэша, даже если удаленная копия недоступна
+        remote.delete(FIRST);
+        assertTrue(cache.exists(FIRST));
+        assertEquals(path, cache.localPath(FIRST));
+        try (InputStream input = cache.open(FIRST)) {
+            assertEquals("123456", new String(input.readAllBytes()));
+        }
+    }
+
+    @Test
+    void testOpenDoesNotFillCache() throws IOException {
+        CachingBlobStore cache = new CachingBlobStore(remote, cacheDir, 1024);
+
+        try (InputStream input = cache.open(FIRST)) {
+            assertEquals("123456", new String(input.readAllBytes()));
+        }
+
+        remote.delete(FIRST);
+        assertFalse(cache.exists(FIRST));
+    }
+
+    @Test
+    void testLeastRecentlyReadIsEvicted() throws IOException {
+        CachingBlobStore cache = new CachingBlobStore(remote, cacheDir, 14);
+        cache.localPath(FIRST);
+        Path second = cache.localPath(SECOND);
+        // Повторное чтение делает FIRST самым свежим, поэтому при превышении лимита вытесняется SECOND
+        cache.localPath(FIRST);
+        cache.localPath(THIRD);
+
+        remote.delete(FIRST);
+        remote.delete(SECOND);
+        remote.delete(THIRD);
+        assertTrue(cache.exists(FIRST));
+        assertFalse(cache.exists(SECOND));
+        assertTrue(cache.exists(THIRD));
+        // Вытесненный файл удаляется с диска не сразу: путь могли уже выдать для отдачи ответа
+        assertTrue(Files.exists(second));
+    }
+
+    @Test
+    void testEvictedFileIsReclaimedWithoutDownload() throws IOException {
+        CachingBlobStore cache = new CachingBlobStore(remote, cacheDir, 10);
+        Path first = cache.localPath(FIRST);
+        cache.localPath(SECOND);
+
+        remote.delete(FIRST);
+        assertFalse(cache.exists(FIRST));
+        assertEquals(first, cache.localPath(FIRST));
+        assertTrue(cache.exists(FIRST));
+    }
+
+    @Test
+    void testDeleteRemovesBothCopies() throws IOException {
+        CachingBlobStore cache = new CachingBlobStore(remote, cacheDir, 1024);
+        Path path = cache.localPath(FIRST);
+
+        cache.delete(FIRST);
+
+        assertFalse(Files.exists(path));
+        assertFalse(remote.exists(FIRST));
+        assertThrows(NoSuchFileException.class, () -> cache.localPath(FIRST));
+    }
+
+    @Test
+    void testIndexIsRestoredOnStart() throws IOException {
+        new CachingBlobStore(remote, cacheDir, 1024).localPath(FIRST);
+        remote.delete(FIRST);
+
+        CachingBlobStore restarted = new CachingBlobStore(remote, cacheDir, 1024);
+
+        assertTrue(restarted.exists(FIRST));
+        assertEquals("123456", Files.readString(restarted.localPath(FIRST)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.yourapp.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalBlobStoreTest {
+
+    private static final String HASH = "ab".repeat(32);
+
+    @TempDir
+    Path dir;
+
+    private LocalBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalBlobStore(dir.resolve("blobs"));
+    }
+
+    @Test
+    void testPutOpenAndDelete() throws IOException {
+        Path source = write("source", "содержимое");
+
+        store.put(HASH, source);
+
+        assertTrue(store.exists(HASH));
+        assertFalse(Files.exists(source));
+        assertEquals(dir.resolve("blobs/ab/ab/" + HASH), store.localPath(HASH));
+        try (InputStream input = store.open(HASH)) {
+            assertArrayEquals("содержимое".getBytes(StandardCharsets.UTF_8), input.readAllBytes());
+        }
+
+        store.delete(HASH);
+        assertFalse(store.exists(HASH));
+        // Повторное удаление не считается ошибкой
+        store.delete(HASH);
+    }
+
+    @Test
+    void testPutKeepsExistingContent() throws IOException {
+        store.put(HASH, write("first", "первое"));
+        Path duplicate = write("second", "второе");
+
+        store.put(HASH, duplicate);
+
+        // Содержимое по ключу не меняется; оставшийся файл удаляет вызывающий код
+        assertTrue(Files.exists(duplicate));
+        assertEquals("первое", Files.readString(store.localPath(HASH)));
+    }
+
+    @Test
+    void testMissingContent() {
+        assertThrows(NoSuchFileException.class, () -> store.localPath(HASH));
+        assertThrows(NoSuchFileException.class, () -> store.open(HASH));
+    }
+
+    @Test
+    void testDerivedKeysAreAccepted() throws IOException {
+        String key = HASH + "-sq64";
+        store.put(key, write("thumb", "миниатюра"));
+
+        assertEquals(dir.resolve("blobs/ab/ab/" + key), store.localPath(key));
+        assertThrows(IllegalArgumentException.class, () -> store.exists("../" + HASH));
+        assertThrows(IllegalArgumentException.class, () -> store.exists(HASH.toUpperCase()));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+}
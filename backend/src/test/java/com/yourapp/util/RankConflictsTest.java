@@ -0,0 +1,58 @@
+package com.yourapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RankConflictsTest {
+
+    @Test
+    void testRetriesRankConflictFromCommit() {
+        // Отложенная проверка: нарушение приходит из коммита, обернутое в исключение транзакции
+        AtomicInteger calls = new AtomicInteger();
+        String result = RankConflicts.retry(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new TransactionSystemException("commit failed", rankConflict("uq_tasks_column_rank"));
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(DataIntegrityViolationException.class, () -> RankConflicts.retry(() -> {
+            calls.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicate", rankConflict("uq_subtasks_parent_rank"));
+        }));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testOtherErrorsAreNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        DataIntegrityViolationException other = new DataIntegrityViolationException("duplicate",
+            rankConflict("users_username_key"));
+        DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class,
+            () -> RankConflicts.retry(() -> {
+                calls.incrementAndGet();
+                throw other;
+            }));
+        assertSame(other, thrown);
+        assertEquals(1, calls.get());
+    }
+
+    private static SQLException rankConflict(String constraint) {
+        return new SQLException("ERROR: duplicate key value violates unique constraint \"" + constraint + "\"", "23505");
+    }
+}
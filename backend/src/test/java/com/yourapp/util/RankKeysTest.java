@@ -0,0 +1,92 @@
+package com.yourapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RankKeysTest {
+
+    @Test
+    void testBetweenIsStrictlyBetween() {
+        String[][] pairs = {
+            {"a", "b"}, {"a", "a1"}, {"az", "b"}, {"0001", "0002"}, {"000000001000", "000000002000"}, {"i", "i01"}
+        };
+        for (String[] pair : pairs) {
+            String key = RankKeys.between(pair[0], pair[1]);
+            assertTrue(pair[0].compareTo(key) < 0, pair[0] + " < " + key);
+            assertTrue(key.compareTo(pair[1]) < 0, key + " < " + pair[1]);
+            assertFalse(key.endsWith("0"), key);
+        }
+    }
+
+    @Test
+    void testBetweenRejectsKeysOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("a", "a"));
+    }
+
+    @Test
+    void testAfterAndBeforeKeepOrder() {
+        assertEquals("000000001001", RankKeys.after("000000001000"));
+        assertEquals("11", RankKeys.after("0z"));
+        assertEquals("zz1", RankKeys.after("zz"));
+        assertEquals("000000000zzz", RankKeys.before("000000001000"));
+        assertEquals("zyz", RankKeys.before("zz1"));
+        assertEquals("0z", RankKeys.before("1"));
+        assertEquals(RankKeys.after("abc"), RankKeys.between("abc", null));
+        assertEquals(RankKeys.before("abc"), RankKeys.between(null, "abc"));
+    }
+
+    @Test
+    void testAppendsDoNotGrowKeys() {
+        String last = RankKeys.spread(1).get(0);
+        for (int i = 0; i < 10_000; i++) {
+            String next = RankKeys.after(last);
+            assertTrue(last.compareTo(next) < 0, last + " < " + next);
+            assertFalse(next.endsWith("0"), next);
+            last = next;
+        }
+        assertTrue(last.length() <= 12, last);
+    }
+
+    @Test
+    void testPrependsGrowSlowly() {
+        String first = RankKeys.spread(1).get(0);
+        for (int i = 0; i < 1_000; i++) {
+            String next = RankKeys.before(first);
+            assertTrue(next.compareTo(first) < 0, next + " < " + first);
+            assertFalse(next.endsWith("0"), next);
+            first = next;
+        }
+        assertTrue(first.length() <= 12, first);
+
+        // Вставки в начало пустого списка подходят к нулю: ключ удлиняется на символ за 35 вставок
+        first = RankKeys.after(null);
+        for (int i = 0; i < 200; i++) {
+            first = RankKeys.before(first);
+        }
+        assertTrue(first.length() <= 8, first);
+    }
+
+    @Test
+    void testRandomInsertsKeepOrder() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>(RankKeys.spread(5));
+        for (int i = 0; i < 2_000; i++) {
+            int index = random.nextInt(keys.size() + 1);
+            String before = index > 0 ? keys.get(index - 1) : null;
+            String after = index < keys.size() ? keys.get(index) : null;
+            keys.add(index, RankKeys.between(before, after));
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0, keys.get(i - 1) + " < " + keys.get(i));
+        }
+    }
+}
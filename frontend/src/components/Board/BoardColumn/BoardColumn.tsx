@@ -86,6 +86,7 @@ export const BoardColumn: React.FC<BoardColumnProps> = (props) => {
     const [isEditingColumn, setIsEditingColumn] = useState(false);
     const [color, setColor] = useState(column.color || '#E0E0E0');
     const [isDragging, setIsDragging] = useState(false);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
     const [isModalOpen, setIsModalOpen] = useState(false);
     const [isDeleteDialogOpen, setIsDeleteDialogOpen] = useState(false);
     // Состояние для отображения уведомления о недостаточных правах
@@ -161,7 +162,8 @@ export const BoardColumn: React.FC<BoardColumnProps> = (props) => {
             
             const updatedColumn = {
                 ...column,
-                tasks: [...column.tasks, response]
+                tasks: [...column.tasks, response],
+                taskCount: column.taskCount !== undefined ? column.taskCount + 1 : undefined
             };
             
             onTasksChange?.(updatedColumn);
@@ -170,6 +172,28 @@ export const BoardColumn: React.FC<BoardColumnProps> = (props) => {
         }
     };
 
+    // Догрузка следующей страницы задач колонки: снимок доски содержит только первые задачи
+    const handleLoadMore = async () => {
+        if (!column.nextCursor || isLoadingMore) {
+            return;
+        }
+        setIsLoadingMore(true);
+        try {
+            const page = await taskService.getColumnTasksPage(Number(column.id), column.nextCursor);
+            const loadedIds = new Set(column.tasks.map(task => task.id));
+            onTasksChange?.({
+                ...column,
+                tasks: [...column.tasks, ...page.tasks.filter(task => !loadedIds.has(task.id))],
+                taskCount: page.taskCount,
+                nextCursor: page.nextCursor
+            });
+        } catch (error) {
+            console.error('Ошибка при загрузке задач колонки:', error);
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
+
     const handleTaskDelete = async (taskId: number) => {
         // Проверка прав перед удалением задачи
         if (!canDeleteTasks()) {
@@ -187,7 +211,8 @@ export const BoardColumn: React.FC<BoardColumnProps> = (props) => {
             
             onTasksChange?.({
                 ...column,
-                tasks: updatedTasks
+                tasks: updatedTasks,
+                taskCount: column.taskCount !== undefined ? Math.max(column.taskCount - 1, updatedTasks.length) : undefined
             });
             
             console.log('BoardColumn: Задача удалена из состояния колонки');
@@ -383,7 +408,7 @@ export const BoardColumn: React.FC<BoardColumnProps> = (props) => {
                 <Box sx={{ display: 'flex', gap: 1 }}>
                     <Chip
                         size="small"
-                        label={column.tasks.length}
+                        label={Math.max(column.taskCount ?? 0, column.tasks.length)}
                         sx={{ 
                             minWidth: 30,
                             bgcolor: isLightColor(color) ? alpha('#000', 0.06) : alpha('#fff', 0.15),
@@ -546,6 +571,20 @@ export const BoardColumn: React.FC<BoardColumnProps> = (props) => {
                 )}
             </Droppable>
 
+            {column.nextCursor && (
+                <Button
+                    fullWidth
+                    size="small"
+                    disabled={isLoadingMore}
+                    onClick={handleLoadMore}
+                    sx={{ color: alpha(color, 0.8), borderRadius: 0 }}
+                >
+                    {isLoadingMore
+                        ? 'Загрузка...'
+                        : `Показать ещё (${Math.max((column.taskCount ?? 0) - column.tasks.length, 0)})`}
+                </Button>
+            )}
+
             <Box
                 sx={{
                     p: isCompactMode ? 1 : 2,
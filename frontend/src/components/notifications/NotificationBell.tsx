@@ -56,8 +56,9 @@ const NotificationBell: React.FC<NotificationBellProps> = ({ token }) => {
         setLoading(true);
         setError(null);
         
-        const data = await NotificationsService.getUnreadNotifications();
-        setNotifications(data);
+        // В списке показываются первые 5; полная лента — на странице уведомлений
+        const page = await NotificationsService.getUnreadNotifications(null, 10);
+        setNotifications(page.content);
       } catch (err) {
         console.error('Error fetching notifications:', err);
         setError('Не удалось загрузить уведомления');
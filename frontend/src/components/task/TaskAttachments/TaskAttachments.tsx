@@ -19,7 +19,6 @@ import {
     Alert,
     Card,
     CardContent,
-    CardMedia,
     CardActionArea,
     CardActions,
     Stack,
@@ -37,6 +36,7 @@ import {
     InputAdornment,
     Skeleton
 } from '@mui/material';
+import { SxProps, Theme } from '@mui/material/styles';
 import AttachFileIcon from '@mui/icons-material/AttachFile';
 import DownloadIcon from '@mui/icons-material/Download';
 import DeleteIcon from '@mui/icons-material/Delete';
@@ -74,7 +74,7 @@ import { Task, TaskAttachment } from '../../../types/task';
 import { ConfirmDialog } from '../../shared/ConfirmDialog';
 import { taskService } from '../../../services/taskService';
 import { formatFileSize } from '../../../utils/fileUtils';
-import { getAttachmentUrl } from '../../../utils/attachmentUtils';
+import { getAttachmentContentUrl, getAttachmentThumbnailUrl, fetchAttachmentBlob, useAttachmentObjectUrl } from '../../../utils/attachmentUtils';
 
 interface TextFilePreviewProps {
     url: string;
@@ -92,12 +92,8 @@ const TextFilePreview: React.FC<TextFilePreviewProps> = ({ url, filename }) => {
                 setLoading(true);
                 setError(null);
                 
-                const response = await fetch(url);
-                if (!response.ok) {
-                    throw new Error('Не удалось загрузить файл');
-                }
-                
-                const text = await response.text();
+                const blob = await fetchAttachmentBlob(url);
+                const text = await blob.text();
                 setContent(text);
             } catch (err) {
                 console.error('Ошибка при загрузке текстового файла:', err);
@@ -154,6 +150,52 @@ const TextFilePreview: React.FC<TextFilePreviewProps> = ({ url, filename }) => {
 
 
 
+interface AttachmentImageProps {
+    url?: string;
+    fallbackUrl?: string;
+    alt: string;
+    sx?: SxProps<Theme>;
+}
+
+// Изображение вложения: содержимое загружается с токеном, поэтому src нельзя указать напрямую
+const AttachmentImage: React.FC<AttachmentImageProps> = ({ url, fallbackUrl, alt, sx }) => {
+    const objectUrl = useAttachmentObjectUrl(url, fallbackUrl);
+
+    if (!objectUrl) {
+        return <Skeleton variant="rectangular" sx={sx} />;
+    }
+    return <Box component="img" src={objectUrl} alt={alt} sx={sx} />;
+};
+
+interface AttachmentVideoProps {
+    url: string;
+    mimeType: string;
+}
+
+const AttachmentVideo: React.FC<AttachmentVideoProps> = ({ url, mimeType }) => {
+    const objectUrl = useAttachmentObjectUrl(url);
+
+    if (!objectUrl) {
+        return <CircularProgress />;
+    }
+    return (
+        <video 
+            controls 
+            style={{ 
+                maxWidth: '100%', 
+                maxHeight: '100%',
+                objectFit: 'contain'
+            }}
+            preload="metadata"
+        >
+            <source src={objectUrl} type={mimeType} />
+            <Typography>
+                Ваш браузер не поддерживает воспроизведение видео.
+            </Typography>
+        </video>
+    );
+};
+
 // Типы для фильтрации и сортировки
 type FileFilter = 'all' | 'images' | 'videos' | 'documents' | 'text' | 'other';
 type SortBy = 'name' | 'size' | 'date' | 'type';
@@ -602,15 +644,9 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
     
     // Функция для принудительного скачивания файла
     const handleDownload = async (attachment: TaskAttachment) => {
-        const url = getAttachmentUrl(attachment.url);
-        if (!url) return;
-        
         try {
-            // Для надёжного скачивания используем fetch + blob
-            const response = await fetch(url);
-            if (!response.ok) throw new Error('Network response was not ok');
-            
-            const blob = await response.blob();
+            // Содержимое доступно только с токеном, поэтому скачиваем через blob
+            const blob = await fetchAttachmentBlob(getAttachmentContentUrl(attachment.id, true));
             const blobUrl = window.URL.createObjectURL(blob);
             
             // Создаем временную ссылку для скачивания
@@ -628,16 +664,7 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
             window.URL.revokeObjectURL(blobUrl);
         } catch (error) {
             console.error('Ошибка при скачивании файла:', error);
-            // Fallback: пробуем старый метод
-            const link = document.createElement('a');
-            link.href = url;
-            link.download = attachment.filename;
-            link.target = '_blank';
-            link.style.display = 'none';
-            
-            document.body.appendChild(link);
-            link.click();
-            document.body.removeChild(link);
+            setError('Не удалось скачать файл');
         }
     };
     
@@ -815,21 +842,17 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
         if (!previewAttachment) return null;
         
         const { filename, mimeType } = previewAttachment;
-        const url = getAttachmentUrl(previewAttachment.url);
+        const url = getAttachmentContentUrl(previewAttachment.id);
         const fileExtension = filename.toLowerCase().split('.').pop();
         
-        if (!url) return (
-            <Typography color="error">Не удалось получить URL вложения</Typography>
-        );
-        
         // Предпросмотр изображений
         if (mimeType.startsWith('image/')) {
             return (
                 <Box sx={{ textAlign: 'center' }}>
-                    <img 
-                        src={url} 
+                    <AttachmentImage 
+                        url={url} 
                         alt={filename} 
-                        style={{ maxWidth: '100%', maxHeight: '70vh', objectFit: 'contain' }} 
+                        sx={{ maxWidth: '100%', maxHeight: '70vh', objectFit: 'contain' }} 
                     />
                 </Box>
             );
@@ -839,20 +862,7 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
         if (mimeType.startsWith('video/')) {
             return (
                 <Box sx={{ textAlign: 'center', height: '70vh', display: 'flex', alignItems: 'center', justifyContent: 'center' }}>
-                    <video 
-                        controls 
-                        style={{ 
-                            maxWidth: '100%', 
-                            maxHeight: '100%',
-                            objectFit: 'contain'
-                        }}
-                        preload="metadata"
-                    >
-                        <source src={url} type={mimeType} />
-                        <Typography>
-                            Ваш браузер не поддерживает воспроизведение видео.
-                        </Typography>
-                    </video>
+                    <AttachmentVideo url={url} mimeType={mimeType} />
                 </Box>
             );
         }
@@ -897,7 +907,7 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
         const fileExtension = getFileExtension(attachment.filename);
         const fileColor = getFileTypeColor(attachment.mimeType);
         const canPreviewFile = canPreview(attachment.mimeType, attachment.filename);
-        const fileUrl = getAttachmentUrl(attachment.url);
+        const fileUrl = isImage ? getAttachmentContentUrl(attachment.id) : undefined;
         
         // Размеры в зависимости от настроек
         const cardSizes = {
@@ -907,6 +917,9 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
         };
         
         const sizes = cardSizes[thumbnailSize];
+        // Миниатюра с сервера, если уже создана; при ошибке загружается исходный файл
+        const previewUrl = fileUrl && (getAttachmentThumbnailUrl(attachment.id, attachment.thumbnails,
+            viewMode === 'grid' ? sizes.imageSize : 60) ?? fileUrl);
         const isSelected = selectedFiles.has(attachment.id);
         
         return (
@@ -964,8 +977,10 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
                     )}
 
                     {isImage && fileUrl ? (
-                        <CardMedia
-                            component="img"
+                        <AttachmentImage
+                            url={previewUrl}
+                            fallbackUrl={fileUrl}
+                            alt={attachment.filename}
                             sx={{ 
                                 width: viewMode === 'grid' ? sizes.imageSize : 60, 
                                 height: viewMode === 'grid' ? sizes.imageSize : 60, 
@@ -973,8 +988,6 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
                                 borderRadius: 1,
                                 flexShrink: 0
                             }}
-                            image={fileUrl}
-                            alt={attachment.filename}
                         />
                     ) : (
                         <Box sx={{ 
@@ -1086,7 +1099,8 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
         const fileExtension = getFileExtension(attachment.filename);
         const fileColor = getFileTypeColor(attachment.mimeType);
         const isImage = attachment.mimeType.startsWith('image/');
-        const fileUrl = getAttachmentUrl(attachment.url);
+        const fileUrl = isImage ? getAttachmentContentUrl(attachment.id) : undefined;
+        const previewUrl = fileUrl && (getAttachmentThumbnailUrl(attachment.id, attachment.thumbnails, 40) ?? fileUrl);
         
         return (
             <React.Fragment key={attachment.id || index}>
@@ -1099,9 +1113,9 @@ export const TaskAttachments: React.FC<TaskAttachmentsProps> = ({ taskId, onTask
                 }}>
                     <ListItemIcon>
                         {isImage && fileUrl ? (
-                            <Box
-                                component="img"
-                                src={fileUrl}
+                            <AttachmentImage
+                                url={previewUrl}
+                                fallbackUrl={fileUrl}
                                 alt={attachment.filename}
                                 sx={{
                                     width: 40,
@@ -34,7 +34,7 @@ import { iconNameToComponent } from '../../shared/IconSelector/iconMapping';
 import { toast } from 'react-hot-toast';
 import { useTaskDelete } from '../../../hooks/useTaskDelete';
 import { useUserRole, Permission } from '../../../hooks/useUserRole';
-import { getAvatarUrl } from '../../../utils/avatarUtils';
+import { getAvatarUrl, getAvatarThumbnailUrl } from '../../../utils/avatarUtils';
 
 interface TaskCardProps {
     task: Task;
@@ -220,7 +220,7 @@ export const TaskCard: React.FC<TaskCardProps> = ({
                 >
                     {assignee.avatarUrl ? (
                         <img 
-                            src={getAvatarUrl(assignee.avatarUrl)} 
+                            src={getAvatarThumbnailUrl(assignee.avatarUrl, assignee.avatarThumbnails, size)} 
                             alt={assignee.username}
                             style={{
                                 width: '100%',
@@ -229,6 +229,12 @@ export const TaskCard: React.FC<TaskCardProps> = ({
                                 display: 'block'
                             }}
                             onError={(e) => {
+                                // Миниатюра недоступна — пробуем исходный аватар
+                                const originalUrl = getAvatarUrl(assignee.avatarUrl);
+                                if (originalUrl && e.currentTarget.src !== originalUrl) {
+                                    e.currentTarget.src = originalUrl;
+                                    return;
+                                }
                                 console.error('Ошибка загрузки аватара:', assignee.avatarUrl);
                                 // При ошибке показываем инициалы
                                 e.currentTarget.style.display = 'none';
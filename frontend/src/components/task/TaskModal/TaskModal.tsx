@@ -71,7 +71,7 @@ import { useUserRole, Permission } from '../../../hooks/useUserRole';
 import { boardService } from '../../../services/boardService';
 import { useRoleContext } from '../../../contexts/RoleContext';
 import { BoardMembersService } from '../../../services/BoardMembersService';
-import { getAvatarUrl } from '../../../utils/avatarUtils';
+import { getAvatarUrl, getAvatarThumbnailUrl } from '../../../utils/avatarUtils';
 import { TextRenderer } from '../../../utils/textUtils';
 
 interface TabPanelProps {
@@ -1020,7 +1020,7 @@ export const TaskModal: React.FC<TaskModalProps> = ({
                         avatar={
                             task.assignee.avatarUrl ? (
                                 <img 
-                                    src={getAvatarUrl(task.assignee.avatarUrl)} 
+                                    src={getAvatarThumbnailUrl(task.assignee.avatarUrl, task.assignee.avatarThumbnails, 24)} 
                                     alt={task.assignee.username}
                                     style={{
                                         width: 24,
@@ -1028,6 +1028,12 @@ export const TaskModal: React.FC<TaskModalProps> = ({
                                         borderRadius: '50%'
                                     }}
                                     onError={(e) => {
+                                        // Миниатюра недоступна — пробуем исходный аватар
+                                        const originalUrl = getAvatarUrl(task.assignee?.avatarUrl);
+                                        if (originalUrl && e.currentTarget.src !== originalUrl) {
+                                            e.currentTarget.src = originalUrl;
+                                            return;
+                                        }
                                         console.error('Ошибка загрузки аватара в TaskModal:', task.assignee?.avatarUrl);
                                         e.currentTarget.style.display = 'none';
                                     }}
@@ -9,7 +9,6 @@ import {
   Button, 
   CircularProgress,
   Alert,
-  Pagination,
   Tabs,
   Tab,
   FormControl,
@@ -35,9 +34,8 @@ const NotificationsPage: React.FC = () => {
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [loading, setLoading] = useState<boolean>(false);
   const [error, setError] = useState<string | null>(null);
-  const [page, setPage] = useState<number>(1);
-  const [totalPages, setTotalPages] = useState<number>(1);
-  const [totalElements, setTotalElements] = useState<number>(0);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState<boolean>(false);
   const [markingAsRead, setMarkingAsRead] = useState<boolean>(false);
   const [currentTab, setCurrentTab] = useState<'active' | 'archived'>('active');
   const [searchTerm, setSearchTerm] = useState<string>('');
@@ -47,6 +45,33 @@ const NotificationsPage: React.FC = () => {
   const [refreshing, setRefreshing] = useState<boolean>(false);
   const navigate = useNavigate();
   
+  // Загрузка страницы ленты текущей вкладки после курсора (без курсора — первая страница)
+  const fetchPage = (cursor: string | null) => currentTab === 'archived'
+    ? NotificationsService.getArchivedNotifications(cursor)
+    : NotificationsService.getNotifications(cursor);
+  
+  // Фильтрация загруженной страницы по приоритету и тексту
+  const applyFilters = (items: Notification[]) => {
+    let filteredNotifications = items;
+    
+    // Фильтрация по приоритету
+    if (priorityFilter !== 'all') {
+      filteredNotifications = filteredNotifications.filter(
+        n => n.priority === priorityFilter
+      );
+    }
+    
+    // Поиск по тексту
+    if (searchTerm) {
+      filteredNotifications = filteredNotifications.filter(
+        n => n.title.toLowerCase().includes(searchTerm.toLowerCase()) ||
+             n.message.toLowerCase().includes(searchTerm.toLowerCase())
+      );
+    }
+    
+    return filteredNotifications;
+  };
+  
   // Загрузка уведомлений
   useEffect(() => {
     const fetchNotifications = async () => {
@@ -54,33 +79,9 @@ const NotificationsPage: React.FC = () => {
         setLoading(true);
         setError(null);
         
-        let response;
-        if (currentTab === 'archived') {
-          response = await NotificationsService.getArchivedNotifications(page - 1);
-        } else {
-          response = await NotificationsService.getNotifications(page - 1);
-        }
-        
-        let filteredNotifications = response.content;
-        
-        // Фильтрация по приоритету
-        if (priorityFilter !== 'all') {
-          filteredNotifications = filteredNotifications.filter(
-            n => n.priority === priorityFilter
-          );
-        }
-        
-        // Поиск по тексту
-        if (searchTerm) {
-          filteredNotifications = filteredNotifications.filter(
-            n => n.title.toLowerCase().includes(searchTerm.toLowerCase()) ||
-                 n.message.toLowerCase().includes(searchTerm.toLowerCase())
-          );
-        }
-        
-        setNotifications(filteredNotifications);
-        setTotalPages(response.totalPages);
-        setTotalElements(response.totalElements);
+        const response = await fetchPage(null);
+        setNotifications(applyFilters(response.content));
+        setNextCursor(response.nextCursor);
       } catch (err) {
         console.error('Error fetching notifications:', err);
         
@@ -95,7 +96,7 @@ const NotificationsPage: React.FC = () => {
     };
     
     fetchNotifications();
-  }, [page, currentTab, priorityFilter, searchTerm]);
+  }, [currentTab, priorityFilter, searchTerm]);
 
   // Функция принудительного обновления уведомлений
   const handleRefresh = async () => {
@@ -103,33 +104,9 @@ const NotificationsPage: React.FC = () => {
       setRefreshing(true);
       setError(null);
       
-      let response;
-      if (currentTab === 'archived') {
-        response = await NotificationsService.getArchivedNotifications(page - 1);
-      } else {
-        response = await NotificationsService.getNotifications(page - 1);
-      }
-      
-      let filteredNotifications = response.content;
-      
-      // Фильтрация по приоритету
-      if (priorityFilter !== 'all') {
-        filteredNotifications = filteredNotifications.filter(
-          n => n.priority === priorityFilter
-        );
-      }
-      
-      // Поиск по тексту
-      if (searchTerm) {
-        filteredNotifications = filteredNotifications.filter(
-          n => n.title.toLowerCase().includes(searchTerm.toLowerCase()) ||
-               n.message.toLowerCase().includes(searchTerm.toLowerCase())
-        );
-      }
-      
-      setNotifications(filteredNotifications);
-      setTotalPages(response.totalPages);
-      setTotalElements(response.totalElements);
+      const response = await fetchPage(null);
+      setNotifications(applyFilters(response.content));
+      setNextCursor(response.nextCursor);
       
       // Обновляем счетчик уведомлений
       const newCount = await NotificationsService.getUnreadCount();
@@ -286,14 +263,28 @@ const NotificationsPage: React.FC = () => {
   // Обработчик изменения вкладки
   const handleTabChange = (_: React.SyntheticEvent, newValue: 'active' | 'archived') => {
     setCurrentTab(newValue);
-    setPage(1); // Сбрасываем страницу при смене вкладки
     setSelectedNotifications(new Set()); // Очищаем выбранные уведомления
   };
   
-  // Обработчик изменения страницы
-  const handlePageChange = (_: React.ChangeEvent<unknown>, value: number) => {
-    setPage(value);
-    setSelectedNotifications(new Set()); // Очищаем выбранные уведомления
+  // Догрузка следующей страницы после последнего загруженного уведомления
+  const handleLoadMore = async () => {
+    if (!nextCursor || loadingMore) {
+      return;
+    }
+    try {
+      setLoadingMore(true);
+      const response = await fetchPage(nextCursor);
+      setNotifications(prev => {
+        const existingIds = new Set(prev.map(n => n.id));
+        return [...prev, ...applyFilters(response.content).filter(n => !existingIds.has(n.id))];
+      });
+      setNextCursor(response.nextCursor);
+    } catch (err) {
+      console.error('Error loading more notifications:', err);
+      setError('Не удалось загрузить уведомления. Пожалуйста, попробуйте позже.');
+    } finally {
+      setLoadingMore(false);
+    }
   };
   
   const getPriorityLabel = (priority: string) => {
@@ -585,14 +576,16 @@ const NotificationsPage: React.FC = () => {
               ))}
             </List>
             
-            {totalPages > 1 && (
+            {nextCursor && (
               <Box display="flex" justifyContent="center" mt={2}>
-                <Pagination
-                  count={totalPages}
-                  page={page}
-                  onChange={handlePageChange}
-                  color="primary"
-                />
+                <Button
+                  variant="outlined"
+                  onClick={handleLoadMore}
+                  disabled={loadingMore}
+                  startIcon={loadingMore ? <CircularProgress size={16} /> : undefined}
+                >
+                  Загрузить ещё
+                </Button>
               </Box>
             )}
           </>
@@ -3,6 +3,7 @@ import {
   Notification, 
   NotificationCountResponse, 
   MarkAllAsReadResponse, 
+  NotificationPage,
   NotificationPreferences 
 } from '../types/Notification';
 
@@ -12,44 +13,40 @@ import {
 export class NotificationsService {
   /**
    * Получает уведомления пользователя
-   * @param page номер страницы
-   * @param size размер страницы
+   * @param cursor курсор nextCursor предыдущей страницы; без него — первая страница
+   * @param limit размер страницы
    * @returns страница с уведомлениями
    */
-  static async getNotifications(page: number = 0, size: number = 20): Promise<{
-    content: Notification[];
-    totalElements: number;
-    totalPages: number;
-    size: number;
-    number: number;
-  }> {
-    const response = await axiosInstance.get(`/api/notifications?page=${page}&size=${size}`);
+  static async getNotifications(cursor?: string | null, limit: number = 20): Promise<NotificationPage> {
+    const response = await axiosInstance.get<NotificationPage>('/api/notifications', {
+      params: { cursor: cursor || undefined, limit }
+    });
     return response.data;
   }
   
   /**
    * Получает архивированные уведомления пользователя
-   * @param page номер страницы
-   * @param size размер страницы
+   * @param cursor курсор nextCursor предыдущей страницы; без него — первая страница
+   * @param limit размер страницы
    * @returns страница с архивированными уведомлениями
    */
-  static async getArchivedNotifications(page: number = 0, size: number = 20): Promise<{
-    content: Notification[];
-    totalElements: number;
-    totalPages: number;
-    size: number;
-    number: number;
-  }> {
-    const response = await axiosInstance.get(`/api/notifications/archived?page=${page}&size=${size}`);
+  static async getArchivedNotifications(cursor?: string | null, limit: number = 20): Promise<NotificationPage> {
+    const response = await axiosInstance.get<NotificationPage>('/api/notifications/archived', {
+      params: { cursor: cursor || undefined, limit }
+    });
     return response.data;
   }
   
   /**
-   * Получает непрочитанные уведомления пользователя
-   * @returns список непрочитанных уведомлений
+   * Получает непрочитанные уведомления пользователя, сначала более приоритетные
+   * @param cursor курсор nextCursor предыдущей страницы; без него — первая страница
+   * @param limit размер страницы
+   * @returns страница с непрочитанными уведомлениями
    */
-  static async getUnreadNotifications(): Promise<Notification[]> {
-    const response = await axiosInstance.get('/api/notifications/unread');
+  static async getUnreadNotifications(cursor?: string | null, limit: number = 50): Promise<NotificationPage> {
+    const response = await axiosInstance.get<NotificationPage>('/api/notifications/unread', {
+      params: { cursor: cursor || undefined, limit }
+    });
     return response.data;
   }
   
@@ -21,7 +21,26 @@ interface MoveTaskRequest {
     statusId?: number | null;
 }
 
+export interface ColumnTasksPage {
+    columnId: number;
+    tasks: Task[];
+    taskCount: number;
+    nextCursor: string | null;
+}
+
 export const taskService = {
+    async getColumnTasksPage(columnId: number, after?: string | null, limit = 50): Promise<ColumnTasksPage> {
+        try {
+            const response = await axiosInstance.get(`/api/columns/${columnId}/tasks`, {
+                params: { after: after || undefined, limit }
+            });
+            return response.data;
+        } catch (error) {
+            console.error('Ошибка при загрузке задач колонки:', error);
+            throw error;
+        }
+    },
+
     async getTasksByColumn(columnId: number): Promise<Task[]> {
         try {
             const response = await axiosInstance.get(`/api/tasks/column/${columnId}`);
@@ -60,6 +60,14 @@ export interface NotificationCountResponse {
   count: number;
 }
 
+/**
+ * Страница ленты уведомлений с курсором следующей страницы
+ */
+export interface NotificationPage {
+  content: Notification[];
+  nextCursor: string | null;
+}
+
 /**
  * Интерфейс ответа на отметку всех уведомлений как прочитанных
  */
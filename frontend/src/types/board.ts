@@ -40,6 +40,10 @@ export interface Column {
     position: number;
     tasks: Task[];
     color?: string;
+    // Всего задач в колонке; в снимке доски приходят только первые из них
+    taskCount?: number;
+    // Курсор для догрузки следующих задач; отсутствует, если загружены все
+    nextCursor?: string | null;
 }
 
 export namespace Board {
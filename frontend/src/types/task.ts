@@ -27,6 +27,8 @@ export interface TaskAttachment {
     mimeType: string;
     createdAt: string;
     url: string;
+    // Размер в пикселях -> путь к миниатюре; появляется после фоновой обработки изображения
+    thumbnails?: Record<string, string>;
     uploadedBy: {
         id: number;
         username: string;
@@ -97,6 +99,7 @@ export interface Task {
         id: number;
         username: string;
         avatarUrl?: string;
+        avatarThumbnails?: Record<string, string>;
         email?: string;
         displayName?: string;
     };
@@ -1,54 +1,97 @@
+import { useEffect, useState } from 'react';
 import { api } from '../api/api';
 
 /**
- * Функция для формирования полного URL вложения на основе относительного пути
- * Аналогично avatarUtils, но для вложений к задачам
- * 
- * @param url Относительный путь к вложению
- * @returns Полный URL вложения для отображения, скачивания и предпросмотра
+ * Путь к содержимому вложения. Файлы вложений не раздаются статикой:
+ * сервер проверяет доступ к доске, поэтому запрос должен идти с токеном
+ *
+ * @param id ID вложения
+ * @param download true — отдать как файл для сохранения
+ * @returns путь к содержимому относительно backend API
  */
-export const getAttachmentUrl = (url?: string): string | undefined => {
-  console.log('getAttachmentUrl исходный URL:', url);
-  
-  if (!url) return undefined;
-  
-  // Если это абсолютный URL или data URL, возвращаем как есть
-  if (url.startsWith('http') || url.startsWith('data:')) {
-    console.log('getAttachmentUrl: возвращаем абсолютный URL как есть');
-    return url;
-  }
-  
-  // Если это URL с /uploads/ или содержит uploads/attachments (загруженный файл)
-  if (url.startsWith('/uploads/') || url.includes('uploads/attachments/')) {
-    console.log('getAttachmentUrl: файл из uploads, формируем полный URL с baseURL API');
-    
-    // Нормализуем путь - убеждаемся, что он начинается с /
-    let normalizedPath = url;
-    if (url.includes('uploads/attachments/') && !url.startsWith('/')) {
-      normalizedPath = '/' + url.substring(url.indexOf('uploads/attachments/'));
-    }
-    
-    // Удаляем дублирующийся слеш, если есть
-    if (normalizedPath.startsWith('//')) {
-      normalizedPath = normalizedPath.substring(1);
+export const getAttachmentContentUrl = (id: number, download = false): string => {
+  return `/api/attachments/${id}/content${download ? '?download=true' : ''}`;
+};
+
+/**
+ * Путь к миниатюре изображения-вложения подходящего размера с учетом плотности экрана.
+ * Пока миниатюры не созданы, возвращает undefined — показывается исходный файл
+ *
+ * @param id ID вложения
+ * @param thumbnails миниатюры вложения: размер в пикселях -> путь
+ * @param displaySize размер области отображения в CSS-пикселях
+ * @returns путь к миниатюре относительно backend API или undefined
+ */
+export const getAttachmentThumbnailUrl = (
+  id: number,
+  thumbnails: Record<string, string> | undefined,
+  displaySize: number
+): string | undefined => {
+  const target = displaySize * (window.devicePixelRatio || 1);
+  const size = Object.keys(thumbnails ?? {})
+    .map(Number)
+    .filter(value => !Number.isNaN(value))
+    .sort((a, b) => a - b)
+    .find(value => value >= target);
+  return size ? `/api/attachments/${id}/thumbnail?size=${size}` : undefined;
+};
+
+/**
+ * Загружает содержимое вложения с токеном авторизации
+ *
+ * @param url путь из getAttachmentContentUrl
+ * @returns содержимое файла
+ */
+export const fetchAttachmentBlob = async (url: string): Promise<Blob> => {
+  const response = await api.get<Blob>(url, {
+    responseType: 'blob',
+    headers: { Accept: '*/*' },
+    // Большие файлы не укладываются в общий таймаут API
+    timeout: 0
+  });
+  return response.data;
+};
+
+/**
+ * Object URL содержимого вложения для img, video и ссылок скачивания.
+ * URL освобождается при смене вложения и размонтировании компонента
+ *
+ * @param url путь из getAttachmentContentUrl или undefined, если загружать нечего
+ * @param fallbackUrl путь, который загружается, если url недоступен (исходный файл вместо миниатюры)
+ * @returns object URL или undefined, пока содержимое не загружено
+ */
+export const useAttachmentObjectUrl = (url?: string, fallbackUrl?: string): string | undefined => {
+  const [objectUrl, setObjectUrl] = useState<string | undefined>(undefined);
+
+  useEffect(() => {
+    if (!url) {
+      setObjectUrl(undefined);
+      return;
     }
-    
-    // Добавляем baseURL API
-    const result = `${api.defaults.baseURL}${normalizedPath}`;
-    console.log('getAttachmentUrl: сформированный URL:', result);
-    return result;
-  }
-  
-  // Если это просто имя файла без пути, предполагаем что это вложение из uploads/attachments
-  if (!url.includes('/')) {
-    console.log('getAttachmentUrl: просто имя файла, предполагаем путь /uploads/attachments/');
-    const result = `${api.defaults.baseURL}/uploads/attachments/${url}`;
-    console.log('getAttachmentUrl: сформированный URL:', result);
-    return result;
-  }
-  
-  // В остальных случаях предполагаем, что это URL относительно backend API
-  const result = `${api.defaults.baseURL}${url.startsWith('/') ? '' : '/'}${url}`;
-  console.log('getAttachmentUrl: относительный URL API, сформированный URL:', result);
-  return result;
-}; 
\ No newline at end of file
+
+    let cancelled = false;
+    let created: string | undefined;
+
+    fetchAttachmentBlob(url)
+      .catch(err => {
+        if (!fallbackUrl || fallbackUrl === url) throw err;
+        return fetchAttachmentBlob(fallbackUrl);
+      })
+      .then(blob => {
+        if (cancelled) return;
+        created = URL.createObjectURL(blob);
+        setObjectUrl(created);
+      })
+      .catch(err => {
+        console.error('Ошибка при загрузке вложения:', err);
+        if (!cancelled) setObjectUrl(undefined);
+      });
+
+    return () => {
+      cancelled = true;
+      if (created) URL.revokeObjectURL(created);
+    };
+  }, [url, fallbackUrl]);
+
+  return objectUrl;
+};
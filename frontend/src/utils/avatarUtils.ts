@@ -60,4 +60,26 @@ export const getAvatarUrl = (url?: string): string | undefined => {
   const result = `${api.defaults.baseURL}${url.startsWith('/') ? '' : '/'}${url}`;
   console.log('getAvatarUrl: относительный URL API, сформированный URL:', result);
   return result;
-}; 
\ No newline at end of file
+}; 
+/**
+ * URL миниатюры аватара, подходящей для области отображения с учетом плотности экрана.
+ * Если миниатюры еще не созданы или нужного размера нет, возвращается исходный аватар
+ *
+ * @param url Относительный путь к исходному аватару
+ * @param thumbnails Миниатюры аватара: размер в пикселях -> путь
+ * @param displaySize Размер аватара на странице в CSS-пикселях
+ * @returns Полный URL миниатюры или исходного аватара
+ */
+export const getAvatarThumbnailUrl = (
+  url?: string,
+  thumbnails?: Record<string, string>,
+  displaySize = 32
+): string | undefined => {
+  const target = displaySize * (window.devicePixelRatio || 1);
+  const size = Object.keys(thumbnails ?? {})
+    .map(Number)
+    .filter(value => !Number.isNaN(value))
+    .sort((a, b) => a - b)
+    .find(value => value >= target);
+  return getAvatarUrl(size && thumbnails ? thumbnails[String(size)] : url);
+};
@@ -5,6 +5,7 @@ import ImageIcon from '@mui/icons-material/Image';
 import VideoFileIcon from '@mui/icons-material/VideoFile';
 import PictureAsPdfIcon from '@mui/icons-material/PictureAsPdf';
 import { taskService } from '../services/taskService';
+import { getAttachmentContentUrl } from './attachmentUtils';
 
 interface TextRendererProps {
     content: string;
@@ -58,7 +59,7 @@ export const TextRenderer: React.FC<TextRendererProps> = ({
             onAttachmentAdd(attachment);
             
             // Возвращаем URL для вставки в текст
-            return attachment.url || `/api/tasks/${taskId}/attachments/${attachment.id}/download`;
+            return getAttachmentContentUrl(attachment.id);
         } catch (error) {
             console.error('Ошибка загрузки файла:', error);
             throw error;
@@ -467,7 +468,7 @@ export const EnhancedRichTextEditor: React.FC<{
                 onAttachmentAdd(attachment);
                 
                 // Вставляем ссылку на файл в текст
-                const fileHtml = createFileHtml(file.name, attachment.url || '', file.type);
+                const fileHtml = createFileHtml(file.name, getAttachmentContentUrl(attachment.id), file.type);
                 onChange(value + ' ' + fileHtml);
             }
         } catch (error) {